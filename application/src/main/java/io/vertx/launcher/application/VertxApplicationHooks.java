@@ -65,6 +65,36 @@ public interface VertxApplicationHooks {
   default void beforeStartingVertx(HookContext context) {
   }
 
+  /**
+   * Asynchronous variant of {@link #beforeStartingVertx(HookContext)}, invoked right after it.
+   * <p>
+   * The returned future completes concurrently with the creation of the Vert.x instance (and the cluster join), and is
+   * awaited before {@link #afterVertxStarted(HookContext)} is invoked. It suits initialization doing I/O, such as
+   * fetching certificates. The {@link HookContext#vertxOptions()} must not be modified by the asynchronous part.
+   *
+   * @param context exposes objects available at this stage of the {@link VertxApplication} launch process
+   * @return a future completed once the initialization is done, a failure prevents the application from starting
+   */
+  default Future<Void> beforeStartingVertxAsync(HookContext context) {
+    return Future.succeededFuture();
+  }
+
+  /**
+   * Invoked before starting Vert.x, to prepare the deployment of the main verticle, for example warming a cache from
+   * disk.
+   * <p>
+   * The returned future completes concurrently with the creation of the Vert.x instance (and the cluster join), and is
+   * awaited before {@link #beforeDeployingVerticle(HookContext)} is invoked. As it is invoked before Vert.x is created,
+   * {@link HookContext#vertx()} and {@link HookContext#deploymentOptions()} are {@code null}: only
+   * {@link HookContext#vertxOptions()} is available.
+   *
+   * @param context exposes objects available at this stage of the {@link VertxApplication} launch process
+   * @return a future completed once the deployment can proceed, a failure fails the deployment
+   */
+  default Future<Void> beforeDeployingVerticleAsync(HookContext context) {
+    return Future.succeededFuture();
+  }
+
   /**
    * Default implementation for the {@link VertxBuilder} creation.
    * <p>
@@ -122,6 +152,30 @@ public interface VertxApplicationHooks {
   default void afterVerticleDeployed(HookContext context) {
   }
 
+  /**
+   * Invoked after the verticle has been deployed, to warm up the application before it is ready, for example by
+   * replaying recorded HTTP requests or event-bus messages against the deployed verticles.
+   * <p>
+   * The returned action is invoked repeatedly, each invocation waiting for the future of the previous one, until the
+   * JIT compilation activity settles or the warm-up duration ({@code --warm-up-duration}) has elapsed. A failure stops
+   * the warm-up, the application is still started.
+   *
+   * @param context exposes objects available at this stage of the {@link VertxApplication} launch process
+   * @return the warm-up action, or {@code null} (the default) to skip the warm-up
+   */
+  default Supplier<? extends Future<?>> warmUpAction(HookContext context) {
+    return null;
+  }
+
+  /**
+   * Invoked when the application is ready to serve traffic, once the verticle has been deployed and the application
+   * warmed up (see {@link #warmUpAction(HookContext)}).
+   *
+   * @param context exposes objects available at this stage of the {@link VertxApplication} launch process
+   */
+  default void afterApplicationReady(HookContext context) {
+  }
+
   /**
    * Invoked after the verticle has failed to be deployed.
    * <p>
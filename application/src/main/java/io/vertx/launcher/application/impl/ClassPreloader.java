@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.launcher.application.impl;
+
+import io.vertx.core.internal.logging.Logger;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records the classes loaded while an application starts, and preloads them on the next starts.
+ * <p/>
+ * When the class list does not exist, the {@code jdk.ClassLoad} events are recorded with JFR until the application is
+ * started, and the loaded classes are written to the list, in loading order. Otherwise, the classes of the list are
+ * loaded on a few background threads while Vert.x starts (and joins the cluster), so class loading overlaps with the
+ * startup I/O instead of sitting on the critical path. Classes are loaded without being initialized. Classes missing
+ * from the current classpath are ignored, delete the list to record it again.
+ */
+public final class ClassPreloader {
+
+  private static final String HEADER = "# Classes loaded during the application startup";
+  private static final int CHUNK = 64;
+
+  private final File list;
+  private final Logger log;
+  private final long begin = System.nanoTime();
+  private Recording recording;
+  private ExecutorService executor;
+  private volatile boolean completed;
+  private final AtomicInteger loaded = new AtomicInteger();
+  private int total;
+
+  private ClassPreloader(File list, Logger log) {
+    this.list = list;
+    this.log = log;
+  }
+
+  /**
+   * Starts recording the loaded classes if the list does not exist, or preloading the classes of the list.
+   *
+   * @param list   the class list
+   * @param loader the classloader loading the classes
+   * @param log    the logger
+   * @return the preloader, {@code null} if the classes cannot be recorded or preloaded
+   */
+  public static ClassPreloader start(File list, ClassLoader loader, Logger log) {
+    ClassPreloader preloader = new ClassPreloader(list, log);
+    try {
+      if (list.isFile()) {
+        preloader.replay(loader);
+      } else {
+        preloader.record();
+      }
+      return preloader;
+    } catch (IOException e) {
+      log.warn("Cannot read the class list " + list, e);
+    } catch (LinkageError | RuntimeException e) {
+      // The JFR module is not available.
+      log.warn("Cannot record the classes loaded during the startup", e);
+    }
+    return null;
+  }
+
+  private void record() {
+    Recording recording = new Recording();
+    recording.setName("vertx-class-preloader");
+    recording.enable("jdk.ClassLoad").withoutThreshold().withoutStackTrace();
+    recording.start();
+    this.recording = recording;
+  }
+
+  private void replay(ClassLoader loader) throws IOException {
+    List<String> names = read(list);
+    total = names.size();
+    int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+    executor = Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(runnable, "vertx-class-preloader");
+      thread.setDaemon(true);
+      thread.setPriority(Thread.MIN_PRIORITY);
+      return thread;
+    });
+    // Threads take chunks of the list in order, so classes are mostly loaded after their dependencies.
+    AtomicInteger cursor = new AtomicInteger();
+    for (int i = 0; i < threads; i++) {
+      executor.execute(() -> {
+        int from;
+        while (!completed && (from = cursor.getAndAdd(CHUNK)) < names.size()) {
+          for (String name : names.subList(from, Math.min(from + CHUNK, names.size()))) {
+            try {
+              Class.forName(name, false, loader);
+              loaded.incrementAndGet();
+            } catch (ClassNotFoundException | LinkageError e) {
+              // The class is not in the classpath anymore, or cannot be loaded yet.
+            }
+          }
+        }
+      });
+    }
+    executor.shutdown();
+  }
+
+  /**
+   * Completes the recording or the preloading, once the application is started. The recorded classes are written to
+   * the class list.
+   */
+  public synchronized void complete() {
+    if (completed) {
+      return;
+    }
+    completed = true;
+    if (executor != null) {
+      executor.shutdownNow();
+      log.debug("Preloaded " + loaded.get() + " of " + total + " classes from " + list + " in "
+        + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin) + " ms");
+      return;
+    }
+    try {
+      List<String> names = stop(recording);
+      write(list, names);
+      log.info("Recorded " + names.size() + " classes loaded during the startup in " + list);
+    } catch (IOException e) {
+      log.warn("Cannot write the class list " + list, e);
+    }
+  }
+
+  /**
+   * @return the number of classes preloaded so far
+   */
+  int loaded() {
+    return loaded.get();
+  }
+
+  private static List<String> stop(Recording recording) throws IOException {
+    recording.stop();
+    Path dump = Files.createTempFile("vertx-classes", ".jfr");
+    try {
+      recording.dump(dump);
+      List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+      // Events are committed once the class is loaded, so a class comes after the classes it depends on.
+      events.sort(Comparator.comparing(RecordedEvent::getEndTime));
+      Set<String> names = new LinkedHashSet<>();
+      for (RecordedEvent event : events) {
+        RecordedClass loaded = event.getClass("loadedClass");
+        if (loaded != null && isPreloadable(loaded.getName())) {
+          names.add(loaded.getName());
+        }
+      }
+      return new ArrayList<>(names);
+    } finally {
+      recording.close();
+      Files.deleteIfExists(dump);
+    }
+  }
+
+  /**
+   * @param name the class name
+   * @return whether the class can be loaded by name, hidden classes, lambdas and proxies cannot
+   */
+  static boolean isPreloadable(String name) {
+    return !name.startsWith("[") && name.indexOf('/') < 0 && !name.contains("$$Lambda")
+      && !name.startsWith("jdk.internal.reflect.Generated") && !name.startsWith("com.sun.proxy.")
+      && !name.startsWith("jdk.proxy");
+  }
+
+  static List<String> read(File list) throws IOException {
+    List<String> names = new ArrayList<>();
+    for (String line : Files.readAllLines(list.toPath(), StandardCharsets.UTF_8)) {
+      line = line.trim();
+      if (!line.isEmpty() && !line.startsWith("#")) {
+        names.add(line);
+      }
+    }
+    return names;
+  }
+
+  static void write(File list, List<String> names) throws IOException {
+    File dir = list.getAbsoluteFile().getParentFile();
+    dir.mkdirs();
+    Path tmp = Files.createTempFile(dir.toPath(), list.getName(), ".tmp");
+    List<String> lines = new ArrayList<>(names.size() + 1);
+    lines.add(HEADER);
+    lines.addAll(names);
+    Files.write(tmp, lines, StandardCharsets.UTF_8);
+    Files.move(tmp, list.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.launcher.application.impl;
+
+import jdk.jfr.*;
+
+/**
+ * The JFR event reporting the lag of an event loop during a reporting interval of the {@link EventLoopLagProbe}.
+ */
+@Name("io.vertx.EventLoopLag")
+@Label("Event Loop Lag")
+@Category("Vert.x")
+@Description("Distribution of the scheduling delay of an event loop during the reporting interval")
+@StackTrace(false)
+final class EventLoopLagEvent extends Event {
+
+  @Label("Event Loop")
+  String eventLoop;
+
+  @Label("Samples")
+  long samples;
+
+  @Label("50th Percentile")
+  @Timespan(Timespan.MICROSECONDS)
+  long p50;
+
+  @Label("90th Percentile")
+  @Timespan(Timespan.MICROSECONDS)
+  long p90;
+
+  @Label("99th Percentile")
+  @Timespan(Timespan.MICROSECONDS)
+  long p99;
+
+  @Label("99.9th Percentile")
+  @Timespan(Timespan.MICROSECONDS)
+  long p999;
+
+  @Label("Maximum")
+  @Timespan(Timespan.MICROSECONDS)
+  long max;
+
+  static void commit(String eventLoop, EventLoopLagProbe.Histogram histogram) {
+    EventLoopLagEvent event = new EventLoopLagEvent();
+    if (event.isEnabled()) {
+      event.eventLoop = eventLoop;
+      event.samples = histogram.count();
+      event.p50 = histogram.percentile(0.5);
+      event.p90 = histogram.percentile(0.9);
+      event.p99 = histogram.percentile(0.99);
+      event.p999 = histogram.percentile(0.999);
+      event.max = histogram.max();
+      event.commit();
+    }
+  }
+}
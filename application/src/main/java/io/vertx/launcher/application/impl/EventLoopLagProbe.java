@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.launcher.application.impl;
+
+import io.netty.util.concurrent.EventExecutor;
+import io.vertx.core.internal.VertxInternal;
+import io.vertx.core.internal.logging.Logger;
+import io.vertx.core.json.JsonObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Measures the scheduling delay (lag) of the event loops of a Vert.x instance.
+ * <p/>
+ * A task is scheduled every {@value #PERIOD} ms on each event loop, and records how late it runs in a histogram of the
+ * event loop; a stall longer than the period also records the samples it has prevented. A histogram is only written by
+ * its event loop, with atomic increments, so sampling never blocks. Every reporting interval, the histograms are
+ * drained: the percentiles of the interval are logged and committed as {@code io.vertx.EventLoopLag} JFR events (when
+ * JFR is available), and added to the totals since the probe started.
+ * <p/>
+ * Unlike the blocked thread checker ({@code VertxOptions#setMaxEventLoopExecuteTime}), which only reports the
+ * egregious stalls, the probe gives the distribution of the lag, to tune the number of verticle instances and the
+ * offloading to workers.
+ */
+public final class EventLoopLagProbe {
+
+  /**
+   * The sampling period, in milliseconds.
+   */
+  static final long PERIOD = 100;
+
+  private static final boolean JFR = isJfrAvailable();
+
+  private final VertxInternal vertx;
+  private final Logger log;
+  private final long reportInterval;
+  private final List<Sampler> samplers = new ArrayList<>();
+  private long timer;
+  private volatile boolean closed;
+
+  private EventLoopLagProbe(VertxInternal vertx, long reportInterval, Logger log) {
+    this.vertx = vertx;
+    this.reportInterval = reportInterval;
+    this.log = log;
+  }
+
+  /**
+   * Starts probing the event loops.
+   *
+   * @param vertx          the vert.x instance
+   * @param reportInterval the reporting interval, in milliseconds
+   * @param log            the logger receiving the reports
+   * @return the probe
+   */
+  public static EventLoopLagProbe start(VertxInternal vertx, long reportInterval, Logger log) {
+    EventLoopLagProbe probe = new EventLoopLagProbe(vertx, reportInterval, log);
+    int index = 0;
+    for (EventExecutor loop : vertx.nettyEventLoopGroup()) {
+      probe.samplers.add(probe.new Sampler(loop, "vert.x-eventloop-" + index++));
+    }
+    probe.samplers.forEach(Sampler::schedule);
+    probe.timer = vertx.setPeriodic(reportInterval, id -> probe.report());
+    log.info("Probing the lag of " + probe.samplers.size() + " event loops, reporting every " + reportInterval + " ms");
+    return probe;
+  }
+
+  /**
+   * Drains the histograms of the event loops, and reports the lag of the interval.
+   */
+  synchronized void report() {
+    for (Sampler sampler : samplers) {
+      Histogram interval = new Histogram();
+      sampler.live.drainTo(interval);
+      sampler.total.add(interval);
+      sampler.last = interval;
+      if (interval.count() == 0) {
+        continue;
+      }
+      log.info("Event loop lag of " + sampler.name + " in the last " + reportInterval + " ms (us): p50="
+        + interval.percentile(0.5) + " p90=" + interval.percentile(0.9) + " p99=" + interval.percentile(0.99)
+        + " p99.9=" + interval.percentile(0.999) + " max=" + interval.max() + " (" + interval.count() + " samples)");
+      if (JFR) {
+        EventLoopLagEvent.commit(sampler.name, interval);
+      }
+    }
+  }
+
+  /**
+   * @return the lag percentiles of each event loop, for the last reporting interval and since the probe started
+   */
+  public synchronized JsonObject toJson() {
+    JsonObject loops = new JsonObject();
+    for (Sampler sampler : samplers) {
+      loops.put(sampler.name, new JsonObject()
+        .put("interval", sampler.last.toJson())
+        .put("total", sampler.total.toJson()));
+    }
+    return new JsonObject()
+      .put("unit", "microseconds")
+      .put("period", PERIOD)
+      .put("reportInterval", reportInterval)
+      .put("eventLoops", loops);
+  }
+
+  /**
+   * Stops probing the event loops.
+   */
+  public void close() {
+    closed = true;
+    vertx.cancelTimer(timer);
+  }
+
+  private static boolean isJfrAvailable() {
+    try {
+      Class.forName("jdk.jfr.Event", false, EventLoopLagProbe.class.getClassLoader());
+      return true;
+    } catch (ClassNotFoundException | LinkageError e) {
+      return false;
+    }
+  }
+
+  private final class Sampler implements Runnable {
+
+    private final EventExecutor loop;
+    private final Histogram live = new Histogram();
+    private final Histogram total = new Histogram();
+    private volatile String name;
+    private Histogram last = new Histogram();
+    private long expected;
+
+    private Sampler(EventExecutor loop, String name) {
+      this.loop = loop;
+      this.name = name;
+    }
+
+    private void schedule() {
+      expected = System.nanoTime() + MILLISECONDS.toNanos(PERIOD);
+      loop.schedule(this, PERIOD, MILLISECONDS);
+    }
+
+    @Override
+    public void run() {
+      long lag = NANOSECONDS.toMicros(Math.max(0, System.nanoTime() - expected));
+      live.record(lag);
+      // The samples which could not run while the event loop was stalled (coordinated omission).
+      long period = MILLISECONDS.toMicros(PERIOD);
+      live.recordSeries(lag - period, period);
+      name = Thread.currentThread().getName();
+      if (!closed && !loop.isShuttingDown()) {
+        schedule();
+      }
+    }
+  }
+
+  /**
+   * A log-linear histogram of microsecond values: the values are counted in 8 buckets per power of two, so a
+   * percentile is reported with a precision of 12.5%. The buckets are atomic counters, the histogram can be recorded
+   * and read concurrently without locking.
+   */
+  static final class Histogram {
+
+    private static final int SUB_BUCKETS = 8;
+    private static final int MAX_EXPONENT = 40;
+
+    private final AtomicLongArray counts = new AtomicLongArray((MAX_EXPONENT - 2) * SUB_BUCKETS);
+    private final AtomicLong max = new AtomicLong();
+
+    void record(long value) {
+      counts.incrementAndGet(index(value));
+      max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Records the positive values of the series {@code first}, {@code first - step}, {@code first - 2 * step}... The
+     * values of a bucket are counted arithmetically, so a long stall costs an update per bucket, not per value.
+     *
+     * @param first the first (and largest) value
+     * @param step  the difference between two values, positive
+     */
+    void recordSeries(long first, long step) {
+      if (first <= 0) {
+        return;
+      }
+      max.accumulateAndGet(first, Math::max);
+      long value = first;
+      while (value > 0) {
+        int index = index(value);
+        // The values of the series down to the lower bound of the bucket
+        long count = (value - lowerBound(index)) / step + 1;
+        counts.addAndGet(index, count);
+        value -= count * step;
+      }
+    }
+
+    static int index(long value) {
+      if (value < SUB_BUCKETS) {
+        return (int) Math.max(0, value);
+      }
+      int exponent = Math.min(63 - Long.numberOfLeadingZeros(value), MAX_EXPONENT - 1);
+      int sub = (int) ((value >> (exponent - 3)) & (SUB_BUCKETS - 1));
+      return (exponent - 2) * SUB_BUCKETS + sub;
+    }
+
+    static long lowerBound(int index) {
+      if (index < SUB_BUCKETS) {
+        return index;
+      }
+      int exponent = index / SUB_BUCKETS + 2;
+      return (long) (SUB_BUCKETS + index % SUB_BUCKETS) << (exponent - 3);
+    }
+
+    long count() {
+      long count = 0;
+      for (int i = 0; i < counts.length(); i++) {
+        count += counts.get(i);
+      }
+      return count;
+    }
+
+    long max() {
+      return max.get();
+    }
+
+    /**
+     * @param quantile the quantile, between 0 and 1
+     * @return the upper bound of the bucket of the quantile, at most the maximum value
+     */
+    long percentile(double quantile) {
+      long count = count();
+      if (count == 0) {
+        return 0;
+      }
+      long rank = Math.max(1, (long) Math.ceil(quantile * count));
+      long seen = 0;
+      for (int i = 0; i < counts.length(); i++) {
+        seen += counts.get(i);
+        if (seen >= rank) {
+          long upper = i + 1 < counts.length() ? lowerBound(i + 1) - 1 : Long.MAX_VALUE;
+          return Math.min(upper, max());
+        }
+      }
+      return max();
+    }
+
+    void drainTo(Histogram target) {
+      for (int i = 0; i < counts.length(); i++) {
+        long count = counts.getAndSet(i, 0);
+        if (count != 0) {
+          target.counts.addAndGet(i, count);
+        }
+      }
+      long value = max.getAndSet(0);
+      target.max.accumulateAndGet(value, Math::max);
+    }
+
+    void add(Histogram other) {
+      for (int i = 0; i < counts.length(); i++) {
+        counts.addAndGet(i, other.counts.get(i));
+      }
+      max.accumulateAndGet(other.max(), Math::max);
+    }
+
+    JsonObject toJson() {
+      return new JsonObject()
+        .put("count", count())
+        .put("p50", percentile(0.5))
+        .put("p90", percentile(0.9))
+        .put("p99", percentile(0.99))
+        .put("p999", percentile(0.999))
+        .put("max", max());
+    }
+  }
+}
@@ -28,8 +28,13 @@ import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 import picocli.CommandLine.Parameters;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.ServiceLoader;
 import java.util.concurrent.CompletableFuture;
@@ -49,6 +54,7 @@ public class VertxApplicationCommand implements Runnable {
   private static final String VERTX_EVENTBUS_PROP_PREFIX = "vertx.eventBus.options.";
   private static final String DEPLOYMENT_OPTIONS_PROP_PREFIX = "vertx.deployment.options.";
   private static final String METRICS_OPTIONS_PROP_PREFIX = "vertx.metrics.options.";
+  private static final String CDS_TRAINING_PROP = "vertx.cds.training";
 
   static final String VERTX_OPTIONS_ENV_PREFIX = "VERTX_OPTIONS_";
   static final String VERTX_EVENTBUS_OPTIONS_ENV_PREFIX = "VERTX_EVENTBUS_OPTIONS_";
@@ -161,6 +167,58 @@ public class VertxApplicationCommand implements Runnable {
   @SuppressWarnings("unused")
   private String configStr;
 
+  @Option(
+    names = {"-preload-classes", "--preload-classes"},
+    description = {
+      "Preloads the classes of the given file on background threads while Vert.x starts.",
+      "If the file does not exist, the classes loaded until the verticle is deployed are recorded in the file (using JFR)."
+    }
+  )
+  @SuppressWarnings("unused")
+  private String preloadClasses;
+
+  @Option(
+    names = {"-cds-archive", "--cds-archive"},
+    description = {
+      "Creates a dynamic AppCDS archive: the application runs in a new JVM until the main verticle is deployed, and the loaded classes are archived in the given file.",
+      "Start the application with -XX:SharedArchiveFile to use the archive. Requires Java 13 or later."
+    }
+  )
+  @SuppressWarnings("unused")
+  private String cdsArchive;
+
+  @Option(
+    names = {"-warm-up-duration", "--warm-up-duration"},
+    description = {
+      "Maximum duration of the warm-up of the application, in milliseconds.",
+      "The warm-up runs when the hooks provide a warm-up action, and stops earlier when the JIT compilation settles."
+    },
+    defaultValue = "60000"
+  )
+  @SuppressWarnings("unused")
+  private long warmUpDuration;
+
+  @Option(
+    names = {"-event-loop-lag-probe", "--event-loop-lag-probe"},
+    description = {
+      "Measures the scheduling delay of the event loops, every 100 ms.",
+      "The percentiles are logged every reporting interval, and recorded as JFR events."
+    },
+    arity = "0"
+  )
+  @SuppressWarnings("unused")
+  private boolean eventLoopLagProbe;
+
+  @Option(
+    names = {"-event-loop-lag-report-interval", "--event-loop-lag-report-interval"},
+    description = {
+      "Reporting interval of the event loop lag probe, in seconds."
+    },
+    defaultValue = "60"
+  )
+  @SuppressWarnings("unused")
+  private long eventLoopLagReportInterval;
+
   @Option(
     names = {"-h", "-help", "--help"},
     usageHelp = true,
@@ -196,6 +254,14 @@ public class VertxApplicationCommand implements Runnable {
 
   @Override
   public void run() {
+    if (cdsArchive != null && !Boolean.getBoolean(CDS_TRAINING_PROP)) {
+      createCdsArchive(new File(cdsArchive));
+      return;
+    }
+    ClassPreloader preloader = preloadClasses != null ? ClassPreloader.start(new File(preloadClasses), vertxApplication.getClass().getClassLoader(), log) : null;
+    Supplier<? extends Deployable> verticleSupplier = hooks.verticleSupplier();
+    // The verticle class is only resolved and initialized when it is deployed by name
+    String verticleName = verticleSupplier == null ? computeVerticleName(vertxApplication.getClass(), mainVerticle) : null;
     JsonObject optionsParam = hooks.afterVertxOptionsParsed(readJsonFileOrString(log, "options", vertxOptionsStr));
     JsonObject deploymentOptionsParam = hooks.afterDeploymentOptionsParsed(readJsonFileOrString(log, "deploymentOptions", deploymentOptionsStr));
     JsonObject conf = hooks.afterConfigParsed(readJsonFileOrString(log, "conf", configStr));
@@ -211,9 +277,22 @@ public class VertxApplicationCommand implements Runnable {
 
     hookContext.setVertxOptions(options);
     hooks.beforeStartingVertx(hookContext);
+    if (verticleName != null) {
+      initializeInBackground(verticleName);
+    }
+    Future<Void> beforeStartingVertxHook = hooks.beforeStartingVertxAsync(hookContext);
+    Future<Void> beforeDeployingVerticleHook = hooks.beforeDeployingVerticleAsync(hookContext);
     vertx = (VertxInternal) withTCCLAwait(() -> createVertx(builder), Duration.ofMinutes(2), "startup", VertxApplicationHooks::afterFailureToStartVertx, ExitCodes.VERTX_INITIALIZATION);
     hookContext.setVertx(vertx);
+    withTCCLAwait(() -> closeOnFailure(beforeStartingVertxHook), Duration.ofMinutes(2), "before starting Vert.x hook", VertxApplicationHooks::afterFailureToStartVertx, ExitCodes.VERTX_INITIALIZATION);
     hooks.afterVertxStarted(hookContext);
+    if (eventLoopLagProbe && eventLoopLagReportInterval > 0) {
+      EventLoopLagProbe probe = EventLoopLagProbe.start(vertx, Duration.ofSeconds(eventLoopLagReportInterval).toMillis(), log);
+      vertx.addCloseHook(completion -> {
+        probe.close();
+        completion.succeed();
+      });
+    }
 
     vertx.addCloseHook(this::beforeStoppingVertx);
     Runtime.getRuntime().addShutdownHook(new Thread(new ShutdownHook(vertx, this::afterShutdownHookExecuted)));
@@ -221,9 +300,7 @@ public class VertxApplicationCommand implements Runnable {
     DeploymentOptions deploymentOptions = createDeploymentOptions(deploymentOptionsParam, conf);
 
     Supplier<Future<String>> deployer;
-    Supplier<? extends Deployable> verticleSupplier = hooks.verticleSupplier();
     if (verticleSupplier == null) {
-      String verticleName = computeVerticleName(vertxApplication.getClass(), mainVerticle);
       if (verticleName == null) {
         log.error("If the <mainVerticle> parameter is not provided, the 'Main-Verticle' manifest attribute must be provided.");
         throw new CommandException(ExitCodes.VERTX_DEPLOYMENT);
@@ -235,12 +312,110 @@ public class VertxApplicationCommand implements Runnable {
       hookContext.readyToDeploy(null, deploymentOptions);
     }
 
+    withTCCLAwait(() -> hookResult(beforeDeployingVerticleHook), Duration.ofMinutes(2), "before deploying verticle hook", VertxApplicationHooks::afterFailureToDeployVerticle, ExitCodes.VERTX_DEPLOYMENT);
     hooks.beforeDeployingVerticle(hookContext);
     String message = hookContext.deploymentOptions().getThreadingModel() == ThreadingModel.WORKER ? "deploying worker verticle" : "deploying verticle";
     String deploymentId = withTCCLAwait(deployer, Duration.ofMinutes(2), message, VertxApplicationHooks::afterFailureToDeployVerticle, ExitCodes.VERTX_DEPLOYMENT);
     log.info("Succeeded in " + message);
     hookContext.setDeploymentId(deploymentId);
+    if (preloader != null) {
+      preloader.complete();
+    }
     hooks.afterVerticleDeployed(hookContext);
+    Supplier<? extends Future<?>> warmUpAction = hooks.warmUpAction(hookContext);
+    if (warmUpAction != null && warmUpDuration > 0) {
+      new WarmUp(warmUpAction, Duration.ofMillis(warmUpDuration), log).run();
+    }
+    hooks.afterApplicationReady(hookContext);
+    if (cdsArchive != null) {
+      // Training run: once Vert.x is closed, the JVM exits normally and dumps the loaded classes.
+      log.info("Training run completed, closing Vert.x");
+      withTCCLAwait(vertx::close, Duration.ofMinutes(2), "closing Vert.x after the training run", VertxApplicationHooks::afterFailureToStopVertx, ExitCodes.SOFTWARE);
+    }
+  }
+
+  private static Future<Void> hookResult(Future<Void> future) {
+    return future != null ? future : Future.succeededFuture();
+  }
+
+  /**
+   * Vert.x has started, but the application cannot: the instance is closed before the failure is reported.
+   */
+  private Future<Void> closeOnFailure(Future<Void> future) {
+    return hookResult(future).recover(t -> vertx.close().transform(ar -> Future.failedFuture(t)));
+  }
+
+  /**
+   * Loads and initializes the main verticle class on a background thread, while Vert.x starts (or joins the cluster),
+   * so the deployment finds the class ready. Only plain Java verticles are initialized, other verticle factories are
+   * resolved by the deployment. It is started after the {@link VertxApplicationHooks#beforeStartingVertx}
+   * hook, so the static initializer of the verticle sees the changes made by the hooks parsing the options.
+   */
+  private void initializeInBackground(String verticleName) {
+    String className = verticleName.startsWith("java:") ? verticleName.substring("java:".length()) : verticleName;
+    if (className.indexOf(':') != -1 || className.endsWith(".java")) {
+      return;
+    }
+    // The deployment loads the verticle with the context classloader of this thread.
+    ClassLoader tccl = Thread.currentThread().getContextClassLoader();
+    ClassLoader classLoader = tccl != null ? tccl : vertxApplication.getClass().getClassLoader();
+    Thread thread = new Thread(() -> {
+      try {
+        Class.forName(className, true, classLoader);
+      } catch (ClassNotFoundException e) {
+        // Not a class, the verticle may be resolved by a verticle factory from its extension.
+        log.debug("Cannot load the main verticle class " + className, e);
+      } catch (LinkageError e) {
+        log.warn("Cannot initialize the main verticle class " + className + ", the deployment is likely to fail", e);
+      }
+    }, "vertx-main-verticle-initializer");
+    thread.setContextClassLoader(classLoader);
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  private void createCdsArchive(File archive) {
+    if (Runtime.version().feature() < 13) {
+      log.error("Dynamic CDS archives require Java 13 or later, the JVM version is " + Runtime.version());
+      throw new CommandException(ExitCodes.SOFTWARE);
+    }
+    ProcessHandle.Info info = ProcessHandle.current().info();
+    if (!info.command().isPresent() || !info.arguments().isPresent()) {
+      log.error("Cannot create the CDS archive, the command line of the JVM is not available");
+      throw new CommandException(ExitCodes.SOFTWARE);
+    }
+    File tmp = new File(archive.getAbsoluteFile().getParentFile(), archive.getName() + ".tmp");
+    tmp.getParentFile().mkdirs();
+    tmp.delete();
+    // Run the same command line, the training run exits once the main verticle is deployed.
+    List<String> cmd = new ArrayList<>();
+    cmd.add(info.command().get());
+    cmd.add("-XX:ArchiveClassesAtExit=" + tmp.getAbsolutePath());
+    cmd.add("-D" + CDS_TRAINING_PROP + "=true");
+    cmd.addAll(Arrays.asList(info.arguments().get()));
+    log.info("Running the application to create the CDS archive...");
+    int status;
+    try {
+      status = new ProcessBuilder(cmd).inheritIO().start().waitFor();
+    } catch (IOException e) {
+      log.error("Cannot create the training process", e);
+      throw new CommandException(ExitCodes.SOFTWARE);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CommandException(ExitCodes.SOFTWARE);
+    }
+    if (status != 0 || !tmp.isFile()) {
+      tmp.delete();
+      log.error("Cannot create the CDS archive, the application exited with status " + status);
+      throw new CommandException(status != 0 ? status : ExitCodes.SOFTWARE);
+    }
+    try {
+      Files.move(tmp.toPath(), archive.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      log.error("Cannot write the CDS archive " + archive, e);
+      throw new CommandException(ExitCodes.SOFTWARE);
+    }
+    log.info("Created the CDS archive " + archive + ", start the application with -XX:SharedArchiveFile=" + archive.getAbsolutePath());
   }
 
   private void processVertxOptions(VertxOptions vertxOptions, JsonObject optionsJson) {
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.launcher.application.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.internal.logging.Logger;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Drives the warm-up of the application before it is marked ready: the warm-up action is invoked repeatedly, each
+ * invocation waiting for the previous one to complete, until the JIT compilation activity settles or the maximum
+ * duration has elapsed.
+ * <p>
+ * The JIT activity is sampled every second with the {@link CompilationMXBean}: it has settled when the compilation
+ * time has increased by less than {@value #SETTLED_COMPILATION_TIME} ms during {@value #SETTLED_SAMPLES} consecutive
+ * samples. When the JVM does not monitor the compilation time, the warm-up lasts the maximum duration.
+ */
+public class WarmUp {
+
+  static final long SAMPLE_PERIOD = 1000;
+  static final long SETTLED_COMPILATION_TIME = 10;
+  static final int SETTLED_SAMPLES = 3;
+
+  private final Supplier<? extends Future<?>> action;
+  private final Duration duration;
+  private final Logger log;
+
+  public WarmUp(Supplier<? extends Future<?>> action, Duration duration, Logger log) {
+    this.action = action;
+    this.duration = duration;
+    this.log = log;
+  }
+
+  /**
+   * Runs the warm-up, in the calling thread.
+   */
+  public void run() {
+    CompilationMXBean compilation = ManagementFactory.getCompilationMXBean();
+    boolean monitored = compilation != null && compilation.isCompilationTimeMonitoringSupported();
+    log.info("Warming up the application for up to " + duration.toMillis() + " ms" +
+      (monitored ? ", or until the JIT compilation settles" : ""));
+    long begin = System.nanoTime();
+    long deadline = begin + duration.toNanos();
+    long nextSample = begin + MILLISECONDS.toNanos(SAMPLE_PERIOD);
+    long compilationTime = monitored ? compilation.getTotalCompilationTime() : 0;
+    int quietSamples = 0;
+    long iterations = 0;
+    String outcome = "the maximum duration has elapsed";
+    while (true) {
+      long now = System.nanoTime();
+      if (now - deadline >= 0) {
+        break;
+      }
+      if (monitored && now - nextSample >= 0) {
+        long total = compilation.getTotalCompilationTime();
+        quietSamples = total - compilationTime < SETTLED_COMPILATION_TIME ? quietSamples + 1 : 0;
+        compilationTime = total;
+        nextSample = now + MILLISECONDS.toNanos(SAMPLE_PERIOD);
+        if (quietSamples >= SETTLED_SAMPLES) {
+          outcome = "the JIT compilation has settled";
+          break;
+        }
+      }
+      try {
+        Future<?> future = action.get();
+        if (future != null) {
+          future.toCompletionStage().toCompletableFuture().get(deadline - now, NANOSECONDS);
+        }
+        iterations++;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        outcome = "the thread has been interrupted";
+        break;
+      } catch (TimeoutException e) {
+        break;
+      } catch (ExecutionException e) {
+        log.warn("Warm-up action failed, stopping the warm-up", e.getCause());
+        outcome = "the action has failed";
+        break;
+      } catch (RuntimeException e) {
+        log.warn("Warm-up action failed, stopping the warm-up", e);
+        outcome = "the action has failed";
+        break;
+      }
+    }
+    log.info("Warm-up completed in " + NANOSECONDS.toMillis(System.nanoTime() - begin) + " ms (" + iterations +
+      " iterations), " + outcome);
+  }
+}
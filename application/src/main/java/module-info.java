@@ -13,6 +13,10 @@ module io.vertx.launcher.application {
   requires info.picocli;
   requires io.vertx.core;
   requires io.vertx.core.logging;
+  requires java.management;
+  requires io.netty.common;
+  requires io.netty.transport;
+  requires static jdk.jfr;
 
   // Annotation processing
   requires static io.vertx.docgen;
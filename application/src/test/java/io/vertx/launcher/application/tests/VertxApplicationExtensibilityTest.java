@@ -12,12 +12,15 @@
 package io.vertx.launcher.application.tests;
 
 import io.vertx.core.Deployable;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
 import io.vertx.core.Verticle;
 import io.vertx.core.VertxBuilder;
 import io.vertx.core.VertxOptions;
 import io.vertx.core.internal.VertxInternal;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.spi.metrics.VertxMetrics;
+import io.vertx.launcher.application.ExitCodes;
 import io.vertx.launcher.application.HookContext;
 import io.vertx.launcher.application.VertxApplication;
 import io.vertx.launcher.application.VertxApplicationHooks;
@@ -26,6 +29,10 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
 import static io.vertx.launcher.application.tests.VertxApplicationTest.assertServerStarted;
@@ -70,6 +77,22 @@ public class VertxApplicationExtensibilityTest {
     assertServerStarted();
   }
 
+  @Test
+  public void testMainVerticleIsNotInitializedWithVerticleSupplier() throws Exception {
+    hooks = new TestHooks() {
+      @Override
+      public Supplier<Verticle> verticleSupplier() {
+        return () -> new HttpTestVerticle();
+      }
+    };
+    TestVertxApplication app = new TestVertxApplication(new String[]{IgnoredMainVerticle.class.getName()}, hooks);
+    app.launch();
+    assertServerStarted();
+    // Leave time to a background initialization
+    Thread.sleep(100);
+    assertNull(System.getProperty(IgnoredMainVerticle.PROPERTY));
+  }
+
   @Test
   public void testThatCustomLauncherCanUpdateConfigurationWhenNoneArePassed() throws IOException {
     long time = System.nanoTime();
@@ -185,6 +208,139 @@ public class VertxApplicationExtensibilityTest {
     assertNotEquals(0, exitCode);
   }
 
+  @Test
+  public void testAsyncHooksCompleteWhileVertxStarts() throws Exception {
+    Promise<Void> beforeStarting = Promise.promise();
+    Promise<Void> beforeDeploying = Promise.promise();
+    List<String> events = new CopyOnWriteArrayList<>();
+    hooks = new TestHooks() {
+      @Override
+      public Supplier<Verticle> verticleSupplier() {
+        return () -> new HttpTestVerticle();
+      }
+
+      @Override
+      public Future<Void> beforeStartingVertxAsync(HookContext context) {
+        new Thread(() -> {
+          events.add("certificates fetched");
+          beforeStarting.complete();
+        }).start();
+        return beforeStarting.future();
+      }
+
+      @Override
+      public Future<Void> beforeDeployingVerticleAsync(HookContext context) {
+        assertNull(context.vertx());
+        new Thread(() -> {
+          events.add("cache warmed");
+          beforeDeploying.complete();
+        }).start();
+        return beforeDeploying.future();
+      }
+
+      @Override
+      public void afterVertxStarted(HookContext context) {
+        super.afterVertxStarted(context);
+        events.add("vertx started " + beforeStarting.future().isComplete());
+      }
+
+      @Override
+      public void beforeDeployingVerticle(HookContext context) {
+        events.add("deploying " + beforeDeploying.future().isComplete());
+      }
+    };
+    TestVertxApplication app = new TestVertxApplication(new String[0], hooks);
+    app.launch();
+    assertServerStarted();
+    assertTrue(events.contains("vertx started true"));
+    assertTrue(events.contains("deploying true"));
+  }
+
+  @Test
+  public void testFailureInBeforeDeployingVerticleAsync() throws Exception {
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    hooks = new TestHooks() {
+      @Override
+      public Supplier<Verticle> verticleSupplier() {
+        return () -> new HttpTestVerticle();
+      }
+
+      @Override
+      public Future<Void> beforeDeployingVerticleAsync(HookContext context) {
+        return Future.failedFuture("boom");
+      }
+
+      @Override
+      public void afterFailureToDeployVerticle(HookContext context, Throwable t) {
+        failure.set(t);
+        super.afterFailureToDeployVerticle(context, t);
+      }
+    };
+    TestVertxApplication app = new TestVertxApplication(new String[0], hooks);
+    assertEquals(ExitCodes.VERTX_DEPLOYMENT, app.launch());
+    assertEquals("boom", failure.get().getMessage());
+  }
+
+  @Test
+  public void testWarmUpBeforeApplicationReady() throws Exception {
+    AtomicInteger iterations = new AtomicInteger();
+    AtomicInteger iterationsWhenReady = new AtomicInteger(-1);
+    hooks = new TestHooks() {
+      @Override
+      public Supplier<Verticle> verticleSupplier() {
+        return () -> new HttpTestVerticle();
+      }
+
+      @Override
+      public Supplier<Future<?>> warmUpAction(HookContext context) {
+        return () -> {
+          iterations.incrementAndGet();
+          return context.vertx().timer(1);
+        };
+      }
+
+      @Override
+      public void afterApplicationReady(HookContext context) {
+        iterationsWhenReady.set(iterations.get());
+      }
+    };
+    TestVertxApplication app = new TestVertxApplication(new String[]{"--warm-up-duration", "500"}, hooks);
+    app.launch();
+    assertServerStarted();
+    assertTrue(iterations.get() > 0);
+    assertEquals(iterations.get(), iterationsWhenReady.get());
+  }
+
+  @Test
+  public void testFailureInWarmUpDoesNotPreventTheApplicationFromStarting() throws Exception {
+    AtomicInteger iterations = new AtomicInteger();
+    AtomicReference<Boolean> ready = new AtomicReference<>(false);
+    hooks = new TestHooks() {
+      @Override
+      public Supplier<Verticle> verticleSupplier() {
+        return () -> new HttpTestVerticle();
+      }
+
+      @Override
+      public Supplier<Future<?>> warmUpAction(HookContext context) {
+        return () -> {
+          iterations.incrementAndGet();
+          return Future.failedFuture("boom");
+        };
+      }
+
+      @Override
+      public void afterApplicationReady(HookContext context) {
+        ready.set(true);
+      }
+    };
+    TestVertxApplication app = new TestVertxApplication(new String[0], hooks);
+    assertEquals(0, app.launch());
+    assertServerStarted();
+    assertEquals(1, iterations.get());
+    assertTrue(ready.get());
+  }
+
   private static class TestVertxApplication extends VertxApplication {
 
     public TestVertxApplication(String[] args, VertxApplicationHooks hooks) {
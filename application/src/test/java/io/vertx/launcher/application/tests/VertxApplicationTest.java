@@ -39,6 +39,8 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static io.vertx.core.ThreadingModel.*;
 import static io.vertx.launcher.application.ExitCodes.USAGE;
@@ -241,6 +243,126 @@ public class VertxApplicationTest {
     assertEquals("Billy Bob", getContent().getJsonObject("conf").getString("name"));
   }
 
+  @Test
+  public void testPreloadClasses(@TempDir Path tempDir) throws Exception {
+    Path classList = tempDir.resolve("classes.txt");
+    String[] args = {"--preload-classes", classList.toString(), HttpTestVerticle.class.getName()};
+    TestVertxApplication app = new TestVertxApplication(args, hooks);
+    app.launch();
+    assertServerStarted();
+    List<String> recorded = Files.readAllLines(classList);
+    // The classes loaded before the application is launched (by the test or a previous test) are not recorded.
+    assertTrue(recorded.get(0).startsWith("#"));
+
+    hooks.vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    await("Server not stopped").atMost(Duration.ofSeconds(10)).until(() -> {
+      try {
+        return getHttpCode();
+      } catch (IOException e) {
+        return -1;
+      }
+    }, equalTo(-1));
+    // The list is replayed, not recorded again
+    hooks = new TestHooks();
+    app = new TestVertxApplication(args, hooks);
+    app.launch();
+    assertServerStarted();
+    assertEquals(recorded, Files.readAllLines(classList));
+  }
+
+  @Test
+  public void testMainVerticleInitializedWhileVertxStarts() throws Exception {
+    hooks = new TestHooks() {
+      @Override
+      public void beforeStartingVertx(HookContext context) {
+        // The main verticle class is initialized after this hook
+        System.setProperty(StaticInitVerticle.PROPERTY, "set by the hook");
+      }
+
+      @Override
+      public void afterVertxStarted(HookContext context) {
+        super.afterVertxStarted(context);
+        await("Main verticle class not initialized")
+          .atMost(Duration.ofSeconds(10))
+          .until(() -> StaticInitVerticle.initializingThread != null);
+      }
+    };
+    TestVertxApplication app = new TestVertxApplication(new String[]{StaticInitVerticle.class.getName()}, hooks);
+    try {
+      app.launch();
+    } finally {
+      System.clearProperty(StaticInitVerticle.PROPERTY);
+    }
+    assertEquals("vertx-main-verticle-initializer", StaticInitVerticle.initializingThread);
+    assertEquals("set by the hook", StaticInitVerticle.property);
+    assertEquals(1, hooks.vertx.deploymentIDs().size());
+  }
+
+  @Test
+  public void testEventLoopLagProbe() throws Exception {
+    String[] args = {"--event-loop-lag-probe", "--event-loop-lag-report-interval", "1", HttpTestVerticle.class.getName()};
+    Pattern report = Pattern.compile("Event loop lag of vert\\.x-eventloop-thread-\\d+ in the last 1000 ms \\(us\\): "
+      + "p50=(\\d+) p90=(\\d+) p99=(\\d+) p99\\.9=(\\d+) max=(\\d+) \\((\\d+) samples\\)");
+    Integer exitCode = captureOutput(() -> {
+      TestVertxApplication app = new TestVertxApplication(args, hooks);
+      int code = app.launch();
+      await("Event loop lag not reported")
+        .atMost(Duration.ofSeconds(10))
+        .until(() -> report.matcher(err.toString()).find());
+      return code;
+    });
+    assertEquals(0, exitCode);
+    assertServerStarted();
+    Matcher matcher = report.matcher(err.toString());
+    assertTrue(matcher.find());
+    // A sample every 100 ms, the idle event loop is not late
+    long samples = Long.parseLong(matcher.group(6));
+    assertTrue(samples >= 5 && samples <= 11, "Unexpected number of samples " + samples);
+    long previous = 0;
+    for (int i = 1; i <= 5; i++) {
+      long value = Long.parseLong(matcher.group(i));
+      assertTrue(value >= previous, "Percentiles must not decrease");
+      previous = value;
+    }
+    assertTrue(previous < 100_000, "Unexpected maximum lag " + previous);
+  }
+
+  @Test
+  public void testEventLoopLagProbeCountsTheStalledSamples() throws Exception {
+    String[] args = {"--event-loop-lag-probe", "--event-loop-lag-report-interval", "1", HttpTestVerticle.class.getName()};
+    Pattern report = Pattern.compile("Event loop lag of vert\\.x-eventloop-thread-\\d+ in the last 1000 ms \\(us\\): "
+      + "p50=(\\d+) p90=\\d+ p99=\\d+ p99\\.9=\\d+ max=(\\d+) \\((\\d+) samples\\)");
+    Integer exitCode = captureOutput(() -> {
+      TestVertxApplication app = new TestVertxApplication(args, hooks);
+      int code = app.launch();
+      hooks.vertx.getOrCreateContext().runOnContext(v -> {
+        try {
+          Thread.sleep(1500);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+      await("Stall not reported")
+        .atMost(Duration.ofSeconds(10))
+        .until(() -> stalled(report.matcher(err.toString())) != null);
+      return code;
+    });
+    assertEquals(0, exitCode);
+    Matcher matcher = stalled(report.matcher(err.toString()));
+    // The samples the stall prevented (every 100 ms) are counted, they outnumber the samples taken after the stall
+    assertTrue(Long.parseLong(matcher.group(3)) >= 15, "Unexpected number of samples " + matcher.group(3));
+    assertTrue(Long.parseLong(matcher.group(1)) >= 100_000, "Unexpected median lag " + matcher.group(1));
+  }
+
+  private static Matcher stalled(Matcher matcher) {
+    while (matcher.find()) {
+      if (Long.parseLong(matcher.group(2)) >= 1_000_000) {
+        return matcher;
+      }
+    }
+    return null;
+  }
+
   @Test
   public void testMetricsEnabledFromCommandLine() throws Exception {
     setManifest("META-INF/MANIFEST-Http-Verticle.MF");
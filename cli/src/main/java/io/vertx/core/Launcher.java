@@ -13,6 +13,8 @@ package io.vertx.core;
 
 import io.vertx.core.impl.launcher.VertxCommandLauncher;
 import io.vertx.core.impl.launcher.VertxLifecycleHooks;
+import io.vertx.core.impl.launcher.commands.DaemonClient;
+import io.vertx.core.impl.launcher.commands.ExecUtils;
 import io.vertx.core.json.JsonObject;
 
 
@@ -42,6 +44,14 @@ public class Launcher extends VertxCommandLauncher implements VertxLifecycleHook
    * @param args the user command line arguments.
    */
   public static void main(String[] args) {
+    // When enabled, the launcher daemon executes the command line without loading the commands.
+    Integer status = DaemonClient.forward(args, System.out);
+    if (status != null) {
+      if (status != 0) {
+        ExecUtils.exit(status);
+      }
+      return;
+    }
     new Launcher().dispatch(args);
   }
 
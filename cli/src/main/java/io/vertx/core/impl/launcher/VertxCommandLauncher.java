@@ -13,6 +13,7 @@ package io.vertx.core.impl.launcher;
 
 import io.vertx.core.cli.*;
 import io.vertx.core.cli.annotations.CLIConfigurator;
+import io.vertx.core.impl.launcher.commands.ExecUtils;
 import io.vertx.core.impl.launcher.commands.RunCommand;
 import io.vertx.core.spi.launcher.*;
 
@@ -35,11 +36,15 @@ public class VertxCommandLauncher extends UsageMessageFormatter {
 
   protected static List<String> PROCESS_ARGS;
 
+  private static final ThreadLocal<Invocation> INVOCATION = new ThreadLocal<>();
+
   /**
-   * @return the process argument. Verticles can use this method to retrieve the arguments.
+   * @return the process argument. Verticles can use this method to retrieve the arguments. When called from a command
+   * dispatched with {@link #dispatch(String[], PrintStream)}, the arguments of this command line are returned.
    */
   public static List<String> getProcessArguments() {
-    return PROCESS_ARGS;
+    Invocation invocation = INVOCATION.get();
+    return invocation != null ? invocation.args : PROCESS_ARGS;
   }
 
   /**
@@ -177,7 +182,10 @@ public class VertxCommandLauncher extends UsageMessageFormatter {
     CommandRegistration registration = commandByName.get(name);
     if (registration != null) {
       Command command = registration.factory.create(commandLine);
-      registration.addCommand(command);
+      if (INVOCATION.get() == null) {
+        // Commands dispatched on behalf of other processes are not retained, the JVM is long-running.
+        registration.addCommand(command);
+      }
       return command;
     }
     return null;
@@ -355,7 +363,9 @@ public class VertxCommandLauncher extends UsageMessageFormatter {
    */
   public void dispatch(Object main, String[] args) {
     this.main = main == null ? this : main;
-    PROCESS_ARGS = Collections.unmodifiableList(Arrays.asList(args));
+    if (INVOCATION.get() == null) {
+      PROCESS_ARGS = Collections.unmodifiableList(Arrays.asList(args));
+    }
 
     // Several cases need to be detected here.
     // The first argument may be "--help" => must display help message
@@ -419,6 +429,29 @@ public class VertxCommandLauncher extends UsageMessageFormatter {
     }
   }
 
+  /**
+   * Dispatches a command line on behalf of another process, generally a client of the launcher daemon. Unlike
+   * {@link #dispatch(String[])}, the process arguments and the print stream are only set for the current thread, and
+   * {@link ExecUtils#exit(int)} does not stop the JVM. So several command lines can be dispatched concurrently.
+   *
+   * @param args the command line arguments
+   * @param out  the print stream receiving the messages
+   * @return the exit code of the command, {@code 0} if it completes without exiting
+   */
+  public int dispatch(String[] args, PrintStream out) {
+    Invocation previous = INVOCATION.get();
+    INVOCATION.set(new Invocation(Collections.unmodifiableList(Arrays.asList(args.clone())), out));
+    try {
+      return ExecUtils.trapExit(() -> dispatch(main, args));
+    } finally {
+      if (previous == null) {
+        INVOCATION.remove();
+      } else {
+        INVOCATION.set(previous);
+      }
+    }
+  }
+
   /**
    * @return the default command if specified in the {@code MANIFEST}, "run" if not found.
    */
@@ -457,10 +490,12 @@ public class VertxCommandLauncher extends UsageMessageFormatter {
   }
 
   /**
-   * @return the printer used to write the messages. Defaults to {@link System#out}.
+   * @return the printer used to write the messages. Defaults to {@link System#out}, or to the print stream given to
+   * {@link #dispatch(String[], PrintStream)}.
    */
   public PrintStream getPrintStream() {
-    return System.out;
+    Invocation invocation = INVOCATION.get();
+    return invocation != null ? invocation.out : System.out;
   }
 
   /**
@@ -476,4 +511,18 @@ public class VertxCommandLauncher extends UsageMessageFormatter {
   public static void resetProcessArguments() {
     PROCESS_ARGS = null;
   }
+
+  /**
+   * The state of a command line dispatched with {@link #dispatch(String[], PrintStream)}.
+   */
+  private static final class Invocation {
+
+    private final List<String> args;
+    private final PrintStream out;
+
+    private Invocation(List<String> args, PrintStream out) {
+      this.args = args;
+      this.out = out;
+    }
+  }
 }
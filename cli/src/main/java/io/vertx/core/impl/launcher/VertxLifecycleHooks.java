@@ -37,6 +37,19 @@ public interface VertxLifecycleHooks {
    */
   void beforeStartingVertx(VertxOptions options);
 
+  /**
+   * Asynchronous variant of {@link #beforeStartingVertx(VertxOptions)}, invoked right after it. The returned future
+   * completes concurrently with the creation of the vertx instance (and the cluster join), and is awaited before
+   * {@link #afterStartingVertx(Vertx)} is called. It suits initialization doing I/O, such as fetching certificates.
+   * The options must not be modified by the asynchronous part, as vert.x may already use them.
+   *
+   * @param options the vert.x options
+   * @return a future completed once the initialization is done
+   */
+  default Future<Void> beforeStartingVertxAsync(VertxOptions options) {
+    return Future.succeededFuture();
+  }
+
   /**
    * Hook for sub-classes of {@link Launcher} to customize the Vert.x builder.
    *
@@ -60,6 +73,19 @@ public interface VertxLifecycleHooks {
    */
   void beforeDeployingVerticle(DeploymentOptions deploymentOptions);
 
+  /**
+   * Hook for sub classes of the {@link io.vertx.core.Launcher} class preparing the deployment of the verticle, such as
+   * warming a cache from disk. It is invoked by the {@code run} command before the vertx instance is created, and the
+   * returned future completes concurrently with the creation of the vertx instance (and the cluster join). The future
+   * is awaited before {@link #beforeDeployingVerticle(DeploymentOptions)} is called, a failure fails the deployment.
+   *
+   * @param config the json config file passed via -conf on the command line, an empty json object is not set.
+   * @return a future completed once the deployment can proceed
+   */
+  default Future<Void> beforeDeployingVerticleAsync(JsonObject config) {
+    return Future.succeededFuture();
+  }
+
   /**
    * Hook for sub classes of the {@link io.vertx.core.Launcher} class called before the {@link Vertx} instance is
    * terminated. The hook is called during the {@link Vertx#close()} method.
@@ -85,4 +111,16 @@ public interface VertxLifecycleHooks {
   void handleDeployFailed(Vertx vertx, String mainVerticle, DeploymentOptions deploymentOptions,
                           Throwable cause);
 
+  /**
+   * Hook for sub classes of the {@link io.vertx.core.Launcher} class called, in redeploy mode, when the detected
+   * changes can be applied without restarting the application (see the {@code redeploy-reload-in-place} option of
+   * the {@code run} command). This method is called in the process running the application, through its control
+   * endpoint, once the {@code on-redeploy} command has been executed. By default it does nothing: resources read from
+   * the file system are picked up as they are. If it throws an exception, the application is redeployed.
+   *
+   * @param changes the changed files, the {@code added}, {@code modified} and {@code deleted} arrays of absolute paths
+   */
+  default void reloadInPlace(JsonObject changes) {
+  }
+
 }
@@ -0,0 +1,432 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.launcher.commands;
+
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+/**
+ * A file based registry of the applications launched with the {@code start} command. Each application is described
+ * by a JSON file named after its id, so the {@code stop} and {@code list} commands do not have to scan the process
+ * table.
+ * <p/>
+ * The registry directory is {@code ~/.vertx/applications}, and can be configured using the {@code vertx.registry.dir}
+ * system property. Entries are validated against the running processes (pid and start time), stale entries are removed
+ * lazily. Entries are only readable by their owner, as they may contain the token of the application control endpoint
+ * (see {@link ControlServer}). The output of the applications started with {@code start --log-pump} is written in the
+ * {@code logs} sub-directory (see {@link LogPump}).
+ */
+public class ApplicationRegistry {
+
+  /**
+   * The system property configuring the registry directory.
+   */
+  public static final String REGISTRY_DIR_PROPERTY = "vertx.registry.dir";
+
+  private static final Object UPDATE_LOCK = new Object();
+
+  private final File directory;
+
+  /**
+   * Creates a registry using the given directory.
+   *
+   * @param directory the directory
+   */
+  public ApplicationRegistry(File directory) {
+    this.directory = directory;
+  }
+
+  /**
+   * @return the registry using the configured directory: the value of the {@code vertx.registry.dir} system
+   * property, or {@code ~/.vertx/applications}.
+   */
+  public static ApplicationRegistry create() {
+    String dir = System.getProperty(REGISTRY_DIR_PROPERTY);
+    if (dir == null) {
+      return new ApplicationRegistry(new File(System.getProperty("user.home"), ".vertx" + File.separator + "applications"));
+    }
+    return new ApplicationRegistry(new File(dir));
+  }
+
+  /**
+   * @return the registry directory.
+   */
+  public File directory() {
+    return directory;
+  }
+
+  /**
+   * Registers (or updates) an application. The file is replaced atomically when the file system supports it, so
+   * readers never observe a partially written entry.
+   *
+   * @param entry the entry
+   * @throws IOException if the entry cannot be written
+   */
+  public void register(Entry entry) throws IOException {
+    write(fileOf(entry.id()), entry);
+  }
+
+  private void write(File file, Entry entry) throws IOException {
+    directory.mkdirs();
+    File tmp = new File(directory, file.getName() + "." + ProcessHandle.current().pid() + ".tmp");
+    Files.write(tmp.toPath(), entry.toJson().encodePrettily().getBytes(StandardCharsets.UTF_8));
+    if (tmp.toPath().getFileSystem().supportedFileAttributeViews().contains("posix")) {
+      // Entries may contain the control token, only the owner can read them.
+      Files.setPosixFilePermissions(tmp.toPath(), PosixFilePermissions.fromString("rw-------"));
+    }
+    try {
+      Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  /**
+   * Updates the entry of an application from the application process itself. As the entry is written by the
+   * {@code start} command once the process is launched, the entry is awaited for at most the given time. Updates
+   * made from the same JVM are serialized.
+   *
+   * @param id      the application id
+   * @param pid     the pid of the application process
+   * @param update  the function updating the entry
+   * @param timeout the time to wait for the entry, in milliseconds
+   * @return {@code true} if the entry has been updated, {@code false} if it does not exist or cannot be written
+   */
+  public boolean update(String id, long pid, UnaryOperator<Entry> update, long timeout) {
+    long deadline = System.currentTimeMillis() + timeout;
+    while (true) {
+      synchronized (UPDATE_LOCK) {
+        Entry entry = read(fileOf(id));
+        if (entry != null && entry.pid() == pid) {
+          try {
+            register(update.apply(entry));
+            return true;
+          } catch (IOException e) {
+            return false;
+          }
+        }
+      }
+      if (System.currentTimeMillis() >= deadline) {
+        return false;
+      }
+      try {
+        Thread.sleep(50);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    }
+  }
+
+  /**
+   * Removes an application from the registry.
+   *
+   * @param id the application id
+   */
+  public void unregister(String id) {
+    fileOf(id).delete();
+  }
+
+  /**
+   * Looks up a running application.
+   *
+   * @param id the application id
+   * @return the entry, {@code null} if the application is not registered or not running anymore (the stale entry is
+   * removed in this case)
+   */
+  public Entry lookup(String id) {
+    Entry entry = read(fileOf(id));
+    if (entry == null) {
+      return null;
+    }
+    if (!entry.process().isPresent()) {
+      unregister(id);
+      return null;
+    }
+    return entry;
+  }
+
+  /**
+   * Lists the running applications, sorted by start time. Stale entries are removed.
+   *
+   * @return the list of running applications
+   */
+  public List<Entry> list() {
+    List<Entry> entries = new ArrayList<>();
+    File[] files = directory.listFiles((dir, name) -> name.endsWith(".json"));
+    if (files == null) {
+      return entries;
+    }
+    for (File file : files) {
+      Entry entry = read(file);
+      if (entry == null) {
+        continue;
+      }
+      if (entry.process().isPresent()) {
+        entries.add(entry);
+      } else {
+        file.delete();
+      }
+    }
+    entries.sort(Comparator.comparingLong(Entry::startTime));
+    return entries;
+  }
+
+  /**
+   * Lists the running processes of a group, started with {@code start --processes N}.
+   *
+   * @param group the group id
+   * @return the list of running processes of the group, sorted by start time
+   */
+  public List<Entry> group(String group) {
+    List<Entry> entries = new ArrayList<>();
+    for (Entry entry : list()) {
+      if (group.equals(entry.group())) {
+        entries.add(entry);
+      }
+    }
+    return entries;
+  }
+
+  /**
+   * Registers the launcher daemon. There is a single daemon per registry.
+   *
+   * @param entry the entry describing the daemon process and its endpoint
+   * @throws IOException if the entry cannot be written
+   */
+  public void registerDaemon(Entry entry) throws IOException {
+    write(daemonFile(), entry);
+  }
+
+  /**
+   * Removes the launcher daemon from the registry, if the registered daemon is the given process.
+   *
+   * @param pid the pid of the daemon process
+   */
+  public void unregisterDaemon(long pid) {
+    Entry entry = read(daemonFile());
+    if (entry != null && entry.pid() == pid) {
+      daemonFile().delete();
+    }
+  }
+
+  /**
+   * Looks up the running launcher daemon.
+   *
+   * @return the entry, {@code null} if no daemon is running (the stale entry is removed in this case)
+   */
+  public Entry lookupDaemon() {
+    Entry entry = read(daemonFile());
+    if (entry == null) {
+      return null;
+    }
+    if (!entry.process().isPresent()) {
+      daemonFile().delete();
+      return null;
+    }
+    return entry;
+  }
+
+  private File daemonFile() {
+    // Not a .json file, so it is not listed as an application.
+    return new File(directory, "daemon.entry");
+  }
+
+  /**
+   * Gets the file receiving the output of an application started with {@code start --log-pump}.
+   *
+   * @param name the log name, generally the application id
+   * @return the log file, in the {@code logs} directory of the registry
+   */
+  public File logFile(String name) {
+    return new File(new File(directory, "logs"), encode(name) + ".log");
+  }
+
+  private File fileOf(String id) {
+    return new File(directory, encode(id) + ".json");
+  }
+
+  private static String encode(String id) {
+    try {
+      return URLEncoder.encode(id, StandardCharsets.UTF_8.name());
+    } catch (UnsupportedEncodingException e) {
+      // UTF-8 is always supported
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static Entry read(File file) {
+    try {
+      return new Entry(new JsonObject(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8)));
+    } catch (NoSuchFileException e) {
+      return null;
+    } catch (IOException | DecodeException | ClassCastException e) {
+      // Unreadable or corrupted entry, ignore it.
+      return null;
+    }
+  }
+
+  /**
+   * An application registered in the registry. The entry is backed by a {@link JsonObject} so fields added by newer
+   * versions of the launcher are preserved.
+   */
+  public static class Entry {
+
+    private final JsonObject json;
+
+    /**
+     * Creates a new entry.
+     *
+     * @param id          the application id
+     * @param pid         the pid of the application process
+     * @param startTime   the start time of the application process (epoch millis)
+     * @param commandLine the command line used to launch the application
+     * @param details     the application details (verticle or fat jar)
+     */
+    public Entry(String id, long pid, long startTime, String commandLine, String details) {
+      this(new JsonObject()
+        .put("id", id)
+        .put("pid", pid)
+        .put("startTime", startTime)
+        .put("commandLine", commandLine)
+        .put("details", details));
+    }
+
+    /**
+     * Creates an entry from its JSON representation.
+     *
+     * @param json the json object
+     */
+    public Entry(JsonObject json) {
+      this.json = json;
+    }
+
+    /**
+     * Creates an entry describing the given process.
+     *
+     * @param id          the application id
+     * @param process     the process
+     * @param commandLine the command line used to launch the application
+     * @param details     the application details (verticle or fat jar)
+     * @return the entry
+     */
+    public static Entry of(String id, ProcessHandle process, String commandLine, String details) {
+      long startTime = process.info().startInstant().map(Instant::toEpochMilli).orElse(-1L);
+      return new Entry(id, process.pid(), startTime, commandLine, details);
+    }
+
+    public String id() {
+      return json.getString("id");
+    }
+
+    public long pid() {
+      return json.getLong("pid", -1L);
+    }
+
+    public long startTime() {
+      return json.getLong("startTime", -1L);
+    }
+
+    public String commandLine() {
+      return json.getString("commandLine", "");
+    }
+
+    public String details() {
+      return json.getString("details", "");
+    }
+
+    /**
+     * @return the control endpoint of the application, {@code null} if none.
+     */
+    public String controlEndpoint() {
+      return json.getString("controlEndpoint");
+    }
+
+    public Entry setControlEndpoint(String endpoint) {
+      json.put("controlEndpoint", endpoint);
+      return this;
+    }
+
+    /**
+     * @return the token to send to the control endpoint, {@code null} if none.
+     */
+    public String controlToken() {
+      return json.getString("controlToken");
+    }
+
+    public Entry setControlToken(String token) {
+      json.put("controlToken", token);
+      return this;
+    }
+
+    /**
+     * @return the id of the group of processes the application belongs to, {@code null} if none.
+     */
+    public String group() {
+      return json.getString("group");
+    }
+
+    public Entry setGroup(String group) {
+      json.put("group", group);
+      return this;
+    }
+
+    /**
+     * @return the state reported by the application: {@code ready} once the main verticle is deployed, {@code failed}
+     * if the deployment failed, {@code null} before.
+     */
+    public String state() {
+      return json.getString("state");
+    }
+
+    public Entry setState(String state) {
+      json.put("state", state);
+      return this;
+    }
+
+    /**
+     * @return the process of the application if it is still running. The process start time is compared to the
+     * recorded one, so a recycled pid is not mistaken for the application.
+     */
+    public Optional<ProcessHandle> process() {
+      return ProcessHandle.of(pid())
+        .filter(ProcessHandle::isAlive)
+        .filter(ph -> {
+          long recorded = startTime();
+          Optional<Instant> actual = ph.info().startInstant();
+          // Some platforms only provide the start time with a second precision.
+          return recorded < 0 || !actual.isPresent() || Math.abs(actual.get().toEpochMilli() - recorded) < 1000;
+        });
+    }
+
+    public JsonObject toJson() {
+      return json.copy();
+    }
+  }
+}
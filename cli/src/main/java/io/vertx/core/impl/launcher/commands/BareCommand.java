@@ -32,7 +32,9 @@ import java.io.FileNotFoundException;
 import java.lang.reflect.Method;
 import java.util.*;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
@@ -54,6 +56,13 @@ public class BareCommand extends ClasspathHandler {
   public static final String DEPLOYMENT_OPTIONS_PROP_PREFIX = "vertx.deployment.options.";
   public static final String METRICS_OPTIONS_PROP_PREFIX = "vertx.metrics.options.";
 
+  /**
+   * The system property enabling {@code SO_REUSEPORT} on all the servers of the application, set by
+   * {@code start --processes} so the processes share their listening ports. The transport of the vert.x instance is
+   * replaced by a wrapper of the selected transport.
+   */
+  public static final String REUSE_PORT_PROPERTY = "vertx.launcher.reusePort";
+
   protected Vertx vertx;
 
   protected int clusterPort;
@@ -69,6 +78,9 @@ public class BareCommand extends ClasspathHandler {
 
   protected Runnable finalAction;
 
+  protected String preloadClasses;
+  protected ClassPreloader preloader;
+
   /**
    * Sets the quorum option.
    *
@@ -160,6 +172,18 @@ public class BareCommand extends ClasspathHandler {
     }
   }
 
+  /**
+   * Sets the class list used to preload the classes during the startup.
+   *
+   * @param file the class list
+   */
+  @Option(longName = "preload-classes", argName = "file")
+  @Description("Preloads the classes of the given file on background threads while Vert.x starts. If the file does " +
+    "not exist, the classes loaded until the application is started are recorded in the file (using JFR).")
+  public void setPreloadClasses(String file) {
+    this.preloadClasses = file;
+  }
+
   /**
    * @return whether or not the vert.x instance should be clustered. This implementation
    * returns {@code true}.
@@ -182,6 +206,7 @@ public class BareCommand extends ClasspathHandler {
   @Override
   public void run() {
     this.run(null);
+    completePreloading();
   }
 
   /**
@@ -191,9 +216,38 @@ public class BareCommand extends ClasspathHandler {
    */
   public void run(Runnable action) {
     this.finalAction = action;
+    startPreloading();
     vertx = startVertx();
   }
 
+  /**
+   * Starts recording or preloading the classes when the {@code preload-classes} option is set.
+   */
+  protected void startPreloading() {
+    if (preloadClasses != null && preloader == null) {
+      ClassLoader loader = (classpath == null || classpath.isEmpty()) ? getClass().getClassLoader() :
+        createClassloader();
+      preloader = ClassPreloader.start(getClassList(), loader, log);
+    }
+  }
+
+  /**
+   * @return the class list set with the {@code preload-classes} option, resolved against the working directory
+   */
+  protected File getClassList() {
+    File list = new File(preloadClasses);
+    return list.isAbsolute() ? list : new File(getCwd(), preloadClasses);
+  }
+
+  /**
+   * Completes the recording or the preloading of the classes, once the application is started.
+   */
+  protected void completePreloading() {
+    if (preloader != null) {
+      preloader.complete();
+    }
+  }
+
   /**
    * Starts the vert.x instance.
    *
@@ -226,12 +280,7 @@ public class BareCommand extends ClasspathHandler {
           metricsOptions = metricsFactory.newOptions(metricsOptions);
         }
       }
-      configureFromSystemProperties.set(log);
-      try {
-        configureFromSystemProperties(metricsOptions, METRICS_OPTIONS_PROP_PREFIX);
-      } finally {
-        configureFromSystemProperties.set(null);
-      }
+      configureFromSystemProperties(log, metricsOptions, METRICS_OPTIONS_PROP_PREFIX);
       options.setMetricsOptions(metricsOptions);
     }
 
@@ -244,8 +293,12 @@ public class BareCommand extends ClasspathHandler {
     }
 
     beforeStartingVertx(options);
+    Future<Void> beforeStartingVertxHook = beforeStartingVertxAsync(options);
 
     VertxBuilder builder = createVertxBuilder(options);
+    if (Boolean.getBoolean(REUSE_PORT_PROPERTY)) {
+      builder.withTransport(ReusePortTransport.select(options));
+    }
 
     if (metricsFactory != null) {
       builder.withMetrics(metricsFactory);
@@ -310,18 +363,28 @@ public class BareCommand extends ClasspathHandler {
     } else {
       instance = configureFromSystemProperties(options, () -> create(builder));
     }
+    Throwable failure = awaitHook(beforeStartingVertxHook, "before starting vert.x");
+    if (failure != null) {
+      log.error("Failed in the before starting vert.x hook", failure);
+      if (instance != null) {
+        // null when the creation has failed, already logged
+        instance.close();
+      }
+      return null;
+    }
     addShutdownHook(instance, log, finalAction);
     afterStartingVertx(instance);
     return instance;
   }
 
   private <T> T configureFromSystemProperties(VertxOptions options, Supplier<T> callback) {
+    configureFromSystemProperties(log, options, VERTX_OPTIONS_PROP_PREFIX);
+    if (options.getMetricsOptions() != null) {
+      configureFromSystemProperties(log, options.getMetricsOptions(), METRICS_OPTIONS_PROP_PREFIX);
+    }
+    // Options created while Vert.x starts can still be configured using the thread-local logger.
     configureFromSystemProperties.set(log);
     try {
-      configureFromSystemProperties(options, VERTX_OPTIONS_PROP_PREFIX);
-      if (options.getMetricsOptions() != null) {
-        configureFromSystemProperties(options.getMetricsOptions(), METRICS_OPTIONS_PROP_PREFIX);
-      }
       return callback.get();
     } finally {
       configureFromSystemProperties.set(null);
@@ -393,6 +456,44 @@ public class BareCommand extends ClasspathHandler {
     }
   }
 
+  /**
+   * Hook called before starting vert.x, the returned future completes while vert.x starts.
+   *
+   * @param options the vert.x options
+   * @return the future awaited before {@link #afterStartingVertx(Vertx)}
+   */
+  protected Future<Void> beforeStartingVertxAsync(VertxOptions options) {
+    Object main = executionContext.main();
+    if (main instanceof VertxLifecycleHooks) {
+      return ((VertxLifecycleHooks) main).beforeStartingVertxAsync(options);
+    }
+    return Future.succeededFuture();
+  }
+
+  /**
+   * Waits for the completion of an asynchronous hook.
+   *
+   * @param future the future returned by the hook, {@code null} is considered as completed
+   * @param hook   the hook name
+   * @return the failure of the hook, {@code null} if it succeeded
+   */
+  protected static Throwable awaitHook(Future<?> future, String hook) {
+    if (future == null) {
+      return null;
+    }
+    try {
+      future.toCompletionStage().toCompletableFuture().get(2, TimeUnit.MINUTES);
+      return null;
+    } catch (ExecutionException e) {
+      return e.getCause();
+    } catch (TimeoutException e) {
+      return new VertxException("Timed out in the " + hook + " hook", true);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return e;
+    }
+  }
+
   protected VertxBuilder createVertxBuilder(VertxOptions options) {
     Object main = executionContext.main();
     if (main instanceof VertxLifecycleHooks) {
@@ -414,12 +515,7 @@ public class BareCommand extends ClasspathHandler {
    */
   protected EventBusOptions getEventBusOptions(JsonObject jsonObject) {
     EventBusOptions eventBusOptions = jsonObject == null ? new EventBusOptions() : new EventBusOptions(jsonObject);
-    configureFromSystemProperties.set(log);
-    try {
-      configureFromSystemProperties(eventBusOptions, VERTX_EVENTBUS_PROP_PREFIX);
-    } finally {
-      configureFromSystemProperties.set(null);
-    }
+    configureFromSystemProperties(log, eventBusOptions, VERTX_EVENTBUS_PROP_PREFIX);
     return eventBusOptions;
   }
 
@@ -434,6 +530,19 @@ public class BareCommand extends ClasspathHandler {
     if (log == null) {
       return;
     }
+    configureFromSystemProperties(log, options, prefix);
+  }
+
+  /**
+   * Configures the given options from the system properties starting with the given prefix. Unlike
+   * {@link #configureFromSystemProperties(Object, String)}, it does not depend on a thread-local state, so commands
+   * can be executed concurrently in the same JVM.
+   *
+   * @param log     the logger reporting the invalid properties
+   * @param options the options to configure
+   * @param prefix  the prefix of the system properties
+   */
+  protected static void configureFromSystemProperties(Logger log, Object options, String prefix) {
     Properties props = System.getProperties();
     Enumeration<?> e = props.propertyNames();
     // Uhh, properties suck
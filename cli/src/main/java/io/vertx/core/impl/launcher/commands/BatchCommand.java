@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.launcher.commands;
+
+import io.vertx.core.cli.CLIException;
+import io.vertx.core.cli.annotations.*;
+import io.vertx.core.spi.launcher.DefaultCommand;
+import io.vertx.core.spi.launcher.ExecutionContext;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * A command executing a script of command lines in a single JVM, so bringing up several applications only pays the
+ * launcher startup once.
+ * <p/>
+ * The script contains a command line per line ({@code start run my.Verticle --vertx-id=my-app}). Empty lines and
+ * lines starting with {@code #} are ignored. Consecutive lines running the same {@code start} or {@code stop} command
+ * are independent, and are executed in parallel. Any other command waits for the previous lines to complete, so a
+ * {@code list} line following {@code start} lines lists the started applications.
+ * <p/>
+ * The output of each command line is printed once it completes, in the script order. The command exits with the
+ * first non-zero exit status. The script is checked before executing any line: it fails if a line does not start with
+ * a known command, or runs a command that cannot be executed in a batch.
+ */
+@Name("batch")
+@Summary("Execute several commands in a single launcher invocation")
+@Description("Executes the command lines read from a file (or the standard input), such as several `start` lines " +
+  "followed by `list`. Consecutive `start` (or `stop`) lines are executed in parallel, other commands wait for the " +
+  "previous lines to complete. Empty lines and lines starting with `#` are ignored.")
+public class BatchCommand extends DefaultCommand {
+
+  /**
+   * The commands that can be executed in parallel with the adjacent lines running the same command.
+   */
+  static final List<String> PARALLEL_COMMANDS = Collections.unmodifiableList(Arrays.asList("start", "stop"));
+
+  /**
+   * The commands that cannot be executed in a batch, as they keep running in the launcher JVM.
+   */
+  static final List<String> UNSUPPORTED_COMMANDS = Collections.unmodifiableList(Arrays.asList("run", "bare",
+    "batch", "daemon", "standby"));
+
+  private String file;
+  private int parallelism;
+  private boolean sequential;
+  private boolean failFast;
+
+  /**
+   * Sets the script file.
+   *
+   * @param file the file, {@code -} for the standard input
+   */
+  @Argument(index = 0, argName = "file", required = false)
+  @Description("The file containing the command lines, the standard input if not set or set to `-`.")
+  public void setFile(String file) {
+    this.file = file;
+  }
+
+  /**
+   * Sets the maximum number of command lines executed concurrently.
+   *
+   * @param parallelism the number of command lines
+   */
+  @Option(longName = "parallelism", argName = "count")
+  @Description("The maximum number of command lines executed concurrently. 8 by default.")
+  @DefaultValue("8")
+  public void setParallelism(int parallelism) {
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Whether or not the command lines are executed one after the other.
+   *
+   * @param sequential {@code true} to disable the parallel execution
+   */
+  @Option(longName = "sequential", flag = true)
+  @Description("Executes the command lines one after the other.")
+  public void setSequential(boolean sequential) {
+    this.sequential = sequential;
+  }
+
+  /**
+   * Whether or not the execution stops at the first failure.
+   *
+   * @param failFast {@code true} to stop at the first failure
+   */
+  @Option(longName = "fail-fast", flag = true)
+  @Description("Stops the execution once a command line fails. The command lines executed in parallel with the " +
+    "failed one complete.")
+  public void setFailFast(boolean failFast) {
+    this.failFast = failFast;
+  }
+
+  @Override
+  public void setUp(ExecutionContext context) throws CLIException {
+    super.setUp(context);
+    if (parallelism < 1) {
+      throw new CLIException("The parallelism must be positive");
+    }
+  }
+
+  @Override
+  public void run() {
+    List<Line> lines;
+    try {
+      lines = read();
+    } catch (IOException | IllegalArgumentException e) {
+      out.println("Cannot read the command lines: " + e.getMessage());
+      ExecUtils.exitBecauseOfSystemConfigurationIssue();
+      return;
+    }
+    Collection<String> commands = executionContext.launcher().getCommandNames();
+    for (Line line : lines) {
+      if (!commands.contains(line.args[0])) {
+        // The launcher prints the usage and exits with 0 on unknown commands, a typo must not go unnoticed.
+        out.println("The command '" + line.args[0] + "' is not a valid command (line " + line.number + ")");
+        ExecUtils.exitBecauseOfSystemConfigurationIssue();
+        return;
+      }
+      if (UNSUPPORTED_COMMANDS.contains(line.args[0])) {
+        out.println("The '" + line.args[0] + "' command cannot be executed in a batch (line " + line.number + ")");
+        ExecUtils.exitBecauseOfSystemConfigurationIssue();
+        return;
+      }
+    }
+
+    long begin = System.nanoTime();
+    int status = 0;
+    int failures = 0;
+    int executed = 0;
+    ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+      Thread thread = new Thread(runnable, "vertx-batch");
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      for (List<Line> stage : stages(lines, sequential)) {
+        List<Future<Integer>> results = new ArrayList<>();
+        for (Line line : stage) {
+          results.add(executor.submit(() -> execute(line)));
+        }
+        for (int i = 0; i < stage.size(); i++) {
+          Line line = stage.get(i);
+          int result = join(results.get(i));
+          executed++;
+          out.println("> " + line.text);
+          out.print(line.output.toString(StandardCharsets.UTF_8));
+          if (result != 0) {
+            out.println("[WARNING] Line " + line.number + " failed with status " + result);
+            failures++;
+            if (status == 0) {
+              status = result;
+            }
+          }
+        }
+        if (failFast && status != 0) {
+          break;
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    out.println("Executed " + executed + " of " + lines.size() + " command lines in "
+      + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin) + " ms, " + failures + " failed");
+    if (status != 0) {
+      ExecUtils.exit(status);
+    }
+  }
+
+  private int execute(Line line) {
+    PrintStream stream = new PrintStream(line.output, true, StandardCharsets.UTF_8);
+    try {
+      return executionContext.launcher().dispatch(line.args, stream);
+    } catch (RuntimeException e) {
+      e.printStackTrace(stream);
+      return 1;
+    }
+  }
+
+  private static int join(Future<Integer> result) {
+    try {
+      return result.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return ExecUtils.PROCESS_ERROR_EXIT_CODE;
+    } catch (ExecutionException e) {
+      return 1;
+    }
+  }
+
+  private List<Line> read() throws IOException {
+    if (file == null || file.equals("-")) {
+      return parse(new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)));
+    }
+    File script = new File(file);
+    if (!script.isAbsolute()) {
+      script = new File(getCwd(), file);
+    }
+    try (BufferedReader reader = Files.newBufferedReader(script.toPath(), StandardCharsets.UTF_8)) {
+      return parse(reader);
+    }
+  }
+
+  /**
+   * Parses the command lines.
+   *
+   * @param reader the reader
+   * @return the command lines
+   * @throws IOException              if the lines cannot be read
+   * @throws IllegalArgumentException if a line contains unbalanced quotes
+   */
+  static List<Line> parse(BufferedReader reader) throws IOException {
+    List<Line> lines = new ArrayList<>();
+    String text;
+    int number = 0;
+    while ((text = reader.readLine()) != null) {
+      number++;
+      text = text.trim();
+      if (text.isEmpty() || text.startsWith("#")) {
+        continue;
+      }
+      List<String> args;
+      try {
+        args = ExecUtils.splitArguments(text);
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException("line " + number + ": " + e.getMessage());
+      }
+      lines.add(new Line(number, text, args.toArray(new String[0])));
+    }
+    return lines;
+  }
+
+  /**
+   * Groups the command lines in stages. The lines of a stage are executed in parallel, and a stage starts once the
+   * previous one has completed.
+   *
+   * @param lines      the command lines
+   * @param sequential whether or not each line is a stage
+   * @return the stages
+   */
+  static List<List<Line>> stages(List<Line> lines, boolean sequential) {
+    List<List<Line>> stages = new ArrayList<>();
+    List<Line> current = null;
+    for (Line line : lines) {
+      String command = line.args[0];
+      boolean joins = !sequential && current != null && PARALLEL_COMMANDS.contains(command)
+        && current.get(0).args[0].equals(command);
+      if (!joins) {
+        current = new ArrayList<>();
+        stages.add(current);
+      }
+      current.add(line);
+    }
+    return stages;
+  }
+
+  /**
+   * A command line of the script.
+   */
+  static final class Line {
+
+    final int number;
+    final String text;
+    final String[] args;
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    Line(int number, String text, String[] args) {
+      this.number = number;
+      this.text = text;
+      this.args = args;
+    }
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.launcher.commands;
+
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * A dynamic AppCDS archive created by the {@code cds} command, and used by the {@code start} command.
+ * <p/>
+ * The archive is stored in the {@code cds} directory of the application registry, and named after the JDK and the
+ * classpath of the application, so the {@code start} command finds the archive matching the application it starts.
+ * A descriptor stored next to the archive records the JDK and the size and modification time of the jars of the
+ * classpath. The archive is not used when one of them has changed, as the JVM would reject it.
+ */
+public final class CdsArchive {
+
+  /**
+   * The system property set on the training run of the application, the application exits once its main verticle is
+   * deployed.
+   */
+  public static final String TRAINING_PROPERTY = "vertx.cds.training";
+
+  /**
+   * The first Java version supporting dynamic archives ({@code -XX:ArchiveClassesAtExit}).
+   */
+  static final int MIN_JAVA_VERSION = 13;
+
+  private final File archive;
+  private final File descriptor;
+  private final String classpath;
+
+  private CdsArchive(File archive, File descriptor, String classpath) {
+    this.archive = archive;
+    this.descriptor = descriptor;
+    this.classpath = classpath;
+  }
+
+  /**
+   * Gets the archive of a classpath, for the running JDK.
+   *
+   * @param registry  the application registry
+   * @param classpath the classpath of the application
+   * @return the archive, it may not exist
+   */
+  public static CdsArchive of(ApplicationRegistry registry, String classpath) {
+    String name = hash(System.getProperty("java.home") + "\n" + System.getProperty("java.vm.version") + "\n"
+      + classpath);
+    File dir = new File(registry.directory(), "cds");
+    return new CdsArchive(new File(dir, name + ".jsa"), new File(dir, name + ".json"), classpath);
+  }
+
+  /**
+   * @return whether the running JVM can create dynamic archives
+   */
+  public static boolean isSupported() {
+    return Runtime.version().feature() >= MIN_JAVA_VERSION;
+  }
+
+  /**
+   * @return the archive file
+   */
+  public File file() {
+    return archive;
+  }
+
+  /**
+   * Checks that the archive can be used by the running JDK and the current classpath.
+   *
+   * @return {@code null} if the archive can be used, the reason otherwise
+   */
+  public String validate() {
+    if (!archive.isFile() || !descriptor.isFile()) {
+      return "the archive does not exist";
+    }
+    JsonObject json;
+    try {
+      json = new JsonObject(new String(Files.readAllBytes(descriptor.toPath()), StandardCharsets.UTF_8));
+    } catch (IOException | DecodeException e) {
+      return "the archive descriptor cannot be read";
+    }
+    JsonObject expected = describe();
+    if (!expected.getString("javaHome").equals(json.getString("javaHome"))
+      || !expected.getString("vmVersion").equals(json.getString("vmVersion"))) {
+      return "it has been created by another JDK (" + json.getString("vmVersion") + ")";
+    }
+    if (!expected.getString("classpath").equals(json.getString("classpath"))) {
+      return "it has been created with another classpath";
+    }
+    if (!expected.getString("jars").equals(json.getString("jars"))) {
+      return "a jar of the classpath has changed";
+    }
+    if (archive.length() != json.getLong("size", -1L)) {
+      return "the archive has changed";
+    }
+    return null;
+  }
+
+  /**
+   * Writes the descriptor of the archive, once created.
+   *
+   * @throws IOException if the descriptor cannot be written
+   */
+  void writeDescriptor() throws IOException {
+    JsonObject json = describe().put("size", archive.length());
+    Files.write(descriptor.toPath(), json.encodePrettily().getBytes(StandardCharsets.UTF_8));
+  }
+
+  private JsonObject describe() {
+    String jars = Arrays.stream(classpath.split(File.pathSeparator))
+      .map(File::new)
+      .map(file -> file.isFile() ? file.length() + "@" + file.lastModified() : "")
+      .collect(Collectors.joining(File.pathSeparator));
+    return new JsonObject()
+      .put("javaHome", System.getProperty("java.home"))
+      .put("vmVersion", System.getProperty("java.vm.version"))
+      .put("classpath", classpath)
+      .put("jars", jars);
+  }
+
+  private static String hash(String value) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+      StringBuilder builder = new StringBuilder();
+      for (int i = 0; i < 8; i++) {
+        builder.append(String.format("%02x", digest[i]));
+      }
+      return builder.toString();
+    } catch (NoSuchAlgorithmException e) {
+      // SHA-256 is always supported
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.launcher.commands;
+
+import io.vertx.core.cli.CLIException;
+import io.vertx.core.cli.annotations.*;
+import io.vertx.core.spi.launcher.DefaultCommand;
+import io.vertx.core.spi.launcher.ExecutionContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A command creating a dynamic AppCDS archive for an application. The application is run in a new JVM until its main
+ * verticle is deployed, and the JVM dumps the loaded classes when it exits ({@code -XX:ArchiveClassesAtExit}). The
+ * {@code start} command then launches the application with the archive, see {@link CdsArchive}.
+ */
+@Name("cds")
+@Summary("Create a class data sharing archive for a vert.x application")
+@Description("Runs the application until its main verticle is deployed, and creates a dynamic AppCDS archive of the " +
+  "loaded classes. The `start` command uses the archive when it launches the application with the same JDK and " +
+  "classpath, reducing its startup time. Requires Java 13 or later.")
+public class CdsCommand extends DefaultCommand {
+
+  private String launcher;
+  private String jvmOptions;
+  private long timeout;
+
+  /**
+   * Sets the Java Virtual Machine options of the training run. If not set, the JAVA_OPTS environment variable is used.
+   *
+   * @param options the jvm options
+   */
+  @Option(longName = "java-opts", required = false, acceptValue = true)
+  @Description("Java Virtual Machine options to pass to the training run. If not set the `JAVA_OPTS` environment " +
+    "variable is used.")
+  public void setJavaOptions(String options) {
+    this.jvmOptions = options;
+  }
+
+  /**
+   * A hidden option to set the launcher class.
+   *
+   * @param clazz the class
+   */
+  @Option(longName = "launcher-class")
+  @Hidden
+  public void setLauncherClass(String clazz) {
+    this.launcher = clazz;
+  }
+
+  /**
+   * Sets the maximum duration of the training run.
+   *
+   * @param timeout the timeout in milliseconds
+   */
+  @Option(longName = "timeout", argName = "timeout")
+  @Description("The maximum time waited for the application to be deployed, in milliseconds. 300000 ms by default.")
+  @DefaultValue("300000")
+  public void setTimeout(long timeout) {
+    this.timeout = timeout;
+  }
+
+  @Override
+  public void setUp(ExecutionContext context) throws CLIException {
+    super.setUp(context);
+    if (timeout <= 0) {
+      throw new CLIException("The timeout must be positive");
+    }
+  }
+
+  @Override
+  public void run() {
+    if (!CdsArchive.isSupported()) {
+      out.println("Dynamic CDS archives require Java " + CdsArchive.MIN_JAVA_VERSION + " or later, the JVM version " +
+        "is " + Runtime.version());
+      ExecUtils.exitBecauseOfSystemConfigurationIssue();
+      return;
+    }
+    String classpath = System.getProperty("java.class.path");
+    CdsArchive archive = CdsArchive.of(ApplicationRegistry.create(), classpath);
+    File target = archive.file();
+    File tmp = new File(target.getParentFile(), target.getName() + ".tmp");
+    target.getParentFile().mkdirs();
+    tmp.delete();
+
+    List<String> cmd = new ArrayList<>();
+    cmd.add(ExecUtils.getJavaExecutable().getAbsolutePath());
+    cmd.add("-XX:ArchiveClassesAtExit=" + tmp.getAbsolutePath());
+    try {
+      cmd.addAll(ExecUtils.splitArguments(jvmOptions == null ? System.getenv("JAVA_OPTS") : jvmOptions));
+    } catch (IllegalArgumentException e) {
+      out.println("Invalid JVM options: " + e.getMessage());
+      ExecUtils.exitBecauseOfSystemConfigurationIssue();
+      return;
+    }
+    List<String> arguments = executionContext.commandLine().allArguments();
+    if (systemProperties != null) {
+      systemProperties.stream().map(entry -> "-D" + entry).forEach(arguments::add);
+    }
+    arguments.add("-D" + CdsArchive.TRAINING_PROPERTY + "=true");
+    StartCommand.addApplicationCommand(cmd, launcher, arguments, executionContext);
+
+    out.println("Running the application to create the CDS archive...");
+    long begin = System.nanoTime();
+    ProcessBuilder builder = new ProcessBuilder(cmd).inheritIO();
+    builder.environment().put("CLASSPATH", classpath);
+    int status;
+    try {
+      Process process = builder.start();
+      if (!process.waitFor(timeout, TimeUnit.MILLISECONDS)) {
+        process.destroyForcibly();
+        out.println("The application has not been deployed after " + timeout + " ms");
+        ExecUtils.exitBecauseOfProcessIssue();
+        return;
+      }
+      status = process.exitValue();
+    } catch (IOException e) {
+      out.println("Cannot create the training process");
+      e.printStackTrace(out);
+      ExecUtils.exitBecauseOfProcessIssue();
+      return;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      ExecUtils.exitBecauseOfProcessIssue();
+      return;
+    }
+    if (status != 0 || !tmp.isFile()) {
+      tmp.delete();
+      out.println("Cannot create the CDS archive, the application exited with status " + status);
+      ExecUtils.exit(status != 0 ? status : ExecUtils.PROCESS_ERROR_EXIT_CODE);
+      return;
+    }
+    try {
+      Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      archive.writeDescriptor();
+    } catch (IOException e) {
+      out.println("Cannot write the CDS archive " + target + ": " + e.getMessage());
+      ExecUtils.exitBecauseOfSystemConfigurationIssue();
+      return;
+    }
+    out.println("Created the CDS archive " + target + " (" + target.length() / 1024 + " KB) in "
+      + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin) + " ms");
+  }
+}
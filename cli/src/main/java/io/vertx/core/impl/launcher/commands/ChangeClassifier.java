@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.launcher.commands;
+
+import java.io.File;
+
+/**
+ * Decides how the {@link Watcher} handles a changed file: either the change can be applied to the running
+ * application ({@link Action#RELOAD}), or it requires a full redeployment ({@link Action#REDEPLOY}).
+ * <p/>
+ * A {@link ChangeSet} is reloaded in place only if all its files are classified as {@link Action#RELOAD}.
+ */
+@FunctionalInterface
+public interface ChangeClassifier {
+
+  /**
+   * The classifier used by default, requiring a redeployment for every change.
+   */
+  ChangeClassifier REDEPLOY_ALL = file -> Action.REDEPLOY;
+
+  /**
+   * The action required to apply a change.
+   */
+  enum Action {
+    /**
+     * The change can be applied without restarting the application (static resources, templates...).
+     */
+    RELOAD,
+    /**
+     * The application must be redeployed (classes, configuration...).
+     */
+    REDEPLOY
+  }
+
+  /**
+   * Classifies a changed file.
+   *
+   * @param file the changed (added, modified or deleted) file
+   * @return the action required to apply the change, must not be {@code null}
+   */
+  Action classify(File file);
+
+}
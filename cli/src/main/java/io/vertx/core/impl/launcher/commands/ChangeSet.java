@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.launcher.commands;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * The set of files changed during a grace period of the {@link Watcher}. Only files matching the include patterns
+ * (and not excluded) are recorded.
+ * <p/>
+ * Successive changes of the same file are collapsed: a file added and then modified is reported as added, a file
+ * added and then deleted is not reported, and a file deleted and then re-created is reported as modified.
+ */
+public class ChangeSet {
+
+  private final Set<File> added = new LinkedHashSet<>();
+  private final Set<File> modified = new LinkedHashSet<>();
+  private final Set<File> deleted = new LinkedHashSet<>();
+
+  void onAdded(File file) {
+    if (deleted.remove(file)) {
+      modified.add(file);
+    } else {
+      added.add(file);
+    }
+  }
+
+  void onModified(File file) {
+    if (!added.contains(file)) {
+      modified.add(file);
+    }
+  }
+
+  void onDeleted(File file) {
+    modified.remove(file);
+    if (!added.remove(file)) {
+      deleted.add(file);
+    }
+  }
+
+  /**
+   * @return the files created during the grace period.
+   */
+  public Set<File> added() {
+    return Collections.unmodifiableSet(added);
+  }
+
+  /**
+   * @return the files modified during the grace period.
+   */
+  public Set<File> modified() {
+    return Collections.unmodifiableSet(modified);
+  }
+
+  /**
+   * @return the files deleted during the grace period.
+   */
+  public Set<File> deleted() {
+    return Collections.unmodifiableSet(deleted);
+  }
+
+  /**
+   * @return all the changed files, whatever the kind of change.
+   */
+  public Set<File> all() {
+    Set<File> all = new LinkedHashSet<>(added);
+    all.addAll(modified);
+    all.addAll(deleted);
+    return all;
+  }
+
+  /**
+   * @return the number of changed files.
+   */
+  public int size() {
+    return added.size() + modified.size() + deleted.size();
+  }
+
+  /**
+   * @return {@code true} if no change has been recorded.
+   */
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  /**
+   * @return the change set as a JSON object, with the {@code added}, {@code modified} and {@code deleted} arrays of
+   * absolute paths.
+   */
+  public JsonObject toJson() {
+    return new JsonObject()
+      .put("added", paths(added))
+      .put("modified", paths(modified))
+      .put("deleted", paths(deleted));
+  }
+
+  private static JsonArray paths(Set<File> files) {
+    JsonArray array = new JsonArray();
+    files.forEach(file -> array.add(file.getAbsolutePath()));
+    return array;
+  }
+
+  @Override
+  public String toString() {
+    return "ChangeSet{added=" + added + ", modified=" + modified + ", deleted=" + deleted + "}";
+  }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.launcher.commands;
+
+import io.vertx.core.internal.logging.Logger;
+import io.vertx.core.internal.logging.LoggerFactory;
+
+import javax.management.NotificationEmitter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Cleaner;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Detects the isolated classloaders (see {@link IsolatedClassLoader}) which are not garbage collected once the
+ * verticles using them have been undeployed.
+ * <p/>
+ * Each classloader is tracked with a weak reference, and a {@link Cleaner} forgets it once collected. When a
+ * classloader is released, the detector counts the garbage collections able to unload classes (full, old generation
+ * and concurrent cycle collections, young collections never unload classes): a classloader still alive after
+ * {@value #DEFAULT_THRESHOLD} collections (or the value of the {@value #THRESHOLD_PROPERTY} system property) is
+ * reported as leaked, once, with the references commonly keeping it alive: the threads whose context classloader is
+ * the classloader or whose class it has loaded, and the shutdown hooks registered the same way.
+ */
+final class ClassLoaderLeakDetector {
+
+  /**
+   * The system property setting the number of garbage collections after which a released classloader is reported.
+   */
+  static final String THRESHOLD_PROPERTY = "vertx.classLoaderLeakThreshold";
+
+  static final int DEFAULT_THRESHOLD = 3;
+
+  private static final String GC_NOTIFICATION = "com.sun.management.gc.notification";
+
+  /**
+   * The garbage collectors whose collections unload classes, for the Serial, Parallel, CMS, G1 (full collections and,
+   * since Java 20, the remark and cleanup pauses of the concurrent cycles), ZGC and Shenandoah collectors.
+   */
+  static final List<String> CLASS_UNLOADING_COLLECTORS = Collections.unmodifiableList(Arrays.asList(
+    "MarkSweepCompact", "PS MarkSweep", "ConcurrentMarkSweep", "G1 Old Generation", "G1 Concurrent GC",
+    "ZGC Cycles", "ZGC Major Cycles", "Shenandoah Cycles"));
+
+  private static final Logger log = LoggerFactory.getLogger(ClassLoaderLeakDetector.class);
+
+  private static final Cleaner CLEANER = Cleaner.create();
+  private static final Map<Integer, Entry> ENTRIES = new ConcurrentHashMap<>();
+  private static final AtomicInteger IDS = new AtomicInteger();
+  private static final AtomicBoolean LISTENING = new AtomicBoolean();
+
+  private ClassLoaderLeakDetector() {
+    // Avoid direct instantiation.
+  }
+
+  /**
+   * Starts tracking a classloader.
+   *
+   * @param loader the classloader
+   * @param name   the name of the classloader used in the reports
+   */
+  static void track(ClassLoader loader, String name) {
+    int id = IDS.incrementAndGet();
+    ENTRIES.put(id, new Entry(name, loader));
+    // The clean action must not reference the classloader.
+    CLEANER.register(loader, () -> {
+      Entry entry = ENTRIES.remove(id);
+      if (entry != null && entry.released >= 0) {
+        log.debug("The classloader " + entry.name + " has been collected");
+      }
+    });
+  }
+
+  /**
+   * Notifies that a classloader is no longer used, the garbage collections are counted from now on.
+   *
+   * @param loader the classloader
+   */
+  static void release(ClassLoader loader) {
+    Entry entry = find(loader);
+    if (entry != null && entry.released < 0) {
+      entry.released = gcCount();
+      listen();
+    }
+  }
+
+  /**
+   * @param name the name of the classloader
+   * @return whether the classloader is tracked, i.e. has not been collected yet
+   */
+  static boolean isTracked(String name) {
+    return ENTRIES.values().stream().anyMatch(entry -> entry.name.equals(name));
+  }
+
+  /**
+   * Reports the released classloaders still alive after the threshold of garbage collections.
+   *
+   * @return the reports, empty if no new leak has been detected
+   */
+  static List<String> check() {
+    return check(gcCount());
+  }
+
+  static List<String> check(long gcs) {
+    long threshold = Long.getLong(THRESHOLD_PROPERTY, DEFAULT_THRESHOLD);
+    List<String> reports = new ArrayList<>();
+    for (Entry entry : ENTRIES.values()) {
+      ClassLoader loader = entry.reference.get();
+      if (loader == null || entry.released < 0 || entry.reported || gcs - entry.released < threshold) {
+        continue;
+      }
+      entry.reported = true;
+      List<String> culprits = culprits(loader);
+      String report = "The classloader " + entry.name + " is still alive after " + (gcs - entry.released)
+        + " garbage collections since its verticles have been undeployed, it is probably leaked"
+        + (culprits.isEmpty() ? "" : " - referenced by " + String.join(", ", culprits));
+      log.warn(report);
+      reports.add(report);
+    }
+    return reports;
+  }
+
+  private static Entry find(ClassLoader loader) {
+    for (Entry entry : ENTRIES.values()) {
+      if (entry.reference.get() == loader) {
+        return entry;
+      }
+    }
+    return null;
+  }
+
+  private static List<String> culprits(ClassLoader loader) {
+    List<String> culprits = new ArrayList<>();
+    for (Thread thread : Thread.getAllStackTraces().keySet()) {
+      describe(thread, loader, "thread", culprits);
+    }
+    try {
+      Class<?> clazz = Class.forName("java.lang.ApplicationShutdownHooks");
+      Field field = clazz.getDeclaredField("hooks");
+      field.setAccessible(true);
+      List<Thread> hooks = new ArrayList<>();
+      synchronized (clazz) {
+        Map<?, ?> map = (Map<?, ?>) field.get(null);
+        if (map != null) {
+          map.keySet().forEach(hook -> hooks.add((Thread) hook));
+        }
+      }
+      for (Thread hook : hooks) {
+        describe(hook, loader, "shutdown hook", culprits);
+      }
+    } catch (Exception e) {
+      // Either the JDK is not supported, or java.lang is not opened to the launcher.
+      log.debug("Cannot inspect the shutdown hooks, run with --add-opens java.base/java.lang=ALL-UNNAMED", e);
+    }
+    return culprits;
+  }
+
+  private static void describe(Thread thread, ClassLoader loader, String kind, List<String> culprits) {
+    if (thread.getContextClassLoader() == loader) {
+      culprits.add(kind + " '" + thread.getName() + "' (context classloader)");
+    } else if (thread.getClass().getClassLoader() == loader) {
+      culprits.add(kind + " '" + thread.getName() + "' (" + thread.getClass().getName() + ")");
+    }
+  }
+
+  /**
+   * Checks the released classloaders after each garbage collection.
+   */
+  private static void listen() {
+    if (LISTENING.compareAndSet(false, true)) {
+      for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+        if (gc instanceof NotificationEmitter && CLASS_UNLOADING_COLLECTORS.contains(gc.getName())) {
+          ((NotificationEmitter) gc).addNotificationListener((notification, handback) -> check(),
+            notification -> GC_NOTIFICATION.equals(notification.getType()), null);
+        }
+      }
+    }
+  }
+
+  /**
+   * @return the number of garbage collections able to unload classes so far
+   */
+  static long gcCount() {
+    long count = 0;
+    for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      if (CLASS_UNLOADING_COLLECTORS.contains(gc.getName())) {
+        count += Math.max(0, gc.getCollectionCount());
+      }
+    }
+    return count;
+  }
+
+  private static final class Entry {
+
+    private final String name;
+    private final WeakReference<ClassLoader> reference;
+    private volatile long released = -1;
+    private volatile boolean reported;
+
+    private Entry(String name, ClassLoader loader) {
+      this.name = name;
+      this.reference = new WeakReference<>(loader);
+    }
+  }
+}
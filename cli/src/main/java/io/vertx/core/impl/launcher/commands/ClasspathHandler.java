@@ -18,12 +18,9 @@ import io.vertx.core.internal.logging.Logger;
 import io.vertx.core.internal.logging.LoggerFactory;
 import io.vertx.core.spi.launcher.DefaultCommand;
 
-import java.io.File;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.net.URLClassLoader;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -38,11 +35,24 @@ public abstract class ClasspathHandler extends DefaultCommand {
 
   protected static final String PATH_SEP = System.getProperty("path.separator");
 
+  private static final String DEPLOYER_CLASS = "io.vertx.core.impl.launcher.commands.VertxIsolatedDeployer";
+
+  /**
+   * The method handles of the deployer classes, looked up once per class.
+   */
+  private static final ClassValue<DeployerHandles> HANDLES = new ClassValue<DeployerHandles>() {
+    @Override
+    protected DeployerHandles computeValue(Class<?> type) {
+      return new DeployerHandles(type);
+    }
+  };
+
   protected final Logger log = LoggerFactory.getLogger(this.getClass());
 
   protected List<String> classpath;
 
   protected Object manager;
+  private IsolatedDeployer deployer;
   private ClassLoader classloader;
 
   /**
@@ -51,7 +61,8 @@ public abstract class ClasspathHandler extends DefaultCommand {
    * @param classpath the classpath
    */
   @Option(shortName = "cp", longName = "classpath", argName = "classpath")
-  @Description("Provides an extra classpath to be used for the verticle deployment.")
+  @Description("Provides an extra classpath to be used for the verticle deployment. Entries ending with `*` (such " +
+    "as `lib/*`) include all the jars of the directory.")
   public void setClasspath(String classpath) {
     if (classpath == null || classpath.isEmpty()) {
       this.classloader = ClasspathHandler.class.getClassLoader();
@@ -63,20 +74,13 @@ public abstract class ClasspathHandler extends DefaultCommand {
   }
 
   /**
-   * Creates a classloader respecting the classpath option.
+   * Gets the classloader respecting the classpath option. The classloader is shared with the other commands using the
+   * same classpath, and is only recreated when a jar changes (see {@link IsolatedClassLoader}).
    *
    * @return the classloader.
    */
   protected synchronized ClassLoader createClassloader() {
-    URL[] urls = classpath.stream().map(path -> {
-      File file = new File(path);
-      try {
-        return file.toURI().toURL();
-      } catch (MalformedURLException e) {
-        throw new IllegalStateException(e);
-      }
-    }).toArray(URL[]::new);
-    return new URLClassLoader(urls, this.getClass().getClassLoader());
+    return IsolatedClassLoader.of(classpath, this.getClass().getClassLoader());
   }
 
   /**
@@ -88,14 +92,32 @@ public abstract class ClasspathHandler extends DefaultCommand {
     try {
       classloader = (classpath == null || classpath.isEmpty()) ?
         ClasspathHandler.class.getClassLoader() : createClassloader();
-      Class<?> clazz = classloader.loadClass("io.vertx.core.impl.launcher.commands.VertxIsolatedDeployer");
-      return clazz.getDeclaredConstructor().newInstance();
-    } catch (Exception e) {
+      Class<?> clazz = classloader.loadClass(DEPLOYER_CLASS);
+      return HANDLES.get(clazz).newInstance();
+    } catch (Throwable e) {
       log.error("Failed to load or instantiate the isolated deployer", e);
       throw new IllegalStateException(e);
     }
   }
 
+  /**
+   * Gets the deployer, creating it on the first call. When the deployer (see {@link #newInstance()}) does not
+   * implement {@link IsolatedDeployer}, as it has been loaded by another classloader, its methods are called with
+   * method handles looked up once per class.
+   *
+   * @return the deployer
+   */
+  private IsolatedDeployer deployer() {
+    if (manager == null) {
+      manager = newInstance();
+    }
+    if (deployer == null) {
+      deployer = manager instanceof IsolatedDeployer ? (IsolatedDeployer) manager : HANDLES.get(manager.getClass())
+        .bind(manager);
+    }
+    return deployer;
+  }
+
   /**
    * Creates a new non-clustered vert.x instance.
    *
@@ -144,15 +166,10 @@ public abstract class ClasspathHandler extends DefaultCommand {
    */
   public synchronized void deploy(String verticle, Vertx vertx, DeploymentOptions options,
                                   Handler<AsyncResult<String>> completionHandler) {
-    if (manager == null) {
-      manager = newInstance();
-    }
-
     final ClassLoader originalClassLoader = Thread.currentThread().getContextClassLoader();
     try {
+      IsolatedDeployer deployer = deployer();
       Thread.currentThread().setContextClassLoader(classloader);
-      Method method = manager.getClass().getMethod("deploy", String.class, Vertx.class, DeploymentOptions.class,
-        Handler.class);
 
       if (executionContext.get("Default-Verticle-Factory") != null) {
         // there is a configured default
@@ -162,13 +179,164 @@ public abstract class ClasspathHandler extends DefaultCommand {
         }
       }
 
-      method.invoke(manager, verticle, vertx, options, completionHandler);
-    } catch (InvocationTargetException e) {
-      log.error("Failed to deploy verticle " + verticle, e.getCause());
+      deployer.deploy(verticle, vertx, options, completionHandler);
     } catch (Exception e) {
       log.error("Failed to deploy verticle " + verticle, e);
     } finally {
       Thread.currentThread().setContextClassLoader(originalClassLoader);
     }
   }
+
+  /**
+   * Undeploys the verticle deployed with {@link #deploy(String, Vertx, DeploymentOptions, Handler)}.
+   *
+   * @param completionHandler the completion handler
+   */
+  public synchronized void undeploy(Handler<AsyncResult<Void>> completionHandler) {
+    if (manager == null) {
+      completionHandler.handle(Future.failedFuture("No verticle has been deployed"));
+      return;
+    }
+    try {
+      deployer().undeploy(completionHandler);
+    } catch (Exception e) {
+      log.error("Failed to undeploy the verticle", e);
+      completionHandler.handle(Future.failedFuture(e));
+    }
+  }
+
+  /**
+   * Undeploys the verticle deployed with {@link #deploy(String, Vertx, DeploymentOptions, Handler)}, and deploys it
+   * again in the same vert.x instance. The classloader of the {@code --classpath} option is refreshed first, so the
+   * changed jars and directories are used (see {@link IsolatedClassLoader#refresh(List, ClassLoader)}). A replaced classloader is expected to be garbage
+   * collected once the verticle is undeployed, it is reported otherwise (see {@link ClassLoaderLeakDetector}).
+   * <p/>
+   * The launcher itself never calls this method: {@code --redeploy} restarts the application process. It is meant for
+   * the commands extending {@link RunCommand} or {@link BareCommand} which redeploy in the same JVM.
+   *
+   * @param completionHandler the completion handler, notified with the new deployment id
+   */
+  public synchronized void redeploy(Handler<AsyncResult<String>> completionHandler) {
+    if (manager == null) {
+      completionHandler.handle(Future.failedFuture("No verticle has been deployed"));
+      return;
+    }
+    final ClassLoader originalClassLoader = Thread.currentThread().getContextClassLoader();
+    final ClassLoader previous = classloader;
+    try {
+      if (classpath != null && !classpath.isEmpty()) {
+        // The cache does not see the changes in the directories of the classpath
+        classloader = IsolatedClassLoader.refresh(classpath, this.getClass().getClassLoader());
+      }
+      Thread.currentThread().setContextClassLoader(classloader);
+      if (previous != classloader) {
+        // Once undeployed, the verticles loaded by the replaced classloader must not keep it alive.
+        deployer().redeploy(res -> {
+          ClassLoaderLeakDetector.release(previous);
+          completionHandler.handle(res);
+        });
+        return;
+      }
+      deployer().redeploy(completionHandler);
+    } catch (Exception e) {
+      log.error("Failed to redeploy the verticle", e);
+      completionHandler.handle(Future.failedFuture(e));
+    } finally {
+      Thread.currentThread().setContextClassLoader(originalClassLoader);
+    }
+  }
+
+  /**
+   * The method handles of a deployer class which does not implement {@link IsolatedDeployer}. The {@code undeploy}
+   * and {@code redeploy} methods are optional.
+   */
+  private static final class DeployerHandles {
+
+    private final MethodHandle constructor;
+    private final MethodHandle deploy;
+    private final MethodHandle undeploy;
+    private final MethodHandle redeploy;
+
+    DeployerHandles(Class<?> type) {
+      MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+      constructor = find(() -> lookup.findConstructor(type, MethodType.methodType(void.class))
+        .asType(MethodType.methodType(Object.class)));
+      deploy = find(() -> lookup.findVirtual(type, "deploy", MethodType.methodType(void.class, String.class,
+        Vertx.class, DeploymentOptions.class, Handler.class)).asType(MethodType.methodType(void.class, Object.class,
+        String.class, Vertx.class, DeploymentOptions.class, Handler.class)));
+      undeploy = find(() -> lookup.findVirtual(type, "undeploy", MethodType.methodType(void.class, Handler.class))
+        .asType(MethodType.methodType(void.class, Object.class, Handler.class)));
+      redeploy = find(() -> lookup.findVirtual(type, "redeploy", MethodType.methodType(void.class, Handler.class))
+        .asType(MethodType.methodType(void.class, Object.class, Handler.class)));
+    }
+
+    private static MethodHandle find(HandleLookup lookup) {
+      try {
+        return lookup.find();
+      } catch (NoSuchMethodException | IllegalAccessException e) {
+        return null;
+      }
+    }
+
+    Object newInstance() throws Throwable {
+      if (constructor == null) {
+        throw new IllegalStateException("The deployer has no public no-arg constructor");
+      }
+      return (Object) constructor.invokeExact();
+    }
+
+    IsolatedDeployer bind(Object target) {
+      if (deploy == null) {
+        throw new IllegalStateException(target.getClass().getName() + " has no deploy method");
+      }
+      return new IsolatedDeployer() {
+        @Override
+        public void deploy(String verticle, Vertx vertx, DeploymentOptions options,
+                           Handler<AsyncResult<String>> completionHandler) {
+          invoke(() -> {
+            deploy.invokeExact(target, verticle, vertx, options, (Handler) completionHandler);
+          });
+        }
+
+        @Override
+        public void undeploy(Handler<AsyncResult<Void>> completionHandler) {
+          invoke(() -> {
+            required(undeploy, "undeploy").invokeExact(target, (Handler) completionHandler);
+          });
+        }
+
+        @Override
+        public void redeploy(Handler<AsyncResult<String>> completionHandler) {
+          invoke(() -> {
+            required(redeploy, "redeploy").invokeExact(target, (Handler) completionHandler);
+          });
+        }
+
+        private MethodHandle required(MethodHandle handle, String name) {
+          if (handle == null) {
+            throw new UnsupportedOperationException(target.getClass().getName() + " has no " + name + " method");
+          }
+          return handle;
+        }
+      };
+    }
+
+    private static void invoke(Invocation invocation) {
+      try {
+        invocation.invoke();
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new IllegalStateException(e);
+      }
+    }
+
+    private interface HandleLookup {
+      MethodHandle find() throws NoSuchMethodException, IllegalAccessException;
+    }
+
+    private interface Invocation {
+      void invoke() throws Throwable;
+    }
+  }
 }
@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.launcher.commands;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+
+/**
+ * An index of the packages contained in the jars of a classpath, used by {@link IsolatedClassLoader} to route class
+ * and resource lookups to the jars containing them instead of probing every jar.
+ * <p/>
+ * The packages of each jar are persisted in a {@value #FILE_NAME} file stored in the directory of the jar, along with
+ * the size and modification time of the jar. A jar is only scanned again when it changes. The index is kept in memory
+ * when the directory is not writable.
+ * <p/>
+ * Directories are not indexed, and are looked up for every package. The index cannot be used when a jar declares a
+ * {@code Class-Path} in its manifest, or contains entries that cannot be persisted.
+ */
+final class ClasspathIndex {
+
+  /**
+   * The name of the file persisting the packages of the jars of a directory.
+   */
+  static final String FILE_NAME = ".vertx-package-index";
+
+  private static final String HEADER = "# vert.x package index - v1";
+  private static final String VERSIONS = "META-INF/versions/";
+  private static final int[] NONE = new int[0];
+
+  private final Map<String, int[]> packages;
+  private final int[] directories;
+
+  private ClasspathIndex(Map<String, int[]> packages, int[] directories) {
+    this.packages = packages;
+    this.directories = directories;
+  }
+
+  /**
+   * Gets the positions of the classpath entries that may contain the given package, in the classpath order.
+   *
+   * @param pkg the package, using the {@code /} separator
+   * @return the positions of the entries, empty if no entry contains the package
+   */
+  int[] lookup(String pkg) {
+    int[] jars = packages.getOrDefault(pkg, NONE);
+    if (directories.length == 0) {
+      return jars;
+    }
+    if (jars.length == 0) {
+      return directories;
+    }
+    int[] merged = new int[jars.length + directories.length];
+    System.arraycopy(jars, 0, merged, 0, jars.length);
+    System.arraycopy(directories, 0, merged, jars.length, directories.length);
+    Arrays.sort(merged);
+    return merged;
+  }
+
+  /**
+   * Gets the package of a class or resource path: the path up to the last {@code /}, the empty string for resources
+   * stored at the root.
+   *
+   * @param path the path, such as {@code io/vertx/core/Vertx.class}
+   * @return the package
+   */
+  static String packageOf(String path) {
+    int index = path.lastIndexOf('/');
+    return index < 0 ? "" : path.substring(0, index);
+  }
+
+  /**
+   * Builds the index of a classpath, reading and updating the persisted package lists.
+   *
+   * @param entries the classpath entries, missing entries are ignored
+   * @return the index, {@code null} if the classpath cannot be indexed
+   */
+  static ClasspathIndex build(List<File> entries) {
+    Map<File, List<File>> jarsByDirectory = new LinkedHashMap<>();
+    for (File entry : entries) {
+      if (entry.isFile()) {
+        jarsByDirectory.computeIfAbsent(entry.getParentFile(), d -> new ArrayList<>()).add(entry);
+      }
+    }
+    Map<File, Packages> scanned = new HashMap<>();
+    for (Map.Entry<File, List<File>> directory : jarsByDirectory.entrySet()) {
+      Map<String, Packages> persisted = read(new File(directory.getKey(), FILE_NAME));
+      boolean changed = false;
+      for (File jar : directory.getValue()) {
+        Packages packages = persisted.get(jar.getName());
+        if (packages == null || packages.size != jar.length() || packages.lastModified != jar.lastModified()) {
+          packages = scan(jar);
+          if (packages == null) {
+            return null;
+          }
+          persisted.put(jar.getName(), packages);
+          changed = true;
+        }
+        if (packages.classPath) {
+          return null;
+        }
+        scanned.put(jar, packages);
+      }
+      if (changed) {
+        write(new File(directory.getKey(), FILE_NAME), persisted);
+      }
+    }
+
+    Map<String, List<Integer>> owners = new HashMap<>();
+    List<Integer> directories = new ArrayList<>();
+    for (int i = 0; i < entries.size(); i++) {
+      File entry = entries.get(i);
+      Packages packages = scanned.get(entry);
+      if (packages != null) {
+        for (String pkg : packages.names) {
+          owners.computeIfAbsent(pkg, p -> new ArrayList<>()).add(i);
+        }
+      } else if (entry.isDirectory()) {
+        directories.add(i);
+      }
+    }
+    Map<String, int[]> packages = new HashMap<>(owners.size() * 2);
+    owners.forEach((pkg, positions) -> packages.put(pkg, positions.stream().mapToInt(Integer::intValue).toArray()));
+    return new ClasspathIndex(packages, directories.stream().mapToInt(Integer::intValue).toArray());
+  }
+
+  /**
+   * Scans the packages of a jar.
+   *
+   * @param jar the jar
+   * @return the packages, {@code null} if the jar cannot be read or contains entries that cannot be persisted
+   */
+  static Packages scan(File jar) {
+    long size = jar.length();
+    long lastModified = jar.lastModified();
+    Set<String> names = new TreeSet<>();
+    boolean classPath;
+    try (JarFile file = new JarFile(jar, false)) {
+      Enumeration<? extends ZipEntry> entries = file.entries();
+      while (entries.hasMoreElements()) {
+        String name = entries.nextElement().getName();
+        if (name.indexOf('\t') >= 0 || name.indexOf('\n') >= 0 || name.indexOf('\r') >= 0) {
+          return null;
+        }
+        String pkg = packageOf(name);
+        names.add(pkg);
+        if (pkg.startsWith(VERSIONS)) {
+          // Classes of multi-release jars are looked up with their unversioned name
+          int index = name.indexOf('/', VERSIONS.length());
+          if (index > 0) {
+            names.add(packageOf(name.substring(index + 1)));
+          }
+        }
+      }
+      Manifest manifest = file.getManifest();
+      classPath = manifest != null && manifest.getMainAttributes().getValue(Attributes.Name.CLASS_PATH) != null;
+    } catch (IOException e) {
+      return null;
+    }
+    return new Packages(size, lastModified, classPath, names);
+  }
+
+  private static Map<String, Packages> read(File file) {
+    Map<String, Packages> packages = new HashMap<>();
+    if (!file.isFile()) {
+      return packages;
+    }
+    try {
+      List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+      if (lines.isEmpty() || !lines.get(0).equals(HEADER)) {
+        return packages;
+      }
+      for (String line : lines.subList(1, lines.size())) {
+        String[] fields = line.split("\t", -1);
+        if (fields.length < 4) {
+          continue;
+        }
+        Set<String> names = new TreeSet<>(Arrays.asList(fields).subList(4, fields.length));
+        packages.put(fields[0], new Packages(Long.parseLong(fields[1]), Long.parseLong(fields[2]),
+          Boolean.parseBoolean(fields[3]), names));
+      }
+    } catch (IOException | RuntimeException e) {
+      // A corrupted index is rebuilt.
+      packages.clear();
+    }
+    return packages;
+  }
+
+  private static void write(File file, Map<String, Packages> packages) {
+    File tmp = new File(file.getParentFile(), FILE_NAME + "." + ProcessHandle.current().pid() + ".tmp");
+    try {
+      try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(tmp.toPath(), StandardCharsets.UTF_8))) {
+        writer.print(HEADER + "\n");
+        for (Map.Entry<String, Packages> entry : new TreeMap<>(packages).entrySet()) {
+          if (!new File(file.getParentFile(), entry.getKey()).isFile()) {
+            // The jar has been removed.
+            continue;
+          }
+          Packages value = entry.getValue();
+          writer.print(entry.getKey() + "\t" + value.size + "\t" + value.lastModified + "\t" + value.classPath);
+          for (String name : value.names) {
+            writer.print("\t" + name);
+          }
+          writer.print("\n");
+        }
+      }
+      Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      // The directory is not writable, the index is kept in memory.
+      tmp.delete();
+    }
+  }
+
+  /**
+   * The packages of a jar.
+   */
+  static final class Packages {
+
+    final long size;
+    final long lastModified;
+    final boolean classPath;
+    final Set<String> names;
+
+    Packages(long size, long lastModified, boolean classPath, Set<String> names) {
+      this.size = size;
+      this.lastModified = lastModified;
+      this.classPath = classPath;
+      this.names = names;
+    }
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.launcher.commands;
+
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonObject;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+/**
+ * A client of the {@link ControlServer} of an application. A client keeps its connection open, so it can be used
+ * to poll an application periodically.
+ */
+public class ControlClient implements Closeable {
+
+  /**
+   * The default connection and read timeout, in milliseconds.
+   */
+  public static final int DEFAULT_TIMEOUT = 5000;
+
+  private final Socket socket;
+  private final String token;
+  private final DataInputStream in;
+  private final DataOutputStream out;
+
+  private ControlClient(Socket socket, String token) throws IOException {
+    this.socket = socket;
+    this.token = token;
+    this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+    this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+  }
+
+  /**
+   * Connects to the control endpoint of an application.
+   *
+   * @param entry   the registry entry of the application
+   * @param timeout the connection and read timeout, in milliseconds
+   * @return the client, {@code null} if the application does not expose a control endpoint
+   * @throws IOException if the connection fails
+   */
+  public static ControlClient connect(ApplicationRegistry.Entry entry, int timeout) throws IOException {
+    String endpoint = entry.controlEndpoint();
+    if (endpoint == null || entry.controlToken() == null) {
+      return null;
+    }
+    Socket socket = connect(endpoint, timeout);
+    try {
+      socket.setSoTimeout(timeout);
+      return new ControlClient(socket, entry.controlToken());
+    } catch (IOException e) {
+      socket.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Opens a connection to a control endpoint.
+   *
+   * @param endpoint the endpoint, such as {@code tcp://127.0.0.1:45678}
+   * @param timeout  the connection timeout, in milliseconds
+   * @return the socket
+   * @throws IOException if the endpoint is not supported or the connection fails
+   */
+  static Socket connect(String endpoint, int timeout) throws IOException {
+    if (!endpoint.startsWith("tcp://") || endpoint.lastIndexOf(':') < "tcp://".length()) {
+      throw new IOException("Unsupported control endpoint " + endpoint);
+    }
+    String host = endpoint.substring("tcp://".length(), endpoint.lastIndexOf(':'));
+    int port;
+    try {
+      port = Integer.parseInt(endpoint.substring(endpoint.lastIndexOf(':') + 1));
+    } catch (NumberFormatException e) {
+      throw new IOException("Unsupported control endpoint " + endpoint);
+    }
+    Socket socket = new Socket();
+    try {
+      socket.connect(new InetSocketAddress(host, port), timeout);
+      socket.setTcpNoDelay(true);
+      return socket;
+    } catch (IOException e) {
+      socket.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Sends a single request to an application, on a new connection.
+   *
+   * @param entry     the registry entry of the application
+   * @param operation the operation
+   * @return the response, {@code null} if the application does not expose a control endpoint, cannot be reached or
+   * reports a failure
+   */
+  public static JsonObject query(ApplicationRegistry.Entry entry, String operation) {
+    try (ControlClient client = connect(entry, DEFAULT_TIMEOUT)) {
+      if (client == null) {
+        return null;
+      }
+      JsonObject response = client.request(operation);
+      return response.getBoolean("ok", false) ? response : null;
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Sends a request.
+   *
+   * @param operation the operation ({@code status}, {@code metrics}, {@code drain} or {@code stop})
+   * @return the response
+   * @throws IOException if the request fails
+   */
+  public JsonObject request(String operation) throws IOException {
+    return request(new JsonObject().put("op", operation));
+  }
+
+  /**
+   * Sends a request. The token is added to the request.
+   *
+   * @param request the request
+   * @return the response
+   * @throws IOException if the request fails
+   */
+  public synchronized JsonObject request(JsonObject request) throws IOException {
+    ControlServer.write(out, request.copy().put("token", token));
+    try {
+      JsonObject response = ControlServer.read(in);
+      if (response == null) {
+        throw new EOFException("Connection closed by the application");
+      }
+      return response;
+    } catch (DecodeException e) {
+      throw new IOException("Invalid response", e);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    socket.close();
+  }
+}
@@ -0,0 +1,368 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.launcher.commands;
+
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.internal.logging.Logger;
+import io.vertx.core.internal.logging.LoggerFactory;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonObject;
+
+import java.io.*;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * The control endpoint of an application launched with the {@code start} command. The endpoint lets the
+ * {@code stop} and {@code list} commands (or any local tool) query and control the application without signals or
+ * process table scans.
+ * <p/>
+ * The endpoint listens on the loopback interface, on an ephemeral port. Its address and an access token are published
+ * in the {@link ApplicationRegistry} entry of the application, which is only readable by its owner.
+ * <p/>
+ * The protocol is a sequence of frames on a single connection. A frame is a 4 bytes (big endian) length followed by a
+ * UTF-8 encoded JSON object. Each request frame ({@code {"token": "...", "op": "status"}}) is answered by a response
+ * frame containing {@code "ok": true} and the operation result, or {@code "ok": false} and an {@code "error"} message.
+ * Supported operations are:
+ * <ul>
+ * <li>{@code status}: the application id, pid, state ({@code running}, {@code draining}, {@code drained}) and
+ * number of deployments</li>
+ * <li>{@code metrics}: a snapshot of the JVM metrics and of the metrics provided by the contributors registered with
+ * {@link #registerMetrics(String, Supplier)}</li>
+ * <li>{@code drain}: undeploys all the verticles, the response is sent once they are undeployed. The JVM keeps
+ * running</li>
+ * <li>{@code reload}: applies the {@code changes} of the request to the running application, when a reload handler
+ * is set (see {@link #setReloadHandler(Handler)})</li>
+ * <li>{@code stop}: exits the JVM (running the shutdown hooks) once the response has been sent</li>
+ * </ul>
+ */
+public class ControlServer implements Closeable {
+
+  private final static Logger LOGGER = LoggerFactory.getLogger(ControlServer.class);
+
+  /**
+   * The maximum size of a frame, larger frames close the connection.
+   */
+  static final int MAX_FRAME_SIZE = 64 * 1024;
+
+  private static final Map<String, Supplier<JsonObject>> CONTRIBUTORS = new ConcurrentHashMap<>();
+
+  private final Vertx vertx;
+  private final String id;
+  private final String token;
+  private final long startTime = System.currentTimeMillis();
+  private volatile String state = "running";
+  private volatile Handler<JsonObject> reloadHandler;
+  private ServerSocket server;
+
+  /**
+   * Creates a new control server.
+   *
+   * @param vertx the vert.x instance of the application
+   * @param id    the application id
+   */
+  public ControlServer(Vertx vertx, String id) {
+    this.vertx = vertx;
+    this.id = id;
+    byte[] bytes = new byte[24];
+    new SecureRandom().nextBytes(bytes);
+    StringBuilder builder = new StringBuilder();
+    for (byte b : bytes) {
+      builder.append(String.format("%02x", b));
+    }
+    this.token = builder.toString();
+  }
+
+  /**
+   * Registers a metrics contributor. The object returned by the contributor is added to the {@code metrics} snapshot
+   * under the given name.
+   *
+   * @param name        the name
+   * @param contributor the contributor, called from the control thread
+   */
+  public static void registerMetrics(String name, Supplier<JsonObject> contributor) {
+    CONTRIBUTORS.put(name, contributor);
+  }
+
+  /**
+   * Unregisters a metrics contributor.
+   *
+   * @param name the name
+   */
+  public static void unregisterMetrics(String name) {
+    CONTRIBUTORS.remove(name);
+  }
+
+  /**
+   * Sets the handler of the {@code reload} operation, applying the changes detected by the launcher in redeploy mode
+   * to the running application. A failure of the handler is reported to the launcher, which then redeploys.
+   *
+   * @param handler the handler, called from the control thread with the {@link ChangeSet#toJson()} of the changes
+   * @return the current server
+   */
+  public ControlServer setReloadHandler(Handler<JsonObject> handler) {
+    this.reloadHandler = handler;
+    return this;
+  }
+
+  /**
+   * Starts listening.
+   *
+   * @return the endpoint, such as {@code tcp://127.0.0.1:45678}
+   * @throws IOException if the server cannot be bound
+   */
+  public synchronized String start() throws IOException {
+    server = new ServerSocket();
+    server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 8);
+    Thread acceptor = new Thread(this::accept, "vertx-control-" + server.getLocalPort());
+    acceptor.setDaemon(true);
+    acceptor.start();
+    return endpoint();
+  }
+
+  /**
+   * @return the endpoint, {@code null} if the server is not started.
+   */
+  public synchronized String endpoint() {
+    if (server == null) {
+      return null;
+    }
+    return "tcp://" + server.getInetAddress().getHostAddress() + ":" + server.getLocalPort();
+  }
+
+  /**
+   * @return the token clients must send with their requests.
+   */
+  public String token() {
+    return token;
+  }
+
+  /**
+   * Publishes the endpoint in the registry entry of the application. As the entry is written by the {@code start}
+   * command once the process is launched, the entry is awaited for at most the given time.
+   *
+   * @param registry the registry
+   * @param timeout  the time to wait for the entry, in milliseconds
+   * @return {@code true} if the endpoint has been published
+   */
+  public boolean publish(ApplicationRegistry registry, long timeout) {
+    String endpoint = endpoint();
+    return registry.update(id, ProcessHandle.current().pid(),
+      entry -> entry.setControlEndpoint(endpoint).setControlToken(token), timeout);
+  }
+
+  @Override
+  public synchronized void close() {
+    if (server != null) {
+      try {
+        server.close();
+      } catch (IOException e) {
+        // Ignore it.
+      }
+      server = null;
+    }
+  }
+
+  private void accept() {
+    ServerSocket socket;
+    synchronized (this) {
+      socket = server;
+    }
+    while (socket != null && !socket.isClosed()) {
+      try {
+        Socket connection = socket.accept();
+        Thread thread = new Thread(() -> serve(connection), "vertx-control-connection");
+        thread.setDaemon(true);
+        thread.start();
+      } catch (IOException e) {
+        // Closed.
+        return;
+      }
+    }
+  }
+
+  private void serve(Socket connection) {
+    try (Socket s = connection;
+         DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+         DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()))) {
+      JsonObject request;
+      while ((request = read(in)) != null) {
+        String op = request.getString("op");
+        JsonObject response = handle(request);
+        write(out, response);
+        if ("stop".equals(op) && response.getBoolean("ok", false)) {
+          Thread exit = new Thread(() -> ExecUtils.exit(0), "vertx-control-stop");
+          exit.start();
+          return;
+        }
+      }
+    } catch (IOException | DecodeException | ClassCastException e) {
+      // Broken or malformed connection, just close it.
+    }
+  }
+
+  /**
+   * Handles a request.
+   *
+   * @param request the request
+   * @return the response
+   */
+  JsonObject handle(JsonObject request) {
+    String provided = request.getString("token", "");
+    if (!MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8), provided.getBytes(StandardCharsets.UTF_8))) {
+      return error("Invalid token");
+    }
+    String op = request.getString("op", "");
+    switch (op) {
+      case "status":
+        return status();
+      case "metrics":
+        return metrics();
+      case "drain":
+        return drain(request.getLong("timeout", 30000L));
+      case "reload":
+        return reload(request.getJsonObject("changes", new JsonObject()));
+      case "stop":
+        state = "stopping";
+        return new JsonObject().put("ok", true);
+      default:
+        return error("Unknown operation '" + op + "'");
+    }
+  }
+
+  private JsonObject status() {
+    return new JsonObject()
+      .put("ok", true)
+      .put("id", id)
+      .put("pid", ProcessHandle.current().pid())
+      .put("state", state)
+      .put("uptime", System.currentTimeMillis() - startTime)
+      .put("deployments", vertx.deploymentIDs().size());
+  }
+
+  private JsonObject metrics() {
+    JsonObject metrics = new JsonObject().put("ok", true).put("jvm", jvmMetrics());
+    for (Map.Entry<String, Supplier<JsonObject>> contributor : CONTRIBUTORS.entrySet()) {
+      try {
+        metrics.put(contributor.getKey(), contributor.getValue().get());
+      } catch (RuntimeException e) {
+        LOGGER.warn("Metrics contributor " + contributor.getKey() + " failed", e);
+      }
+    }
+    return metrics;
+  }
+
+  private JsonObject drain(long timeout) {
+    state = "draining";
+    List<Future<Void>> undeployments = new ArrayList<>();
+    for (String deployment : vertx.deploymentIDs()) {
+      undeployments.add(vertx.undeploy(deployment));
+    }
+    try {
+      Future.join(undeployments).toCompletionStage().toCompletableFuture().get(timeout, TimeUnit.MILLISECONDS);
+    } catch (Exception e) {
+      return error("Drain failed: " + e.getMessage());
+    } finally {
+      state = "drained";
+    }
+    return new JsonObject().put("ok", true).put("undeployed", undeployments.size());
+  }
+
+  private JsonObject reload(JsonObject changes) {
+    Handler<JsonObject> handler = reloadHandler;
+    if (handler == null) {
+      return error("Reload in place not supported");
+    }
+    try {
+      handler.handle(changes);
+    } catch (RuntimeException e) {
+      LOGGER.error("Failed to reload the changes in place", e);
+      return error("Reload failed: " + e.getMessage());
+    }
+    return new JsonObject().put("ok", true);
+  }
+
+  private static JsonObject jvmMetrics() {
+    Runtime runtime = Runtime.getRuntime();
+    MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+    long gcCount = 0;
+    long gcTime = 0;
+    for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      gcCount += Math.max(0, gc.getCollectionCount());
+      gcTime += Math.max(0, gc.getCollectionTime());
+    }
+    return new JsonObject()
+      .put("heapUsed", heap.getUsed())
+      .put("heapCommitted", heap.getCommitted())
+      .put("heapMax", heap.getMax())
+      .put("threads", ManagementFactory.getThreadMXBean().getThreadCount())
+      .put("processors", runtime.availableProcessors())
+      .put("gcCount", gcCount)
+      .put("gcTime", gcTime);
+  }
+
+  private static JsonObject error(String message) {
+    return new JsonObject().put("ok", false).put("error", message);
+  }
+
+  /**
+   * Reads a frame.
+   *
+   * @param in the input
+   * @return the frame content, {@code null} if the stream is closed
+   * @throws IOException if the frame cannot be read or is too large
+   */
+  static JsonObject read(DataInputStream in) throws IOException {
+    int length;
+    try {
+      length = in.readInt();
+    } catch (EOFException e) {
+      return null;
+    }
+    if (length < 0 || length > MAX_FRAME_SIZE) {
+      throw new IOException("Invalid frame size " + length);
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return new JsonObject(new String(bytes, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Writes a frame.
+   *
+   * @param out  the output
+   * @param json the frame content
+   * @throws IOException if the frame cannot be written
+   */
+  static void write(DataOutputStream out, JsonObject json) throws IOException {
+    byte[] bytes = json.encode().getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+    out.flush();
+  }
+}
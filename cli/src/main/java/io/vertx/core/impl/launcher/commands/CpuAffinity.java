@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.launcher.commands;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Computes the CPU sets of the processes of an application started with {@code start --processes N --pin-cpus}.
+ * The CPUs the launcher is allowed to run on (which reflect the cgroup cpuset) are split in disjoint sets, and each
+ * process is pinned to its set using {@code taskset}.
+ */
+public class CpuAffinity {
+
+  private CpuAffinity() {
+    // Avoid direct instantiation.
+  }
+
+  /**
+   * @return the CPUs the current process is allowed to run on. On Linux, it is read from {@code /proc/self/status},
+   * otherwise it contains all the available processors.
+   */
+  public static List<Integer> allowedCpus() {
+    File status = new File("/proc/self/status");
+    if (status.isFile()) {
+      try {
+        for (String line : Files.readAllLines(status.toPath(), StandardCharsets.UTF_8)) {
+          if (line.startsWith("Cpus_allowed_list:")) {
+            List<Integer> cpus = parse(line.substring("Cpus_allowed_list:".length()));
+            if (!cpus.isEmpty()) {
+              return cpus;
+            }
+          }
+        }
+      } catch (IOException | IllegalArgumentException e) {
+        // Use the available processors.
+      }
+    }
+    List<Integer> cpus = new ArrayList<>();
+    for (int i = 0; i < Runtime.getRuntime().availableProcessors(); i++) {
+      cpus.add(i);
+    }
+    return cpus;
+  }
+
+  /**
+   * Parses a CPU list, such as {@code 0-3,8,10-11}.
+   *
+   * @param list the list
+   * @return the sorted CPUs
+   * @throws IllegalArgumentException if the list is invalid
+   */
+  static List<Integer> parse(String list) {
+    TreeSet<Integer> cpus = new TreeSet<>();
+    for (String segment : list.trim().split(",")) {
+      segment = segment.trim();
+      if (segment.isEmpty()) {
+        continue;
+      }
+      try {
+        int index = segment.indexOf('-');
+        if (index == -1) {
+          cpus.add(Integer.parseInt(segment));
+        } else {
+          int from = Integer.parseInt(segment.substring(0, index));
+          int to = Integer.parseInt(segment.substring(index + 1));
+          for (int i = from; i <= to; i++) {
+            cpus.add(i);
+          }
+        }
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Invalid CPU list " + list, e);
+      }
+    }
+    return new ArrayList<>(cpus);
+  }
+
+  /**
+   * Formats a CPU list, using ranges for consecutive CPUs.
+   *
+   * @param cpus the sorted CPUs
+   * @return the list, such as {@code 0-3,8}
+   */
+  static String format(List<Integer> cpus) {
+    StringBuilder builder = new StringBuilder();
+    int i = 0;
+    while (i < cpus.size()) {
+      int j = i;
+      while (j + 1 < cpus.size() && cpus.get(j + 1) == cpus.get(j) + 1) {
+        j++;
+      }
+      if (builder.length() > 0) {
+        builder.append(',');
+      }
+      builder.append(cpus.get(i));
+      if (j > i) {
+        builder.append('-').append(cpus.get(j));
+      }
+      i = j + 1;
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Splits the CPUs in {@code count} disjoint sets of consecutive CPUs, whose sizes differ by at most one. When there
+   * are fewer CPUs than sets, each set contains a single CPU, and CPUs are shared.
+   *
+   * @param cpus  the CPUs
+   * @param count the number of sets
+   * @return the sets
+   */
+  static List<List<Integer>> partition(List<Integer> cpus, int count) {
+    List<List<Integer>> sets = new ArrayList<>();
+    if (cpus.size() < count) {
+      for (int i = 0; i < count; i++) {
+        List<Integer> set = new ArrayList<>();
+        set.add(cpus.get(i % cpus.size()));
+        sets.add(set);
+      }
+      return sets;
+    }
+    int size = cpus.size() / count;
+    int remainder = cpus.size() % count;
+    int index = 0;
+    for (int i = 0; i < count; i++) {
+      int length = size + (i < remainder ? 1 : 0);
+      sets.add(new ArrayList<>(cpus.subList(index, index + length)));
+      index += length;
+    }
+    return sets;
+  }
+
+  /**
+   * @return the {@code taskset} executable, {@code null} if not found in the {@code PATH}.
+   */
+  static File taskset() {
+    String path = System.getenv("PATH");
+    if (path == null || !ExecUtils.isLinux()) {
+      return null;
+    }
+    for (String dir : path.split(File.pathSeparator)) {
+      File file = new File(dir, "taskset");
+      if (file.isFile() && file.canExecute()) {
+        return file;
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.launcher.commands;
+
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.io.*;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.TreeMap;
+
+/**
+ * A client of the launcher daemon (see {@link DaemonCommand}). It forwards a command line to the daemon and prints
+ * the output of the command as it is produced.
+ * <p/>
+ * The launcher forwards its command line to the daemon when the {@code vertx.daemon} system property is set to
+ * {@code true}, and executes it itself when no daemon is running or the daemon cannot execute it. This client still
+ * pays the JVM startup: scripts calling the launcher often use the {@code src/main/scripts/vertx-client} shell
+ * client instead, which speaks the same protocol without starting a JVM.
+ */
+public class DaemonClient implements Closeable {
+
+  /**
+   * The system property enabling the forwarding of the command lines to the daemon.
+   */
+  public static final String DAEMON_PROPERTY = "vertx.daemon";
+
+  /**
+   * The connection timeout, in milliseconds. The daemon is local, so a short timeout is enough.
+   */
+  static final int CONNECT_TIMEOUT = 1000;
+
+  private final Socket socket;
+  private final String token;
+  private final long pid;
+  private final DataInputStream in;
+  private final DataOutputStream out;
+
+  private DaemonClient(Socket socket, String token, long pid) throws IOException {
+    this.socket = socket;
+    this.token = token;
+    this.pid = pid;
+    this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+    this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+  }
+
+  /**
+   * Connects to the daemon of the given registry.
+   *
+   * @param registry the registry
+   * @return the client, {@code null} if no daemon is running or the daemon cannot be reached
+   */
+  public static DaemonClient connect(ApplicationRegistry registry) {
+    ApplicationRegistry.Entry entry = registry.lookupDaemon();
+    if (entry == null || entry.controlEndpoint() == null || entry.controlToken() == null) {
+      return null;
+    }
+    try {
+      return new DaemonClient(ControlClient.connect(entry.controlEndpoint(), CONNECT_TIMEOUT), entry.controlToken(),
+        entry.pid());
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Forwards a command line to the daemon, if the {@code vertx.daemon} system property is set.
+   *
+   * @param args the command line arguments
+   * @param out  the stream receiving the output of the command
+   * @return the exit code of the command, {@code null} if the command line has not been executed by the daemon and
+   * must be executed locally
+   */
+  public static Integer forward(String[] args, PrintStream out) {
+    if (!Boolean.getBoolean(DAEMON_PROPERTY)) {
+      return null;
+    }
+    try (DaemonClient client = connect(ApplicationRegistry.create())) {
+      if (client == null) {
+        return null;
+      }
+      return client.execute(args, out);
+    } catch (IOException e) {
+      // The command may have been partially executed, it must not be executed again.
+      out.println("[WARNING] Lost the connection to the launcher daemon: " + e.getMessage());
+      return ExecUtils.PROCESS_ERROR_EXIT_CODE;
+    }
+  }
+
+  /**
+   * @return the pid of the daemon.
+   */
+  public long pid() {
+    return pid;
+  }
+
+  /**
+   * Executes a command line in the daemon.
+   *
+   * @param args   the command line arguments
+   * @param output the stream receiving the output of the command
+   * @return the exit code of the command, {@code null} if the daemon cannot execute this command line
+   * @throws IOException if the connection is lost
+   */
+  public Integer execute(String[] args, PrintStream output) throws IOException {
+    ControlServer.write(out, new JsonObject()
+      .put("token", token)
+      .put("op", "execute")
+      .put("args", new JsonArray(Arrays.asList((Object[]) args)))
+      .put("context", context()));
+    while (true) {
+      JsonObject frame = read();
+      if (frame.containsKey("out")) {
+        output.print(frame.getString("out"));
+        output.flush();
+      } else if (frame.containsKey("exit")) {
+        return frame.getInteger("exit");
+      } else if (frame.containsKey("unsupported")) {
+        return null;
+      } else {
+        throw new IOException(frame.getString("error", "Unexpected response " + frame.encode()));
+      }
+    }
+  }
+
+  /**
+   * Stops the daemon. Commands being executed complete before the daemon exits, for at most
+   * {@link DaemonCommand#SHUTDOWN_TIMEOUT} ms.
+   *
+   * @throws IOException if the request fails
+   */
+  public void shutdown() throws IOException {
+    ControlServer.write(out, new JsonObject().put("token", token).put("op", "shutdown"));
+    JsonObject response = read();
+    if (!response.getBoolean("ok", false)) {
+      throw new IOException(response.getString("error", "Cannot stop the daemon"));
+    }
+  }
+
+  private JsonObject read() throws IOException {
+    try {
+      JsonObject frame = ControlServer.read(in);
+      if (frame == null) {
+        throw new EOFException("Connection closed by the daemon");
+      }
+      return frame;
+    } catch (DecodeException e) {
+      throw new IOException("Invalid response", e);
+    }
+  }
+
+  /**
+   * Describes the environment of the current process. The {@code start} command spawns the application from this
+   * environment, with the environment variables of the process, so the daemon only executes it when its own
+   * environment is the same.
+   *
+   * @return the environment
+   */
+  static JsonObject context() {
+    return new JsonObject()
+      .put("cwd", new File("").getAbsolutePath())
+      .put("javaHome", System.getProperty("java.home"))
+      .put("classpath", System.getProperty("java.class.path"))
+      .put("env", new JsonObject(new TreeMap<>(System.getenv())));
+  }
+
+  @Override
+  public void close() throws IOException {
+    socket.close();
+  }
+}
@@ -0,0 +1,376 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.launcher.commands;
+
+import io.vertx.core.cli.annotations.DefaultValue;
+import io.vertx.core.cli.annotations.Description;
+import io.vertx.core.cli.annotations.Name;
+import io.vertx.core.cli.annotations.Option;
+import io.vertx.core.cli.annotations.Summary;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.spi.launcher.DefaultCommand;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A command running the launcher daemon: a warm JVM executing command lines on behalf of launchers started with
+ * {@code -Dvertx.daemon=true}, so they do not pay the JVM startup and the command loading before doing trivial work.
+ * <p/>
+ * The daemon listens on the loopback interface. Its endpoint and access token are published in the
+ * {@link ApplicationRegistry}. The protocol is the one of the {@link ControlServer}: the client sends a
+ * {@code {"op": "execute", "args": [...]}} frame, and receives the output of the command in {@code {"out": "..."}}
+ * frames, followed by a {@code {"exit": status}} frame. Command lines the daemon cannot execute are answered with an
+ * {@code {"unsupported": "reason"}} frame, and the client executes them itself.
+ * <p/>
+ * Only the {@code list}, {@code stop}, {@code start} and {@code version} commands are executed by the daemon, without
+ * system properties (they would be set for the whole daemon). {@code start} is only executed when the client runs in
+ * the same directory, with the same JVM, classpath and environment variables as the daemon, since the application is
+ * spawned from the daemon environment, and without {@code --redirect-output} (the output of the application would
+ * go to the daemon output).
+ * <p/>
+ * Two clients are provided: the launcher itself ({@link DaemonClient}), which still starts a JVM, and the
+ * {@code vertx-client} shell script, which does not. The script does not send its environment, so it executes
+ * {@code start} with the launcher.
+ * <p/>
+ * When stopped, the daemon waits for the commands being executed to complete, for at most
+ * {@link #SHUTDOWN_TIMEOUT} ms.
+ */
+@Name("daemon")
+@Summary("Run the launcher daemon")
+@Description("Runs a warm JVM executing the `list`, `stop`, `start` and `version` commands on behalf of the " +
+  "launchers started with `-Dvertx.daemon=true` and of the `vertx-client` script, avoiding the command loading, and " +
+  "the JVM startup with the script. The daemon runs " +
+  "until it is stopped with `daemon --stop`, or until it has been idle for `idle-timeout`.")
+public class DaemonCommand extends DefaultCommand {
+
+  /**
+   * The commands executed by the daemon.
+   */
+  public static final List<String> COMMANDS = Collections.unmodifiableList(Arrays.asList("list", "stop", "start",
+    "version"));
+
+  /**
+   * The maximum time the daemon waits for the commands being executed when it is stopped, in milliseconds.
+   */
+  static final long SHUTDOWN_TIMEOUT = 60000;
+
+  private boolean stop;
+  private long idleTimeout;
+
+  private final AtomicInteger active = new AtomicInteger();
+  private final AtomicInteger executing = new AtomicInteger();
+  private volatile long lastActivity = System.nanoTime();
+  private volatile ServerSocket server;
+
+  /**
+   * Whether or not the running daemon must be stopped.
+   *
+   * @param stop {@code true} to stop the daemon
+   */
+  @Option(longName = "stop", flag = true)
+  @Description("Stops the running daemon.")
+  public void setStop(boolean stop) {
+    this.stop = stop;
+  }
+
+  /**
+   * Sets the time after which an idle daemon exits.
+   *
+   * @param timeout the timeout in milliseconds, {@code 0} to never exit
+   */
+  @Option(longName = "idle-timeout", argName = "timeout")
+  @Description("The time after which the daemon exits when it has not executed any command, in milliseconds. " +
+    "10800000 ms (3 hours) by default, 0 to keep the daemon running.")
+  @DefaultValue("10800000")
+  public void setIdleTimeout(long timeout) {
+    this.idleTimeout = timeout;
+  }
+
+  @Override
+  public void run() {
+    ApplicationRegistry registry = ApplicationRegistry.create();
+    if (stop) {
+      stopDaemon(registry);
+      return;
+    }
+
+    try (DaemonClient existing = DaemonClient.connect(registry)) {
+      if (existing != null) {
+        out.println("A launcher daemon is already running (pid " + existing.pid() + ")");
+        ExecUtils.exitBecauseOfProcessIssue();
+        return;
+      }
+    } catch (IOException e) {
+      // Ignore it.
+    }
+
+    String token = token();
+    long pid = ProcessHandle.current().pid();
+    try {
+      server = new ServerSocket();
+      server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 50);
+      server.setSoTimeout(1000);
+      String endpoint = "tcp://" + server.getInetAddress().getHostAddress() + ":" + server.getLocalPort();
+      registry.registerDaemon(ApplicationRegistry.Entry.of("daemon", ProcessHandle.current(),
+          String.join(" ", executionContext.commandLine().allArguments()), "daemon")
+        .setControlEndpoint(endpoint).setControlToken(token));
+      out.println("Launcher daemon listening on " + endpoint + " (pid " + pid + ")");
+    } catch (IOException e) {
+      out.println("Cannot start the launcher daemon");
+      e.printStackTrace(out);
+      close();
+      ExecUtils.exitBecauseOfProcessIssue();
+      return;
+    }
+    Thread cleanup = new Thread(() -> registry.unregisterDaemon(pid), "vertx-daemon-cleanup");
+    Runtime.getRuntime().addShutdownHook(cleanup);
+    try {
+      accept(token);
+      awaitCommands();
+    } finally {
+      close();
+      registry.unregisterDaemon(pid);
+      try {
+        Runtime.getRuntime().removeShutdownHook(cleanup);
+      } catch (IllegalStateException e) {
+        // Shutting down.
+      }
+    }
+    out.println("Launcher daemon stopped");
+  }
+
+  private void stopDaemon(ApplicationRegistry registry) {
+    try (DaemonClient client = DaemonClient.connect(registry)) {
+      if (client == null) {
+        out.println("No launcher daemon is running");
+        return;
+      }
+      client.shutdown();
+      out.println("Launcher daemon (pid " + client.pid() + ") stopped");
+    } catch (IOException e) {
+      out.println("Failed to stop the launcher daemon: " + e.getMessage());
+      ExecUtils.exitBecauseOfProcessIssue();
+    }
+  }
+
+  private void accept(String token) {
+    ServerSocket socket = server;
+    while (socket != null && !socket.isClosed()) {
+      try {
+        Socket connection = socket.accept();
+        Thread thread = new Thread(() -> serve(connection, token), "vertx-daemon-connection");
+        thread.setDaemon(true);
+        thread.start();
+      } catch (SocketTimeoutException e) {
+        if (idleTimeout > 0 && active.get() == 0 && System.nanoTime() - lastActivity > idleTimeout * 1_000_000L) {
+          out.println("Launcher daemon idle for " + idleTimeout + " ms, exiting");
+          return;
+        }
+      } catch (IOException e) {
+        // Closed.
+        return;
+      }
+    }
+  }
+
+  /**
+   * Waits for the commands being executed to complete, as the connection threads do not prevent the JVM exit.
+   */
+  private void awaitCommands() {
+    long deadline = System.nanoTime() + SHUTDOWN_TIMEOUT * 1_000_000L;
+    while (executing.get() > 0) {
+      if (System.nanoTime() - deadline > 0) {
+        out.println("Launcher daemon stopping with " + executing.get() + " commands still running");
+        return;
+      }
+      try {
+        Thread.sleep(100);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  private synchronized void close() {
+    if (server != null) {
+      try {
+        server.close();
+      } catch (IOException e) {
+        // Ignore it.
+      }
+    }
+  }
+
+  private void serve(Socket connection, String token) {
+    active.incrementAndGet();
+    try (Socket s = connection;
+         DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+         DataOutputStream output = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()))) {
+      JsonObject request;
+      while ((request = ControlServer.read(in)) != null) {
+        String provided = request.getString("token", "");
+        if (!MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8),
+          provided.getBytes(StandardCharsets.UTF_8))) {
+          ControlServer.write(output, new JsonObject().put("error", "Invalid token"));
+          return;
+        }
+        String op = request.getString("op", "");
+        if ("shutdown".equals(op)) {
+          ControlServer.write(output, new JsonObject().put("ok", true));
+          close();
+          return;
+        } else if ("execute".equals(op)) {
+          if (server.isClosed()) {
+            // Stopping, the client executes the command itself.
+            ControlServer.write(output, new JsonObject().put("unsupported", "the daemon is stopping"));
+          } else {
+            execute(request, output);
+          }
+        } else {
+          ControlServer.write(output, new JsonObject().put("error", "Unknown operation '" + op + "'"));
+        }
+      }
+    } catch (IOException | DecodeException | ClassCastException e) {
+      // Broken or malformed connection, just close it.
+    } finally {
+      lastActivity = System.nanoTime();
+      active.decrementAndGet();
+    }
+  }
+
+  private void execute(JsonObject request, DataOutputStream output) throws IOException {
+    JsonArray array = request.getJsonArray("args", new JsonArray());
+    String[] args = new String[array.size()];
+    for (int i = 0; i < args.length; i++) {
+      args[i] = array.getString(i);
+    }
+    String reason = unsupported(args, request.getJsonObject("context", new JsonObject()));
+    if (reason != null) {
+      ControlServer.write(output, new JsonObject().put("unsupported", reason));
+      return;
+    }
+    FrameOutputStream frames = new FrameOutputStream(output);
+    PrintStream stream = new PrintStream(frames, true, StandardCharsets.UTF_8);
+    int status;
+    executing.incrementAndGet();
+    try {
+      status = executionContext.launcher().dispatch(args, stream);
+    } catch (RuntimeException e) {
+      e.printStackTrace(stream);
+      status = 1;
+    } finally {
+      executing.decrementAndGet();
+    }
+    stream.flush();
+    frames.checkError();
+    ControlServer.write(output, new JsonObject().put("exit", status));
+  }
+
+  /**
+   * Checks whether or not the daemon can execute a command line.
+   *
+   * @param args    the command line arguments
+   * @param context the environment of the client, see {@link DaemonClient#context()}
+   * @return {@code null} if the command line can be executed, the reason why it cannot otherwise
+   */
+  static String unsupported(String[] args, JsonObject context) {
+    if (args.length == 0 || !COMMANDS.contains(args[0])) {
+      return "only the " + String.join(", ", COMMANDS) + " commands are executed by the daemon";
+    }
+    for (String arg : args) {
+      if (arg.startsWith("-D") || arg.startsWith("--systemProperty")) {
+        return "system properties cannot be set in the daemon";
+      }
+    }
+    if (args[0].equals("start")) {
+      if (!DaemonClient.context().equals(context)) {
+        return "the daemon environment differs from the client one";
+      }
+      for (String arg : args) {
+        if (arg.equals("--redirect-output") || arg.startsWith("--redirect-output=")) {
+          return "the output of the application cannot be redirected to the daemon output";
+        }
+      }
+    }
+    return null;
+  }
+
+  private static String token() {
+    byte[] bytes = new byte[24];
+    new SecureRandom().nextBytes(bytes);
+    StringBuilder builder = new StringBuilder();
+    for (byte b : bytes) {
+      builder.append(String.format("%02x", b));
+    }
+    return builder.toString();
+  }
+
+  /**
+   * An output stream sending the written bytes to the client as {@code out} frames, when flushed.
+   */
+  private static class FrameOutputStream extends OutputStream {
+
+    private final DataOutputStream output;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private IOException failure;
+
+    private FrameOutputStream(DataOutputStream output) {
+      this.output = output;
+    }
+
+    @Override
+    public synchronized void write(int b) {
+      buffer.write(b);
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) {
+      buffer.write(b, off, len);
+    }
+
+    @Override
+    public synchronized void flush() {
+      if (buffer.size() == 0 || failure != null) {
+        return;
+      }
+      try {
+        ControlServer.write(output, new JsonObject().put("out", new String(buffer.toByteArray(),
+          StandardCharsets.UTF_8)));
+      } catch (IOException e) {
+        // The client has gone, the command completes anyway.
+        failure = e;
+      }
+      buffer.reset();
+    }
+
+    private synchronized void checkError() throws IOException {
+      if (failure != null) {
+        throw failure;
+      }
+    }
+  }
+}
@@ -13,6 +13,8 @@ package io.vertx.core.impl.launcher.commands;
 
 import io.vertx.core.impl.Utils;
 
+import java.io.File;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -56,6 +58,11 @@ public class ExecUtils {
    */
   public static final int SYSTEM_CONFIGURATION_EXIT_CODE = 14;
 
+  /**
+   * Error code used when an application started in background is not ready in time.
+   */
+  public static final int READINESS_TIMEOUT_EXIT_CODE = 16;
+
   /**
    * The {@code os.name} property is mandatory (from the Java Virtual Machine specification).
    */
@@ -114,6 +121,73 @@ public class ExecUtils {
     args.add(quoteArgument(argument));
   }
 
+  /**
+   * Splits a string containing several arguments, such as the {@code JAVA_OPTS} environment variable. Arguments are
+   * separated by whitespaces. As in a shell, single quotes preserve their content literally, double quotes preserve
+   * their content except for the {@code \"} and {@code \\} escape sequences, and a backslash outside quotes escapes a
+   * quote, a whitespace or a backslash. So {@code -Dmessage="hello world" -Dname=it\'s} gives
+   * {@code -Dmessage=hello world} and {@code -Dname=it's}.
+   *
+   * @param arguments the arguments, may be {@code null}
+   * @return the list of arguments, empty if none
+   * @throws IllegalArgumentException if a quote is not closed
+   */
+  public static List<String> splitArguments(String arguments) {
+    List<String> result = new ArrayList<>();
+    if (arguments == null) {
+      return result;
+    }
+    StringBuilder current = new StringBuilder();
+    boolean inArgument = false;
+    char quote = 0;
+    for (int i = 0; i < arguments.length(); i++) {
+      char c = arguments.charAt(i);
+      if (quote == '\'') {
+        if (c == '\'') {
+          quote = 0;
+        } else {
+          current.append(c);
+        }
+      } else if (quote == '"') {
+        if (c == '"') {
+          quote = 0;
+        } else if (c == '\\' && i + 1 < arguments.length()
+          && (arguments.charAt(i + 1) == '"' || arguments.charAt(i + 1) == '\\')) {
+          current.append(arguments.charAt(++i));
+        } else {
+          current.append(c);
+        }
+      } else if (Character.isWhitespace(c)) {
+        if (inArgument) {
+          result.add(current.toString());
+          current.setLength(0);
+          inArgument = false;
+        }
+      } else {
+        inArgument = true;
+        if (c == '\'' || c == '"') {
+          quote = c;
+        } else if (c == '\\' && i + 1 < arguments.length() && isEscapable(arguments.charAt(i + 1))) {
+          current.append(arguments.charAt(++i));
+        } else {
+          current.append(c);
+        }
+      }
+    }
+    if (quote != 0) {
+      throw new IllegalArgumentException("Unbalanced quotes in " + arguments);
+    }
+    if (inArgument) {
+      result.add(current.toString());
+    }
+    return result;
+  }
+
+  private static boolean isEscapable(char c) {
+    // Other backslashes are kept, they are commonly used in Windows paths.
+    return c == '\'' || c == '"' || c == '\\' || Character.isWhitespace(c);
+  }
+
   /**
    * @return {@code true} if the current operating system belongs to the "windows" family.
    */
@@ -129,15 +203,77 @@ public class ExecUtils {
   }
 
   /**
-   * Exits the JVM with the given exit code.
+   * @return the {@code java} executable of the running JVM, it may not exist.
+   */
+  public static File getJavaExecutable() {
+    File home = new File(System.getProperty("java.home"));
+    if (isWindows()) {
+      return new File(home, "bin/java.exe");
+    } else {
+      return new File(home, "bin/java");
+    }
+  }
+
+  private static final ThreadLocal<Boolean> EXIT_TRAPPED = new ThreadLocal<>();
+
+  /**
+   * Exits the JVM with the given exit code. When called from an action run with {@link #trapExit(Runnable)}, the JVM
+   * keeps running and an {@link ExitException} is thrown instead.
    *
    * @param code the code, {@code 0} for success. By convention a non zero value if return to denotes an
    *             error.
    */
   public static void exit(int code) {
+    if (EXIT_TRAPPED.get() != null) {
+      throw new ExitException(code);
+    }
     System.exit(code);
   }
 
+  /**
+   * Runs an action, the calls to {@link #exit(int)} made by the current thread terminate the action instead of the
+   * JVM. It lets a long-running JVM (the launcher daemon) execute commands.
+   *
+   * @param action the action
+   * @return the exit code passed to {@link #exit(int)}, {@code 0} if the action completes without exiting
+   */
+  public static int trapExit(Runnable action) {
+    Boolean previous = EXIT_TRAPPED.get();
+    EXIT_TRAPPED.set(true);
+    try {
+      action.run();
+      return 0;
+    } catch (ExitException e) {
+      return e.code();
+    } finally {
+      if (previous == null) {
+        EXIT_TRAPPED.remove();
+      }
+    }
+  }
+
+  /**
+   * Thrown by {@link #exit(int)} when the exit is trapped.
+   */
+  public static final class ExitException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int code;
+
+    ExitException(int code) {
+      super("Exit with status " + code, null, false, false);
+      this.code = code;
+    }
+
+    /**
+     * @return the exit code.
+     */
+    public int code() {
+      return code;
+    }
+  }
+
   /**
    * Exits the JVM and indicate an issue during the Vert.x initialization.
    */
@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.launcher.commands;
+
+import io.vertx.core.internal.logging.Logger;
+import io.vertx.core.internal.logging.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Decides which files and directories the {@link Watcher} ignores. Excluded directories are pruned during the
+ * file system traversal, so their content is never listed nor polled.
+ * <p/>
+ * Two sources of exclusions are supported:
+ * <ul>
+ * <li>exclude patterns: Ant patterns (can use {@literal **, * or ?}) matched against the path relative to the current
+ * working directory, or against the absolute path</li>
+ * <li>ignore files: when enabled, the {@code .gitignore} and {@code .vertxignore} files found in the watched
+ * directories (and their parents, up to the repository root) are parsed. A subset of the {@code .gitignore} syntax is
+ * supported: comments, negations ({@code !}), directory-only patterns (trailing {@code /}), anchored patterns
+ * (containing a {@code /}) and wildcards. The {@code .git} directory is always ignored in this mode.</li>
+ * </ul>
+ * Patterns are compiled once, ignore files are parsed once per directory.
+ */
+public class FileExclusions {
+
+  private final static Logger LOGGER = LoggerFactory.getLogger(FileExclusions.class);
+
+  /**
+   * The names of the ignore files read when {@code useIgnoreFiles} is enabled. Rules from the last file win.
+   */
+  public static final List<String> IGNORE_FILES = Collections.unmodifiableList(Arrays.asList(".gitignore",
+    ".vertxignore"));
+
+  private static final List<Rule> NO_RULES = Collections.emptyList();
+
+  private final File cwd;
+  private final String cwdPath;
+  private final List<FileSelector.CompiledPattern> excludes;
+  private final boolean useIgnoreFiles;
+  private final File top;
+  private final Set<File> roots;
+  private final Map<File, List<Rule>> rulesByDirectory = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a new {@link FileExclusions}.
+   *
+   * @param cwd            the current working directory
+   * @param roots          the watched roots, the lookup of ignore files in parent directories stops at these roots
+   * @param excludes       the list of exclude patterns, may be {@code null} or empty
+   * @param useIgnoreFiles whether or not the {@code .gitignore} and {@code .vertxignore} files are used
+   */
+  public FileExclusions(File cwd, List<File> roots, List<String> excludes, boolean useIgnoreFiles) {
+    this.cwd = cwd.getAbsoluteFile();
+    this.cwdPath = this.cwd.getAbsolutePath();
+    this.roots = roots.stream().map(File::getAbsoluteFile).collect(Collectors.toSet());
+    this.excludes = excludes == null ? Collections.emptyList() : excludes.stream()
+      .map(FileExclusions::sanitize)
+      .map(p -> FileSelector.compile(p, !ExecUtils.isWindows()))
+      .collect(Collectors.toList());
+    this.useIgnoreFiles = useIgnoreFiles;
+    this.top = useIgnoreFiles ? findRepositoryRoot(this.cwd) : this.cwd;
+  }
+
+  /**
+   * @return {@code true} if neither exclude patterns nor ignore files are configured.
+   */
+  public boolean isEmpty() {
+    return excludes.isEmpty() && !useIgnoreFiles;
+  }
+
+  /**
+   * Checks whether the given file is excluded. This method does not check the parent directories, as they are
+   * expected to have been checked (and pruned) during the traversal.
+   *
+   * @param file        the file
+   * @param isDirectory whether or not the file is a directory
+   * @return {@code true} if the file is excluded
+   */
+  public boolean isExcluded(File file, boolean isDirectory) {
+    if (isEmpty()) {
+      return false;
+    }
+    String absolutePath = file.getAbsolutePath();
+    if (!excludes.isEmpty()) {
+      String relFromCwd = null;
+      if (absolutePath.startsWith(cwdPath) && absolutePath.length() > cwdPath.length()) {
+        relFromCwd = absolutePath.substring(cwdPath.length() + 1);
+      }
+      for (FileSelector.CompiledPattern exclude : excludes) {
+        if ((relFromCwd != null && exclude.matches(relFromCwd)) || exclude.matches(absolutePath)) {
+          return true;
+        }
+      }
+    }
+    if (useIgnoreFiles) {
+      if (isDirectory && file.getName().equals(".git")) {
+        return true;
+      }
+      return isIgnored(file.getAbsoluteFile(), isDirectory);
+    }
+    return false;
+  }
+
+  /**
+   * Checks whether the given file is one of the supported ignore files. In this case the rules of its directory are
+   * reloaded on the next check.
+   *
+   * @param file the changed file
+   */
+  public void onChange(File file) {
+    if (useIgnoreFiles && IGNORE_FILES.contains(file.getName())) {
+      File dir = file.getAbsoluteFile().getParentFile();
+      if (dir != null) {
+        rulesByDirectory.remove(dir);
+        LOGGER.info("Ignore file " + file.getAbsolutePath() + " changed, rules reloaded");
+      }
+    }
+  }
+
+  private boolean isIgnored(File file, boolean isDirectory) {
+    // Collect the directories from which rules apply, from the deepest to the top-most one.
+    Deque<File> directories = new ArrayDeque<>();
+    File dir = file.getParentFile();
+    while (dir != null) {
+      directories.push(dir);
+      if (dir.equals(top) || roots.contains(dir) && !dir.getAbsolutePath().startsWith(top.getAbsolutePath())) {
+        break;
+      }
+      dir = dir.getParentFile();
+    }
+    // Git semantics: the last matching rule wins, rules from deeper directories take precedence.
+    boolean ignored = false;
+    for (File directory : directories) {
+      List<Rule> rules = rulesByDirectory.computeIfAbsent(directory, FileExclusions::loadRules);
+      if (rules.isEmpty()) {
+        continue;
+      }
+      String rel = file.getAbsolutePath().substring(directory.getAbsolutePath().length() + 1);
+      for (Rule rule : rules) {
+        if ((!rule.directoryOnly || isDirectory) && rule.pattern.matches(rel)) {
+          ignored = !rule.negated;
+        }
+      }
+    }
+    return ignored;
+  }
+
+  private static List<Rule> loadRules(File directory) {
+    List<Rule> rules = null;
+    for (String name : IGNORE_FILES) {
+      File ignoreFile = new File(directory, name);
+      if (!ignoreFile.isFile()) {
+        continue;
+      }
+      try {
+        for (String line : Files.readAllLines(ignoreFile.toPath(), StandardCharsets.UTF_8)) {
+          Rule rule = Rule.parse(line);
+          if (rule != null) {
+            if (rules == null) {
+              rules = new ArrayList<>();
+            }
+            rules.add(rule);
+          }
+        }
+      } catch (IOException e) {
+        LOGGER.warn("Cannot read the ignore file " + ignoreFile.getAbsolutePath(), e);
+      }
+    }
+    return rules == null ? NO_RULES : rules;
+  }
+
+  private static File findRepositoryRoot(File cwd) {
+    File dir = cwd;
+    while (dir != null) {
+      if (new File(dir, ".git").exists()) {
+        return dir;
+      }
+      dir = dir.getParentFile();
+    }
+    return cwd;
+  }
+
+  private static String sanitize(String pattern) {
+    if (ExecUtils.isWindows()) {
+      return pattern.replace('/', File.separatorChar);
+    }
+    return pattern.replace('\\', File.separatorChar);
+  }
+
+  /**
+   * A rule read from an ignore file.
+   */
+  static final class Rule {
+
+    final FileSelector.CompiledPattern pattern;
+    final boolean negated;
+    final boolean directoryOnly;
+
+    private Rule(FileSelector.CompiledPattern pattern, boolean negated, boolean directoryOnly) {
+      this.pattern = pattern;
+      this.negated = negated;
+      this.directoryOnly = directoryOnly;
+    }
+
+    /**
+     * Parses a line of an ignore file.
+     *
+     * @param line the line
+     * @return the rule, {@code null} if the line is blank or a comment
+     */
+    static Rule parse(String line) {
+      String pattern = line.trim();
+      if (pattern.isEmpty() || pattern.startsWith("#")) {
+        return null;
+      }
+      boolean negated = false;
+      if (pattern.startsWith("!")) {
+        negated = true;
+        pattern = pattern.substring(1);
+      } else if (pattern.startsWith("\\!") || pattern.startsWith("\\#")) {
+        pattern = pattern.substring(1);
+      }
+      boolean directoryOnly = false;
+      while (pattern.endsWith("/")) {
+        directoryOnly = true;
+        pattern = pattern.substring(0, pattern.length() - 1);
+      }
+      if (pattern.isEmpty()) {
+        return null;
+      }
+      if (pattern.contains("/")) {
+        // Anchored to the directory containing the ignore file
+        while (pattern.startsWith("/")) {
+          pattern = pattern.substring(1);
+        }
+      } else {
+        // Matches at any depth
+        pattern = "**/" + pattern;
+      }
+      return new Rule(FileSelector.compile(sanitize(pattern), !ExecUtils.isWindows()), negated, directoryOnly);
+    }
+  }
+}
@@ -354,6 +354,54 @@ public final class FileSelector {
     return false;
   }
 
+  /**
+   * Compiles the given pattern so it can be matched against many paths without being re-tokenized for every match.
+   *
+   * @param pattern         The pattern to compile. Must not be {@code null}.
+   * @param isCaseSensitive Whether or not matching should be performed case sensitively.
+   * @return the compiled pattern
+   */
+  public static CompiledPattern compile(String pattern, boolean isCaseSensitive) {
+    return new CompiledPattern(pattern, File.separator, isCaseSensitive);
+  }
+
+  /**
+   * A pattern tokenized once, and matched against paths using the same rules as
+   * {@link #matchPath(String, String, boolean)}.
+   */
+  public static final class CompiledPattern {
+
+    private final String pattern;
+    private final String separator;
+    private final boolean startsWithSeparator;
+    private final String[] patDirs;
+    private final boolean isCaseSensitive;
+
+    private CompiledPattern(String pattern, String separator, boolean isCaseSensitive) {
+      this.pattern = pattern;
+      this.separator = separator;
+      this.startsWithSeparator = pattern.startsWith(separator);
+      this.patDirs = tokenizePathToString(pattern, separator);
+      this.isCaseSensitive = isCaseSensitive;
+    }
+
+    /**
+     * @param str the path to match, must not be {@code null}
+     * @return {@code true} if the pattern matches against the path, {@code false} otherwise
+     */
+    public boolean matches(String str) {
+      if (str.startsWith(separator) != startsWithSeparator) {
+        return false;
+      }
+      return matchPathPattern(patDirs, tokenizePathToString(str, separator), isCaseSensitive);
+    }
+
+    @Override
+    public String toString() {
+      return pattern;
+    }
+  }
+
   private static String[] tokenizePathToString(String path, String separator) {
     List<String> ret = new ArrayList<>();
     StringTokenizer st = new StringTokenizer(path, separator);
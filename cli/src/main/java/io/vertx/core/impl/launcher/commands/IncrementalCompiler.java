@@ -0,0 +1,473 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.launcher.commands;
+
+import io.vertx.core.internal.logging.Logger;
+import io.vertx.core.internal.logging.LoggerFactory;
+
+import javax.tools.*;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * An incremental Java compiler used by the {@link Watcher} before redeploying the application. It avoids launching a
+ * build tool (and a new JVM) on every change: the {@link JavaCompiler} and its file manager are created once and
+ * reused for every compilation.
+ * <p/>
+ * Only the changed sources are recompiled, together with the sources of the classes referencing them (direct
+ * dependents). The dependencies are computed from the constant pool of the compiled classes, and cached. Constants
+ * inlined by {@code javac} ({@code static final} primitives and strings) are not tracked.
+ * <p/>
+ * Classes produced from deleted sources are removed from the output directory.
+ */
+public class IncrementalCompiler implements Closeable {
+
+  private final static Logger LOGGER = LoggerFactory.getLogger(IncrementalCompiler.class);
+
+  private static final Pattern DESCRIPTOR_CLASS = Pattern.compile("L([^;<>()\\[]+)[;<]");
+
+  private final List<File> sourceDirs;
+  private final File outputDir;
+  private final List<String> options;
+  private final JavaCompiler compiler;
+  private final StandardJavaFileManager fileManager;
+
+  /**
+   * Class (internal name) to source file.
+   */
+  private final Map<String, File> sources = new HashMap<>();
+
+  /**
+   * Class (internal name) to the classes (internal names) referencing it.
+   */
+  private final Map<String, Set<String>> dependents = new HashMap<>();
+
+  /**
+   * Class (internal name) to the classes (internal names) it references, used to update {@link #dependents}.
+   */
+  private final Map<String, Set<String>> references = new HashMap<>();
+
+  /**
+   * The sources of the last failed compilation. Their classes have been removed, so they are compiled again, with the
+   * next changes, until a compilation succeeds.
+   */
+  private final Set<File> failed = new LinkedHashSet<>();
+
+  /**
+   * Creates a new {@link IncrementalCompiler}. The existing content of the output directory is indexed.
+   *
+   * @param sourceDirs the source directories
+   * @param outputDir  the output directory, must be on the classpath of the redeployed application
+   * @param classpath  the compilation classpath, the output directory is added automatically
+   * @param options    additional {@code javac} options
+   * @throws IllegalStateException if the JVM does not provide a Java compiler
+   */
+  public IncrementalCompiler(List<File> sourceDirs, File outputDir, List<String> classpath, List<String> options) {
+    this.compiler = ToolProvider.getSystemJavaCompiler();
+    if (compiler == null) {
+      throw new IllegalStateException("No Java compiler available, make sure the launcher runs on a JDK and not a " +
+        "JRE");
+    }
+    this.sourceDirs = sourceDirs.stream().map(File::getAbsoluteFile).collect(Collectors.toList());
+    this.outputDir = outputDir.getAbsoluteFile();
+    this.options = options == null ? Collections.emptyList() : new ArrayList<>(options);
+    this.outputDir.mkdirs();
+    this.fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8);
+    List<File> cp = new ArrayList<>();
+    cp.add(this.outputDir);
+    if (classpath != null) {
+      classpath.stream().filter(s -> !s.isEmpty()).map(File::new).forEach(cp::add);
+    }
+    try {
+      fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singletonList(this.outputDir));
+      fileManager.setLocation(StandardLocation.CLASS_PATH, cp);
+    } catch (IOException e) {
+      throw new IllegalStateException("Cannot configure the Java compiler", e);
+    }
+    long begin = System.currentTimeMillis();
+    index();
+    LOGGER.info("Incremental compiler ready, " + sources.size() + " classes indexed in "
+      + (System.currentTimeMillis() - begin) + " ms");
+  }
+
+  /**
+   * @return the source directories.
+   */
+  public List<File> sourceDirs() {
+    return sourceDirs;
+  }
+
+  /**
+   * Checks whether the given file is a Java source file located in one of the source directories.
+   *
+   * @param file the file
+   * @return {@code true} if the file is a source handled by this compiler
+   */
+  public boolean isSource(File file) {
+    return file.getName().endsWith(".java") && sourceDirOf(file.getAbsoluteFile()) != null;
+  }
+
+  /**
+   * Compiles the Java sources of the given change set, as well as their dependents. When the previous compilation
+   * failed, its sources are compiled again.
+   *
+   * @param changes the changes
+   * @return the compilation result
+   */
+  public synchronized Result compile(ChangeSet changes) {
+    long begin = System.currentTimeMillis();
+    Set<File> toCompile = new LinkedHashSet<>();
+    Set<String> impacted = new HashSet<>();
+
+    for (File file : changes.all()) {
+      if (!isSource(file)) {
+        continue;
+      }
+      File source = file.getAbsoluteFile();
+      Set<String> classes = classesOf(source);
+      impacted.addAll(classes);
+      if (changes.deleted().contains(file)) {
+        for (String clazz : classes) {
+          removeClass(clazz);
+        }
+      } else {
+        toCompile.add(source);
+      }
+    }
+    for (String clazz : impacted) {
+      for (String dependent : dependents.getOrDefault(clazz, Collections.emptySet())) {
+        File source = sources.get(dependent);
+        if (source != null && source.isFile()) {
+          toCompile.add(source);
+        }
+      }
+    }
+
+    for (File source : failed) {
+      if (source.isFile()) {
+        toCompile.add(source);
+      }
+    }
+
+    if (toCompile.isEmpty()) {
+      failed.clear();
+      return new Result(true, 0, Collections.emptyList(), System.currentTimeMillis() - begin);
+    }
+
+    // Remove the classes previously produced by the recompiled sources, so removed (inner) classes do not linger.
+    for (File source : toCompile) {
+      for (String clazz : classesOf(source)) {
+        removeClass(clazz);
+      }
+    }
+
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    Map<String, File> produced = new HashMap<>();
+    JavaFileManager tracking = new ForwardingJavaFileManager<StandardJavaFileManager>(fileManager) {
+      @Override
+      public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind,
+                                                 FileObject sibling) throws IOException {
+        if (kind == JavaFileObject.Kind.CLASS && sibling != null) {
+          produced.put(className.replace('.', '/'), new File(sibling.toUri()));
+        }
+        return super.getJavaFileForOutput(location, className, kind, sibling);
+      }
+    };
+    boolean success;
+    try {
+      success = compiler.getTask(null, tracking, diagnostics, options, null,
+        fileManager.getJavaFileObjectsFromFiles(toCompile)).call();
+    } catch (RuntimeException e) {
+      LOGGER.error("The Java compiler failed", e);
+      success = false;
+    }
+
+    List<String> messages = new ArrayList<>();
+    for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+      String message = format(diagnostic);
+      messages.add(message);
+      if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+        LOGGER.error(message);
+      } else if (diagnostic.getKind() == Diagnostic.Kind.WARNING
+        || diagnostic.getKind() == Diagnostic.Kind.MANDATORY_WARNING) {
+        LOGGER.warn(message);
+      }
+    }
+
+    produced.forEach((clazz, source) -> {
+      sources.put(clazz, source.getAbsoluteFile());
+      File classFile = new File(outputDir, clazz + ".class");
+      if (classFile.isFile()) {
+        updateReferences(clazz, classFile);
+      }
+    });
+
+    failed.clear();
+    if (!success) {
+      failed.addAll(toCompile);
+    }
+
+    long duration = System.currentTimeMillis() - begin;
+    if (success) {
+      LOGGER.info("Compiled " + toCompile.size() + " source file(s) in " + duration + " ms");
+    } else {
+      LOGGER.error("Compilation of " + toCompile.size() + " source file(s) failed");
+    }
+    return new Result(success, toCompile.size(), messages, duration);
+  }
+
+  @Override
+  public void close() throws IOException {
+    fileManager.close();
+  }
+
+  private Set<String> classesOf(File source) {
+    Set<String> classes = new HashSet<>();
+    sources.forEach((clazz, file) -> {
+      if (file.equals(source)) {
+        classes.add(clazz);
+      }
+    });
+    if (classes.isEmpty()) {
+      // Not indexed yet (new file), use the conventional name.
+      String conventional = conventionalClassName(source);
+      if (conventional != null) {
+        classes.add(conventional);
+      }
+    }
+    return classes;
+  }
+
+  private void removeClass(String clazz) {
+    new File(outputDir, clazz + ".class").delete();
+    sources.remove(clazz);
+    Set<String> refs = references.remove(clazz);
+    if (refs != null) {
+      for (String ref : refs) {
+        Set<String> set = dependents.get(ref);
+        if (set != null) {
+          set.remove(clazz);
+        }
+      }
+    }
+  }
+
+  private void index() {
+    Path root = outputDir.toPath();
+    try (Stream<Path> stream = Files.walk(root)) {
+      stream.filter(p -> p.toString().endsWith(".class")).forEach(p -> {
+        String rel = root.relativize(p).toString().replace(File.separatorChar, '/');
+        String clazz = rel.substring(0, rel.length() - ".class".length());
+        String outer = clazz.contains("$") ? clazz.substring(0, clazz.indexOf('$')) : clazz;
+        for (File dir : sourceDirs) {
+          File source = new File(dir, outer.replace('/', File.separatorChar) + ".java");
+          if (source.isFile()) {
+            sources.put(clazz, source);
+            break;
+          }
+        }
+        updateReferences(clazz, p.toFile());
+      });
+    } catch (IOException | UncheckedIOException e) {
+      LOGGER.warn("Cannot index the content of " + outputDir.getAbsolutePath(), e);
+    }
+  }
+
+  private void updateReferences(String clazz, File classFile) {
+    Set<String> refs;
+    try {
+      refs = referencedClasses(Files.readAllBytes(classFile.toPath()));
+    } catch (IOException | RuntimeException e) {
+      LOGGER.warn("Cannot read the class file " + classFile.getAbsolutePath(), e);
+      return;
+    }
+    refs.remove(clazz);
+    Set<String> old = references.put(clazz, refs);
+    if (old != null) {
+      for (String ref : old) {
+        Set<String> set = dependents.get(ref);
+        if (set != null) {
+          set.remove(clazz);
+        }
+      }
+    }
+    for (String ref : refs) {
+      dependents.computeIfAbsent(ref, k -> new HashSet<>()).add(clazz);
+    }
+  }
+
+  private File sourceDirOf(File file) {
+    for (File dir : sourceDirs) {
+      if (file.getAbsolutePath().startsWith(dir.getAbsolutePath() + File.separator)) {
+        return dir;
+      }
+    }
+    return null;
+  }
+
+  private String conventionalClassName(File source) {
+    File dir = sourceDirOf(source);
+    if (dir == null) {
+      return null;
+    }
+    String rel = source.getAbsolutePath().substring(dir.getAbsolutePath().length() + 1);
+    return rel.substring(0, rel.length() - ".java".length()).replace(File.separatorChar, '/');
+  }
+
+  private static String format(Diagnostic<? extends JavaFileObject> diagnostic) {
+    StringBuilder builder = new StringBuilder();
+    if (diagnostic.getSource() != null) {
+      builder.append(new File(diagnostic.getSource().toUri()).getPath())
+        .append(":").append(diagnostic.getLineNumber()).append(": ");
+    }
+    builder.append(diagnostic.getKind().toString().toLowerCase(Locale.ENGLISH)).append(": ")
+      .append(diagnostic.getMessage(Locale.ENGLISH));
+    return builder.toString();
+  }
+
+  /**
+   * Extracts the classes referenced from the constant pool of a class file: class entries, and the types used in
+   * field and method descriptors and signatures.
+   *
+   * @param bytes the class file
+   * @return the set of referenced classes (internal names)
+   * @throws IOException if the class file is malformed
+   */
+  static Set<String> referencedClasses(byte[] bytes) throws IOException {
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+    if (in.readInt() != 0xCAFEBABE) {
+      throw new IOException("Not a class file");
+    }
+    in.readUnsignedShort(); // minor
+    in.readUnsignedShort(); // major
+    int count = in.readUnsignedShort();
+    String[] utf8 = new String[count];
+    List<Integer> classIndexes = new ArrayList<>();
+    for (int i = 1; i < count; i++) {
+      int tag = in.readUnsignedByte();
+      switch (tag) {
+        case 1: // Utf8
+          utf8[i] = in.readUTF();
+          break;
+        case 7: // Class
+          classIndexes.add(in.readUnsignedShort());
+          break;
+        case 8: // String
+        case 16: // MethodType
+        case 19: // Module
+        case 20: // Package
+          in.readUnsignedShort();
+          break;
+        case 15: // MethodHandle
+          in.readUnsignedByte();
+          in.readUnsignedShort();
+          break;
+        case 3: // Integer
+        case 4: // Float
+        case 9: // Fieldref
+        case 10: // Methodref
+        case 11: // InterfaceMethodref
+        case 12: // NameAndType
+        case 17: // Dynamic
+        case 18: // InvokeDynamic
+          in.readInt();
+          break;
+        case 5: // Long
+        case 6: // Double
+          in.readLong();
+          i++;
+          break;
+        default:
+          throw new IOException("Unknown constant pool tag " + tag);
+      }
+    }
+    Set<String> classes = new HashSet<>();
+    for (int index : classIndexes) {
+      String name = utf8[index];
+      if (name == null) {
+        continue;
+      }
+      if (name.startsWith("[")) {
+        addDescriptorClasses(name, classes);
+      } else {
+        classes.add(name);
+      }
+    }
+    for (String value : utf8) {
+      if (value != null && (value.startsWith("(") || value.startsWith("L") || value.startsWith("<")
+        || value.startsWith("["))) {
+        addDescriptorClasses(value, classes);
+      }
+    }
+    return classes;
+  }
+
+  private static void addDescriptorClasses(String descriptor, Set<String> classes) {
+    Matcher matcher = DESCRIPTOR_CLASS.matcher(descriptor);
+    while (matcher.find()) {
+      classes.add(matcher.group(1));
+    }
+  }
+
+  /**
+   * The result of an incremental compilation.
+   */
+  public static final class Result {
+
+    private final boolean success;
+    private final int compiled;
+    private final List<String> diagnostics;
+    private final long duration;
+
+    Result(boolean success, int compiled, List<String> diagnostics, long duration) {
+      this.success = success;
+      this.compiled = compiled;
+      this.diagnostics = Collections.unmodifiableList(diagnostics);
+      this.duration = duration;
+    }
+
+    /**
+     * @return whether or not the compilation succeeded.
+     */
+    public boolean succeeded() {
+      return success;
+    }
+
+    /**
+     * @return the number of compiled source files.
+     */
+    public int compiled() {
+      return compiled;
+    }
+
+    /**
+     * @return the formatted compiler diagnostics (errors and warnings).
+     */
+    public List<String> diagnostics() {
+      return diagnostics;
+    }
+
+    /**
+     * @return the compilation duration in milliseconds.
+     */
+    public long duration() {
+      return duration;
+    }
+  }
+}
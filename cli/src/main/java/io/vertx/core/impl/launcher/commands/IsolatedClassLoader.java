@@ -0,0 +1,324 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.launcher.commands;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.security.CodeSigner;
+import java.security.CodeSource;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipFile;
+
+/**
+ * The classloader loading the classes of the {@code --classpath} option. It is registered as parallel capable, so
+ * verticles deployed concurrently (or with several instances) do not contend on a single lock.
+ * <p/>
+ * Classloaders are cached, keyed by the normalized classpath and parent classloader, so creating the deployer and
+ * deploying the verticles reuse the jars opened and the classes loaded by the same classloader. A cached classloader
+ * is replaced when one of its jars changes (size or modification time), or is added or removed from a wildcard
+ * directory. Directories are not fingerprinted (walking them would cost more than the cache saves), so
+ * {@link #refresh(List, ClassLoader)} always replaces a classloader having directories. The replaced classloader is not
+ * closed, as deployed verticles may still use it, but it is tracked by the
+ * {@link ClassLoaderLeakDetector} once released.
+ * <p/>
+ * Classpath entries ending with {@code *} (such as {@code lib/*}) are expanded to the jars of the directory, sorted by
+ * name, like the {@code java} launcher does.
+ * <p/>
+ * On first use, the classloader builds the index of the packages of its jars (see {@link ClasspathIndex}), and loads
+ * classes and resources from the jars containing their package only, so a lookup does not probe every jar of the
+ * classpath. Set the {@value #DISABLE_INDEX_PROPERTY} system property to {@code true} to disable the index.
+ */
+public class IsolatedClassLoader extends URLClassLoader {
+
+  static {
+    ClassLoader.registerAsParallelCapable();
+  }
+
+  /**
+   * The system property disabling the package index.
+   */
+  public static final String DISABLE_INDEX_PROPERTY = "vertx.disableClasspathIndex";
+
+  private static final Map<String, IsolatedClassLoader> CACHE = new ConcurrentHashMap<>();
+
+  private final String fingerprint;
+  private final File[] files;
+  private final URL[] urls;
+  private final AtomicReferenceArray<JarFile> jars;
+  private volatile ClasspathIndex index;
+  private volatile boolean indexed;
+  private volatile boolean closed;
+
+  private IsolatedClassLoader(URL[] urls, ClassLoader parent, File[] files, String fingerprint) {
+    super(urls, parent);
+    this.fingerprint = fingerprint;
+    this.files = files;
+    this.urls = urls;
+    this.jars = new AtomicReferenceArray<>(files.length);
+  }
+
+  /**
+   * Gets the classloader of a classpath, creating it if not cached or if one of its jars has changed.
+   *
+   * @param classpath the classpath entries, possibly containing wildcards
+   * @param parent    the parent classloader
+   * @return the classloader
+   */
+  public static IsolatedClassLoader of(List<String> classpath, ClassLoader parent) {
+    return of(classpath, parent, false);
+  }
+
+  /**
+   * Gets the classloader of a classpath for a redeployment: unlike {@link #of(List, ClassLoader)}, the cached
+   * classloader is replaced when the classpath contains directories, as their content may have changed.
+   *
+   * @param classpath the classpath entries, possibly containing wildcards
+   * @param parent    the parent classloader
+   * @return the classloader
+   */
+  public static IsolatedClassLoader refresh(List<String> classpath, ClassLoader parent) {
+    return of(classpath, parent, true);
+  }
+
+  private static IsolatedClassLoader of(List<String> classpath, ClassLoader parent, boolean refresh) {
+    List<File> files = expand(classpath).stream()
+      .map(path -> new File(path).getAbsoluteFile().toPath().normalize().toFile())
+      .collect(Collectors.toList());
+    String key = System.identityHashCode(parent) + File.pathSeparator + files.stream().map(File::getPath)
+      .collect(Collectors.joining(File.pathSeparator));
+    // Checking the jars is a stat per entry, done in parallel for large classpaths.
+    String fingerprint = files.parallelStream()
+      .map(file -> file.isFile() ? file.length() + "@" + file.lastModified() : "")
+      .collect(Collectors.joining(File.pathSeparator));
+    return CACHE.compute(key, (k, cached) -> {
+      if (cached != null && cached.getParent() == parent && cached.fingerprint.equals(fingerprint)
+        && !(refresh && files.stream().anyMatch(File::isDirectory))) {
+        return cached;
+      }
+      URL[] urls = files.stream().map(file -> {
+        try {
+          return file.toURI().toURL();
+        } catch (MalformedURLException e) {
+          throw new IllegalStateException(e);
+        }
+      }).toArray(URL[]::new);
+      IsolatedClassLoader loader = new IsolatedClassLoader(urls, parent, files.toArray(new File[0]), fingerprint);
+      ClassLoaderLeakDetector.track(loader, "IsolatedClassLoader@" + Integer.toHexString(System.identityHashCode(loader))
+        + " (" + files.stream().map(File::getName).collect(Collectors.joining(File.pathSeparator)) + ")");
+      return loader;
+    });
+  }
+
+  /**
+   * Expands the wildcard entries of a classpath.
+   *
+   * @param classpath the classpath entries
+   * @return the expanded entries
+   */
+  public static List<String> expand(List<String> classpath) {
+    Stream<String> entries = classpath.stream().filter(entry -> !entry.isEmpty());
+    if (classpath.stream().filter(IsolatedClassLoader::isWildcard).count() > 1) {
+      // Listing a directory is a system call, the directories are listed in parallel (the order is kept).
+      entries = entries.parallel();
+    }
+    return entries.flatMap(entry -> {
+      if (!isWildcard(entry)) {
+        return Stream.of(entry);
+      }
+      File dir = new File(entry.substring(0, entry.length() - 1));
+      File[] jars = (entry.equals("*") ? new File(".") : dir).listFiles((d, name) ->
+        name.endsWith(".jar") || name.endsWith(".JAR"));
+      return jars == null ? Stream.empty() : Arrays.stream(jars).map(File::getPath).sorted();
+    }).collect(Collectors.toList());
+  }
+
+  private static boolean isWildcard(String entry) {
+    return entry.equals("*") || entry.endsWith("/*") || entry.endsWith(File.separator + "*");
+  }
+
+  /**
+   * @return the package index, {@code null} if the index is disabled or the classpath cannot be indexed
+   */
+  ClasspathIndex index() {
+    if (!indexed) {
+      synchronized (this) {
+        if (!indexed) {
+          if (!Boolean.getBoolean(DISABLE_INDEX_PROPERTY)) {
+            index = ClasspathIndex.build(Arrays.asList(files));
+          }
+          indexed = true;
+        }
+      }
+    }
+    return index;
+  }
+
+  @Override
+  protected Class<?> findClass(String name) throws ClassNotFoundException {
+    ClasspathIndex index = index();
+    if (index == null || closed) {
+      return super.findClass(name);
+    }
+    String path = name.replace('.', '/') + ".class";
+    for (int position : index.lookup(ClasspathIndex.packageOf(path))) {
+      try {
+        Class<?> clazz = define(name, path, position);
+        if (clazz != null) {
+          return clazz;
+        }
+      } catch (IOException e) {
+        throw new ClassNotFoundException(name, e);
+      }
+    }
+    throw new ClassNotFoundException(name);
+  }
+
+  @Override
+  public URL findResource(String name) {
+    ClasspathIndex index = index();
+    if (index == null || closed) {
+      return super.findResource(name);
+    }
+    for (int position : index.lookup(ClasspathIndex.packageOf(name))) {
+      URL url = resource(name, position);
+      if (url != null) {
+        return url;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public Enumeration<URL> findResources(String name) throws IOException {
+    ClasspathIndex index = index();
+    if (index == null || closed) {
+      return super.findResources(name);
+    }
+    List<URL> resources = new ArrayList<>();
+    for (int position : index.lookup(ClasspathIndex.packageOf(name))) {
+      URL url = resource(name, position);
+      if (url != null) {
+        resources.add(url);
+      }
+    }
+    return Collections.enumeration(resources);
+  }
+
+  private Class<?> define(String name, String path, int position) throws IOException {
+    int dot = name.lastIndexOf('.');
+    String pkg = dot < 0 ? "" : name.substring(0, dot);
+    byte[] bytes;
+    CodeSigner[] signers;
+    JarFile jar = jar(position);
+    if (jar != null) {
+      JarEntry entry = jar.getJarEntry(path);
+      if (entry == null) {
+        return null;
+      }
+      try (InputStream in = jar.getInputStream(entry)) {
+        bytes = in.readAllBytes();
+      }
+      // The signers are only known once the entry has been read.
+      signers = entry.getCodeSigners();
+      definePackage(pkg, jar.getManifest(), position);
+    } else {
+      File file = new File(files[position], path);
+      if (!file.isFile()) {
+        return null;
+      }
+      bytes = Files.readAllBytes(file.toPath());
+      signers = null;
+      definePackage(pkg, null, position);
+    }
+    return defineClass(name, bytes, 0, bytes.length, new CodeSource(urls[position], signers));
+  }
+
+  private void definePackage(String pkg, Manifest manifest, int position) {
+    if (pkg.isEmpty() || getDefinedPackage(pkg) != null) {
+      return;
+    }
+    try {
+      if (manifest != null) {
+        definePackage(pkg, manifest, urls[position]);
+      } else {
+        definePackage(pkg, null, null, null, null, null, null, null);
+      }
+    } catch (IllegalArgumentException e) {
+      // Defined concurrently.
+    }
+  }
+
+  private URL resource(String name, int position) {
+    try {
+      JarFile jar = jar(position);
+      if (jar != null) {
+        if (jar.getJarEntry(name) == null) {
+          return null;
+        }
+        return new URL("jar:" + urls[position] + "!/" + new URI(null, null, name, null).getRawPath());
+      }
+      File file = new File(files[position], name);
+      return file.exists() ? file.toURI().toURL() : null;
+    } catch (IOException | URISyntaxException e) {
+      return null;
+    }
+  }
+
+  private JarFile jar(int position) throws IOException {
+    JarFile jar = jars.get(position);
+    if (jar == null && files[position].isFile()) {
+      synchronized (jars) {
+        jar = jars.get(position);
+        if (jar == null) {
+          jar = new JarFile(files[position], true, ZipFile.OPEN_READ, JarFile.runtimeVersion());
+          jars.set(position, jar);
+        }
+      }
+    }
+    return jar;
+  }
+
+  @Override
+  public void close() throws IOException {
+    closed = true;
+    synchronized (jars) {
+      for (int i = 0; i < jars.length(); i++) {
+        JarFile jar = jars.getAndSet(i, null);
+        if (jar != null) {
+          jar.close();
+        }
+      }
+    }
+    super.close();
+  }
+
+  /**
+   * For testing purpose only - empties the cache.
+   */
+  static void clearCache() {
+    CACHE.clear();
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.launcher.commands;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+
+/**
+ * The contract between the {@link ClasspathHandler} and the deployer it loads from the classloader of the
+ * {@code --classpath} option, see {@link VertxIsolatedDeployer}.
+ */
+public interface IsolatedDeployer {
+
+  /**
+   * Deploys the given verticle.
+   *
+   * @param verticle          the verticle name
+   * @param vertx             the vert.x instance
+   * @param options           the deployment options
+   * @param completionHandler the completion handler
+   */
+  void deploy(String verticle, Vertx vertx, DeploymentOptions options, Handler<AsyncResult<String>> completionHandler);
+
+  /**
+   * Undeploys the previously deployed verticle.
+   *
+   * @param completionHandler the completion handler
+   */
+  void undeploy(Handler<AsyncResult<Void>> completionHandler);
+
+  /**
+   * Undeploys the previously deployed verticle, and deploys it again with the same options.
+   *
+   * @param completionHandler the completion handler, notified with the new deployment id
+   */
+  void redeploy(Handler<AsyncResult<String>> completionHandler);
+}
@@ -0,0 +1,364 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.launcher.commands;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Computes the JVM options of a spawned application from the resources it can use. The memory and CPU limits are
+ * read from the cgroup file system (v2, then v1) and default to the memory of the host ({@code MemTotal} in
+ * {@code /proc/meminfo}) and the number of processors when the application does not run in a constrained container.
+ * <p/>
+ * The supported profiles are:
+ * <ul>
+ * <li>{@code throughput}: Parallel GC, fixed heap of 75% of the memory</li>
+ * <li>{@code latency}: ZGC (G1 with a pause goal before Java 15), fixed and pre-touched heap of 70% of the memory</li>
+ * <li>{@code low-memory}: Serial GC, growable heap up to 50% of the memory, small stacks and C1 only</li>
+ * <li>{@code auto}: {@code low-memory} for containers with less than 1GB or a single CPU, G1 with a heap of 70% of
+ * the memory otherwise</li>
+ * </ul>
+ * The heap is only fixed (and pre-touched) when the memory is limited by the container. Otherwise, the memory is the
+ * physical memory of the host, shared with other processes, and the heap grows up to the computed size.
+ * <p/>
+ * All the profiles limit the direct memory, set the number of active processors when the CPU is limited and enable
+ * class data sharing. Options explicitly passed by the user take precedence over the computed ones.
+ */
+public class JvmProfile {
+
+  /**
+   * The supported profiles.
+   */
+  public static final List<String> PROFILES = Collections.unmodifiableList(Arrays.asList("throughput", "latency",
+    "low-memory", "auto"));
+
+  private static final long MB = 1024 * 1024;
+
+  private final String name;
+  private final Limits limits;
+  private final int javaVersion;
+
+  /**
+   * Creates a profile.
+   *
+   * @param name        the profile name, one of {@link #PROFILES}
+   * @param limits      the resources available to the application
+   * @param javaVersion the feature version of the JVM running the application
+   */
+  JvmProfile(String name, Limits limits, int javaVersion) {
+    if (!PROFILES.contains(name)) {
+      throw new IllegalArgumentException("Unknown JVM profile '" + name + "', supported profiles are " + PROFILES);
+    }
+    this.name = name;
+    this.limits = limits;
+    this.javaVersion = javaVersion;
+  }
+
+  /**
+   * Creates a profile for the current container. The application is expected to run with the same JVM as the
+   * launcher.
+   *
+   * @param name the profile name, one of {@link #PROFILES}
+   * @return the profile
+   * @throws IllegalArgumentException if the profile is not supported
+   */
+  public static JvmProfile create(String name) {
+    return new JvmProfile(name, Limits.current(), Runtime.version().feature());
+  }
+
+  /**
+   * @return the resources available to the application.
+   */
+  public Limits limits() {
+    return limits;
+  }
+
+  /**
+   * Creates the profile of one of the processes sharing the resources of the container.
+   *
+   * @param processes the number of processes
+   * @return the profile
+   */
+  public JvmProfile divide(int processes) {
+    if (processes <= 1) {
+      return this;
+    }
+    return new JvmProfile(name, new Limits(limits.memory() / processes, limits.memoryLimited(),
+      Math.max(1, limits.cpus() / processes), limits.cpuLimited()), javaVersion);
+  }
+
+  /**
+   * Computes the JVM options.
+   *
+   * @param userOptions the options set by the user, the computed options they override are omitted
+   * @return the computed options, followed by the user options
+   */
+  public List<String> options(List<String> userOptions) {
+    long memory = limits.memory() / MB;
+    List<String> options = new ArrayList<>();
+    String profile = name;
+    if (profile.equals("auto") && (memory < 1024 || limits.cpus() < 2)) {
+      profile = "low-memory";
+    }
+    switch (profile) {
+      case "throughput":
+        heap(options, memory * 75 / 100, limits.memoryLimited());
+        options.add("-XX:MaxDirectMemorySize=" + Math.max(64, memory / 10) + "m");
+        options.add("-XX:+UseParallelGC");
+        break;
+      case "latency":
+        heap(options, memory * 70 / 100, limits.memoryLimited());
+        options.add("-XX:MaxDirectMemorySize=" + Math.max(64, memory / 10) + "m");
+        if (javaVersion >= 15) {
+          options.add("-XX:+UseZGC");
+        } else {
+          options.add("-XX:+UseG1GC");
+          options.add("-XX:MaxGCPauseMillis=50");
+        }
+        if (limits.memoryLimited()) {
+          options.add("-XX:+AlwaysPreTouch");
+        }
+        break;
+      case "low-memory":
+        heap(options, memory / 2, false);
+        options.add("-XX:MaxDirectMemorySize=" + Math.max(16, memory / 20) + "m");
+        options.add("-XX:+UseSerialGC");
+        options.add("-Xss512k");
+        options.add("-XX:TieredStopAtLevel=1");
+        options.add("-XX:ReservedCodeCacheSize=32m");
+        break;
+      default:
+        heap(options, memory * 70 / 100, false);
+        options.add("-XX:MaxDirectMemorySize=" + Math.max(64, memory / 10) + "m");
+        options.add("-XX:+UseG1GC");
+        break;
+    }
+    if (limits.cpuLimited()) {
+      options.add("-XX:ActiveProcessorCount=" + limits.cpus());
+    }
+    options.add("-Xshare:auto");
+    return merge(options, userOptions);
+  }
+
+  /**
+   * Merges two lists of JVM options.
+   *
+   * @param defaults  the default options, omitted when an option configuring the same setting is in
+   *                  {@code overrides}
+   * @param overrides the options taking precedence
+   * @return the remaining default options, followed by the overriding options
+   */
+  public static List<String> merge(List<String> defaults, List<String> overrides) {
+    Set<String> overridden = new HashSet<>();
+    for (String option : overrides) {
+      overridden.add(key(option));
+    }
+    List<String> result = new ArrayList<>();
+    for (String option : defaults) {
+      if (!overridden.contains(key(option))) {
+        result.add(option);
+      }
+    }
+    result.addAll(overrides);
+    return result;
+  }
+
+  private static void heap(List<String> options, long heap, boolean fixed) {
+    heap = Math.max(16, heap);
+    options.add("-Xmx" + heap + "m");
+    options.add("-Xms" + (fixed ? heap : Math.min(heap, Math.max(8, heap / 8))) + "m");
+  }
+
+  /**
+   * Computes the key identifying the JVM setting configured by an option, so options configuring the same setting
+   * can be detected.
+   */
+  static String key(String option) {
+    if (option.startsWith("-Xmx") || option.startsWith("-XX:MaxRAMPercentage") || option.startsWith("-XX:MaxRAM=")) {
+      return "-Xmx";
+    }
+    if (option.startsWith("-Xms") || option.startsWith("-XX:InitialRAMPercentage")) {
+      return "-Xms";
+    }
+    if (option.startsWith("-Xss") || option.startsWith("-XX:ThreadStackSize")) {
+      return "-Xss";
+    }
+    if (option.startsWith("-Xshare")) {
+      return "-Xshare";
+    }
+    if (option.startsWith("-XX:")) {
+      String setting = option.substring(4);
+      if (setting.startsWith("+") || setting.startsWith("-")) {
+        setting = setting.substring(1);
+      }
+      int index = setting.indexOf('=');
+      if (index != -1) {
+        setting = setting.substring(0, index);
+      }
+      if (setting.startsWith("Use") && setting.endsWith("GC")) {
+        // Only one collector can be selected
+        return "gc";
+      }
+      return setting;
+    }
+    return option;
+  }
+
+  /**
+   * The resources available to the application.
+   */
+  public static final class Limits {
+
+    private final long memory;
+    private final boolean memoryLimited;
+    private final int cpus;
+    private final boolean cpuLimited;
+
+    Limits(long memory, boolean memoryLimited, int cpus, boolean cpuLimited) {
+      this.memory = memory;
+      this.memoryLimited = memoryLimited;
+      this.cpus = cpus;
+      this.cpuLimited = cpuLimited;
+    }
+
+    /**
+     * @return the memory in bytes.
+     */
+    public long memory() {
+      return memory;
+    }
+
+    /**
+     * @return whether or not the memory is limited by the container.
+     */
+    public boolean memoryLimited() {
+      return memoryLimited;
+    }
+
+    /**
+     * @return the number of CPUs, the CPU quota rounded up.
+     */
+    public int cpus() {
+      return cpus;
+    }
+
+    /**
+     * @return whether or not the CPU is limited by the container.
+     */
+    public boolean cpuLimited() {
+      return cpuLimited;
+    }
+
+    /**
+     * @return the limits of the current container.
+     */
+    public static Limits current() {
+      return read(new File("/sys/fs/cgroup"), new File("/proc/meminfo"));
+    }
+
+    /**
+     * Reads the limits from the cgroup file system. The memory is limited when the cgroup sets a value below the
+     * memory of the host: the {@code OperatingSystemMXBean} cannot be used, it reports the container limit since
+     * Java 14.
+     *
+     * @param root the cgroup mount point, {@code /sys/fs/cgroup}
+     * @param meminfo the memory information of the host, {@code /proc/meminfo}
+     * @return the limits
+     */
+    static Limits read(File root, File meminfo) {
+      long host = hostMemory(meminfo);
+      int processors = Runtime.getRuntime().availableProcessors();
+
+      long memory = -1;
+      double cpus = -1;
+      String max = readFirstLine(new File(root, "memory.max"));
+      if (max != null) {
+        // cgroup v2
+        memory = parseLong(max);
+        String cpu = readFirstLine(new File(root, "cpu.max"));
+        if (cpu != null) {
+          String[] segments = cpu.split("\\s+");
+          long quota = parseLong(segments[0]);
+          long period = segments.length > 1 ? parseLong(segments[1]) : 100000;
+          if (quota > 0 && period > 0) {
+            cpus = (double) quota / period;
+          }
+        }
+      } else {
+        // cgroup v1
+        memory = parseLong(readFirstLine(new File(root, "memory/memory.limit_in_bytes")));
+        for (String controller : Arrays.asList("cpu", "cpu,cpuacct", "cpuacct,cpu")) {
+          long quota = parseLong(readFirstLine(new File(root, controller + "/cpu.cfs_quota_us")));
+          long period = parseLong(readFirstLine(new File(root, controller + "/cpu.cfs_period_us")));
+          if (quota > 0 && period > 0) {
+            cpus = (double) quota / period;
+            break;
+          }
+        }
+      }
+
+      // cgroup v1 reports a huge value when there is no limit.
+      boolean memoryLimited = memory > 0 && (host <= 0 || memory < host);
+      boolean cpuLimited = cpus > 0;
+      return new Limits(
+        memoryLimited ? memory : (host > 0 ? host : Runtime.getRuntime().maxMemory() * 4),
+        memoryLimited,
+        cpuLimited ? Math.max(1, (int) Math.ceil(cpus)) : processors,
+        cpuLimited);
+    }
+
+    private static long hostMemory(File meminfo) {
+      if (!meminfo.isFile()) {
+        return -1;
+      }
+      try {
+        for (String line : Files.readAllLines(meminfo.toPath(), StandardCharsets.UTF_8)) {
+          // MemTotal:       16318436 kB
+          if (line.startsWith("MemTotal:")) {
+            String[] segments = line.substring("MemTotal:".length()).trim().split("\\s+");
+            long value = parseLong(segments[0]);
+            return value > 0 ? value * 1024 : -1;
+          }
+        }
+      } catch (IOException e) {
+        // Ignore it
+      }
+      return -1;
+    }
+
+    private static String readFirstLine(File file) {
+      if (!file.isFile()) {
+        return null;
+      }
+      try {
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        return lines.isEmpty() ? null : lines.get(0).trim();
+      } catch (IOException e) {
+        return null;
+      }
+    }
+
+    private static long parseLong(String value) {
+      if (value == null || value.equals("max")) {
+        return -1;
+      }
+      try {
+        return Long.parseLong(value);
+      } catch (NumberFormatException e) {
+        return -1;
+      }
+    }
+  }
+}
@@ -12,22 +12,38 @@
 package io.vertx.core.impl.launcher.commands;
 
 
+import io.vertx.core.cli.CLIException;
+import io.vertx.core.cli.annotations.DefaultValue;
 import io.vertx.core.cli.annotations.Description;
 import io.vertx.core.cli.annotations.Name;
+import io.vertx.core.cli.annotations.Option;
 import io.vertx.core.cli.annotations.Summary;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
 import io.vertx.core.spi.launcher.DefaultCommand;
+import io.vertx.core.spi.launcher.ExecutionContext;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 /**
- * A command listing launched vert.x instances. Instances are found using the `vertx.id` indicator in the
- * process list.
+ * A command listing launched vert.x instances. Instances are read from the {@link ApplicationRegistry}, and found
+ * using the `vertx.id` indicator in the command line of the running processes for the ones not registered (launched
+ * by previous versions, or manually).
+ * <p/>
+ * For each application, the pid, uptime, CPU time, resident memory and thread count are reported when available
+ * (memory and threads are only available on Linux). The output is either a human readable table or JSON. The JSON
+ * output also contains the state reported by the control endpoint of the applications exposing one.
  *
  * @author Clement Escoffier <clement@apache.org>
  */
@@ -42,32 +58,63 @@ public class ListCommand extends DefaultCommand {
 
   private final static Pattern VERTICLE_EXTRACTION = Pattern.compile("run (\\S*)");
 
+  private final static Pattern STATUS_RSS = Pattern.compile("^VmRSS:\\s+(\\d+)\\s+kB", Pattern.MULTILINE);
+
+  private final static Pattern STATUS_THREADS = Pattern.compile("^Threads:\\s+(\\d+)", Pattern.MULTILINE);
+
   // Note about stack traces - the stack trace are printed on the stream passed to the command.
 
+  private String format;
+
+  /**
+   * Sets the output format.
+   *
+   * @param format the format, {@code text} or {@code json}
+   */
+  @Option(longName = "format", argName = "format")
+  @Description("The output format, 'text' or 'json'. 'text' by default.")
+  @DefaultValue("text")
+  public void setFormat(String format) {
+    this.format = format;
+  }
+
+  @Override
+  public void setUp(ExecutionContext context) throws CLIException {
+    super.setUp(context);
+    if (!"text".equalsIgnoreCase(format) && !"json".equalsIgnoreCase(format)) {
+      throw new CLIException("Unknown format '" + format + "', supported formats are text, json");
+    }
+  }
+
   /**
    * Executes the {@code list} command.
    */
   @Override
   public void run() {
-    out.println("Listing vert.x applications...");
-    List<String> cmd = new ArrayList<>();
-    if (!ExecUtils.isWindows()) {
-      try {
-        cmd.add("sh");
-        cmd.add("-c");
-        cmd.add("ps ax | grep \"vertx.id=\"");
-
-        dumpFoundVertxApplications(cmd);
-      } catch (InterruptedException e) {
-        Thread.currentThread().interrupt();
-        e.printStackTrace(out);
-      } catch (Exception e) {
-        e.printStackTrace(out);
-      }
+    boolean json = "json".equalsIgnoreCase(format);
+    if (!json) {
+      out.println("Listing vert.x applications...");
+    }
+    List<JsonObject> applications = new ArrayList<>();
+    Map<String, ApplicationRegistry.Entry> registered = new HashMap<>();
+    for (ApplicationRegistry.Entry entry : ApplicationRegistry.create().list()) {
+      entry.process().ifPresent(process -> {
+        registered.put(entry.id(), entry);
+        applications.add(new JsonObject()
+          .put("id", entry.id())
+          .put("details", entry.details())
+          .put("pid", process.pid())
+          .put("group", entry.group())
+          .put("registered", true));
+      });
+    }
 
-    } else {
-      try {
-        // Use wmic.
+    try {
+      if (!ExecUtils.isWindows()) {
+        applications.addAll(scanProcesses(registered.keySet()));
+      } else {
+        // The command line of the other processes is not available from ProcessHandle on Windows, use wmic.
+        List<String> cmd = new ArrayList<>();
         cmd.add("WMIC");
         cmd.add("PROCESS");
         cmd.add("WHERE");
@@ -75,38 +122,188 @@ public class ListCommand extends DefaultCommand {
         cmd.add("GET");
         cmd.add("CommandLine");
         cmd.add("/VALUE");
-
-        dumpFoundVertxApplications(cmd);
-      } catch (InterruptedException e) {
-        Thread.currentThread().interrupt();
-        e.printStackTrace(out);
-      } catch (Exception e) {
-        e.printStackTrace(out);
+        applications.addAll(scanWithCommand(cmd, registered.keySet()));
       }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      e.printStackTrace(out);
+    } catch (Exception e) {
+      e.printStackTrace(out);
     }
 
+    // Collect the resource usage, in parallel as it requires file system accesses on Linux.
+    applications.parallelStream().forEach(app -> {
+      addResourceUsage(app);
+      ApplicationRegistry.Entry entry = registered.get(app.getString("id"));
+      if (json && entry != null) {
+        addStatus(app, entry);
+      }
+    });
+    applications.sort(Comparator.comparing(app -> app.getLong("startTime", Long.MAX_VALUE)));
 
+    if (json) {
+      out.println(new JsonArray(new ArrayList<>(applications)).encodePrettily());
+    } else {
+      for (JsonObject app : applications) {
+        out.println(app.getString("id") + "\t" + app.getString("details")
+          + "\tpid=" + value(app.getLong("pid"))
+          + "\tuptime=" + duration(app.getLong("uptime"))
+          + "\tcpu=" + duration(app.getLong("cpuTime"))
+          + "\trss=" + memory(app.getLong("rss"))
+          + "\tthreads=" + value(app.getInteger("threads"))
+          + (app.getString("group") == null ? "" : "\tgroup=" + app.getString("group")));
+      }
+      if (applications.isEmpty()) {
+        out.println("No vert.x application found.");
+      }
+    }
   }
 
-  private void dumpFoundVertxApplications(List<String> cmd) throws IOException, InterruptedException {
-    boolean none = true;
+  /**
+   * Finds the vert.x applications by looking at the command line of all the running processes.
+   */
+  private static List<JsonObject> scanProcesses(Set<String> registered) {
+    long self = ProcessHandle.current().pid();
+    return ProcessHandle.allProcesses()
+      .parallel()
+      .filter(ph -> ph.pid() != self)
+      .map(ph -> {
+        String line = ph.info().commandLine().orElse(null);
+        if (line == null) {
+          return null;
+        }
+        String id = applicationId(line);
+        if (id == null || registered.contains(id)) {
+          return null;
+        }
+        return new JsonObject()
+          .put("id", id)
+          .put("details", extractApplicationDetails(line))
+          .put("pid", ph.pid())
+          .put("registered", false);
+      })
+      .filter(Objects::nonNull)
+      .collect(Collectors.toList());
+  }
+
+  private List<JsonObject> scanWithCommand(List<String> cmd, Set<String> registered) throws IOException,
+    InterruptedException {
+    List<JsonObject> found = new ArrayList<>();
     final Process process = new ProcessBuilder(cmd).start();
     try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
       String line;
       while ((line = reader.readLine()) != null) {
         final Matcher matcher = PS.matcher(line);
         if (matcher.find()) {
-          String id = matcher.group(1);
-          String details = extractApplicationDetails(line);
-          out.println(id + "\t" + details);
-          none = false;
+          String id = matcher.group(1).trim();
+          if (!registered.contains(id)) {
+            found.add(new JsonObject()
+              .put("id", id)
+              .put("details", extractApplicationDetails(line))
+              .put("registered", false));
+          }
         }
       }
       process.waitFor();
     }
-    if (none) {
-      out.println("No vert.x application found.");
+    return found;
+  }
+
+  /**
+   * Adds the start time, uptime and CPU time (from {@link ProcessHandle.Info}), and on Linux the resident memory and
+   * the thread count (from {@code /proc/<pid>/status}) of the application.
+   */
+  private static void addResourceUsage(JsonObject app) {
+    Long pid = app.getLong("pid");
+    if (pid == null) {
+      return;
+    }
+    ProcessHandle.of(pid).ifPresent(ph -> {
+      ProcessHandle.Info info = ph.info();
+      info.startInstant().ifPresent(start -> {
+        app.put("startTime", start.toEpochMilli());
+        app.put("uptime", Duration.between(start, Instant.now()).toMillis());
+      });
+      info.totalCpuDuration().ifPresent(cpu -> app.put("cpuTime", cpu.toMillis()));
+    });
+    if (ExecUtils.isLinux()) {
+      try {
+        String status = new String(Files.readAllBytes(new File("/proc/" + pid + "/status").toPath()),
+          StandardCharsets.UTF_8);
+        Matcher matcher = STATUS_RSS.matcher(status);
+        if (matcher.find()) {
+          app.put("rss", Long.parseLong(matcher.group(1)) * 1024);
+        }
+        matcher = STATUS_THREADS.matcher(status);
+        if (matcher.find()) {
+          app.put("threads", Integer.parseInt(matcher.group(1)));
+        }
+      } catch (IOException | NumberFormatException e) {
+        // The process is gone, or /proc is not readable.
+      }
+    }
+  }
+
+  /**
+   * Adds the state reported by the control endpoint of the application, if any.
+   */
+  private static void addStatus(JsonObject app, ApplicationRegistry.Entry entry) {
+    JsonObject status = ControlClient.query(entry, "status");
+    if (status != null) {
+      app.put("state", status.getString("state"));
+      app.put("deployments", status.getInteger("deployments"));
+    }
+  }
+
+  private static String value(Object value) {
+    return value == null ? "-" : value.toString();
+  }
+
+  /**
+   * Formats a duration given in milliseconds, for example {@code 1h02m03s} or {@code 4.2s}.
+   */
+  static String duration(Long millis) {
+    if (millis == null) {
+      return "-";
+    }
+    long seconds = millis / 1000;
+    if (seconds < 60) {
+      return String.format(Locale.ENGLISH, "%.1fs", millis / 1000.0);
+    }
+    if (seconds < 3600) {
+      return String.format(Locale.ENGLISH, "%dm%02ds", seconds / 60, seconds % 60);
+    }
+    return String.format(Locale.ENGLISH, "%dh%02dm%02ds", seconds / 3600, (seconds % 3600) / 60, seconds % 60);
+  }
+
+  /**
+   * Formats an amount of memory given in bytes, for example {@code 123.4MB}.
+   */
+  static String memory(Long bytes) {
+    if (bytes == null) {
+      return "-";
+    }
+    if (bytes < 1024 * 1024) {
+      return String.format(Locale.ENGLISH, "%.1fKB", bytes / 1024.0);
+    }
+    if (bytes < 1024L * 1024 * 1024) {
+      return String.format(Locale.ENGLISH, "%.1fMB", bytes / (1024.0 * 1024));
+    }
+    return String.format(Locale.ENGLISH, "%.1fGB", bytes / (1024.0 * 1024 * 1024));
+  }
+
+  /**
+   * Extracts the application id from a command line.
+   *
+   * @param line the command line
+   * @return the id, {@code null} if the command line is not the one of a vert.x application launched with `start`
+   */
+  static String applicationId(String line) {
+    Matcher matcher = PS.matcher(line);
+    if (matcher.find()) {
+      return matcher.group(1).trim();
     }
+    return null;
   }
 
   /**
@@ -0,0 +1,354 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.launcher.commands;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes the output of an application launched in background with {@code start --log-pump} to size-rotated files.
+ * <p/>
+ * The standard output and error streams of the application are replaced by streams splitting the output in lines and
+ * queuing them without ever blocking. A single writer thread drains the queue to the log file through a large buffer.
+ * When the queue is full (the writer cannot keep up or the disk is slow), lines are dropped and counted, and the
+ * number of dropped lines is written in the log once the writer catches up.
+ * <p/>
+ * When the log file exceeds the maximum size, it is renamed {@code <name>.log.1} (the previous {@code .1} file
+ * becoming {@code .2}, and so on) and a new file is started.
+ * <p/>
+ * The pump is never closed when the JVM exits, as the other shutdown hooks (closing vert.x, undeploying the verticles)
+ * still log: it is flushed, and keeps writing the lines until the JVM halts.
+ */
+public class LogPump implements Closeable {
+
+  /**
+   * The system property enabling the log pump, its value is the name of the log file (without extension).
+   */
+  public static final String LOG_PUMP_PROPERTY = "vertx.logPump";
+
+  /**
+   * The system property configuring the maximum size of a log file, in bytes.
+   */
+  public static final String MAX_SIZE_PROPERTY = "vertx.logPump.maxSize";
+
+  /**
+   * The system property configuring the number of rotated files kept in addition to the current one.
+   */
+  public static final String FILES_PROPERTY = "vertx.logPump.files";
+
+  static final long DEFAULT_MAX_SIZE = 10 * 1024 * 1024;
+  static final int DEFAULT_FILES = 5;
+
+  /**
+   * The maximum number of bytes waiting to be written.
+   */
+  static final int DEFAULT_CAPACITY = 4 * 1024 * 1024;
+
+  /**
+   * The longest line, longer lines are split.
+   */
+  private static final int MAX_LINE_LENGTH = 16 * 1024;
+
+  private static final byte[] EOF = new byte[0];
+
+  private static LogPump installed;
+
+  private final File file;
+  private final long maxSize;
+  private final int files;
+  private final int capacity;
+  private final LinkedBlockingQueue<byte[]> queue = new LinkedBlockingQueue<>();
+  private final AtomicLong pending = new AtomicLong();
+  private final AtomicLong dropped = new AtomicLong();
+  private final AtomicLong totalDropped = new AtomicLong();
+  private final AtomicLong queued = new AtomicLong();
+  private long written;
+  private final Thread writer;
+  private volatile boolean closed;
+
+  /**
+   * Creates and starts a log pump.
+   *
+   * @param file     the log file
+   * @param maxSize  the maximum size of the log file, in bytes
+   * @param files    the number of rotated files to keep
+   * @param capacity the maximum number of bytes waiting to be written
+   */
+  public LogPump(File file, long maxSize, int files, int capacity) {
+    this.file = file;
+    this.maxSize = maxSize;
+    this.files = files;
+    this.capacity = capacity;
+    this.writer = new Thread(this::drain, "vertx-log-pump");
+    this.writer.setDaemon(true);
+    this.writer.start();
+  }
+
+  /**
+   * Replaces the standard output and error streams of the JVM by streams writing to a log pump, if the
+   * {@link #LOG_PUMP_PROPERTY} system property is set. The log file is created in the {@code logs} directory of the
+   * application registry, and the pump is flushed when the JVM exits (see {@link #flush()}). The pump is installed
+   * only once.
+   *
+   * @return the pump, {@code null} if the property is not set
+   */
+  public static synchronized LogPump install() {
+    String name = System.getProperty(LOG_PUMP_PROPERTY);
+    if (installed != null || name == null || name.isEmpty()) {
+      return installed;
+    }
+    long maxSize = Long.getLong(MAX_SIZE_PROPERTY, DEFAULT_MAX_SIZE);
+    int files = Integer.getInteger(FILES_PROPERTY, DEFAULT_FILES);
+    LogPump pump = new LogPump(ApplicationRegistry.create().logFile(name), maxSize, files, DEFAULT_CAPACITY);
+    System.setOut(new PrintStream(pump.stream(), true));
+    System.setErr(new PrintStream(pump.stream(), true));
+    Runtime.getRuntime().addShutdownHook(new Thread(pump::flush, "vertx-log-pump-shutdown"));
+    installed = pump;
+    return pump;
+  }
+
+  /**
+   * @return the log file.
+   */
+  public File file() {
+    return file;
+  }
+
+  /**
+   * @return the number of lines dropped since the pump has been started.
+   */
+  public long dropped() {
+    return totalDropped.get();
+  }
+
+  /**
+   * Creates a stream writing to the pump. Writes never block. Each stream assembles its own lines, so the lines of
+   * several streams are never mixed.
+   *
+   * @return the stream
+   */
+  public OutputStream stream() {
+    return new LineStream();
+  }
+
+  /**
+   * Queues a line, or drops it if the queue is full.
+   *
+   * @param line the line, including the line separator
+   */
+  void offer(byte[] line) {
+    if (closed) {
+      return;
+    }
+    if (pending.addAndGet(line.length) > capacity) {
+      pending.addAndGet(-line.length);
+      dropped.incrementAndGet();
+      totalDropped.incrementAndGet();
+      return;
+    }
+    queued.incrementAndGet();
+    queue.offer(line);
+  }
+
+  /**
+   * Waits until the lines queued before the call are written, for at most 5 seconds. Unlike {@link #close()}, the
+   * pump keeps accepting lines, so the shutdown hooks can flush it while the other hooks are still logging.
+   */
+  public void flush() {
+    long target = queued.get();
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    synchronized (this) {
+      try {
+        while (written < target && writer.isAlive()) {
+          long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+          if (remaining <= 0) {
+            return;
+          }
+          wait(remaining);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Writes the queued lines and stops the pump. Lines written afterwards are ignored.
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    queue.offer(EOF);
+    try {
+      writer.join(TimeUnit.SECONDS.toMillis(5));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void drain() {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(256 * 1024);
+    List<byte[]> batch = new ArrayList<>();
+    FileChannel channel = null;
+    try {
+      file.getParentFile().mkdirs();
+      channel = open();
+      boolean eof = false;
+      while (!eof) {
+        batch.add(queue.take());
+        queue.drainTo(batch);
+        int lines = batch.size();
+        long dropped = this.dropped.getAndSet(0);
+        if (dropped > 0) {
+          byte[] marker = ("[log-pump] " + dropped + " lines dropped\n").getBytes(StandardCharsets.UTF_8);
+          pending.addAndGet(marker.length);
+          batch.add(0, marker);
+        }
+        for (byte[] line : batch) {
+          if (line == EOF) {
+            eof = true;
+            break;
+          }
+          pending.addAndGet(-line.length);
+          long size = channel.position() + buffer.position();
+          if (size > 0 && size + line.length > maxSize) {
+            flush(channel, buffer);
+            channel.close();
+            rotate();
+            channel = open();
+          }
+          if (line.length > buffer.remaining()) {
+            flush(channel, buffer);
+          }
+          buffer.put(line);
+        }
+        batch.clear();
+        flush(channel, buffer);
+        written(lines);
+      }
+    } catch (IOException e) {
+      // Cannot write the log anymore, stop the pump.
+      closed = true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      if (channel != null) {
+        try {
+          flush(channel, buffer);
+          channel.close();
+        } catch (IOException e) {
+          // Ignore it.
+        }
+      }
+    }
+  }
+
+  private synchronized void written(int lines) {
+    written += lines;
+    notifyAll();
+  }
+
+  private FileChannel open() throws IOException {
+    return FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+      StandardOpenOption.APPEND);
+  }
+
+  private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  /**
+   * Shifts the rotated files, the oldest one being deleted.
+   */
+  void rotate() throws IOException {
+    if (files <= 0) {
+      Files.deleteIfExists(file.toPath());
+      return;
+    }
+    Files.deleteIfExists(rotated(files).toPath());
+    for (int i = files - 1; i >= 1; i--) {
+      File source = rotated(i);
+      if (source.isFile()) {
+        Files.move(source.toPath(), rotated(i + 1).toPath(), StandardCopyOption.REPLACE_EXISTING);
+      }
+    }
+    Files.move(file.toPath(), rotated(1).toPath(), StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  private File rotated(int index) {
+    return new File(file.getParentFile(), file.getName() + "." + index);
+  }
+
+  /**
+   * An output stream splitting the written bytes in lines.
+   */
+  private class LineStream extends OutputStream {
+
+    private final ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+
+    @Override
+    public synchronized void write(int b) {
+      line.write(b);
+      if (b == '\n' || line.size() >= MAX_LINE_LENGTH) {
+        emit();
+      }
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) {
+      int start = off;
+      int end = off + len;
+      for (int i = off; i < end; i++) {
+        if (b[i] == '\n') {
+          line.write(b, start, i + 1 - start);
+          emit();
+          start = i + 1;
+        } else if (line.size() + i + 1 - start >= MAX_LINE_LENGTH) {
+          line.write(b, start, i + 1 - start);
+          emit();
+          start = i + 1;
+        }
+      }
+      line.write(b, start, end - start);
+    }
+
+    @Override
+    public synchronized void close() {
+      if (line.size() > 0) {
+        line.write('\n');
+        emit();
+      }
+    }
+
+    private void emit() {
+      offer(line.toByteArray());
+      line.reset();
+    }
+  }
+}
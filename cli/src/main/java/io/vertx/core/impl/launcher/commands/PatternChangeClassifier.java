@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.launcher.commands;
+
+import java.io.File;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A {@link ChangeClassifier} reloading in place the files matching a set of Ant patterns (can use
+ * {@literal **, * or ?}), typically web assets and templates. Other files require a redeployment.
+ * <p/>
+ * As for the include patterns of the {@link Watcher}, patterns are matched against the path relative to the current
+ * working directory, or against the absolute path.
+ */
+public class PatternChangeClassifier implements ChangeClassifier {
+
+  private final String cwd;
+  private final List<FileSelector.CompiledPattern> patterns;
+
+  /**
+   * Creates a new {@link PatternChangeClassifier}.
+   *
+   * @param cwd      the current working directory
+   * @param patterns the patterns of the files that can be reloaded in place
+   */
+  public PatternChangeClassifier(File cwd, List<String> patterns) {
+    this.cwd = cwd.getAbsolutePath();
+    this.patterns = patterns.stream()
+      .map(p -> ExecUtils.isWindows() ? p.replace('/', File.separatorChar) : p.replace('\\', File.separatorChar))
+      .map(p -> FileSelector.compile(p, !ExecUtils.isWindows()))
+      .collect(Collectors.toList());
+  }
+
+  @Override
+  public Action classify(File file) {
+    String absolutePath = file.getAbsolutePath();
+    String relFromCwd = null;
+    if (absolutePath.startsWith(cwd) && absolutePath.length() > cwd.length()) {
+      relFromCwd = absolutePath.substring(cwd.length() + 1);
+    }
+    for (FileSelector.CompiledPattern pattern : patterns) {
+      if ((relFromCwd != null && pattern.matches(relFromCwd)) || pattern.matches(absolutePath)) {
+        return Action.RELOAD;
+      }
+    }
+    return Action.REDEPLOY;
+  }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.launcher.commands;
+
+import io.vertx.core.json.JsonObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Collects the metrics of the redeploy pipeline driven by the {@link Watcher}: file system scan cost, detection
+ * latency and the duration of each redeployment step.
+ * <p/>
+ * All durations are recorded in milliseconds.
+ */
+public class RedeployMetrics {
+
+  /**
+   * Duration of a single file system scan.
+   */
+  public static final String SCAN_DURATION = "scan-duration";
+
+  /**
+   * Number of files visited during a single file system scan.
+   */
+  public static final String FILES_VISITED = "files-visited";
+
+  /**
+   * Time between the last modification date of a changed file and the detection of the change.
+   */
+  public static final String DETECTION_LATENCY = "detection-latency";
+
+  /**
+   * Time waited between the first detected change and the beginning of the redeployment (grace period).
+   */
+  public static final String GRACE_PERIOD_WAIT = "grace-period-wait";
+
+  /**
+   * Duration of the incremental compilation of the changed sources.
+   */
+  public static final String COMPILE_DURATION = "compile-duration";
+
+  /**
+   * Duration of the user {@code on-redeploy} command.
+   */
+  public static final String USER_COMMAND_DURATION = "user-command-duration";
+
+  /**
+   * Duration of the un-deployment (stop) of the previous version of the application.
+   */
+  public static final String STOP_DURATION = "stop-duration";
+
+  /**
+   * Time until the new version of the application reports being deployed.
+   */
+  public static final String DEPLOY_DURATION = "deploy-duration";
+
+  /**
+   * Total duration of a redeployment, from the beginning of the un-deployment to the end of the deployment.
+   */
+  public static final String REDEPLOY_DURATION = "redeploy-duration";
+
+  /**
+   * Duration of the reload in place of a set of changes, when no redeployment is required.
+   */
+  public static final String RELOAD_DURATION = "reload-duration";
+
+  private final Map<String, Histogram> histograms = new LinkedHashMap<>();
+
+  public RedeployMetrics() {
+    for (String name : Arrays.asList(SCAN_DURATION, FILES_VISITED, DETECTION_LATENCY, GRACE_PERIOD_WAIT,
+      COMPILE_DURATION, USER_COMMAND_DURATION, STOP_DURATION, DEPLOY_DURATION, REDEPLOY_DURATION, RELOAD_DURATION)) {
+      histograms.put(name, new Histogram());
+    }
+  }
+
+  /**
+   * Records a value in the histogram having the given name.
+   *
+   * @param name  the histogram name, one of the constants defined in this class
+   * @param value the value
+   */
+  public void record(String name, long value) {
+    Histogram histogram = histograms.get(name);
+    if (histogram == null) {
+      throw new IllegalArgumentException("Unknown redeploy metric: " + name);
+    }
+    histogram.record(value);
+  }
+
+  /**
+   * @param name the histogram name
+   * @return the histogram, {@code null} if there is no histogram with this name
+   */
+  public Histogram histogram(String name) {
+    return histograms.get(name);
+  }
+
+  /**
+   * @return a JSON representation of the collected metrics.
+   */
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    histograms.forEach((name, histogram) -> json.put(name, histogram.toJson()));
+    return json;
+  }
+
+  /**
+   * @return a human readable summary of the collected metrics, one line per histogram.
+   */
+  public String summary() {
+    StringBuilder builder = new StringBuilder("Redeploy metrics:");
+    histograms.forEach((name, histogram) -> {
+      builder.append(System.lineSeparator()).append("  ").append(name).append(": ");
+      if (histogram.count() == 0) {
+        builder.append("no data");
+      } else {
+        builder.append("count=").append(histogram.count())
+          .append(" min=").append(histogram.min())
+          .append(" p50=").append(histogram.percentile(50))
+          .append(" p90=").append(histogram.percentile(90))
+          .append(" p99=").append(histogram.percentile(99))
+          .append(" max=").append(histogram.max());
+      }
+    });
+    return builder.toString();
+  }
+
+  /**
+   * Writes the JSON representation of the metrics to the given file. The file is replaced atomically when the file
+   * system supports it, so readers never observe a partially written file.
+   *
+   * @param file the file
+   * @throws IOException if the file cannot be written
+   */
+  public void write(File file) throws IOException {
+    File parent = file.getAbsoluteFile().getParentFile();
+    if (parent != null) {
+      parent.mkdirs();
+    }
+    File tmp = new File(parent, file.getName() + ".tmp");
+    Files.write(tmp.toPath(), toJson().encodePrettily().getBytes(StandardCharsets.UTF_8));
+    try {
+      Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  /**
+   * A simple histogram keeping the most recent samples. The redeploy pipeline produces a low volume of values, so
+   * percentiles are computed exactly from the retained samples.
+   */
+  public static final class Histogram {
+
+    private static final int MAX_SAMPLES = 4096;
+
+    private final long[] samples = new long[MAX_SAMPLES];
+    private long count;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+
+    public synchronized void record(long value) {
+      samples[(int) (count % MAX_SAMPLES)] = value;
+      count++;
+      sum += value;
+      min = Math.min(min, value);
+      max = Math.max(max, value);
+    }
+
+    public synchronized long count() {
+      return count;
+    }
+
+    public synchronized long min() {
+      return count == 0 ? 0 : min;
+    }
+
+    public synchronized long max() {
+      return count == 0 ? 0 : max;
+    }
+
+    public synchronized double mean() {
+      return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * @param percentile the percentile, between 0 and 100
+     * @return the value at the given percentile, computed on the retained samples, {@code 0} if empty
+     */
+    public synchronized long percentile(double percentile) {
+      if (count == 0) {
+        return 0;
+      }
+      int size = (int) Math.min(count, MAX_SAMPLES);
+      long[] sorted = Arrays.copyOf(samples, size);
+      Arrays.sort(sorted);
+      int index = (int) Math.ceil(percentile / 100.0 * size) - 1;
+      return sorted[Math.max(0, Math.min(size - 1, index))];
+    }
+
+    public synchronized JsonObject toJson() {
+      return new JsonObject()
+        .put("count", count)
+        .put("min", min())
+        .put("max", max())
+        .put("mean", mean())
+        .put("p50", percentile(50))
+        .put("p90", percentile(90))
+        .put("p99", percentile(99));
+    }
+  }
+}
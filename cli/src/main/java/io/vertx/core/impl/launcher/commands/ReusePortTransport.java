@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.launcher.commands;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFactory;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.IoHandlerFactory;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.socket.DatagramChannel;
+import io.netty.channel.socket.InternetProtocolFamily;
+import io.netty.channel.socket.nio.NioChannelOption;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.datagram.DatagramSocketOptions;
+import io.vertx.core.net.ClientOptionsBase;
+import io.vertx.core.net.NetServerOptions;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.core.transport.Transport;
+
+import java.io.IOException;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ServerSocketChannel;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * A transport enabling {@code SO_REUSEPORT} on the listening sockets of all the servers, whatever their options. The
+ * processes started by {@code start --processes} use it, so they can listen on the same ports without changing the
+ * application: the kernel balances the connections between them.
+ * <p/>
+ * It wraps the transport vert.x would have selected: the native transport when preferred and available, NIO
+ * otherwise.
+ * <p/>
+ * {@link NetServerOptions#setReusePort(boolean)} cannot be used instead: the options of the servers are created by
+ * the application code, after the launcher has handed over, and no vert.x option or hook lets the launcher change
+ * them. The transport is the only place seeing every server bootstrap. The price is to implement the transport SPI,
+ * which is internal and changes between vert.x minor versions: every method delegates to the wrapped implementation,
+ * and {@code ReusePortTransportTest} fails when a new method is not forwarded.
+ */
+final class ReusePortTransport implements Transport {
+
+  private final Transport transport;
+  private final io.vertx.core.spi.transport.Transport implementation;
+
+  private ReusePortTransport(Transport transport) {
+    this.transport = transport;
+    this.implementation = new Implementation(transport.implementation(), transport == Transport.NIO);
+  }
+
+  /**
+   * Wraps the transport selected by the given options.
+   *
+   * @param options the vert.x options
+   * @return the transport
+   */
+  static Transport select(VertxOptions options) {
+    if (options.getPreferNativeTransport()) {
+      Transport transport = Transport.nativeTransport();
+      if (transport != null && transport.available()) {
+        return new ReusePortTransport(transport);
+      }
+    }
+    return new ReusePortTransport(Transport.NIO);
+  }
+
+  @Override
+  public String name() {
+    return transport.name();
+  }
+
+  @Override
+  public boolean available() {
+    return transport.available();
+  }
+
+  @Override
+  public Throwable unavailabilityCause() {
+    return transport.unavailabilityCause();
+  }
+
+  @Override
+  public io.vertx.core.spi.transport.Transport implementation() {
+    return implementation;
+  }
+
+  private static boolean nioSupportsReusePort() {
+    try (ServerSocketChannel channel = ServerSocketChannel.open()) {
+      return channel.supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT);
+    } catch (IOException | UnsupportedOperationException e) {
+      return false;
+    }
+  }
+
+  private static final class Implementation implements io.vertx.core.spi.transport.Transport {
+
+    private final io.vertx.core.spi.transport.Transport delegate;
+    private final boolean nio;
+
+    private Implementation(io.vertx.core.spi.transport.Transport delegate, boolean nio) {
+      this.delegate = delegate;
+      // The NIO transport ignores the reusePort option, the socket option is set directly.
+      this.nio = nio && nioSupportsReusePort();
+    }
+
+    @Override
+    public boolean supportsDomainSockets() {
+      return delegate.supportsDomainSockets();
+    }
+
+    @Override
+    public boolean supportFileRegion() {
+      return delegate.supportFileRegion();
+    }
+
+    @Override
+    public boolean isAvailable() {
+      return delegate.isAvailable();
+    }
+
+    @Override
+    public Throwable unavailabilityCause() {
+      return delegate.unavailabilityCause();
+    }
+
+    @Override
+    public java.net.SocketAddress convert(SocketAddress address) {
+      return delegate.convert(address);
+    }
+
+    @Override
+    public SocketAddress convert(java.net.SocketAddress address) {
+      return delegate.convert(address);
+    }
+
+    @Override
+    public IoHandlerFactory ioHandlerFactory() {
+      return delegate.ioHandlerFactory();
+    }
+
+    @Override
+    public EventLoopGroup eventLoopGroup(int type, int nThreads, ThreadFactory threadFactory, int ioRatio) {
+      return delegate.eventLoopGroup(type, nThreads, threadFactory, ioRatio);
+    }
+
+    @Override
+    public DatagramChannel datagramChannel() {
+      return delegate.datagramChannel();
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public DatagramChannel datagramChannel(InternetProtocolFamily family) {
+      return delegate.datagramChannel(family);
+    }
+
+    @Override
+    public ChannelFactory<? extends Channel> channelFactory(boolean domainSocket) {
+      return delegate.channelFactory(domainSocket);
+    }
+
+    @Override
+    public ChannelFactory<? extends ServerChannel> serverChannelFactory(boolean domainSocket) {
+      return delegate.serverChannelFactory(domainSocket);
+    }
+
+    @Override
+    public void configure(DatagramChannel channel, DatagramSocketOptions options) {
+      delegate.configure(channel, options);
+    }
+
+    @Override
+    public void configure(ClientOptionsBase options, int connectTimeout, boolean domainSocket, Bootstrap bootstrap) {
+      delegate.configure(options, connectTimeout, domainSocket, bootstrap);
+    }
+
+    @Override
+    public void configure(NetServerOptions options, boolean domainSocket, ServerBootstrap bootstrap) {
+      // The copy only configures the bootstrap, the server keeps its own options.
+      delegate.configure(new NetServerOptions(options).setReusePort(true), domainSocket, bootstrap);
+      if (nio && !domainSocket) {
+        bootstrap.option(NioChannelOption.of(StandardSocketOptions.SO_REUSEPORT), true);
+      }
+    }
+  }
+}
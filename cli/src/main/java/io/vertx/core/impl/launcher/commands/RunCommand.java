@@ -21,7 +21,10 @@ import io.vertx.core.json.JsonObject;
 import io.vertx.core.spi.launcher.ExecutionContext;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -46,14 +49,34 @@ public class RunCommand extends BareCommand implements Closeable {
 
   protected String mainVerticle;
   protected List<String> redeploy;
+  protected List<String> redeployExcludes;
+  protected boolean redeployIgnoreFiles;
+  protected List<String> redeployReloadInPlace;
+  protected boolean redeployCompile;
+  protected List<String> redeploySourceDirs;
+  protected String redeployClassesDir;
+  protected boolean redeployStandby;
 
 
+  /**
+   * The time waited for a redeployed application to be ready, in milliseconds.
+   */
+  private static final long READINESS_TIMEOUT = 60000;
+
   protected String vertxApplicationBackgroundId;
   protected String onRedeployCommand;
   protected Watcher watcher;
   private long redeployScanPeriod;
   private long redeployGracePeriod;
   private long redeployTerminationPeriod;
+  private File redeployMetricsFile;
+  private StandbyProcess standby;
+  private Process backgroundProcess;
+  private ControlServer controlServer;
+  private LogPump logPump;
+  private boolean eventLoopLagProbe;
+  private long eventLoopLagReportInterval;
+  private EventLoopLagProbe lagProbe;
 
   /**
    * Enables / disables the high-availability.
@@ -181,13 +204,95 @@ public class RunCommand extends BareCommand implements Closeable {
 
   @Option(longName = "redeploy-termination-period", argName = "period")
   @Description("When redeploy is enabled, this option configures the time waited to be sure that the previous " +
-    "version of the application has been stopped. It is useful on Windows, where the 'terminate' command may take time to be " +
-    "executed.The time is given in milliseconds. 0 ms by default.")
+    "version of the application has been stopped. The 'stop' command already waits for the termination of the " +
+    "application, so it is only useful on Windows, where the 'terminate' command may take time to be executed. The " +
+    "time is given in milliseconds. 0 ms by default.")
   @DefaultValue("0")
   public void setRedeployStopWaitingTime(long period) {
     this.redeployTerminationPeriod = period;
   }
 
+  @Option(longName = "redeploy-excludes", argName = "excludes")
+  @Description("When redeploy is enabled, this option takes a set of exclude patterns indicating which files and " +
+    "directories must not be watched (for example 'target/**,node_modules/**'). Excluded directories are not scanned " +
+    "at all. Patterns are separated by a comma.")
+  @ParsedAsList
+  public void setRedeployExcludes(List<String> excludes) {
+    this.redeployExcludes = excludes;
+  }
+
+  @Option(longName = "redeploy-ignore-files", acceptValue = false, flag = true)
+  @Description("When redeploy is enabled, this option makes the watcher skip the files and directories ignored by " +
+    "the '.gitignore' and '.vertxignore' files, as well as the '.git' directory.")
+  public void setRedeployIgnoreFiles(boolean ignoreFiles) {
+    this.redeployIgnoreFiles = ignoreFiles;
+  }
+
+  @Option(longName = "redeploy-reload-in-place", argName = "patterns")
+  @Description("When redeploy is enabled, this option takes a set of patterns indicating which watched files (static " +
+    "resources, templates...) can be changed without restarting the application. When all the changed files match " +
+    "one of these patterns, the application is not redeployed: the `on-redeploy` command is executed and the changes " +
+    "are sent to the application through its control endpoint. Patterns are separated by a comma.")
+  @ParsedAsList
+  public void setRedeployReloadInPlace(List<String> patterns) {
+    this.redeployReloadInPlace = patterns;
+  }
+
+  @Option(longName = "redeploy-compile", acceptValue = false, flag = true)
+  @Description("When redeploy is enabled, this option enables the built-in incremental compilation: the changed Java " +
+    "sources (and the sources depending on them) are compiled in the launcher process before redeploying the " +
+    "application. If the compilation fails, the application is not redeployed. Requires a JDK.")
+  public void setRedeployCompile(boolean compile) {
+    this.redeployCompile = compile;
+  }
+
+  @Option(longName = "redeploy-source-dirs", argName = "dirs")
+  @Description("When the redeploy compilation is enabled, this option configures the Java source directories, " +
+    "separated by a comma. 'src/main/java' by default.")
+  @ParsedAsList
+  public void setRedeploySourceDirs(List<String> dirs) {
+    this.redeploySourceDirs = dirs;
+  }
+
+  @Option(longName = "redeploy-classes-dir", argName = "dir")
+  @Description("When the redeploy compilation is enabled, this option configures the directory receiving the " +
+    "compiled classes. It must be on the application classpath. 'target/classes' by default.")
+  @DefaultValue("target/classes")
+  public void setRedeployClassesDir(String dir) {
+    this.redeployClassesDir = dir;
+  }
+
+  @Option(longName = "redeploy-standby", acceptValue = false, flag = true)
+  @Description("When redeploy is enabled, this option keeps a pre-forked JVM, with the launcher and Vert.x classes " +
+    "already loaded, ready to run the next version of the application. It reduces the redeployment time by the JVM " +
+    "startup time, at the cost of an extra idle JVM.")
+  public void setRedeployStandby(boolean standby) {
+    this.redeployStandby = standby;
+  }
+
+  @Option(longName = "redeploy-metrics-file", argName = "file")
+  @Description("When redeploy is enabled, this option configures a file in which the redeploy metrics (scan " +
+    "duration, detection latency, stop and deploy durations...) are written as JSON after every redeployment. A " +
+    "summary of these metrics is also logged when the redeployment stops.")
+  public void setRedeployMetricsFile(File file) {
+    this.redeployMetricsFile = file;
+  }
+
+  @Option(longName = "event-loop-lag-probe", acceptValue = false, flag = true)
+  @Description("Measures the scheduling delay of the event loops, every 100 ms. The percentiles are logged every " +
+    "reporting interval, recorded as JFR events and exposed in the metrics of the control endpoint.")
+  public void setEventLoopLagProbe(boolean probe) {
+    this.eventLoopLagProbe = probe;
+  }
+
+  @Option(longName = "event-loop-lag-report-interval", argName = "seconds")
+  @Description("When the event loop lag probe is enabled, this option configures the reporting interval, in seconds. " +
+    "60 seconds by default.")
+  @DefaultValue("60")
+  public void setEventLoopLagReportInterval(long interval) {
+    this.eventLoopLagReportInterval = interval;
+  }
+
   /**
    * Validates the command line parameters.
    *
@@ -215,6 +320,10 @@ public class RunCommand extends BareCommand implements Closeable {
       (commandLine.isOptionAssigned(haGroupOption) || commandLine.isOptionAssigned(quorumOption))) {
       throw new CLIException("The option -hagroup and -quorum requires -ha to be enabled");
     }
+
+    if (eventLoopLagProbe && eventLoopLagReportInterval <= 0) {
+      throw new CLIException("The event loop lag report interval must be positive");
+    }
   }
 
   /**
@@ -236,12 +345,18 @@ public class RunCommand extends BareCommand implements Closeable {
    */
   @Override
   public void run() {
+    logPump = LogPump.install();
+    if (logPump != null) {
+      // Launched with `start --log-pump`, the output goes to the log file.
+      out = System.out;
+    }
     if (redeploy == null || redeploy.isEmpty()) {
       JsonObject conf = getConfiguration();
       if (conf == null) {
         conf = new JsonObject();
       }
       afterConfigParsed(conf);
+      Future<Void> beforeDeployingVerticleHook = beforeDeployingVerticleAsync(conf);
 
       super.run(this::afterStoppingVertx);
       if (vertx == null) {
@@ -251,21 +366,27 @@ public class RunCommand extends BareCommand implements Closeable {
 
       if (vertx instanceof VertxInternal) {
         ((VertxInternal) vertx).addCloseHook(this);
+        if (eventLoopLagProbe) {
+          lagProbe = EventLoopLagProbe.start((VertxInternal) vertx, eventLoopLagReportInterval * 1000, log);
+          ControlServer.registerMetrics("eventLoopLag", lagProbe::toJson);
+        }
       }
 
       deploymentOptions = new DeploymentOptions();
-      configureFromSystemProperties.set(log);
-      try {
-        configureFromSystemProperties(deploymentOptions, DEPLOYMENT_OPTIONS_PROP_PREFIX);
-      } finally {
-        configureFromSystemProperties.set(null);
-      }
+      configureFromSystemProperties(log, deploymentOptions, DEPLOYMENT_OPTIONS_PROP_PREFIX);
       deploymentOptions.setConfig(conf).setHa(ha).setInstances(instances);
       if (worker) {
         deploymentOptions.setThreadingModel(ThreadingModel.WORKER);
       }
+      Throwable failure = awaitHook(beforeDeployingVerticleHook, "before deploying verticle");
+      if (failure != null) {
+        log.error("Failed in the before deploying verticle hook", failure);
+        handleDeployFailed(failure);
+        return;
+      }
       beforeDeployingVerticle(deploymentOptions);
       deploy();
+      startControlServer();
     } else {
       // redeploy is set, start the redeployment infrastructure (watcher).
       initializeRedeployment();
@@ -283,12 +404,32 @@ public class RunCommand extends BareCommand implements Closeable {
     }
     // Compute the application id. We append "-redeploy" to ease the identification in the process list.
     vertxApplicationBackgroundId = UUID.randomUUID().toString() + "-redeploy";
-    watcher = new Watcher(getCwd(), redeploy,
+    IncrementalCompiler compiler = null;
+    List<String> includes = redeploy;
+    List<String> excludes = redeployExcludes;
+    if (redeployCompile) {
+      compiler = createIncrementalCompiler();
+      if (compiler != null) {
+        // Watch the sources, but not the compiled classes to avoid a second redeployment.
+        includes = new ArrayList<>(redeploy);
+        for (File dir : compiler.sourceDirs()) {
+          includes.add(dir.getAbsolutePath() + File.separator + "**" + File.separator + "*.java");
+        }
+        excludes = redeployExcludes == null ? new ArrayList<>() : new ArrayList<>(redeployExcludes);
+        excludes.add(new File(getCwd(), redeployClassesDir).getAbsolutePath() + File.separator + "**");
+      }
+    }
+    watcher = new Watcher(getCwd(), includes, excludes, redeployIgnoreFiles,
       this::startAsBackgroundApplication,  // On deploy
       this::stopBackgroundApplication, // On undeploy
       onRedeployCommand, // In between command
       redeployGracePeriod, // The redeploy grace period
       redeployScanPeriod); // The redeploy scan period
+    watcher.setMetricsFile(redeployMetricsFile);
+    watcher.setCompiler(compiler);
+    if (redeployReloadInPlace != null && !redeployReloadInPlace.isEmpty()) {
+      watcher.setReloadInPlace(new PatternChangeClassifier(getCwd(), redeployReloadInPlace), this::reloadInPlace);
+    }
 
     // Close the watcher when the JVM is terminating.
     // Notice that the vert.x finalizer is not registered when we run in redeploy mode.
@@ -297,10 +438,32 @@ public class RunCommand extends BareCommand implements Closeable {
         shutdownRedeployment();
       }
     });
+    if (redeployStandby) {
+      spawnStandby();
+    }
     // Start the watching process, it triggers the initial deployment.
     watcher.watch();
   }
 
+  private IncrementalCompiler createIncrementalCompiler() {
+    List<String> dirs = redeploySourceDirs == null || redeploySourceDirs.isEmpty() ?
+      Collections.singletonList("src/main/java") : redeploySourceDirs;
+    List<String> cp = new ArrayList<>(Arrays.asList(System.getProperty("java.class.path", "").split(File.pathSeparator)));
+    if (classpath != null) {
+      cp.addAll(IsolatedClassLoader.expand(classpath));
+    }
+    try {
+      return new IncrementalCompiler(
+        dirs.stream().map(dir -> new File(getCwd(), dir)).collect(Collectors.toList()),
+        new File(getCwd(), redeployClassesDir),
+        cp,
+        Collections.singletonList("-g"));
+    } catch (IllegalStateException e) {
+      out.println("[WARNING] " + e.getMessage() + " - the redeploy compilation is disabled");
+      return null;
+    }
+  }
+
   /**
    * Stop the redeployment if started.
    */
@@ -309,6 +472,52 @@ public class RunCommand extends BareCommand implements Closeable {
       watcher.close();
       watcher = null;
     }
+    if (standby != null) {
+      standby.destroy();
+      standby = null;
+    }
+    if (logPump != null) {
+      logPump.flush();
+    }
+  }
+
+  /**
+   * On-Reload action invoked while redeploying, when the changes do not require to restart the application. The
+   * changes are sent to the application launched in background, through its control endpoint, which calls the
+   * {@link VertxLifecycleHooks#reloadInPlace(JsonObject)} hook (see {@link #applyReload(JsonObject)}).
+   *
+   * @param changes the changed files
+   * @throws IllegalStateException if the changes cannot be applied, the application is redeployed
+   */
+  protected void reloadInPlace(ChangeSet changes) {
+    ApplicationRegistry.Entry entry = ApplicationRegistry.create().lookup(vertxApplicationBackgroundId);
+    if (entry == null) {
+      throw new IllegalStateException("The application '" + vertxApplicationBackgroundId + "' is not registered");
+    }
+    try (ControlClient client = ControlClient.connect(entry, ControlClient.DEFAULT_TIMEOUT)) {
+      if (client == null) {
+        throw new IllegalStateException("The application does not expose a control endpoint");
+      }
+      JsonObject response = client.request(new JsonObject().put("op", "reload").put("changes", changes.toJson()));
+      if (!response.getBoolean("ok", false)) {
+        throw new IllegalStateException(response.getString("error", "Reload failed"));
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException("Cannot reach the application", e);
+    }
+  }
+
+  /**
+   * Applies the changes sent by the launcher in redeploy mode to this application. It delegates to the
+   * {@link VertxLifecycleHooks#reloadInPlace(JsonObject)} hook.
+   *
+   * @param changes the changed files
+   */
+  protected void applyReload(JsonObject changes) {
+    final Object main = executionContext.main();
+    if (main instanceof VertxLifecycleHooks) {
+      ((VertxLifecycleHooks) main).reloadInPlace(changes);
+    }
   }
 
   /**
@@ -317,7 +526,14 @@ public class RunCommand extends BareCommand implements Closeable {
    * @param onCompletion an optional on-completion handler. If set it must be invoked at the end of this method.
    */
   protected synchronized void stopBackgroundApplication(Handler<Void> onCompletion) {
-    executionContext.execute("stop", vertxApplicationBackgroundId, "--redeploy");
+    if (backgroundProcess != null) {
+      // Started from a standby JVM, we own the process.
+      terminate(backgroundProcess);
+      ApplicationRegistry.create().unregister(vertxApplicationBackgroundId);
+      backgroundProcess = null;
+    } else {
+      executionContext.execute("stop", vertxApplicationBackgroundId, "--redeploy");
+    }
     if (redeployTerminationPeriod > 0) {
       try {
         Thread.sleep(redeployTerminationPeriod);
@@ -389,27 +605,196 @@ public class RunCommand extends BareCommand implements Closeable {
     if (worker) {
       args.add("--worker");
     }
+    if (preloadClasses != null) {
+      // The first redeployment records the class list, the next ones preload it.
+      args.add("--preload-classes=" + getClassList().getAbsolutePath());
+    }
     if (systemProperties != null) {
-      args.addAll(systemProperties.stream().map(s -> "-D" + s).collect(Collectors.toList()));
+      // The redeployed application has its own log file, so its output is not mixed with the watcher one.
+      args.addAll(systemProperties.stream()
+        .map(s -> s.startsWith(LogPump.LOG_PUMP_PROPERTY + "=") ? s + "-redeploy" : s)
+        .map(s -> "-D" + s)
+        .collect(Collectors.toList()));
+    }
+
+    if (redeployStandby && startFromStandby(args)) {
+      awaitStandbyApplication();
+      if (onCompletion != null) {
+        onCompletion.handle(null);
+      }
+      return;
     }
 
     // Enable stream redirection
     args.add("--redirect-output");
+    // The redeployment completes when the main verticle is deployed, not when the process is created.
+    args.add("--wait-ready");
 
-    executionContext.execute("start", args.toArray(new String[0]));
+    int status = ExecUtils.trapExit(() -> executionContext.execute("start", args.toArray(new String[0])));
+    if (status != 0) {
+      out.println("[WARNING] Application '" + vertxApplicationBackgroundId + "' is not ready (status " + status + ")");
+    }
     if (onCompletion != null) {
       onCompletion.handle(null);
     }
   }
 
+  /**
+   * Registers the application started from the standby JVM, so it reports its state, and waits until it is ready.
+   */
+  private void awaitStandbyApplication() {
+    Process process = backgroundProcess;
+    if (ExecUtils.isWindows()) {
+      return;
+    }
+    try {
+      String commandLine = process.info().commandLine().orElse("");
+      ApplicationRegistry.create().register(ApplicationRegistry.Entry.of(vertxApplicationBackgroundId,
+        process.toHandle(), commandLine, mainVerticle));
+      StartCommand.awaitReadiness(vertxApplicationBackgroundId, process, READINESS_TIMEOUT, out);
+    } catch (IOException e) {
+      out.println("[WARNING] Cannot register the application '" + vertxApplicationBackgroundId + "': "
+        + e.getMessage());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Hands the given {@code run} arguments over to the standby JVM, and starts a new standby JVM for the next
+   * redeployment.
+   *
+   * @param args the arguments given to the {@code start} command, starting with {@code run}
+   * @return {@code true} if the application has been started from the standby JVM, {@code false} if no standby JVM
+   * was available
+   */
+  private synchronized boolean startFromStandby(List<String> args) {
+    StandbyProcess current = standby;
+    standby = null;
+    if (current == null || !current.isAlive()) {
+      spawnStandby();
+      return false;
+    }
+    // Remove the `start` specific option, the application id is set as system property instead.
+    List<String> runArgs = args.stream()
+      .skip(1)
+      .filter(arg -> !arg.startsWith("--vertx-id="))
+      .collect(Collectors.toList());
+    runArgs.add("-Dvertx.id=" + vertxApplicationBackgroundId);
+    try {
+      backgroundProcess = current.handOver("run", runArgs);
+    } catch (IOException e) {
+      out.println("[WARNING] Cannot use the standby JVM: " + e.getMessage());
+      current.destroy();
+      spawnStandby();
+      return false;
+    }
+    spawnStandby();
+    return true;
+  }
+
+  private void spawnStandby() {
+    try {
+      standby = StandbyProcess.spawn(vertxApplicationBackgroundId, getLauncherClass(), null);
+    } catch (IOException e) {
+      out.println("[WARNING] Cannot start the standby JVM: " + e.getMessage());
+    }
+  }
+
+  private String getLauncherClass() {
+    List<String> arguments = executionContext.commandLine().allArguments();
+    for (int i = 0; i < arguments.size(); i++) {
+      String arg = arguments.get(i);
+      if (arg.startsWith("--launcher-class=")) {
+        return arg.substring("--launcher-class=".length());
+      }
+      if (arg.equals("--launcher-class") && i + 1 < arguments.size()) {
+        return arguments.get(i + 1);
+      }
+    }
+    return null;
+  }
+
+  private void terminate(Process process) {
+    out.println("Stopping vert.x application '" + vertxApplicationBackgroundId + "'");
+    StopCommand.Termination termination = StopCommand.terminate(process.toHandle(), StopCommand.DEFAULT_TIMEOUT).join();
+    if (termination.forced) {
+      out.println("[WARNING] Application '" + vertxApplicationBackgroundId + "' did not stop within "
+        + StopCommand.DEFAULT_TIMEOUT + " ms, it has been killed");
+    }
+    if (termination.terminated) {
+      out.println("Application '" + vertxApplicationBackgroundId + "' terminated with status " + process.exitValue()
+        + " in " + termination.duration + " ms");
+    } else {
+      out.println("Failed to stop application '" + vertxApplicationBackgroundId + "'");
+    }
+  }
+
+  /**
+   * Opens the control endpoint of the application when it has been launched by the {@code start} command (so has an
+   * id and a registry entry). The endpoint is published in the registry entry, in background, as the entry is written
+   * by the {@code start} command once the process is running.
+   */
+  protected synchronized void startControlServer() {
+    String id = System.getProperty("vertx.id");
+    if (id == null || controlServer != null) {
+      return;
+    }
+    ControlServer server = new ControlServer(vertx, id).setReloadHandler(this::applyReload);
+    try {
+      server.start();
+    } catch (IOException e) {
+      log.warn("Cannot open the control endpoint", e);
+      return;
+    }
+    controlServer = server;
+    Thread publisher = new Thread(() -> {
+      if (!server.publish(ApplicationRegistry.create(), 5000)) {
+        // Not launched by the `start` command, nobody can find the endpoint.
+        server.close();
+      }
+    }, "vertx-control-publisher");
+    publisher.setDaemon(true);
+    publisher.start();
+  }
+
   protected void deploy() {
     deploy(mainVerticle, vertx, deploymentOptions, res -> {
       if (res.failed()) {
+        // The process may exit right after, so the state is written synchronously.
+        updateApplicationState("failed", 1000);
         handleDeployFailed(res.cause());
+      } else {
+        Thread thread = new Thread(() -> {
+          updateApplicationState("ready", 5000);
+          // Dumping the recording is blocking.
+          completePreloading();
+          if (Boolean.getBoolean(CdsArchive.TRAINING_PROPERTY)) {
+            // Training run of the `cds` command, the JVM dumps the loaded classes when it exits.
+            log.info("Training run completed, exiting");
+            ExecUtils.exit(0);
+          }
+        }, "vertx-ready-publisher");
+        thread.setDaemon(true);
+        thread.start();
       }
     });
   }
 
+  /**
+   * Reports the state of the application in its registry entry when it has been launched by the {@code start}
+   * command, so {@code start --wait-ready} knows when the main verticle is deployed.
+   *
+   * @param state   the state
+   * @param timeout the time to wait for the registry entry, in milliseconds
+   */
+  private void updateApplicationState(String state, long timeout) {
+    String id = System.getProperty("vertx.id");
+    if (id != null) {
+      ApplicationRegistry.create().update(id, ProcessHandle.current().pid(), entry -> entry.setState(state), timeout);
+    }
+  }
+
   private void handleDeployFailed(Throwable cause) {
     if (executionContext.main() instanceof VertxLifecycleHooks) {
       ((VertxLifecycleHooks) executionContext.main()).handleDeployFailed(vertx, mainVerticle, deploymentOptions, cause);
@@ -429,6 +814,14 @@ public class RunCommand extends BareCommand implements Closeable {
     }
   }
 
+  protected Future<Void> beforeDeployingVerticleAsync(JsonObject config) {
+    final Object main = executionContext.main();
+    if (main instanceof VertxLifecycleHooks) {
+      return ((VertxLifecycleHooks) main).beforeDeployingVerticleAsync(config);
+    }
+    return Future.succeededFuture();
+  }
+
   protected void afterConfigParsed(JsonObject config) {
     final Object main = executionContext.main();
     if (main instanceof VertxLifecycleHooks) {
@@ -448,11 +841,26 @@ public class RunCommand extends BareCommand implements Closeable {
     if (main instanceof VertxLifecycleHooks) {
       ((VertxLifecycleHooks) main).afterStoppingVertx();
     }
+    if (logPump != null) {
+      // The pump hook may have completed while vert.x was closing, write the last lines before the JVM halts.
+      logPump.flush();
+    }
   }
 
   @Override
   public void close(Completable<Void> completion) {
     try {
+      synchronized (this) {
+        if (controlServer != null) {
+          controlServer.close();
+          controlServer = null;
+        }
+        if (lagProbe != null) {
+          ControlServer.unregisterMetrics("eventLoopLag");
+          lagProbe.close();
+          lagProbe = null;
+        }
+      }
       beforeStoppingVertx(vertx);
       completion.succeed();
     } catch (Exception e) {
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.launcher.commands;
+
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.cli.annotations.Description;
+import io.vertx.core.cli.annotations.Hidden;
+import io.vertx.core.cli.annotations.Name;
+import io.vertx.core.cli.annotations.Summary;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.spi.launcher.DefaultCommand;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A hidden command used to pre-fork a "standby" JVM. The standby loads and warms the launcher and Vert.x classes, and
+ * then waits for a command to execute on its standard input. The command is sent as a single line containing a JSON
+ * object: {@code {"command":"run","args":["..."]}}.
+ * <p/>
+ * If the standard input is closed before receiving a command (because the parent process stopped), the standby
+ * exits.
+ * <p/>
+ * See {@link StandbyProcess} for the parent side.
+ */
+@Name("standby")
+@Summary("Wait for a command to execute in a pre-started JVM")
+@Description("Internal command used by the redeploy mode. It starts a JVM, warms it, and waits for the command to " +
+  "execute on its standard input.")
+@Hidden
+public class StandbyCommand extends DefaultCommand {
+
+  /**
+   * The system property set on the standby JVM command line, its value is the id of the redeployed application.
+   */
+  public static final String STANDBY_PROPERTY = "vertx.standby";
+
+  @Override
+  public void run() {
+    warmUp();
+    JsonObject request;
+    try {
+      BufferedReader reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+      String line = reader.readLine();
+      if (line == null) {
+        // The parent has gone
+        ExecUtils.exit(0);
+        return;
+      }
+      request = new JsonObject(line);
+    } catch (IOException | RuntimeException e) {
+      out.println("Cannot read the command to execute in the standby JVM");
+      e.printStackTrace(out);
+      ExecUtils.exitBecauseOfProcessIssue();
+      return;
+    }
+    String command = request.getString("command", "run");
+    JsonArray args = request.getJsonArray("args", new JsonArray());
+    String[] array = new String[args.size()];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = args.getString(i);
+    }
+    executionContext.execute(command, array);
+  }
+
+  /**
+   * Loads and initializes the classes used when starting an application, by starting and stopping a Vert.x instance.
+   * The started instance cannot be reused, as the {@link VertxOptions} are only known when the command is received.
+   */
+  private void warmUp() {
+    try {
+      new DeploymentOptions().toJson();
+      Vertx vertx = Vertx.vertx(new VertxOptions().setEventLoopPoolSize(1).setWorkerPoolSize(1));
+      vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (Exception e) {
+      // Ignore it, the warm-up is best effort.
+    }
+  }
+}
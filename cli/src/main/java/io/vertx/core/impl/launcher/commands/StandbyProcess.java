@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.launcher.commands;
+
+import io.vertx.core.impl.launcher.CommandLineUtils;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A pre-forked JVM running the {@link StandbyCommand}. The JVM is started ahead of time, so the application can be
+ * started without paying the JVM startup and class loading costs: {@link #handOver(String, List)} only sends the
+ * command to execute.
+ * <p/>
+ * The standby JVM is launched like the {@code start} command launches applications: same {@code java} executable,
+ * same {@code JAVA_OPTS}, same classpath and same launcher class (or fat jar).
+ */
+public class StandbyProcess {
+
+  private final Process process;
+
+  private StandbyProcess(Process process) {
+    this.process = process;
+  }
+
+  /**
+   * Starts a new standby JVM.
+   *
+   * @param id            the application id, set in the {@code vertx.standby} system property of the standby JVM to
+   *                      ease its identification in the process list
+   * @param launcherClass the launcher class, if {@code null} the current launcher class (or fat jar) is used
+   * @param jvmOptions    the JVM options, if {@code null} the {@code JAVA_OPTS} environment variable is used
+   * @return the standby process
+   * @throws IOException if the process cannot be started
+   */
+  public static StandbyProcess spawn(String id, String launcherClass, String jvmOptions) throws IOException {
+    List<String> cmd = new ArrayList<>();
+    cmd.add(ExecUtils.getJavaExecutable().getAbsolutePath());
+    cmd.addAll(ExecUtils.splitArguments(jvmOptions != null ? jvmOptions : System.getenv("JAVA_OPTS")));
+    cmd.add("-D" + StandbyCommand.STANDBY_PROPERTY + "=" + id);
+    if (launcherClass != null) {
+      cmd.add(launcherClass);
+    } else if (CommandLineUtils.getJar() != null) {
+      cmd.add("-jar");
+      cmd.add(CommandLineUtils.getJar());
+    } else {
+      cmd.add(CommandLineUtils.getFirstSegmentOfCommand());
+    }
+    cmd.add("standby");
+
+    ProcessBuilder builder = new ProcessBuilder(cmd);
+    builder.environment().put("CLASSPATH", System.getProperty("java.class.path"));
+    builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+    builder.redirectOutput(ProcessBuilder.Redirect.INHERIT);
+    return new StandbyProcess(builder.start());
+  }
+
+  /**
+   * @return {@code true} if the standby JVM is still running and can receive a command.
+   */
+  public boolean isAlive() {
+    return process.isAlive();
+  }
+
+  /**
+   * Sends the command to execute to the standby JVM. Once the command is sent, this object must not be used anymore,
+   * the returned process represents the application.
+   *
+   * @param command the command, generally {@code run}
+   * @param args    the command arguments
+   * @return the process executing the command
+   * @throws IOException if the command cannot be sent
+   */
+  public Process handOver(String command, List<String> args) throws IOException {
+    JsonObject request = new JsonObject().put("command", command).put("args", new JsonArray(new ArrayList<>(args)));
+    OutputStream stdin = process.getOutputStream();
+    stdin.write((request.encode() + "\n").getBytes(StandardCharsets.UTF_8));
+    stdin.flush();
+    return process;
+  }
+
+  /**
+   * Stops the standby JVM.
+   */
+  public void destroy() {
+    process.destroy();
+  }
+}
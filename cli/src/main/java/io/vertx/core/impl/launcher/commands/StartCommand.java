@@ -12,12 +12,16 @@
 package io.vertx.core.impl.launcher.commands;
 
 
+import io.vertx.core.cli.CLIException;
 import io.vertx.core.cli.annotations.*;
 import io.vertx.core.impl.launcher.CommandLineUtils;
 import io.vertx.core.spi.launcher.DefaultCommand;
+import io.vertx.core.spi.launcher.ExecutionContext;
 
 import java.io.File;
+import java.io.PrintStream;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A command starting a vert.x application in the background.
@@ -34,6 +38,14 @@ public class StartCommand extends DefaultCommand {
 
   private boolean redirect;
   private String jvmOptions;
+  private String jvmProfile;
+  private boolean waitReady;
+  private long waitReadyTimeout;
+  private int processes;
+  private boolean pinCpus;
+  private boolean logPump;
+  private long logMaxSize;
+  private int logFiles;
 
   /**
    * Sets the "application id" that would be to stop the application and be lsited in the {@code list} command.
@@ -54,11 +66,25 @@ public class StartCommand extends DefaultCommand {
    */
   @Option(longName = "java-opts", required = false, acceptValue = true)
   @Description("Java Virtual Machine options to pass to the spawned process such as \"-Xmx1G -Xms256m " +
-    "-XX:MaxPermSize=256m\". If not set the `JAVA_OPTS` environment variable is used.")
+    "-XX:MaxPermSize=256m\". Options containing spaces can be quoted. If not set the `JAVA_OPTS` environment " +
+    "variable is used.")
   public void setJavaOptions(String options) {
     this.jvmOptions = options;
   }
 
+  /**
+   * Sets the JVM profile used to compute the JVM options of the spawned process.
+   *
+   * @param profile the profile
+   */
+  @Option(longName = "jvm-profile", argName = "profile")
+  @Description("Computes the JVM options (heap and direct memory sizes, processor count, garbage collector...) of " +
+    "the spawned process from the memory and CPU limits of the container. Supported profiles are 'throughput', " +
+    "'latency', 'low-memory' and 'auto'. Options passed with `java-opts` or `JAVA_OPTS` take precedence.")
+  public void setJvmProfile(String profile) {
+    this.jvmProfile = profile;
+  }
+
   /**
    * A hidden option to set the launcher class.
    *
@@ -81,33 +107,251 @@ public class StartCommand extends DefaultCommand {
     this.redirect = redirect;
   }
 
+  /**
+   * Whether or not the command waits until the main verticle of the application is deployed.
+   *
+   * @param waitReady {@code true} to wait
+   */
+  @Option(longName = "wait-ready", flag = true)
+  @Description("Wait until the main verticle of the application has been deployed. The command fails if the " +
+    "deployment fails, or if the application is not ready before the `wait-ready-timeout`.")
+  public void setWaitReady(boolean waitReady) {
+    this.waitReady = waitReady;
+  }
+
+  /**
+   * Sets the time waited for the application to be ready.
+   *
+   * @param timeout the timeout in milliseconds
+   */
+  @Option(longName = "wait-ready-timeout", argName = "timeout")
+  @Description("When `wait-ready` is set, the maximum time waited for the application to be ready, in " +
+    "milliseconds. 60000 ms by default.")
+  @DefaultValue("60000")
+  public void setWaitReadyTimeout(long timeout) {
+    this.waitReadyTimeout = timeout;
+  }
+
+  /**
+   * Validates the options.
+   *
+   * @param context the execution context
+   * @throws CLIException if an option is invalid
+   */
+  @Override
+  public void setUp(ExecutionContext context) throws CLIException {
+    super.setUp(context);
+    if (processes < 1) {
+      throw new CLIException("The number of processes must be positive");
+    }
+    if (logPump && (logMaxSize <= 0 || logFiles < 0)) {
+      throw new CLIException("The log size must be positive and the number of log files cannot be negative");
+    }
+    if (jvmProfile != null && !JvmProfile.PROFILES.contains(jvmProfile)) {
+      throw new CLIException("Unknown JVM profile '" + jvmProfile + "', supported profiles are "
+        + String.join(", ", JvmProfile.PROFILES));
+    }
+  }
+
+  /**
+   * Sets the number of processes to start.
+   *
+   * @param processes the number of processes
+   */
+  @Option(longName = "processes", argName = "count")
+  @Description("Starts several processes running the same application, to scale out on a single host. The " +
+    "processes are identified by the application id followed by their index, and can be listed and stopped as a " +
+    "group using the application id. Each process gets its share of the processors and memory. The servers of the " +
+    "application listen with `SO_REUSEPORT`, so the processes share their listening ports. 1 by default.")
+  @DefaultValue("1")
+  public void setProcesses(int processes) {
+    this.processes = processes;
+  }
+
+  /**
+   * Whether or not the processes are pinned to disjoint sets of CPUs.
+   *
+   * @param pinCpus {@code true} to pin the processes
+   */
+  @Option(longName = "pin-cpus", flag = true)
+  @Description("When several processes are started, pins each process to a disjoint set of CPUs using `taskset` " +
+    "(Linux only).")
+  public void setPinCpus(boolean pinCpus) {
+    this.pinCpus = pinCpus;
+  }
+
+  /**
+   * Whether or not the output of the application is written to size-rotated log files.
+   *
+   * @param logPump {@code true} to write the output to log files
+   */
+  @Option(longName = "log-pump", flag = true)
+  @Description("Writes the standard output and error of the application to size-rotated files in the `logs` " +
+    "directory of the application registry. Writes never block the application: when the disk cannot keep up, " +
+    "lines are dropped and counted. Ignored when the output is redirected.")
+  public void setLogPump(boolean logPump) {
+    this.logPump = logPump;
+  }
+
+  /**
+   * Sets the maximum size of a log file.
+   *
+   * @param size the size in bytes
+   */
+  @Option(longName = "log-max-size", argName = "bytes")
+  @Description("When `log-pump` is set, the size from which the log file is rotated, in bytes. 10485760 (10MB) by " +
+    "default.")
+  @DefaultValue("10485760")
+  public void setLogMaxSize(long size) {
+    this.logMaxSize = size;
+  }
+
+  /**
+   * Sets the number of rotated log files to keep.
+   *
+   * @param files the number of files
+   */
+  @Option(longName = "log-files", argName = "count")
+  @Description("When `log-pump` is set, the number of rotated log files kept in addition to the current one. 5 by " +
+    "default.")
+  @DefaultValue("5")
+  public void setLogFiles(int files) {
+    this.logFiles = files;
+  }
+
   /**
    * Starts the application in background.
    */
   @Override
   public void run() {
     out.println("Starting vert.x application...");
-    List<String> cmd = new ArrayList<>();
-    ProcessBuilder builder = new ProcessBuilder();
-    addJavaCommand(cmd);
 
     // Must be called only once !
     List<String> cliArguments = getArguments();
 
+    if (logPump && !redirect) {
+      File log = ApplicationRegistry.create().logFile(getId());
+      out.println("Writing the application output to " + (processes == 1 ? log : log.getParentFile()));
+    }
+
+    if (processes == 1) {
+      Process process = launch(getId(), null, cliArguments, Collections.emptyList(), null, true);
+      out.println(id);
+      awaitReadiness(Collections.singletonMap(getId(), process));
+      return;
+    }
+
+    List<List<Integer>> cpuSets = null;
+    if (pinCpus) {
+      if (CpuAffinity.taskset() == null) {
+        out.println("[WARNING] Cannot pin the processes, `taskset` is not available");
+      } else {
+        List<Integer> cpus = CpuAffinity.allowedCpus();
+        if (cpus.size() < processes) {
+          out.println("[WARNING] Only " + cpus.size() + " CPUs are available for " + processes + " processes");
+        }
+        cpuSets = CpuAffinity.partition(cpus, processes);
+      }
+    }
+    int share = Math.max(1, JvmProfile.Limits.current().cpus() / processes);
+
+    Map<String, Process> started = new LinkedHashMap<>();
+    for (int i = 1; i <= processes; i++) {
+      String instance = getId() + "-" + i;
+      List<Integer> cpus = cpuSets == null ? null : cpuSets.get(i - 1);
+      List<String> options = Arrays.asList(
+        "-XX:ActiveProcessorCount=" + (cpus == null ? share : cpus.size()),
+        "-D" + BareCommand.REUSE_PORT_PROPERTY + "=true",
+        "-D" + BareCommand.VERTX_OPTIONS_PROP_PREFIX + "preferNativeTransport=true");
+      Process process = launch(instance, getId(), cliArguments, options, cpus, i == 1);
+      started.put(instance, process);
+      out.println("  " + instance + " (pid " + process.pid() + (cpus == null ? "" : ", cpus " +
+        CpuAffinity.format(cpus)) + ")");
+    }
+    out.println(id);
+    awaitReadiness(started);
+  }
+
+  /**
+   * Launches a process.
+   *
+   * @param instance     the id of the process
+   * @param group        the id of the group of processes, {@code null} if the application has a single process
+   * @param cliArguments the arguments passed to the application
+   * @param jvmDefaults  the JVM options of the process, the user options take precedence
+   * @param cpus         the CPUs the process is pinned to, {@code null} if not pinned
+   * @param verbose      whether or not the computed JVM options are printed
+   * @return the process
+   */
+  private Process launch(String instance, String group, List<String> cliArguments, List<String> jvmDefaults,
+                         List<Integer> cpus, boolean verbose) {
+    List<String> cmd = new ArrayList<>();
+    ProcessBuilder builder = new ProcessBuilder();
+    if (cpus != null) {
+      cmd.add(CpuAffinity.taskset().getAbsolutePath());
+      cmd.add("-c");
+      cmd.add(CpuAffinity.format(cpus));
+    }
+    addJavaCommand(cmd, instance, jvmDefaults, verbose);
+
     // Add the classpath to env.
     builder.environment().put("CLASSPATH", System.getProperty("java.class.path"));
 
+    addApplicationCommand(cmd, launcher, cliArguments, executionContext);
+    boolean pumped = logPump && !redirect;
+    if (pumped) {
+      ExecUtils.addArgument(cmd, "-D" + LogPump.LOG_PUMP_PROPERTY + "=" + instance);
+      ExecUtils.addArgument(cmd, "-D" + LogPump.MAX_SIZE_PROPERTY + "=" + logMaxSize);
+      ExecUtils.addArgument(cmd, "-D" + LogPump.FILES_PROPERTY + "=" + logFiles);
+    }
+    // Add id - it's important as it's the application mark. It must remain the last argument.
+    ExecUtils.addArgument(cmd, "-Dvertx.id=" + instance);
+
+    try {
+      builder.command(cmd);
+      if (redirect) {
+        builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+        builder.redirectOutput(ProcessBuilder.Redirect.INHERIT);
+      } else if (pumped) {
+        // The JVM itself (crash reports, native libraries...) bypasses the pump, keep its output aside.
+        File jvmLog = ApplicationRegistry.create().logFile(instance + ".jvm");
+        jvmLog.getParentFile().mkdirs();
+        builder.redirectErrorStream(true);
+        builder.redirectOutput(ProcessBuilder.Redirect.appendTo(jvmLog));
+      }
+      Process process = builder.start();
+      register(process, cmd, instance, group);
+      return process;
+    } catch (Exception e) {
+      out.println("Cannot create vert.x application process");
+      e.printStackTrace(out);
+      ExecUtils.exitBecauseOfProcessIssue();
+      // Not reached, unless exit is overridden.
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Adds the main class (or jar) and the arguments of the application to a java command line.
+   *
+   * @param cmd          the command line
+   * @param launcher     the launcher class, {@code null} to use the main class of the current process
+   * @param cliArguments the arguments passed to the application
+   * @param context      the execution context
+   */
+  static void addApplicationCommand(List<String> cmd, String launcher, List<String> cliArguments,
+                                    ExecutionContext context) {
     if (launcher != null) {
       ExecUtils.addArgument(cmd, launcher);
       // Do we have a valid command ?
       Optional<String> maybeCommand = cliArguments.stream()
-        .filter(arg -> executionContext.launcher().getCommandNames().contains(arg))
+        .filter(arg -> context.launcher().getCommandNames().contains(arg))
         .findFirst();
       if (!maybeCommand.isPresent()) {
         // No command, add `run`
         ExecUtils.addArgument(cmd, "run");
       }
-    } else if (isLaunchedAsFatJar()) {
+    } else if (CommandLineUtils.getJar() != null) {
       ExecUtils.addArgument(cmd, "-jar");
       ExecUtils.addArgument(cmd, CommandLineUtils.getJar());
     } else {
@@ -117,53 +361,170 @@ public class StartCommand extends DefaultCommand {
     }
 
     cliArguments.forEach(arg -> ExecUtils.addArgument(cmd, arg));
+  }
 
+  /**
+   * Waits until the given processes are ready, when {@code wait-ready} is set. Exits if one of them is not.
+   */
+  private void awaitReadiness(Map<String, Process> started) {
+    if (!waitReady) {
+      return;
+    }
+    if (ExecUtils.isWindows()) {
+      out.println("[WARNING] Cannot wait for the application to be ready, the application is not registered");
+      return;
+    }
     try {
-      builder.command(cmd);
-      if (redirect) {
-        builder.redirectError(ProcessBuilder.Redirect.INHERIT);
-        builder.redirectOutput(ProcessBuilder.Redirect.INHERIT);
+      for (Map.Entry<String, Process> entry : started.entrySet()) {
+        int status = awaitReadiness(entry.getKey(), entry.getValue(), waitReadyTimeout);
+        if (status != 0) {
+          ExecUtils.exit(status);
+          return;
+        }
       }
-      builder.start();
-      out.println(id);
-    } catch (Exception e) {
-      out.println("Cannot create vert.x application process");
-      e.printStackTrace(out);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
       ExecUtils.exitBecauseOfProcessIssue();
     }
+  }
+
+  /**
+   * Waits until the application reports, in its registry entry, that its main verticle has been deployed.
+   *
+   * @param id      the application id
+   * @param process the application process
+   * @param timeout the timeout in milliseconds
+   * @return {@code 0} if the application is ready, the exit code to use otherwise: the exit code of the application if
+   * it has terminated, {@link ExecUtils#VERTX_DEPLOYMENT_EXIT_CODE} if the deployment failed and
+   * {@link ExecUtils#READINESS_TIMEOUT_EXIT_CODE} if the application is not ready in time.
+   * @throws InterruptedException if the thread is interrupted while waiting
+   */
+  int awaitReadiness(String id, Process process, long timeout) throws InterruptedException {
+    return awaitReadiness(id, process, timeout, out);
+  }
+
+  /**
+   * Same as {@link #awaitReadiness(String, Process, long)}, reporting the outcome to the given stream.
+   */
+  static int awaitReadiness(String id, Process process, long timeout, PrintStream out) throws InterruptedException {
+    ApplicationRegistry registry = ApplicationRegistry.create();
+    long begin = System.nanoTime();
+    long deadline = begin + TimeUnit.MILLISECONDS.toNanos(timeout);
+    while (true) {
+      ApplicationRegistry.Entry entry = registry.lookup(id);
+      String state = entry == null ? null : entry.state();
+      long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+      if ("ready".equals(state)) {
+        out.println("Application '" + id + "' ready in " + elapsed + " ms");
+        return 0;
+      }
+      if ("failed".equals(state)) {
+        out.println("Application '" + id + "' failed to deploy after " + elapsed + " ms");
+        return ExecUtils.VERTX_DEPLOYMENT_EXIT_CODE;
+      }
+      if (!process.isAlive()) {
+        int exit = process.exitValue();
+        out.println("Application '" + id + "' terminated with status " + exit + " before being ready");
+        return exit == 0 ? ExecUtils.PROCESS_ERROR_EXIT_CODE : exit;
+      }
+      if (System.nanoTime() - deadline >= 0) {
+        out.println("Application '" + id + "' not ready after " + elapsed + " ms");
+        return ExecUtils.READINESS_TIMEOUT_EXIT_CODE;
+      }
+      process.waitFor(50, TimeUnit.MILLISECONDS);
+    }
+  }
 
+  /**
+   * Records the application in the {@link ApplicationRegistry}, so the {@code stop} and {@code list} commands can find
+   * it without scanning the process table. On Windows the created process is the {@code cmd} wrapper and not the JVM,
+   * so the application is not registered.
+   */
+  private void register(Process process, List<String> cmd, String instance, String group) {
+    if (ExecUtils.isWindows()) {
+      return;
+    }
+    String commandLine = String.join(" ", cmd);
+    try {
+      ApplicationRegistry.create().register(ApplicationRegistry.Entry.of(instance, process.toHandle(), commandLine,
+        ListCommand.extractApplicationDetails(commandLine)).setGroup(group));
+    } catch (Exception e) {
+      // The application can still be found by scanning the process table.
+      out.println("[WARNING] Cannot register the application '" + instance + "': " + e.getMessage());
+    }
   }
 
-  private void addJavaCommand(List<String> cmd) {
+  private void addJavaCommand(List<String> cmd, String instance, List<String> jvmDefaults, boolean verbose) {
     if (ExecUtils.isWindows()) {
       ExecUtils.addArgument(cmd, "cmd.exe");
       ExecUtils.addArgument(cmd, "/C");
       ExecUtils.addArgument(cmd, "start");
-      ExecUtils.addArgument(cmd, "vertx-id - " + id);
+      ExecUtils.addArgument(cmd, "vertx-id - " + instance);
       ExecUtils.addArgument(cmd, "/B");
     }
     ExecUtils.addArgument(cmd, getJava().getAbsolutePath());
 
     // Compute JVM Options
-    if (jvmOptions == null) {
-      String opts = System.getenv("JAVA_OPTS");
-      if (opts != null) {
-        Arrays.stream(opts.split(" ")).forEach(s -> ExecUtils.addArgument(cmd, s));
+    List<String> options;
+    try {
+      options = ExecUtils.splitArguments(jvmOptions == null ? System.getenv("JAVA_OPTS") : jvmOptions);
+    } catch (IllegalArgumentException e) {
+      out.println("Invalid JVM options: " + e.getMessage());
+      ExecUtils.exitBecauseOfSystemConfigurationIssue();
+      return;
+    }
+    options = JvmProfile.merge(jvmDefaults, options);
+    if (jvmProfile != null) {
+      JvmProfile profile = JvmProfile.create(jvmProfile).divide(processes);
+      options = profile.options(options);
+      if (verbose) {
+        out.println("Using the '" + jvmProfile + "' JVM profile (memory: " + profile.limits().memory() / (1024 * 1024)
+          + "MB, cpus: " + profile.limits().cpus() + "): " + String.join(" ", options));
+      }
+    }
+    options = addCdsArchive(options, verbose);
+    for (String option : options) {
+      if (ExecUtils.isWindows()) {
+        // The command is interpreted by cmd.exe
+        ExecUtils.addArgument(cmd, option);
+      } else {
+        cmd.add(option);
       }
-    } else {
-      Arrays.stream(jvmOptions.split(" ")).forEach(s -> ExecUtils.addArgument(cmd, s));
     }
   }
 
-  private File getJava() {
-    File java;
-    File home = new File(System.getProperty("java.home"));
-    if (ExecUtils.isWindows()) {
-      java = new File(home, "bin/java.exe");
-    } else {
-      java = new File(home, "bin/java");
+  /**
+   * Adds the {@code -XX:SharedArchiveFile} option when the {@code cds} command has created an archive for the
+   * application, unless the options already configure CDS.
+   */
+  private List<String> addCdsArchive(List<String> options, boolean verbose) {
+    boolean configured = options.stream().anyMatch(option -> option.startsWith("-XX:SharedArchiveFile")
+      || option.startsWith("-XX:ArchiveClassesAtExit") || option.equals("-Xshare:off"));
+    if (configured || !CdsArchive.isSupported()) {
+      return options;
+    }
+    CdsArchive archive = CdsArchive.of(ApplicationRegistry.create(), System.getProperty("java.class.path"));
+    if (!archive.file().isFile()) {
+      return options;
     }
+    String reason = archive.validate();
+    if (reason != null) {
+      if (verbose) {
+        out.println("[WARNING] Ignoring the CDS archive " + archive.file() + ", " + reason + ". Run the `cds` " +
+          "command to create it again.");
+      }
+      return options;
+    }
+    if (verbose) {
+      out.println("Using the CDS archive " + archive.file());
+    }
+    List<String> result = new ArrayList<>(options);
+    result.add("-XX:SharedArchiveFile=" + archive.file().getAbsolutePath());
+    return result;
+  }
 
+  private File getJava() {
+    File java = ExecUtils.getJavaExecutable();
     if (!java.isFile()) {
       out.println("Cannot find java executable - " + java.getAbsolutePath() + " does not exist");
       ExecUtils.exitBecauseOfSystemConfigurationIssue();
@@ -171,10 +532,6 @@ public class StartCommand extends DefaultCommand {
     return java;
   }
 
-  private boolean isLaunchedAsFatJar() {
-    return CommandLineUtils.getJar() != null;
-  }
-
   private List<String> getArguments() {
     List<String> args = executionContext.commandLine().allArguments();
     // Add system properties passed as parameter
@@ -182,8 +539,12 @@ public class StartCommand extends DefaultCommand {
       systemProperties.stream().map(entry -> "-D" + entry).forEach(args::add);
     }
 
-    // Add id - it's important as it's the application mark.
-    args.add("-Dvertx.id=" + getId());
+    // Propagate the registry location, the application updates its own entry.
+    String registry = System.getProperty(ApplicationRegistry.REGISTRY_DIR_PROPERTY);
+    if (registry != null) {
+      args.add("-D" + ApplicationRegistry.REGISTRY_DIR_PROPERTY + "=" + registry);
+    }
+
     return args;
   }
 
@@ -14,45 +14,70 @@ package io.vertx.core.impl.launcher.commands;
 import io.vertx.core.cli.annotations.*;
 import io.vertx.core.spi.launcher.DefaultCommand;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
- * A command stopping a vert.x application launched using the `start` command.  The application is
- * identified by its id.
+ * A command stopping vert.x applications launched using the `start` command.  The applications are
+ * identified by their id. Each application is looked up in the {@link ApplicationRegistry} and, if not found, in the
+ * process list.
+ * <p/>
+ * Applications exposing a control endpoint (see {@link ControlServer}) are asked to stop through the endpoint, the
+ * others receive a termination signal. The command waits until the application has terminated (and so executed its
+ * shutdown hook). If the application is still running after the configured timeout, it is killed. When several ids
+ * are given, or the id of a group of processes (started with {@code start --processes N}), the applications are
+ * stopped concurrently.
  *
  * @author Clement Escoffier <clement@apache.org>
  */
 @Name("stop")
-@Summary("Stop a vert.x application")
-@Description("This command stops a vert.x application started with the `start` command. The command requires the " +
-  "application id as argument. Use the `list` command to get the list of applications")
+@Summary("Stop vert.x applications")
+@Description("This command stops vert.x applications started with the `start` command. The command requires the " +
+  "application ids as arguments. Use the `list` command to get the list of applications")
 public class StopCommand extends DefaultCommand {
 
-  private String id;
+  /**
+   * The default time (in milliseconds) given to an application to stop before being killed.
+   */
+  public static final long DEFAULT_TIMEOUT = 30000;
+
+  /**
+   * The time (in milliseconds) waited for a killed application to disappear.
+   */
+  private static final long FORCED_TIMEOUT = 10000;
+
+  private List<String> ids = new ArrayList<>();
 
   /**
    * Whether or not we are in redeploy mode. In redeploy mode, do not exit the VM.
    */
   private boolean redeploy;
 
+  private long timeout = DEFAULT_TIMEOUT;
 
-  private static final Pattern PS = Pattern.compile("([0-9]+)\\s.*-Dvertx.id=.*");
+  /**
+   * Sets the ids of the applications to stop.
+   *
+   * @param ids the ids.
+   */
+  @Argument(index = 0, argName = "vertx.id", required = false)
+  @Description("The vert.x application ids")
+  public void setApplicationIds(List<String> ids) {
+    this.ids = ids;
+  }
 
   /**
-   * As the {@code stop} command takes only a single argument, it's the application id.
+   * Sets the id of the application to stop.
    *
    * @param id the id.
    */
-  @Argument(index = 0, argName = "vertx.id", required = false)
-  @Description("The vert.x application id")
   public void setApplicationId(String id) {
-    this.id = id;
+    this.ids = id == null ? new ArrayList<>() : new ArrayList<>(Arrays.asList(id));
   }
 
   @Option(longName = "redeploy", flag = true)
@@ -61,55 +86,171 @@ public class StopCommand extends DefaultCommand {
     this.redeploy = redeploy;
   }
 
+  @Option(longName = "timeout", argName = "timeout")
+  @Description("The time given to the applications to stop, in milliseconds. Applications still running after this " +
+    "delay are killed. A negative or zero value waits without time limit. 30000 ms by default.")
+  @DefaultValue("30000")
+  public void setTimeout(long timeout) {
+    this.timeout = timeout;
+  }
+
   /**
-   * Stops a running vert.x application launched with the `start` command.
+   * Stops the running vert.x applications launched with the `start` command.
    */
   @Override
   public void run() {
-    if (id == null) {
+    if (ids == null || ids.isEmpty()) {
       out.println("Application id not specified...");
       executionContext.execute("list");
       return;
     }
 
-    out.println("Stopping vert.x application '" + id + "'");
-    if (ExecUtils.isWindows()) {
-      terminateWindowsApplication();
-    } else {
-      terminateLinuxApplication();
+    // A group of processes is stopped as a unit.
+    ApplicationRegistry registry = ApplicationRegistry.create();
+    List<String> expanded = new ArrayList<>();
+    for (String id : ids) {
+      List<ApplicationRegistry.Entry> members = registry.lookup(id) == null ? registry.group(id)
+        : Collections.emptyList();
+      if (members.isEmpty()) {
+        expanded.add(id);
+      } else {
+        members.forEach(member -> expanded.add(member.id()));
+      }
+    }
+
+    List<CompletableFuture<Integer>> results = new ArrayList<>();
+    for (String id : expanded) {
+      out.println("Stopping vert.x application '" + id + "'");
+      results.add(stop(id));
+    }
+
+    int result = 0;
+    for (CompletableFuture<Integer> future : results) {
+      int status = future.join();
+      if (result == 0) {
+        result = status;
+      }
+    }
+    if (!redeploy) {
+      // We leave the application using the same exit code.
+      ExecUtils.exit(result);
     }
   }
 
-  private void terminateLinuxApplication() {
-    String pid = pid();
-    if (pid == null) {
+  /**
+   * Stops an application.
+   *
+   * @param id the application id
+   * @return a future completed with the status once the application has terminated
+   */
+  private CompletableFuture<Integer> stop(String id) {
+    ApplicationRegistry registry = ApplicationRegistry.create();
+    Optional<ProcessHandle> process = Optional.empty();
+    ApplicationRegistry.Entry entry = registry.lookup(id);
+    if (entry != null) {
+      process = entry.process();
+    } else if (!ExecUtils.isWindows()) {
+      process = find(id);
+    } else {
+      // The command line of the other processes is not available on Windows, we cannot wait for the termination.
+      return CompletableFuture.completedFuture(terminateWindowsApplication(id));
+    }
+
+    if (!process.isPresent()) {
       out.println("Cannot find process for application using the id '" + id + "'.");
-      if (!redeploy) {
-        ExecUtils.exitBecauseOfProcessIssue();
-      }
-      return;
+      return CompletableFuture.completedFuture(ExecUtils.PROCESS_ERROR_EXIT_CODE);
     }
 
-    List<String> cmd = new ArrayList<>();
-    cmd.add("kill");
-    cmd.add(pid);
-    try {
-      int result = new ProcessBuilder(cmd).start().waitFor();
-      out.println("Application '" + id + "' terminated with status " + result);
-      if (!redeploy) {
-        // We leave the application using the same exit code.
-        ExecUtils.exit(result);
+    ProcessHandle handle = process.get();
+    Runnable signal = handle::destroy;
+    if (entry != null && entry.controlEndpoint() != null) {
+      // Ask the application through its control endpoint, fallback to the termination signal.
+      signal = () -> {
+        if (ControlClient.query(entry, "stop") == null) {
+          handle.destroy();
+        }
+      };
+    }
+    return terminate(handle, signal, timeout).thenApply(termination -> {
+      if (entry != null) {
+        registry.unregister(id);
       }
-    } catch (Exception e) {
+      return report(id, termination);
+    });
+  }
+
+  private synchronized int report(String id, Termination termination) {
+    if (termination.forced) {
+      out.println("[WARNING] Application '" + id + "' did not stop within " + timeout + " ms, it has been killed");
+    }
+    if (!termination.terminated) {
       out.println("Failed to stop application '" + id + "'");
-      e.printStackTrace(out);
-      if (!redeploy) {
-        ExecUtils.exitBecauseOfProcessIssue();
-      }
+      return ExecUtils.PROCESS_ERROR_EXIT_CODE;
+    }
+    int status = termination.forced ? 1 : 0;
+    out.println("Application '" + id + "' terminated with status " + status + " in " + termination.duration + " ms");
+    return status;
+  }
+
+  /**
+   * Finds the process of an application not present in the registry, using its command line.
+   */
+  private static Optional<ProcessHandle> find(String id) {
+    long self = ProcessHandle.current().pid();
+    return ProcessHandle.allProcesses()
+      .filter(ph -> ph.pid() != self)
+      .filter(ph -> ph.info().commandLine().map(line -> id.equals(ListCommand.applicationId(line))).orElse(false))
+      .findFirst();
+  }
+
+  /**
+   * Terminates a process: the process is asked to stop (so its shutdown hooks are executed), and killed if it is
+   * still running after the given timeout.
+   *
+   * @param process the process
+   * @param timeout the time given to the process to stop in milliseconds, a negative or zero value waits without
+   *                time limit
+   * @return a future completed when the process has terminated, or when the process is still running after being
+   * killed
+   */
+  static CompletableFuture<Termination> terminate(ProcessHandle process, long timeout) {
+    return terminate(process, process::destroy, timeout);
+  }
+
+  /**
+   * Terminates a process: the process is asked to stop using the given signal, and killed if it is still running
+   * after the given timeout.
+   *
+   * @param process the process
+   * @param signal  the action asking the process to stop
+   * @param timeout the time given to the process to stop in milliseconds, a negative or zero value waits without
+   *                time limit
+   * @return a future completed when the process has terminated, or when the process is still running after being
+   * killed
+   */
+  static CompletableFuture<Termination> terminate(ProcessHandle process, Runnable signal, long timeout) {
+    long begin = System.nanoTime();
+    signal.run();
+    CompletableFuture<ProcessHandle> exit = process.onExit();
+    if (timeout > 0) {
+      exit = exit.completeOnTimeout(null, timeout, TimeUnit.MILLISECONDS);
     }
+    return exit.thenCompose(ph -> {
+      if (ph != null) {
+        return CompletableFuture.completedFuture(new Termination(true, false, elapsed(begin)));
+      }
+      process.destroyForcibly();
+      return process.onExit()
+        .completeOnTimeout(null, FORCED_TIMEOUT, TimeUnit.MILLISECONDS)
+        .thenApply(killed -> new Termination(killed != null, true, elapsed(begin)));
+    });
   }
 
-  private void terminateWindowsApplication() {
+  private static long elapsed(long begin) {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+  }
+
+  private int terminateWindowsApplication(String id) {
     String filter = "Name LIKE 'java%' AND CommandLine LIKE '%-Dvertx.id=" + id + "%'";
     String command =
       "\"Get-CimInstance -ClassName Win32_Process -Filter \\\"" + filter + "\\\"" +
@@ -121,38 +262,38 @@ public class StopCommand extends DefaultCommand {
       final Process process = new ProcessBuilder(cmd).start();
       int result = process.waitFor();
       out.println("Application '" + id + "' terminated with status " + result);
-      if (!redeploy) {
-        // We leave the application using the same exit code.
-        ExecUtils.exit(result);
-      }
+      return result;
     } catch (Exception e) {
       out.println("Failed to stop application '" + id + "'");
       e.printStackTrace(out);
-      if (!redeploy) {
-        ExecUtils.exitBecauseOfProcessIssue();
-      }
+      return ExecUtils.PROCESS_ERROR_EXIT_CODE;
     }
   }
 
-  private String pid() {
-    try {
-      final Process process = new ProcessBuilder(Arrays.asList("sh", "-c", "ps ax | grep \"" + id + "\"")).start();
-      try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-        String line;
-        while ((line = reader.readLine()) != null) {
-          final Matcher matcher = PS.matcher(line);
-          if (matcher.find()) {
-            return matcher.group(1);
-          }
-        }
-        process.waitFor();
-      }
-    } catch (InterruptedException e) {
-      Thread.currentThread().interrupt();
-      e.printStackTrace(out);
-    } catch (Exception e) {
-      e.printStackTrace(out);
+  /**
+   * The outcome of the termination of a process.
+   */
+  static final class Termination {
+
+    /**
+     * Whether or not the process has terminated.
+     */
+    final boolean terminated;
+
+    /**
+     * Whether or not the process had to be killed.
+     */
+    final boolean forced;
+
+    /**
+     * The shutdown duration, in milliseconds.
+     */
+    final long duration;
+
+    Termination(boolean terminated, boolean forced, long duration) {
+      this.terminated = terminated;
+      this.forced = forced;
+      this.duration = duration;
     }
-    return null;
   }
 }
@@ -20,12 +20,14 @@ import io.vertx.core.internal.logging.LoggerFactory;
  *
  * @author Clement Escoffier <clement@apache.org>
  */
-public class VertxIsolatedDeployer {
+public class VertxIsolatedDeployer implements IsolatedDeployer {
 
   private static final Logger log = LoggerFactory.getLogger(VertxIsolatedDeployer.class);
 
   private String deploymentId;
   private Vertx vertx;
+  private String verticle;
+  private DeploymentOptions options;
 
   /**
    * Deploys the given verticle.
@@ -35,9 +37,12 @@ public class VertxIsolatedDeployer {
    * @param options           the deployment options
    * @param completionHandler the completion handler
    */
+  @Override
   public void deploy(String verticle, Vertx vertx, DeploymentOptions options,
                      Handler<AsyncResult<String>> completionHandler) {
     this.vertx = vertx;
+    this.verticle = verticle;
+    this.options = options;
     String message = (options.getThreadingModel() == ThreadingModel.WORKER) ? "deploying worker verticle" : "deploying verticle";
     vertx.deployVerticle(verticle, options).onComplete(createHandler(message, completionHandler));
   }
@@ -47,6 +52,7 @@ public class VertxIsolatedDeployer {
    *
    * @param completionHandler the completion handler
    */
+  @Override
   public void undeploy(Handler<AsyncResult<Void>> completionHandler) {
     vertx.undeploy(deploymentId).onComplete(res -> {
       if (res.failed()) {
@@ -59,6 +65,32 @@ public class VertxIsolatedDeployer {
     });
   }
 
+  /**
+   * Undeploys the previously deployed verticle, and deploys it again. The verticle is loaded from the context
+   * classloader of the caller, so a refreshed classloader picks up the changed classes.
+   *
+   * @param completionHandler the completion handler
+   */
+  @Override
+  public void redeploy(Handler<AsyncResult<String>> completionHandler) {
+    if (verticle == null) {
+      throw new IllegalStateException("No verticle has been deployed");
+    }
+    if (deploymentId == null) {
+      deploy(verticle, vertx, options, completionHandler);
+      return;
+    }
+    ClassLoader classloader = Thread.currentThread().getContextClassLoader();
+    undeploy(res -> {
+      ClassLoader current = Thread.currentThread().getContextClassLoader();
+      Thread.currentThread().setContextClassLoader(classloader);
+      try {
+        deploy(verticle, vertx, options, completionHandler);
+      } finally {
+        Thread.currentThread().setContextClassLoader(current);
+      }
+    });
+  }
 
   private Handler<AsyncResult<String>> createHandler(final String message,
                                                      final Handler<AsyncResult<String>>
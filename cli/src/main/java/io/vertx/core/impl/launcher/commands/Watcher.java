@@ -16,6 +16,7 @@ import io.vertx.core.internal.logging.Logger;
 import io.vertx.core.internal.logging.LoggerFactory;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.WatchService;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -28,7 +29,16 @@ import java.util.stream.Collectors;
  * {@link Handler} is called, followed by the execution of the user command. Then the {@code deploy} {@link Handler}
  * is invoked.
  * <p/>
- * The watcher watches all files from the current directory and sub-directories.
+ * The changes detected during the grace period are collected in a {@link ChangeSet}. When a reload handler is
+ * configured (see {@link #setReloadInPlace(ChangeClassifier, Handler)}), a change set whose files are all classified as
+ * {@link ChangeClassifier.Action#RELOAD} is passed to this handler instead of triggering a full redeployment.
+ * <p/>
+ * When an {@link IncrementalCompiler} is set, the changed Java sources are compiled before the un-deployment. If the
+ * compilation fails, the application is not redeployed.
+ * <p/>
+ * The watcher watches all files from the current directory and sub-directories. Files and directories matching one of
+ * the exclude patterns, or ignored by a {@code .gitignore} / {@code .vertxignore} file (when enabled), are pruned
+ * during the traversal: excluded directories are neither listed nor polled.
  *
  * @author Clement Escoffier <clement@apache.org>
  */
@@ -48,13 +58,35 @@ public class Watcher implements Runnable {
    */
   private long lastChange = -1;
 
+  /**
+   * The time of the first change of the current batch of changes. Also accessed only from the scan thread.
+   */
+  private long firstChange = -1;
+
+  /**
+   * The number of files visited during the current scan. Also accessed only from the scan thread.
+   */
+  private long filesVisited;
+
+  /**
+   * The changes detected since the last redeployment. Also accessed only from the scan thread.
+   */
+  private ChangeSet changes = new ChangeSet();
+
   private final List<String> includes;
+  private final FileExclusions exclusions;
   private final Handler<Handler<Void>> deploy;
   private final Handler<Handler<Void>> undeploy;
   private final String cmd;
 
   private volatile boolean closed;
 
+  private final RedeployMetrics metrics = new RedeployMetrics();
+  private File metricsFile;
+  private ChangeClassifier classifier = ChangeClassifier.REDEPLOY_ALL;
+  private Handler<ChangeSet> reloadHandler;
+  private IncrementalCompiler compiler;
+
   /**
    * Creates a new {@link Watcher}.
    *
@@ -69,11 +101,36 @@ public class Watcher implements Runnable {
    */
   public Watcher(File root, List<String> includes, Handler<Handler<Void>> deploy, Handler<Handler<Void>> undeploy,
                  String onRedeployCommand, long gracePeriod, long scanPeriod) {
+    this(root, includes, Collections.emptyList(), false, deploy, undeploy, onRedeployCommand, gracePeriod, scanPeriod);
+  }
+
+  /**
+   * Creates a new {@link Watcher}.
+   *
+   * @param root              the root directory
+   * @param includes          the list of include patterns, should not be {@code null} or empty
+   * @param excludes          the list of exclude patterns, may be {@code null} or empty
+   * @param useIgnoreFiles    whether or not the {@code .gitignore} and {@code .vertxignore} files are used to prune
+   *                          the watched directories
+   * @param deploy            the function called when deployment is required
+   * @param undeploy          the function called when un-deployment is required
+   * @param onRedeployCommand an optional command executed after the un-deployment and before the deployment
+   * @param gracePeriod       the amount of time in milliseconds to wait between two redeploy even
+   *                          if there are changes
+   * @param scanPeriod        the time in millisecond between 2 file system scans
+   */
+  public Watcher(File root, List<String> includes, List<String> excludes, boolean useIgnoreFiles,
+                 Handler<Handler<Void>> deploy, Handler<Handler<Void>> undeploy, String onRedeployCommand,
+                 long gracePeriod, long scanPeriod) {
     this.gracePeriod = gracePeriod;
     this.includes = sanitizeIncludePatterns(includes);
     this.roots = extractRoots(root, this.includes);
     this.cwd = root;
+    this.exclusions = new FileExclusions(root, roots, excludes, useIgnoreFiles);
     LOGGER.info("Watched paths: " + this.roots);
+    if (excludes != null && !excludes.isEmpty()) {
+      LOGGER.info("Excluded paths: " + excludes);
+    }
     this.deploy = deploy;
     this.undeploy = undeploy;
     this.cmd = onRedeployCommand;
@@ -81,6 +138,53 @@ public class Watcher implements Runnable {
     addFilesToWatchedList(roots);
   }
 
+  /**
+   * Sets the file in which the redeploy metrics are written (as JSON) after every redeployment and when the watcher
+   * is closed.
+   *
+   * @param metricsFile the file, {@code null} to disable the file output
+   * @return the current watcher
+   */
+  public Watcher setMetricsFile(File metricsFile) {
+    this.metricsFile = metricsFile;
+    return this;
+  }
+
+  /**
+   * Enables the reload in place of changes not requiring a redeployment. When all the files of a change set are
+   * classified as {@link ChangeClassifier.Action#RELOAD}, the user command is executed and the {@code reloadHandler}
+   * is called with the change set, the application is not restarted. Otherwise, or if the handler fails, the
+   * application is redeployed.
+   *
+   * @param classifier    the classifier, {@code null} to redeploy on every change
+   * @param reloadHandler the handler applying the changes to the running application, called from the scan thread
+   * @return the current watcher
+   */
+  public Watcher setReloadInPlace(ChangeClassifier classifier, Handler<ChangeSet> reloadHandler) {
+    this.classifier = classifier == null ? ChangeClassifier.REDEPLOY_ALL : classifier;
+    this.reloadHandler = reloadHandler;
+    return this;
+  }
+
+  /**
+   * Sets the compiler used to compile the changed Java sources before redeploying. The compiler is closed when the
+   * watcher is closed.
+   *
+   * @param compiler the compiler, {@code null} to disable the compilation stage
+   * @return the current watcher
+   */
+  public Watcher setCompiler(IncrementalCompiler compiler) {
+    this.compiler = compiler;
+    return this;
+  }
+
+  /**
+   * @return the metrics collected for the redeploy pipeline.
+   */
+  public RedeployMetrics metrics() {
+    return metrics;
+  }
+
   static List<File> extractRoots(File root, List<String> includes) {
     return includes.stream().map(s -> {
       if (s.startsWith("*")) {
@@ -119,8 +223,12 @@ public class Watcher implements Runnable {
       File[] children = file.listFiles();
       if (children != null) {
         for (File child : children) {
+          boolean isDirectory = child.isDirectory();
+          if (exclusions.isExcluded(child, isDirectory)) {
+            continue;
+          }
           map.put(child, new FileInfo(child.lastModified(), child.length()));
-          if (child.isDirectory()) {
+          if (isDirectory) {
             addFileToWatchedList(child);
           }
         }
@@ -154,11 +262,14 @@ public class Watcher implements Runnable {
         }
 
         for (File file : files) {
-          newFiles.put(file, file);
+          if (!exclusions.isExcluded(file, file.isDirectory())) {
+            newFiles.put(file, file);
+          }
         }
       } else {
         newFiles.put(toWatch, toWatch);
       }
+      filesVisited += newFiles.size();
 
       // Lookup the old list for that file/directory
       Map<File, FileInfo> currentFileMap = fileMap.get(toWatch);
@@ -169,6 +280,7 @@ public class Watcher implements Runnable {
         if (newFile == null) {
           // File has been deleted
           currentFileMap.remove(currFile);
+          exclusions.onChange(currFile);
           if (currentFileMap.isEmpty()) {
             fileMap.remove(toWatch);
             filesToWatch.remove(toWatch);
@@ -176,13 +288,17 @@ public class Watcher implements Runnable {
           LOGGER.trace("File: " + currFile + " has been deleted");
           if (match(currFile)) {
             changed = true;
+            changes.onDeleted(currFile);
           }
         } else if (newFile.lastModified() != currInfo.lastModified || newFile.length() != currInfo.length) {
           // File has been modified
           currentFileMap.put(newFile, new FileInfo(newFile.lastModified(), newFile.length()));
+          exclusions.onChange(newFile);
           LOGGER.trace("File: " + currFile + " has been modified");
           if (match(currFile)) {
             changed = true;
+            changes.onModified(currFile);
+            recordDetectionLatency(newFile);
           }
         }
       }
@@ -192,12 +308,15 @@ public class Watcher implements Runnable {
         if (!currentFileMap.containsKey(newFile)) {
           // Add new file
           currentFileMap.put(newFile, new FileInfo(newFile.lastModified(), newFile.length()));
+          exclusions.onChange(newFile);
           if (newFile.isDirectory()) {
             addFileToWatchedList(newFile);
           }
           LOGGER.trace("File was added: " + newFile);
           if (match(newFile)) {
             changed = true;
+            changes.onAdded(newFile);
+            recordDetectionLatency(newFile);
           }
         }
       }
@@ -205,25 +324,56 @@ public class Watcher implements Runnable {
 
     long now = System.currentTimeMillis();
     if (changed) {
+      if (lastChange == -1) {
+        firstChange = now;
+      }
       lastChange = now;
     }
 
     if (lastChange != -1 && now - lastChange >= gracePeriod) {
+      metrics.record(RedeployMetrics.GRACE_PERIOD_WAIT, now - firstChange);
       lastChange = -1;
+      firstChange = -1;
       return true;
     }
 
     return false;
   }
 
+  private void recordDetectionLatency(File file) {
+    long lastModified = file.lastModified();
+    if (lastModified > 0) {
+      metrics.record(RedeployMetrics.DETECTION_LATENCY, Math.max(0, System.currentTimeMillis() - lastModified));
+    }
+  }
+
+  /**
+   * Scans the file system, recording the scan duration and the number of visited files.
+   *
+   * @return {@code true} if a change occurred requiring the redeployment.
+   */
+  private boolean scan() {
+    long begin = System.nanoTime();
+    filesVisited = 0;
+    try {
+      return changesHaveOccurred();
+    } finally {
+      metrics.record(RedeployMetrics.SCAN_DURATION, (System.nanoTime() - begin) / 1_000_000);
+      metrics.record(RedeployMetrics.FILES_VISITED, filesVisited);
+    }
+  }
+
 
   /**
-   * Checks whether the given file matches one of the {@link #includes} patterns.
+   * Checks whether the given file matches one of the {@link #includes} patterns and is not excluded.
    *
    * @param file the file
    * @return {@code true} if the file matches at least one pattern, {@code false} otherwise.
    */
   protected boolean match(File file) {
+    if (exclusions.isExcluded(file, file.isDirectory())) {
+      return false;
+    }
     // Compute relative path.
     String rel = null;
     String relFromCwd = null;
@@ -280,6 +430,25 @@ public class Watcher implements Runnable {
     closed = true;
     // Un-deploy application on close.
     undeploy.handle(null);
+    if (compiler != null) {
+      try {
+        compiler.close();
+      } catch (IOException e) {
+        LOGGER.warn("Cannot close the Java compiler", e);
+      }
+    }
+    LOGGER.info(metrics.summary());
+    writeMetrics();
+  }
+
+  private void writeMetrics() {
+    if (metricsFile != null) {
+      try {
+        metrics.write(metricsFile);
+      } catch (IOException e) {
+        LOGGER.warn("Cannot write the redeploy metrics to " + metricsFile.getAbsolutePath(), e);
+      }
+    }
   }
 
   /**
@@ -289,8 +458,19 @@ public class Watcher implements Runnable {
   public void run() {
     try {
       while (!closed) {
-        if (changesHaveOccurred()) {
-          trigger();
+        if (scan()) {
+          ChangeSet current = changes;
+          changes = new ChangeSet();
+          if (compile(current)) {
+            if (canReloadInPlace(current)) {
+              reload(current);
+            } else {
+              trigger();
+            }
+          } else {
+            // Keep the changes, they are applied with the fix of the compilation errors.
+            changes = current;
+          }
         }
         // Wait for the next scan.
         Thread.sleep(scanPeriod);
@@ -301,6 +481,58 @@ public class Watcher implements Runnable {
     }
   }
 
+  /**
+   * Compilation process.
+   *
+   * @return {@code true} if the compilation succeeded or was not needed, {@code false} if it failed.
+   */
+  private boolean compile(ChangeSet changeSet) {
+    if (compiler == null || changeSet.all().stream().noneMatch(compiler::isSource)) {
+      return true;
+    }
+    IncrementalCompiler.Result result = compiler.compile(changeSet);
+    metrics.record(RedeployMetrics.COMPILE_DURATION, result.duration());
+    if (!result.succeeded()) {
+      LOGGER.error("Compilation failed, the application is not redeployed. Fix the errors to trigger a new " +
+        "redeployment.");
+    }
+    return result.succeeded();
+  }
+
+  private boolean canReloadInPlace(ChangeSet changeSet) {
+    if (reloadHandler == null || changeSet.isEmpty()) {
+      return false;
+    }
+    for (File file : changeSet.all()) {
+      if (classifier.classify(file) != ChangeClassifier.Action.RELOAD) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Reload in place process.
+   */
+  private void reload(ChangeSet changeSet) {
+    long begin = System.currentTimeMillis();
+    LOGGER.info("Reloading " + changeSet.size() + " changed file(s) in place");
+    // The user command builds the changes (copying the resources...) before they are applied.
+    executeUserCommand(v -> {
+    });
+    try {
+      reloadHandler.handle(changeSet);
+    } catch (Throwable e) {
+      LOGGER.error("Error while reloading the changes in place, redeploying", e);
+      trigger();
+      return;
+    }
+    long end = System.currentTimeMillis();
+    metrics.record(RedeployMetrics.RELOAD_DURATION, end - begin);
+    LOGGER.info("Reload done in " + (end - begin) + " ms.");
+    writeMetrics();
+  }
+
   /**
    * Redeployment process.
    */
@@ -309,12 +541,18 @@ public class Watcher implements Runnable {
     LOGGER.info("Redeploying!");
     // 1)
     undeploy.handle(v1 -> {
+      long stopped = System.currentTimeMillis();
+      metrics.record(RedeployMetrics.STOP_DURATION, stopped - begin);
       // 2)
       executeUserCommand(v2 -> {
+        long deploying = System.currentTimeMillis();
         // 3)
         deploy.handle(v3 -> {
           long end = System.currentTimeMillis();
+          metrics.record(RedeployMetrics.DEPLOY_DURATION, end - deploying);
+          metrics.record(RedeployMetrics.REDEPLOY_DURATION, end - begin);
           LOGGER.info("Redeployment done in " + (end - begin) + " ms.");
+          writeMetrics();
         });
       });
     });
@@ -322,6 +560,7 @@ public class Watcher implements Runnable {
 
   private void executeUserCommand(Handler<Void> onCompletion) {
     if (cmd != null) {
+      long begin = System.currentTimeMillis();
       try {
         List<String> command = new ArrayList<>();
         if (ExecUtils.isWindows()) {
@@ -340,6 +579,7 @@ public class Watcher implements Runnable {
           .start();
 
         int status = process.waitFor();
+        metrics.record(RedeployMetrics.USER_COMMAND_DURATION, System.currentTimeMillis() - begin);
         LOGGER.info("User command terminated with status " + status);
       } catch (Throwable e) {
         LOGGER.error("Error while executing the on-redeploy command : '" + cmd + "'", e);
@@ -11,7 +11,9 @@
 
 package io.vertx.core.impl.launcher;
 
+import io.vertx.core.Future;
 import io.vertx.core.Launcher;
+import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
 import io.vertx.core.VertxBuilder;
 import io.vertx.core.VertxOptions;
@@ -108,6 +110,51 @@ public class LauncherExtensibilityTest extends CommandTestBase {
     assertThat(myLauncher.getCommandNames()).doesNotContain("start");
   }
 
+  @Test
+  public void testAsyncHooksCompleteWhileVertxStarts() throws IOException {
+    Promise<Void> certificates = Promise.promise();
+    AtomicReference<Boolean> startedAfterCertificates = new AtomicReference<>();
+    Launcher myLauncher = new Launcher() {
+      @Override
+      protected String getMainVerticle() {
+        return HttpTestVerticle.class.getName();
+      }
+
+      @Override
+      public Future<Void> beforeStartingVertxAsync(VertxOptions options) {
+        new Thread(certificates::complete).start();
+        return certificates.future();
+      }
+
+      @Override
+      public void afterStartingVertx(Vertx vertx) {
+        LauncherExtensibilityTest.this.vertx = vertx;
+        startedAfterCertificates.set(certificates.future().isComplete());
+      }
+
+      @Override
+      public Future<Void> beforeDeployingVerticleAsync(JsonObject config) {
+        Promise<Void> promise = Promise.promise();
+        new Thread(() -> {
+          config.put("cache", "warmed");
+          promise.complete();
+        }).start();
+        return promise.future();
+      }
+    };
+
+    myLauncher.dispatch(new String[0]);
+    assertWaitUntil(() -> {
+      try {
+        return RunCommandTest.getHttpCode() == 200;
+      } catch (IOException e) {
+        return false;
+      }
+    });
+    assertThat(startedAfterCertificates.get()).isTrue();
+    assertThat(RunCommandTest.getContent().getJsonObject("conf").getString("cache")).isEqualTo("warmed");
+  }
+
   @Test
   public void testThatCustomLauncherCanUpdateConfigurationWhenNoneArePassed() throws IOException {
     long time = System.nanoTime();
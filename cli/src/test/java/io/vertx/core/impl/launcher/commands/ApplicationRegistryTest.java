@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.launcher.commands;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test the application registry used by the start, stop and list commands.
+ */
+public class ApplicationRegistryTest {
+
+  private ApplicationRegistry registry;
+
+  @Before
+  public void setUp() {
+    File dir = new File("target/junk/registry");
+    WatcherTest.deleteRecursive(dir);
+    registry = new ApplicationRegistry(dir);
+  }
+
+  @Test
+  public void testRegisterAndLookup() throws IOException {
+    registry.register(ApplicationRegistry.Entry.of("my/app", ProcessHandle.current(), "java foo", "foo"));
+    ApplicationRegistry.Entry entry = registry.lookup("my/app");
+    assertThat(entry).isNotNull();
+    assertThat(entry.pid()).isEqualTo(ProcessHandle.current().pid());
+    assertThat(entry.details()).isEqualTo("foo");
+    assertThat(entry.process()).isPresent();
+    assertThat(registry.list()).extracting(ApplicationRegistry.Entry::id).containsExactly("my/app");
+
+    registry.unregister("my/app");
+    assertThat(registry.lookup("my/app")).isNull();
+    assertThat(registry.list()).isEmpty();
+  }
+
+  @Test
+  public void testStaleEntriesAreRemoved() throws IOException {
+    // Same pid, but a different start time: the pid has been recycled.
+    registry.register(new ApplicationRegistry.Entry("stale", ProcessHandle.current().pid(), 1000L, "java foo", "foo"));
+    assertThat(registry.directory().list()).hasSize(1);
+    assertThat(registry.list()).isEmpty();
+    assertThat(registry.directory().list()).isEmpty();
+
+    registry.register(new ApplicationRegistry.Entry("stale", ProcessHandle.current().pid(), 1000L, "java foo", "foo"));
+    assertThat(registry.lookup("stale")).isNull();
+    assertThat(registry.directory().list()).isEmpty();
+  }
+
+  @Test
+  public void testMissingEntry() {
+    assertThat(registry.lookup("missing")).isNull();
+    assertThat(registry.list()).isEmpty();
+  }
+}
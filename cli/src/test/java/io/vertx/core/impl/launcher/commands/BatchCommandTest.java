@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.launcher.commands;
+
+import io.vertx.core.Launcher;
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the {@code batch} command.
+ */
+public class BatchCommandTest extends CommandTestBase {
+
+  private File script(String content) throws IOException {
+    File file = new File("target/junk/batch.txt");
+    file.getParentFile().mkdirs();
+    Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    return file;
+  }
+
+  private static List<String> commands(List<BatchCommand.Line> stage) {
+    return stage.stream().map(line -> line.args[0] + ":" + line.number).collect(Collectors.toList());
+  }
+
+  @Test
+  public void testParseAndStages() throws IOException {
+    List<BatchCommand.Line> lines = BatchCommand.parse(new BufferedReader(new StringReader(
+      "# Bring up the environment\n" +
+        "start run a.Verticle --vertx-id=a\n" +
+        "start run b.Verticle --vertx-id=b --java-opts=\"-Xmx64m -Dfoo=bar\"\n" +
+        "\n" +
+        "list\n" +
+        "stop a\n" +
+        "stop b\n" +
+        "start run c.Verticle\n")));
+    assertThat(lines).hasSize(6);
+    assertThat(lines.get(1).args).containsExactly("start", "run", "b.Verticle", "--vertx-id=b",
+      "--java-opts=-Xmx64m -Dfoo=bar");
+
+    List<List<BatchCommand.Line>> stages = BatchCommand.stages(lines, false);
+    assertThat(stages).hasSize(4);
+    assertThat(commands(stages.get(0))).containsExactly("start:2", "start:3");
+    assertThat(commands(stages.get(1))).containsExactly("list:5");
+    assertThat(commands(stages.get(2))).containsExactly("stop:6", "stop:7");
+    assertThat(commands(stages.get(3))).containsExactly("start:8");
+
+    assertThat(BatchCommand.stages(lines, true)).hasSize(6);
+  }
+
+  @Test
+  public void testFailuresAreAggregated() throws IOException {
+    File file = script("version\nstop unknown-1\nstop unknown-2\nlist\n");
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    int status = cli.dispatch(new String[]{"batch", file.getAbsolutePath()}, new PrintStream(buffer, true));
+    String output = buffer.toString();
+    assertThat(status).isNotZero();
+    assertThat(output)
+      .contains("> stop unknown-1\nStopping vert.x application 'unknown-1'")
+      .contains("> stop unknown-2\nStopping vert.x application 'unknown-2'")
+      .contains("[WARNING] Line 2 failed with status " + status)
+      .contains("[WARNING] Line 3 failed with status " + status)
+      .contains("> list\nListing vert.x applications...")
+      .containsPattern("Executed 4 of 4 command lines in [0-9]+ ms, 2 failed");
+    // Outputs are printed in the script order
+    assertThat(output.indexOf("> version")).isLessThan(output.indexOf("> stop unknown-1"));
+    assertThat(output.indexOf("> stop unknown-2")).isLessThan(output.indexOf("> list"));
+
+    buffer.reset();
+    status = cli.dispatch(new String[]{"batch", "--fail-fast", file.getAbsolutePath()}, new PrintStream(buffer, true));
+    assertThat(status).isNotZero();
+    assertThat(buffer.toString())
+      .doesNotContain("> list")
+      .containsPattern("Executed 3 of 4 command lines in [0-9]+ ms, 2 failed");
+  }
+
+  @Test
+  public void testUnknownCommands() throws IOException {
+    File file = script("list\nlsit\n");
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    int status = cli.dispatch(new String[]{"batch", file.getAbsolutePath()}, new PrintStream(buffer, true));
+    assertThat(status).isEqualTo(ExecUtils.SYSTEM_CONFIGURATION_EXIT_CODE);
+    assertThat(buffer.toString())
+      .contains("The command 'lsit' is not a valid command (line 2)")
+      .doesNotContain("Listing vert.x applications...");
+  }
+
+  @Test
+  public void testUnsupportedCommands() throws IOException {
+    File file = script("list\nrun my.Verticle\n");
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    int status = cli.dispatch(new String[]{"batch", file.getAbsolutePath()}, new PrintStream(buffer, true));
+    assertThat(status).isEqualTo(ExecUtils.SYSTEM_CONFIGURATION_EXIT_CODE);
+    assertThat(buffer.toString())
+      .contains("The 'run' command cannot be executed in a batch (line 2)")
+      .doesNotContain("Listing vert.x applications...");
+  }
+
+  @Test
+  public void testStartListStop() throws IOException {
+    if (ExecUtils.isWindows()) {
+      // Test skipped on windows, applications are not registered.
+      return;
+    }
+    File file = script(
+      "start run " + HttpTestVerticle.class.getName() + " --launcher-class " + Launcher.class.getName() +
+        " --vertx-id=batch-app --wait-ready\n" +
+        "list\n" +
+        "stop batch-app\n");
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    int status = cli.dispatch(new String[]{"batch", file.getAbsolutePath()}, new PrintStream(buffer, true));
+    assertThat(buffer.toString())
+      .containsPattern("Application 'batch-app' ready in [0-9]+ ms")
+      .contains("batch-app\t")
+      .contains("Application 'batch-app' terminated with status 0")
+      .containsPattern("Executed 3 of 3 command lines in [0-9]+ ms, 0 failed");
+    assertThat(status).isZero();
+  }
+}
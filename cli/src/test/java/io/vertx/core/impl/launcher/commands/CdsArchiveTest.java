@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.launcher.commands;
+
+import io.vertx.core.json.JsonObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the lookup and the validation of the archives created by the {@code cds} command.
+ */
+public class CdsArchiveTest {
+
+  private File root;
+  private ApplicationRegistry registry;
+  private String classpath;
+
+  @Before
+  public void setUp() throws IOException {
+    root = new File("target/junk/cds");
+    WatcherTest.deleteRecursive(root);
+    registry = new ApplicationRegistry(new File(root, "registry"));
+    File lib = new File(root, "lib");
+    lib.mkdirs();
+    Files.write(new File(lib, "a.jar").toPath(), "a".getBytes(StandardCharsets.UTF_8));
+    Files.write(new File(lib, "b.jar").toPath(), "b".getBytes(StandardCharsets.UTF_8));
+    classpath = new File(lib, "a.jar").getAbsolutePath() + File.pathSeparator + new File(lib, "b.jar").getAbsolutePath();
+  }
+
+  private CdsArchive create(String classpath) throws IOException {
+    CdsArchive archive = CdsArchive.of(registry, classpath);
+    archive.file().getParentFile().mkdirs();
+    Files.write(archive.file().toPath(), "archive".getBytes(StandardCharsets.UTF_8));
+    archive.writeDescriptor();
+    return archive;
+  }
+
+  @Test
+  public void testArchivesAreNamedAfterTheClasspath() throws IOException {
+    CdsArchive archive = CdsArchive.of(registry, classpath);
+    assertThat(archive.file().getParentFile()).isEqualTo(new File(registry.directory(), "cds"));
+    assertThat(archive.file().getName()).endsWith(".jsa");
+    assertThat(CdsArchive.of(registry, classpath).file()).isEqualTo(archive.file());
+    assertThat(CdsArchive.of(registry, new File(root, "lib/a.jar").getAbsolutePath()).file())
+      .isNotEqualTo(archive.file());
+    assertThat(archive.validate()).isEqualTo("the archive does not exist");
+
+    assertThat(create(classpath).validate()).isNull();
+  }
+
+  @Test
+  public void testChangedJarsInvalidateTheArchive() throws IOException {
+    CdsArchive archive = create(classpath);
+    File b = new File(root, "lib/b.jar");
+    assertThat(b.setLastModified(b.lastModified() - 10000)).isTrue();
+    assertThat(archive.validate()).isEqualTo("a jar of the classpath has changed");
+
+    archive = create(classpath);
+    Files.write(archive.file().toPath(), "truncated".getBytes(StandardCharsets.UTF_8));
+    assertThat(archive.validate()).isEqualTo("the archive has changed");
+  }
+
+  @Test
+  public void testAnotherJdkInvalidatesTheArchive() throws IOException {
+    CdsArchive archive = create(classpath);
+    File descriptor = new File(archive.file().getParentFile(), archive.file().getName().replace(".jsa", ".json"));
+    JsonObject json = new JsonObject(new String(Files.readAllBytes(descriptor.toPath()), StandardCharsets.UTF_8));
+    Files.write(descriptor.toPath(), json.put("vmVersion", "11.0.1+13").encode().getBytes(StandardCharsets.UTF_8));
+    assertThat(archive.validate()).isEqualTo("it has been created by another JDK (11.0.1+13)");
+  }
+}
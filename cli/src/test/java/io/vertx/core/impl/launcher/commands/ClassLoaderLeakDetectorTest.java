@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.launcher.commands;
+
+import org.junit.Test;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the detection of the classloaders leaked after an undeployment.
+ */
+public class ClassLoaderLeakDetectorTest {
+
+  @Test
+  public void testLeakedClassLoaderIsReported() throws InterruptedException {
+    ClassLoader loader = new URLClassLoader(new URL[0], getClass().getClassLoader());
+    ClassLoaderLeakDetector.track(loader, "leaked-loader");
+    CountDownLatch stop = new CountDownLatch(1);
+    Thread thread = new Thread(() -> {
+      try {
+        stop.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }, "lingering-thread");
+    thread.setContextClassLoader(loader);
+    thread.start();
+    try {
+      long gcs = ClassLoaderLeakDetector.gcCount();
+      // Not released yet.
+      assertThat(ClassLoaderLeakDetector.check(gcs + 10)).noneMatch(report -> report.contains("leaked-loader"));
+
+      ClassLoaderLeakDetector.release(loader);
+      assertThat(ClassLoaderLeakDetector.check(gcs)).noneMatch(report -> report.contains("leaked-loader"));
+      List<String> reports = ClassLoaderLeakDetector.check(gcs + ClassLoaderLeakDetector.DEFAULT_THRESHOLD);
+      assertThat(reports).filteredOn(report -> report.contains("leaked-loader")).singleElement().asString()
+        .contains("thread 'lingering-thread' (context classloader)");
+
+      // Reported once.
+      assertThat(ClassLoaderLeakDetector.check(gcs + 100)).noneMatch(report -> report.contains("leaked-loader"));
+    } finally {
+      stop.countDown();
+      thread.join();
+    }
+  }
+
+  @Test
+  public void testCollectedClassLoaderIsForgotten() throws InterruptedException {
+    ClassLoader loader = new URLClassLoader(new URL[0], getClass().getClassLoader());
+    ClassLoaderLeakDetector.track(loader, "collected-loader");
+    ClassLoaderLeakDetector.release(loader);
+    assertThat(ClassLoaderLeakDetector.isTracked("collected-loader")).isTrue();
+
+    loader = null;
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (ClassLoaderLeakDetector.isTracked("collected-loader") && System.nanoTime() < deadline) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    assertThat(ClassLoaderLeakDetector.isTracked("collected-loader")).isFalse();
+  }
+
+  @Test
+  public void testOnlyClassUnloadingCollectionsAreCounted() {
+    List<String> collectors = new ArrayList<>();
+    for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      collectors.add(gc.getName());
+    }
+    assertThat(collectors).containsAnyElementsOf(ClassLoaderLeakDetector.CLASS_UNLOADING_COLLECTORS);
+    assertThat(ClassLoaderLeakDetector.CLASS_UNLOADING_COLLECTORS)
+      .doesNotContain("Copy", "PS Scavenge", "ParNew", "G1 Young Generation", "ZGC Minor Cycles");
+
+    // A full collection
+    long gcs = ClassLoaderLeakDetector.gcCount();
+    System.gc();
+    assertThat(ClassLoaderLeakDetector.gcCount()).isGreaterThan(gcs);
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.launcher.commands;
+
+import io.vertx.core.Launcher;
+import io.vertx.core.internal.logging.LoggerFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the recording and the preloading of the classes loaded during the startup.
+ */
+public class ClassPreloaderTest extends CommandTestBase {
+
+  private File list;
+
+  @Before
+  public void setUp() throws IOException {
+    super.setUp();
+    list = new File("target/junk/preload/classes.txt");
+    WatcherTest.deleteRecursive(list.getParentFile());
+  }
+
+  @After
+  public void tearDown() throws InterruptedException {
+    super.tearDown();
+    RunCommand run = (RunCommand) cli.getExistingCommandInstance("run");
+    if (run != null) {
+      close(run.vertx);
+    }
+  }
+
+  @Test
+  public void testRecordAndReplay() throws IOException {
+    ClassPreloader recorder = ClassPreloader.start(list, getClass().getClassLoader(),
+      LoggerFactory.getLogger(ClassPreloaderTest.class));
+    assertThat(recorder).isNotNull();
+    assertThat(new LoadedDuringStartup().toString()).isNotNull();
+    recorder.complete();
+    assertThat(ClassPreloader.read(list)).contains(LoadedDuringStartup.class.getName());
+
+    ClassPreloader.write(list, Arrays.asList(String.class.getName(), "this.class.does.not.Exist",
+      getClass().getName()));
+    ClassPreloader preloader = ClassPreloader.start(list, getClass().getClassLoader(),
+      LoggerFactory.getLogger(ClassPreloaderTest.class));
+    assertThat(preloader).isNotNull();
+    assertWaitUntil(() -> preloader.loaded() == 2);
+    preloader.complete();
+    // The list is not recorded again
+    assertThat(ClassPreloader.read(list)).hasSize(3);
+  }
+
+  @Test
+  public void testPreloadableClasses() {
+    assertThat(ClassPreloader.isPreloadable("io.vertx.core.Vertx")).isTrue();
+    assertThat(ClassPreloader.isPreloadable("io.vertx.core.Foo$Bar")).isTrue();
+    assertThat(ClassPreloader.isPreloadable("io.vertx.core.Foo$$Lambda$14/0x0000000800c02c00")).isFalse();
+    assertThat(ClassPreloader.isPreloadable("[Ljava.lang.String;")).isFalse();
+    assertThat(ClassPreloader.isPreloadable("jdk.proxy1.$Proxy12")).isFalse();
+  }
+
+  @Test
+  public void testRunCommandRecordsTheClassList() throws IOException {
+    cli.dispatch(new Launcher(), new String[]{"run", HttpTestVerticle.class.getName(),
+      "--preload-classes=" + list.getAbsolutePath()});
+    assertWaitUntil(list::isFile);
+    // The classes loaded before the command runs (by the test or a previous test) are not recorded.
+    assertThat(ClassPreloader.read(list)).allMatch(ClassPreloader::isPreloadable);
+    assertThat(getHttpCode()).isEqualTo(200);
+  }
+
+  private static int getHttpCode() {
+    try {
+      return ((HttpURLConnection) new URL("http://localhost:8080").openConnection()).getResponseCode();
+    } catch (IOException e) {
+      return -1;
+    }
+  }
+
+  private static class LoadedDuringStartup {
+  }
+}
@@ -11,7 +11,11 @@
 
 package io.vertx.core.impl.launcher.commands;
 
+import io.vertx.core.AsyncResult;
 import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
 import io.vertx.core.spi.launcher.ExecutionContext;
 import org.junit.After;
 import org.junit.Before;
@@ -22,7 +26,14 @@ import java.io.File;
 import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 /**
  * Check the behavior of the {@link ClasspathHandler} class.
@@ -104,6 +115,82 @@ public class ClasspathHandlerTest extends CommandTestBase {
     });
   }
 
+  @Test
+  public void testRedeployInRunCommand() {
+    testCPInRunCommand();
+    Set<String> ids = new HashSet<>(run.vertx.deploymentIDs());
+
+    AtomicReference<AsyncResult<String>> result = new AtomicReference<>();
+    run.redeploy(result::set);
+    assertWaitUntil(() -> result.get() != null);
+    assertThat(result.get().succeeded()).isTrue();
+    assertThat(ids).doesNotContain(result.get().result());
+    assertThat(run.vertx.deploymentIDs()).contains(result.get().result()).doesNotContainAnyElementsOf(ids);
+    assertWaitUntil(() -> {
+      try {
+        return getHttpCode() == 200;
+      } catch (IOException e) {
+        return false;
+      }
+    });
+  }
+
+  @Test
+  public void testDeployerNotImplementingTheContract() {
+    List<String> calls = new ArrayList<>();
+    ClasspathHandler handler = new ClasspathHandler() {
+      {
+        executionContext = new ExecutionContext(this, null, null);
+      }
+
+      @Override
+      protected synchronized Object newInstance() {
+        return new LegacyDeployer(calls);
+      }
+
+      @Override
+      public void run() {
+      }
+    };
+    handler.setClasspath(null);
+
+    AtomicReference<AsyncResult<String>> deployed = new AtomicReference<>();
+    handler.deploy("my-verticle", null, new DeploymentOptions(), deployed::set);
+    assertThat(deployed.get().result()).isEqualTo("my-verticle");
+
+    AtomicReference<AsyncResult<Void>> undeployed = new AtomicReference<>();
+    handler.undeploy(undeployed::set);
+    assertThat(undeployed.get().succeeded()).isTrue();
+
+    AtomicReference<AsyncResult<String>> redeployed = new AtomicReference<>();
+    handler.redeploy(redeployed::set);
+    assertThat(redeployed.get().cause()).isInstanceOf(UnsupportedOperationException.class);
+    assertThat(calls).containsExactly("deploy my-verticle", "undeploy");
+  }
+
+  /**
+   * A deployer written before the {@link IsolatedDeployer} contract, it has no {@code redeploy} method.
+   */
+  public static class LegacyDeployer {
+
+    private final List<String> calls;
+
+    public LegacyDeployer(List<String> calls) {
+      this.calls = calls;
+    }
+
+    public void deploy(String verticle, Vertx vertx, DeploymentOptions options,
+                       Handler<AsyncResult<String>> completionHandler) {
+      calls.add("deploy " + verticle);
+      completionHandler.handle(Future.succeededFuture(verticle));
+    }
+
+    public void undeploy(Handler<AsyncResult<Void>> completionHandler) {
+      calls.add("undeploy");
+      completionHandler.handle(Future.succeededFuture());
+    }
+  }
+
   private int getHttpCode() throws IOException {
     return ((HttpURLConnection) new URL("http://localhost:8080")
       .openConnection()).getResponseCode();
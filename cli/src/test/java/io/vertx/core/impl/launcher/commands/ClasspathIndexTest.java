@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.launcher.commands;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks the package index of the {@link IsolatedClassLoader}.
+ */
+public class ClasspathIndexTest {
+
+  private File root;
+  private File lib;
+  private File classes;
+  private ClassLoader parent = ClassLoader.getPlatformClassLoader();
+
+  @Before
+  public void setUp() throws IOException {
+    root = new File("target/junk/classpath-index");
+    WatcherTest.deleteRecursive(root);
+    lib = new File(root, "lib");
+    classes = new File(root, "classes");
+    lib.mkdirs();
+    classes.mkdirs();
+    File sources = new File(root, "sources/a/b");
+    sources.mkdirs();
+    File source = new File(sources, "Hello.java");
+    Files.write(source.toPath(), ("package a.b; public class Hello { " +
+      "public String toString() { return \"hello\"; } }").getBytes(StandardCharsets.UTF_8));
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    assertThat(compiler.run(null, null, null, "-d", new File(root, "compiled").getPath(), source.getPath())).isZero();
+
+    jar("first.jar", null, "a/b/Hello.class", Files.readAllBytes(new File(root, "compiled/a/b/Hello.class").toPath()),
+      "a/b/data.txt", "first".getBytes(StandardCharsets.UTF_8));
+    jar("second.jar", null, "a/b/data.txt", "second".getBytes(StandardCharsets.UTF_8),
+      "root.txt", "root".getBytes(StandardCharsets.UTF_8));
+    Files.write(new File(classes, "a.txt").toPath(), "dir".getBytes(StandardCharsets.UTF_8));
+    IsolatedClassLoader.clearCache();
+  }
+
+  @After
+  public void tearDown() {
+    IsolatedClassLoader.clearCache();
+  }
+
+  private File jar(String name, String classPath, Object... entries) throws IOException {
+    Manifest manifest = new Manifest();
+    manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+    if (classPath != null) {
+      manifest.getMainAttributes().put(Attributes.Name.CLASS_PATH, classPath);
+    }
+    File file = new File(lib, name);
+    try (JarOutputStream jar = new JarOutputStream(new FileOutputStream(file), manifest)) {
+      for (int i = 0; i < entries.length; i += 2) {
+        jar.putNextEntry(new JarEntry((String) entries[i]));
+        jar.write((byte[]) entries[i + 1]);
+        jar.closeEntry();
+      }
+    }
+    return file;
+  }
+
+  private List<String> classpath() {
+    return Arrays.asList(lib.getPath() + "/*", classes.getPath());
+  }
+
+  private static String read(URL url) throws IOException {
+    try (InputStream in = url.openStream()) {
+      return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+
+  @Test
+  public void testLookupsAreRoutedToTheOwningEntries() throws Exception {
+    IsolatedClassLoader loader = IsolatedClassLoader.of(classpath(), parent);
+    assertThat(loader.index()).isNotNull();
+    assertThat(loader.index().lookup("a/b")).containsExactly(0, 1, 2);
+    assertThat(loader.index().lookup("")).containsExactly(1, 2);
+    assertThat(loader.index().lookup("unknown")).containsExactly(2);
+
+    Class<?> clazz = loader.loadClass("a.b.Hello");
+    assertThat(clazz.getClassLoader()).isSameAs(loader);
+    assertThat(clazz.getPackage().getName()).isEqualTo("a.b");
+    assertThat(clazz.getProtectionDomain().getCodeSource().getLocation())
+      .isEqualTo(new File(lib, "first.jar").getAbsoluteFile().toURI().toURL());
+    assertThat(clazz.getDeclaredConstructor().newInstance().toString()).isEqualTo("hello");
+    assertThatThrownBy(() -> loader.loadClass("a.b.Missing")).isInstanceOf(ClassNotFoundException.class);
+    assertThatThrownBy(() -> loader.loadClass("unknown.Missing")).isInstanceOf(ClassNotFoundException.class);
+
+    assertThat(read(loader.getResource("a/b/data.txt"))).isEqualTo("first");
+    assertThat(Collections.list(loader.getResources("a/b/data.txt"))).hasSize(2);
+    assertThat(read(loader.getResource("root.txt"))).isEqualTo("root");
+    assertThat(read(loader.getResource("a.txt"))).isEqualTo("dir");
+    assertThat(loader.getResource("a/b/missing.txt")).isNull();
+    loader.close();
+  }
+
+  @Test
+  public void testIndexIsPersistedAndUpdated() throws IOException {
+    IsolatedClassLoader.of(classpath(), parent).index();
+    File index = new File(lib, ClasspathIndex.FILE_NAME);
+    assertThat(index).isFile();
+    List<String> lines = Files.readAllLines(index.toPath());
+    assertThat(lines).hasSize(3);
+    File second = new File(lib, "second.jar");
+    assertThat(lines.get(2))
+      .isEqualTo("second.jar\t" + second.length() + "\t" + second.lastModified() + "\tfalse\t\tMETA-INF\ta/b");
+
+    // Unchanged jars are not scanned again
+    Files.write(index.toPath(), String.join("\n", lines).replace("\ta/b", "\tx/y").getBytes(StandardCharsets.UTF_8));
+    IsolatedClassLoader.clearCache();
+    assertThat(IsolatedClassLoader.of(classpath(), parent).index().lookup("x/y")).containsExactly(0, 1, 2);
+
+    // Changed jars are
+    assertThat(second.setLastModified(second.lastModified() - 10000)).isTrue();
+    assertThat(IsolatedClassLoader.of(classpath(), parent).index().lookup("x/y")).containsExactly(0, 2);
+    assertThat(Files.readAllLines(index.toPath()).get(2)).startsWith("second.jar\t" + second.length() + "\t"
+      + second.lastModified() + "\t");
+  }
+
+  @Test
+  public void testClassPathManifestDisablesTheIndex() throws Exception {
+    jar("third.jar", "first.jar");
+    IsolatedClassLoader loader = IsolatedClassLoader.of(classpath(), parent);
+    assertThat(loader.index()).isNull();
+    assertThat(loader.loadClass("a.b.Hello").getClassLoader()).isSameAs(loader);
+    assertThat(read(loader.getResource("a/b/data.txt"))).isEqualTo("first");
+  }
+}
@@ -19,6 +19,7 @@ import org.junit.After;
 import org.junit.Before;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.util.concurrent.CountDownLatch;
@@ -39,6 +40,7 @@ public class CommandTestBase {
   protected PrintStream os;
   protected PrintStream err;
   protected VertxCommandLauncher cli;
+  protected File registryDir;
 
   @Before
   public void setUp() throws IOException {
@@ -48,6 +50,11 @@ public class CommandTestBase {
       }
     });
 
+    // Keep the applications started by the tests out of the registry of the user.
+    registryDir = new File("target/junk/registry/" + getClass().getSimpleName());
+    WatcherTest.deleteRecursive(registryDir);
+    System.setProperty(ApplicationRegistry.REGISTRY_DIR_PROPERTY, registryDir.getAbsolutePath());
+
     cli = new VertxCommandLauncher();
     output = new ByteArrayOutputStream();
     error = new ByteArrayOutputStream();
@@ -61,6 +68,7 @@ public class CommandTestBase {
   @After
   public void tearDown() throws InterruptedException {
     stop();
+    System.clearProperty(ApplicationRegistry.REGISTRY_DIR_PROPERTY);
 
     if (os != null) {
       os.close();
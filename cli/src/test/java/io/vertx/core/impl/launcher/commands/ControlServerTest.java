@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.launcher.commands;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test the application control endpoint.
+ */
+public class ControlServerTest {
+
+  private Vertx vertx;
+  private ControlServer server;
+  private ApplicationRegistry registry;
+
+  @Before
+  public void setUp() throws Exception {
+    File dir = new File("target/junk/control-registry");
+    WatcherTest.deleteRecursive(dir);
+    registry = new ApplicationRegistry(dir);
+    vertx = Vertx.vertx();
+    vertx.deployVerticle(new AbstractVerticle() {
+    }).await(10, TimeUnit.SECONDS);
+    server = new ControlServer(vertx, "control");
+    server.start();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    server.close();
+    ControlServer.unregisterMetrics("custom");
+    vertx.close().await(10, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void testPublishAndQuery() throws IOException {
+    registry.register(ApplicationRegistry.Entry.of("control", ProcessHandle.current(), "java foo", "foo"));
+    assertThat(server.publish(registry, 1000)).isTrue();
+    ApplicationRegistry.Entry entry = registry.lookup("control");
+    assertThat(entry.controlEndpoint()).isEqualTo(server.endpoint()).startsWith("tcp://");
+    assertThat(entry.controlToken()).isEqualTo(server.token());
+
+    ControlServer.registerMetrics("custom", () -> new JsonObject().put("requests", 42));
+    try (ControlClient client = ControlClient.connect(entry, ControlClient.DEFAULT_TIMEOUT)) {
+      JsonObject status = client.request("status");
+      assertThat(status.getBoolean("ok")).isTrue();
+      assertThat(status.getString("id")).isEqualTo("control");
+      assertThat(status.getLong("pid")).isEqualTo(ProcessHandle.current().pid());
+      assertThat(status.getString("state")).isEqualTo("running");
+      assertThat(status.getInteger("deployments")).isEqualTo(1);
+
+      // Same connection
+      JsonObject metrics = client.request("metrics");
+      assertThat(metrics.getJsonObject("jvm").getLong("heapUsed")).isPositive();
+      assertThat(metrics.getJsonObject("custom").getInteger("requests")).isEqualTo(42);
+
+      JsonObject drain = client.request("drain");
+      assertThat(drain.getBoolean("ok")).isTrue();
+      assertThat(drain.getInteger("undeployed")).isEqualTo(1);
+      assertThat(vertx.deploymentIDs()).isEmpty();
+      assertThat(client.request("status").getString("state")).isEqualTo("drained");
+
+      assertThat(client.request("unknown").getBoolean("ok")).isFalse();
+    }
+  }
+
+  @Test
+  public void testReload() throws IOException {
+    ApplicationRegistry.Entry entry = ApplicationRegistry.Entry.of("control", ProcessHandle.current(), "java foo", "foo")
+      .setControlEndpoint(server.endpoint())
+      .setControlToken(server.token());
+    JsonObject changes = new JsonObject().put("modified", new JsonArray().add("/webroot/index.html"));
+    try (ControlClient client = ControlClient.connect(entry, ControlClient.DEFAULT_TIMEOUT)) {
+      JsonObject request = new JsonObject().put("op", "reload").put("changes", changes);
+      // No handler, the launcher redeploys
+      assertThat(client.request(request).getString("error")).isEqualTo("Reload in place not supported");
+
+      List<JsonObject> reloaded = new ArrayList<>();
+      server.setReloadHandler(reloaded::add);
+      assertThat(client.request(request).getBoolean("ok")).isTrue();
+      assertThat(reloaded).containsExactly(changes);
+
+      server.setReloadHandler(c -> {
+        throw new IllegalStateException("boom");
+      });
+      assertThat(client.request(request).getString("error")).isEqualTo("Reload failed: boom");
+    }
+  }
+
+  @Test
+  public void testInvalidToken() throws IOException {
+    ApplicationRegistry.Entry entry = ApplicationRegistry.Entry.of("control", ProcessHandle.current(), "java foo", "foo")
+      .setControlEndpoint(server.endpoint())
+      .setControlToken("wrong");
+    try (ControlClient client = ControlClient.connect(entry, ControlClient.DEFAULT_TIMEOUT)) {
+      JsonObject response = client.request("status");
+      assertThat(response.getBoolean("ok")).isFalse();
+      assertThat(response.getString("error")).isEqualTo("Invalid token");
+    }
+    assertThat(ControlClient.query(entry, "status")).isNull();
+  }
+
+  @Test
+  public void testPublishWithoutEntry() {
+    assertThat(server.publish(registry, 100)).isFalse();
+    ApplicationRegistry.Entry entry = ApplicationRegistry.Entry.of("none", ProcessHandle.current(), "java foo", "foo");
+    assertThat(ControlClient.query(entry, "status")).isNull();
+  }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.launcher.commands;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the computation of the CPU sets of the processes of a group.
+ */
+public class CpuAffinityTest {
+
+  @Test
+  public void testParseAndFormat() {
+    List<Integer> cpus = CpuAffinity.parse("0-3,8, 10-11\n");
+    assertThat(cpus).containsExactly(0, 1, 2, 3, 8, 10, 11);
+    assertThat(CpuAffinity.format(cpus)).isEqualTo("0-3,8,10-11");
+    assertThat(CpuAffinity.format(Arrays.asList(5))).isEqualTo("5");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParseInvalidList() {
+    CpuAffinity.parse("0-a");
+  }
+
+  @Test
+  public void testPartition() {
+    List<Integer> cpus = CpuAffinity.parse("0-6");
+    assertThat(CpuAffinity.partition(cpus, 3)).containsExactly(
+      Arrays.asList(0, 1, 2), Arrays.asList(3, 4), Arrays.asList(5, 6));
+
+    // More processes than CPUs
+    assertThat(CpuAffinity.partition(CpuAffinity.parse("2-3"), 3)).containsExactly(
+      Arrays.asList(2), Arrays.asList(3), Arrays.asList(2));
+  }
+
+  @Test
+  public void testAllowedCpus() {
+    assertThat(CpuAffinity.allowedCpus()).isNotEmpty();
+  }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.launcher.commands;
+
+import io.vertx.core.impl.launcher.VertxCommandLauncher;
+import io.vertx.core.json.JsonObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the launcher daemon and the reentrancy of the launcher.
+ */
+public class DaemonTest extends CommandTestBase {
+
+  private Thread daemon;
+
+  @Before
+  public void setUp() throws IOException {
+    super.setUp();
+    VertxCommandLauncher.resetProcessArguments();
+  }
+
+  @After
+  public void tearDown() throws InterruptedException {
+    if (daemon != null && daemon.isAlive()) {
+      try (DaemonClient client = DaemonClient.connect(ApplicationRegistry.create())) {
+        if (client != null) {
+          client.shutdown();
+        }
+      } catch (IOException e) {
+        // Ignore it.
+      }
+      daemon.join(10000);
+    }
+    System.clearProperty(DaemonClient.DAEMON_PROPERTY);
+    super.tearDown();
+  }
+
+  @Test
+  public void testDispatchOnBehalfOfAnotherProcess() {
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    PrintStream stream = new PrintStream(buffer, true);
+    int status = cli.dispatch(new String[]{"stop", "this-process-does-not-exist"}, stream);
+    // The exit is trapped, the JVM keeps running.
+    assertThat(status).isNotZero();
+    assertThat(buffer.toString()).contains("Stopping vert.x application 'this-process-does-not-exist'");
+    assertThat(VertxCommandLauncher.getProcessArguments()).isNull();
+
+    buffer.reset();
+    assertThat(cli.dispatch(new String[]{"list"}, stream)).isZero();
+    assertThat(buffer.toString()).contains("Listing vert.x applications...");
+  }
+
+  @Test
+  public void testUnsupportedCommandLines() {
+    JsonObject context = DaemonClient.context();
+    assertThat(DaemonCommand.unsupported(new String[]{"list"}, context)).isNull();
+    assertThat(DaemonCommand.unsupported(new String[]{"start", "run", "my.Verticle"}, context)).isNull();
+    assertThat(DaemonCommand.unsupported(new String[]{"run", "my.Verticle"}, context)).isNotNull();
+    assertThat(DaemonCommand.unsupported(new String[0], context)).isNotNull();
+    assertThat(DaemonCommand.unsupported(new String[]{"stop", "app", "-Dfoo=bar"}, context)).isNotNull();
+    assertThat(DaemonCommand.unsupported(new String[]{"start", "run", "my.Verticle"},
+      context.copy().put("cwd", "/elsewhere"))).isNotNull();
+    assertThat(DaemonCommand.unsupported(new String[]{"start", "run", "my.Verticle"},
+      context.copy().put("env", context.getJsonObject("env").copy().put("VERTX_DAEMON_TEST", "true")))).isNotNull();
+    assertThat(DaemonCommand.unsupported(new String[]{"start", "run", "my.Verticle"}, new JsonObject())).isNotNull();
+    assertThat(DaemonCommand.unsupported(new String[]{"start", "run", "my.Verticle", "--redirect-output"},
+      context)).isNotNull();
+  }
+
+  @Test
+  public void testDaemonExecutesCommands() throws Exception {
+    record();
+    daemon = new Thread(() -> cli.dispatch(new String[]{"daemon", "--idle-timeout=0"}));
+    daemon.start();
+    ApplicationRegistry registry = ApplicationRegistry.create();
+    assertWaitUntil(() -> registry.lookupDaemon() != null);
+    assertThat(registry.list()).isEmpty();
+
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    PrintStream stream = new PrintStream(buffer, true);
+    try (DaemonClient client = DaemonClient.connect(registry)) {
+      assertThat(client).isNotNull();
+      assertThat(client.pid()).isEqualTo(ProcessHandle.current().pid());
+      assertThat(client.execute(new String[]{"list"}, stream)).isZero();
+      assertThat(buffer.toString()).contains("Listing vert.x applications...");
+
+      // The connection can be reused
+      buffer.reset();
+      assertThat(client.execute(new String[]{"stop", "this-process-does-not-exist"}, stream)).isNotZero();
+      assertThat(buffer.toString()).contains("Cannot find process for application using the id");
+
+      assertThat(client.execute(new String[]{"run", HttpTestVerticle.class.getName()}, stream)).isNull();
+    }
+
+    // Forwarding is disabled by default
+    assertThat(DaemonClient.forward(new String[]{"list"}, stream)).isNull();
+    System.setProperty(DaemonClient.DAEMON_PROPERTY, "true");
+    buffer.reset();
+    assertThat(DaemonClient.forward(new String[]{"list"}, stream)).isZero();
+    assertThat(buffer.toString()).contains("Listing vert.x applications...");
+
+    output.reset();
+    cli.dispatch(new String[]{"daemon", "--stop"});
+    assertThat(output.toString()).contains("Launcher daemon (pid " + ProcessHandle.current().pid() + ") stopped");
+    daemon.join(10000);
+    assertThat(daemon.isAlive()).isFalse();
+    assertThat(registry.lookupDaemon()).isNull();
+    assertThat(DaemonClient.forward(new String[]{"list"}, stream)).isNull();
+  }
+
+  @Test
+  public void testShellClient() throws Exception {
+    if (!ExecUtils.isLinux() || !new File("/bin/bash").canExecute()) {
+      return;
+    }
+    record();
+    daemon = new Thread(() -> cli.dispatch(new String[]{"daemon", "--idle-timeout=0"}));
+    daemon.start();
+    assertWaitUntil(() -> ApplicationRegistry.create().lookupDaemon() != null);
+
+    ProcessResult result = client("list");
+    assertThat(result.status).isZero();
+    assertThat(result.output).contains("Listing vert.x applications...");
+
+    result = client("stop", "this-process-does-not-exist");
+    assertThat(result.status).isNotZero();
+    assertThat(result.output).contains("Cannot find process for application using the id");
+
+    // Executed by the launcher
+    result = client("start", "run", "my \"Verticle\"");
+    assertThat(result.status).isZero();
+    assertThat(result.output).isEqualTo("launcher start run my \"Verticle\"\n");
+  }
+
+  private ProcessResult client(String... args) throws Exception {
+    List<String> command = new ArrayList<>(Arrays.asList("/bin/bash", "src/main/scripts/vertx-client"));
+    command.addAll(Arrays.asList(args));
+    ProcessBuilder builder = new ProcessBuilder(command).redirectErrorStream(true);
+    builder.environment().put("VERTX_REGISTRY_DIR", registryDir.getAbsolutePath());
+    builder.environment().put("VERTX_CMD", "echo launcher");
+    Process process = builder.start();
+    String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+    assertThat(process.waitFor(10, TimeUnit.SECONDS)).isTrue();
+    return new ProcessResult(process.exitValue(), output);
+  }
+
+  private static class ProcessResult {
+    private final int status;
+    private final String output;
+
+    private ProcessResult(int status, String output) {
+      this.status = status;
+      this.output = output;
+    }
+  }
+
+  @Test
+  public void testIdleDaemonExits() throws Exception {
+    record();
+    daemon = new Thread(() -> cli.dispatch(new String[]{"daemon", "--idle-timeout=500"}));
+    daemon.start();
+    daemon.join(10000);
+    assertThat(daemon.isAlive()).isFalse();
+    assertThat(output.toString()).contains("Launcher daemon idle for 500 ms, exiting");
+    assertThat(Arrays.asList(registryDir.list())).doesNotContain("daemon.entry");
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.launcher.commands;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.internal.VertxInternal;
+import io.vertx.core.internal.logging.LoggerFactory;
+import io.vertx.core.json.JsonObject;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Checks the {@link EventLoopLagProbe} and its histograms.
+ */
+public class EventLoopLagProbeTest {
+
+  private VertxInternal vertx;
+
+  @After
+  public void tearDown() throws Exception {
+    if (vertx != null) {
+      vertx.close().await(10, TimeUnit.SECONDS);
+    }
+  }
+
+  @Test
+  public void testHistogramPercentiles() {
+    EventLoopLagProbe.Histogram histogram = new EventLoopLagProbe.Histogram();
+    for (long value = 1; value <= 1000; value++) {
+      histogram.record(value);
+    }
+    assertThat(histogram.count()).isEqualTo(1000);
+    assertThat(histogram.max()).isEqualTo(1000);
+    // The buckets have a precision of 12.5%.
+    assertThat(histogram.percentile(0.5)).isCloseTo(500, within(63L));
+    assertThat(histogram.percentile(0.99)).isCloseTo(990, within(10L));
+    assertThat(histogram.percentile(1)).isEqualTo(1000);
+
+    for (long value : new long[]{0, 7, 8, 100, 12345, 1L << 35}) {
+      int index = EventLoopLagProbe.Histogram.index(value);
+      assertThat(EventLoopLagProbe.Histogram.lowerBound(index)).isLessThanOrEqualTo(value);
+      assertThat(EventLoopLagProbe.Histogram.lowerBound(index + 1)).isGreaterThan(value);
+    }
+
+    EventLoopLagProbe.Histogram drained = new EventLoopLagProbe.Histogram();
+    histogram.drainTo(drained);
+    assertThat(histogram.count()).isZero();
+    assertThat(drained.count()).isEqualTo(1000);
+    assertThat(drained.max()).isEqualTo(1000);
+  }
+
+  @Test
+  public void testSeriesAreCountedPerBucket() {
+    for (long first : new long[]{-5, 0, 1, 99_999, 100_000, 300_001, 12_345_678}) {
+      EventLoopLagProbe.Histogram series = new EventLoopLagProbe.Histogram();
+      series.recordSeries(first, 100_000);
+      EventLoopLagProbe.Histogram values = new EventLoopLagProbe.Histogram();
+      for (long value = first; value > 0; value -= 100_000) {
+        values.record(value);
+      }
+      assertThat(series.count()).isEqualTo(values.count());
+      assertThat(series.max()).isEqualTo(values.max());
+      for (double quantile : new double[]{0.1, 0.5, 0.9, 0.99, 1}) {
+        assertThat(series.percentile(quantile)).isEqualTo(values.percentile(quantile));
+      }
+    }
+    EventLoopLagProbe.Histogram small = new EventLoopLagProbe.Histogram();
+    small.recordSeries(20, 3);
+    assertThat(small.count()).isEqualTo(7);
+  }
+
+  @Test
+  public void testBlockedEventLoopIsReported() throws Exception {
+    vertx = (VertxInternal) Vertx.vertx(new VertxOptions().setEventLoopPoolSize(2));
+    EventLoopLagProbe probe = EventLoopLagProbe.start(vertx, 60000, LoggerFactory.getLogger(getClass()));
+    try {
+      vertx.runOnContext(v -> {
+        try {
+          Thread.sleep(300);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+      Thread.sleep(600);
+      probe.report();
+
+      JsonObject loops = probe.toJson().getJsonObject("eventLoops");
+      assertThat(loops.size()).isEqualTo(2);
+      long blocked = loops.stream()
+        .map(entry -> ((JsonObject) entry.getValue()).getJsonObject("interval"))
+        .filter(interval -> interval.getLong("max") >= 150_000)
+        .count();
+      assertThat(blocked).isEqualTo(1);
+      loops.stream()
+        .map(entry -> ((JsonObject) entry.getValue()).getJsonObject("total"))
+        .forEach(total -> assertThat(total.getLong("count")).isPositive());
+    } finally {
+      probe.close();
+    }
+  }
+}
@@ -21,6 +21,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
 
 /**
  * Checks the behavior of the {@link ExecUtils} class.
@@ -78,6 +79,26 @@ public class ExecUtilsTest {
       "wrapped_in_double_quotes");
   }
 
+  @Test
+  public void testSplitArguments() {
+    assertThat(ExecUtils.splitArguments(null)).isEmpty();
+    assertThat(ExecUtils.splitArguments("  ")).isEmpty();
+    assertThat(ExecUtils.splitArguments("-Xmx1G  -Xms256m\t-Dfoo=bar"))
+      .containsExactly("-Xmx1G", "-Xms256m", "-Dfoo=bar");
+    assertThat(ExecUtils.splitArguments("-Dmessage=\"hello world\" '-Dother=a b' -Dname=it\\'s"))
+      .containsExactly("-Dmessage=hello world", "-Dother=a b", "-Dname=it's");
+    assertThat(ExecUtils.splitArguments("-Dquoted=\"say \\\"hi\\\"\" -Dsingle='no \\escape' -Dempty=\"\""))
+      .containsExactly("-Dquoted=say \"hi\"", "-Dsingle=no \\escape", "-Dempty=");
+    assertThat(ExecUtils.splitArguments("-Dpath=C:\\dir\\file"))
+      .containsExactly("-Dpath=C:\\dir\\file");
+    try {
+      ExecUtils.splitArguments("-Dfoo=\"unbalanced");
+      fail("Unbalanced quotes must be rejected");
+    } catch (IllegalArgumentException e) {
+      // Expected
+    }
+  }
+
   @Test
   public void testIsWindows() throws IllegalAccessException {
     set("windows 98");
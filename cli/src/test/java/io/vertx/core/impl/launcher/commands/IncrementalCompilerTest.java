@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.launcher.commands;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test the incremental compilation used by the redeploy mode.
+ */
+public class IncrementalCompilerTest extends CommandTestBase {
+
+  private File sources;
+  private File classes;
+  private IncrementalCompiler compiler;
+
+  @Before
+  public void prepare() throws IOException {
+    File root = new File("target/junk/compiler");
+    WatcherTest.deleteRecursive(root);
+    sources = new File(root, "src");
+    classes = new File(root, "classes");
+    new File(sources, "org/acme").mkdirs();
+    write("org/acme/A.java", "package org.acme; public class A { public static String name() { return \"a\"; } }");
+    write("org/acme/B.java", "package org.acme; public class B { String hello() { return A.name(); } }");
+    write("org/acme/C.java", "package org.acme; public class C { }");
+    compiler = new IncrementalCompiler(Collections.singletonList(sources), classes, Collections.emptyList(),
+      Collections.emptyList());
+    ChangeSet changes = new ChangeSet();
+    for (String name : new String[]{"A", "B", "C"}) {
+      changes.onAdded(new File(sources, "org/acme/" + name + ".java"));
+    }
+    assertThat(compiler.compile(changes).succeeded()).isTrue();
+  }
+
+  @After
+  public void close() throws IOException {
+    compiler.close();
+  }
+
+  @Test
+  public void testDependentsAreRecompiled() throws IOException {
+    assertThat(new File(classes, "org/acme/B.class")).isFile();
+    File a = write("org/acme/A.java",
+      "package org.acme; public class A { public static String name() { return \"a2\"; } }");
+    ChangeSet changes = new ChangeSet();
+    changes.onModified(a);
+    IncrementalCompiler.Result result = compiler.compile(changes);
+    assertThat(result.succeeded()).isTrue();
+    // A and B (which references A), but not C
+    assertThat(result.compiled()).isEqualTo(2);
+  }
+
+  @Test
+  public void testCompilationErrorsAreReported() throws IOException {
+    File c = write("org/acme/C.java", "package org.acme; public class C { int x = \"nope\"; }");
+    ChangeSet changes = new ChangeSet();
+    changes.onModified(c);
+    IncrementalCompiler.Result result = compiler.compile(changes);
+    assertThat(result.succeeded()).isFalse();
+    assertThat(result.diagnostics()).hasSize(1);
+    assertThat(result.diagnostics().get(0)).contains("C.java:1").contains("error");
+  }
+
+  @Test
+  public void testDeletedSources() {
+    File a = new File(sources, "org/acme/A.java");
+    a.delete();
+    ChangeSet changes = new ChangeSet();
+    changes.onDeleted(a);
+    IncrementalCompiler.Result result = compiler.compile(changes);
+    assertThat(new File(classes, "org/acme/A.class")).doesNotExist();
+    // B references A, and cannot be compiled anymore
+    assertThat(result.succeeded()).isFalse();
+  }
+
+  @Test
+  public void testIndexIsRebuiltFromClasses() throws IOException {
+    compiler.close();
+    compiler = new IncrementalCompiler(Collections.singletonList(sources), classes, Collections.emptyList(),
+      Collections.emptyList());
+    ChangeSet changes = new ChangeSet();
+    changes.onModified(new File(sources, "org/acme/A.java"));
+    assertThat(compiler.compile(changes).compiled()).isEqualTo(2);
+  }
+
+  private File write(String path, String content) throws IOException {
+    File file = new File(sources, path);
+    Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    return file;
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.launcher.commands;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the {@link IsolatedClassLoader} cache and the classpath wildcards.
+ */
+public class IsolatedClassLoaderTest {
+
+  private File lib;
+
+  @Before
+  public void setUp() throws IOException {
+    lib = new File("target/junk/lib");
+    WatcherTest.deleteRecursive(lib);
+    lib.mkdirs();
+    jar("b.jar");
+    jar("a.jar");
+    new File(lib, "readme.txt").createNewFile();
+    IsolatedClassLoader.clearCache();
+  }
+
+  @After
+  public void tearDown() {
+    IsolatedClassLoader.clearCache();
+  }
+
+  private File jar(String name) throws IOException {
+    File file = new File(lib, name);
+    try (JarOutputStream jar = new JarOutputStream(new FileOutputStream(file), new Manifest())) {
+      jar.flush();
+    }
+    return file;
+  }
+
+  @Test
+  public void testWildcardExpansion() {
+    String dir = lib.getPath();
+    assertThat(IsolatedClassLoader.expand(Arrays.asList("classes", dir + "/*", "")))
+      .containsExactly("classes", new File(lib, "a.jar").getPath(), new File(lib, "b.jar").getPath());
+    assertThat(IsolatedClassLoader.expand(Collections.singletonList("target/junk/missing/*"))).isEmpty();
+  }
+
+  @Test
+  public void testClassLoadersAreCached() throws IOException {
+    List<String> classpath = Arrays.asList("target/classes", lib.getPath() + "/*");
+    ClassLoader parent = getClass().getClassLoader();
+    IsolatedClassLoader loader = IsolatedClassLoader.of(classpath, parent);
+    assertThat(loader.isRegisteredAsParallelCapable()).isTrue();
+    assertThat(loader.getURLs()).hasSize(3);
+    assertThat(IsolatedClassLoader.of(Arrays.asList("target/./classes", lib.getPath() + "/*"), parent))
+      .isSameAs(loader);
+    assertThat(IsolatedClassLoader.of(classpath, ClassLoader.getSystemClassLoader().getParent()))
+      .isNotSameAs(loader);
+
+    // A jar changes
+    File a = new File(lib, "a.jar");
+    assertThat(a.setLastModified(a.lastModified() - 10000)).isTrue();
+    IsolatedClassLoader updated = IsolatedClassLoader.of(classpath, parent);
+    assertThat(updated).isNotSameAs(loader);
+    assertThat(IsolatedClassLoader.of(classpath, parent)).isSameAs(updated);
+
+    // A jar is added to the directory
+    jar("c.jar");
+    IsolatedClassLoader added = IsolatedClassLoader.of(classpath, parent);
+    assertThat(added).isNotSameAs(updated);
+    assertThat(added.getURLs()).hasSize(4);
+  }
+
+  @Test
+  public void testRefreshReplacesTheClassLoadersHavingDirectories() {
+    ClassLoader parent = getClass().getClassLoader();
+    List<String> jars = Collections.singletonList(lib.getPath() + "/*");
+    IsolatedClassLoader loader = IsolatedClassLoader.of(jars, parent);
+    assertThat(IsolatedClassLoader.refresh(jars, parent)).isSameAs(loader);
+
+    // The content of a directory is not fingerprinted
+    List<String> classpath = Arrays.asList(lib.getPath(), lib.getPath() + "/*");
+    loader = IsolatedClassLoader.of(classpath, parent);
+    IsolatedClassLoader refreshed = IsolatedClassLoader.refresh(classpath, parent);
+    assertThat(refreshed).isNotSameAs(loader);
+    assertThat(IsolatedClassLoader.of(classpath, parent)).isSameAs(refreshed);
+  }
+
+  @Test
+  public void testCommandsShareTheClassLoader() {
+    RunCommand run = new RunCommand();
+    run.setClasspath("target/classes" + File.pathSeparator + lib.getPath() + "/*");
+    BareCommand bare = new BareCommand();
+    bare.setClasspath("target/classes" + File.pathSeparator + lib.getPath() + "/*");
+    assertThat(run.createClassloader()).isInstanceOf(IsolatedClassLoader.class).isSameAs(bare.createClassloader());
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.launcher.commands;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the computation of the JVM options from the container limits.
+ */
+public class JvmProfileTest {
+
+  private static final long GB = 1024L * 1024 * 1024;
+
+  private File root;
+  private File meminfo;
+
+  @Before
+  public void setUp() {
+    root = new File("target/junk/cgroup");
+    WatcherTest.deleteRecursive(root);
+    root.mkdirs();
+    meminfo = new File(root, "meminfo");
+  }
+
+  private void write(String path, String content) throws IOException {
+    File file = new File(root, path);
+    file.getParentFile().mkdirs();
+    Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testReadCgroupV2Limits() throws IOException {
+    write("meminfo", "MemTotal:        8388608 kB\nMemFree:         4194304 kB\n");
+    write("memory.max", "2147483648\n");
+    write("cpu.max", "150000 100000\n");
+    JvmProfile.Limits limits = JvmProfile.Limits.read(root, meminfo);
+    assertThat(limits.memoryLimited()).isTrue();
+    assertThat(limits.memory()).isEqualTo(2 * GB);
+    assertThat(limits.cpuLimited()).isTrue();
+    assertThat(limits.cpus()).isEqualTo(2);
+
+    write("memory.max", "max\n");
+    write("cpu.max", "max 100000\n");
+    limits = JvmProfile.Limits.read(root, meminfo);
+    assertThat(limits.memoryLimited()).isFalse();
+    assertThat(limits.memory()).isEqualTo(8 * GB);
+    assertThat(limits.cpuLimited()).isFalse();
+    assertThat(limits.cpus()).isEqualTo(Runtime.getRuntime().availableProcessors());
+  }
+
+  @Test
+  public void testReadCgroupV1Limits() throws IOException {
+    write("meminfo", "MemTotal:        8388608 kB\n");
+    write("memory/memory.limit_in_bytes", "536870912\n");
+    write("cpu,cpuacct/cpu.cfs_quota_us", "50000\n");
+    write("cpu,cpuacct/cpu.cfs_period_us", "100000\n");
+    JvmProfile.Limits limits = JvmProfile.Limits.read(root, meminfo);
+    assertThat(limits.memory()).isEqualTo(512L * 1024 * 1024);
+    assertThat(limits.cpus()).isEqualTo(1);
+    assertThat(limits.cpuLimited()).isTrue();
+
+    // No limit
+    write("memory/memory.limit_in_bytes", "9223372036854771712\n");
+    write("cpu,cpuacct/cpu.cfs_quota_us", "-1\n");
+    limits = JvmProfile.Limits.read(root, meminfo);
+    assertThat(limits.memoryLimited()).isFalse();
+    assertThat(limits.cpuLimited()).isFalse();
+  }
+
+  @Test
+  public void testMemoryIsNotLimitedAboveTheHostMemory() throws IOException {
+    write("meminfo", "MemTotal:        2097152 kB\n");
+    write("memory.max", "4294967296\n");
+    JvmProfile.Limits limits = JvmProfile.Limits.read(root, meminfo);
+    assertThat(limits.memoryLimited()).isFalse();
+    assertThat(limits.memory()).isEqualTo(2 * GB);
+
+    // Without /proc/meminfo, any value set by the cgroup is a limit
+    meminfo.delete();
+    limits = JvmProfile.Limits.read(root, meminfo);
+    assertThat(limits.memoryLimited()).isTrue();
+    assertThat(limits.memory()).isEqualTo(4 * GB);
+  }
+
+  @Test
+  public void testProfiles() {
+    JvmProfile.Limits limits = new JvmProfile.Limits(4 * GB, true, 4, true);
+    assertThat(new JvmProfile("throughput", limits, 17).options(Collections.emptyList())).containsExactly(
+      "-Xmx3072m", "-Xms3072m", "-XX:MaxDirectMemorySize=409m", "-XX:+UseParallelGC", "-XX:ActiveProcessorCount=4",
+      "-Xshare:auto");
+    assertThat(new JvmProfile("latency", limits, 17).options(Collections.emptyList()))
+      .contains("-Xmx2867m", "-Xms2867m", "-XX:+UseZGC", "-XX:+AlwaysPreTouch");
+    assertThat(new JvmProfile("latency", limits, 11).options(Collections.emptyList()))
+      .contains("-XX:+UseG1GC", "-XX:MaxGCPauseMillis=50")
+      .doesNotContain("-XX:+UseZGC");
+    assertThat(new JvmProfile("auto", limits, 17).options(Collections.emptyList()))
+      .contains("-Xmx2867m", "-XX:+UseG1GC");
+
+    JvmProfile.Limits small = new JvmProfile.Limits(512L * 1024 * 1024, true, 1, false);
+    assertThat(new JvmProfile("auto", small, 17).options(Collections.emptyList())).containsExactly(
+      "-Xmx256m", "-Xms32m", "-XX:MaxDirectMemorySize=25m", "-XX:+UseSerialGC", "-Xss512k",
+      "-XX:TieredStopAtLevel=1", "-XX:ReservedCodeCacheSize=32m", "-Xshare:auto");
+  }
+
+  @Test
+  public void testHeapIsNotFixedWithoutContainerLimit() {
+    JvmProfile.Limits host = new JvmProfile.Limits(64 * GB, false, 8, false);
+    assertThat(new JvmProfile("throughput", host, 17).options(Collections.emptyList()))
+      .contains("-Xmx49152m", "-Xms6144m")
+      .doesNotContain("-Xms49152m");
+    assertThat(new JvmProfile("latency", host, 17).options(Collections.emptyList()))
+      .contains("-Xmx45875m", "-Xms5734m", "-XX:+UseZGC")
+      .doesNotContain("-Xms45875m", "-XX:+AlwaysPreTouch");
+  }
+
+  @Test
+  public void testUserOptionsTakePrecedence() {
+    JvmProfile.Limits limits = new JvmProfile.Limits(4 * GB, true, 4, false);
+    List<String> user = Arrays.asList("-Xmx1g", "-XX:+UseShenandoahGC", "-Dfoo=bar");
+    assertThat(new JvmProfile("throughput", limits, 17).options(user)).containsExactly(
+      "-Xms3072m", "-XX:MaxDirectMemorySize=409m", "-Xshare:auto", "-Xmx1g", "-XX:+UseShenandoahGC", "-Dfoo=bar");
+  }
+
+  @Test
+  public void testDivide() {
+    JvmProfile.Limits limits = new JvmProfile.Limits(4 * GB, true, 8, true);
+    JvmProfile profile = new JvmProfile("throughput", limits, 17).divide(4);
+    assertThat(profile.limits().memory()).isEqualTo(GB);
+    assertThat(profile.limits().cpus()).isEqualTo(2);
+    assertThat(profile.options(Collections.emptyList()))
+      .contains("-Xmx768m", "-Xms768m", "-XX:ActiveProcessorCount=2");
+
+    // Sharing the host does not make it a container
+    profile = new JvmProfile("throughput", new JvmProfile.Limits(4 * GB, false, 8, false), 17).divide(4);
+    assertThat(profile.limits().memoryLimited()).isFalse();
+    assertThat(profile.limits().cpuLimited()).isFalse();
+    assertThat(profile.options(Collections.emptyList()))
+      .contains("-Xmx768m")
+      .doesNotContain("-Xms768m", "-XX:ActiveProcessorCount=2");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownProfile() {
+    new JvmProfile("fast", new JvmProfile.Limits(GB, false, 1, false), 17);
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.launcher.commands;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the {@link LogPump}.
+ */
+public class LogPumpTest {
+
+  private File dir;
+
+  @Before
+  public void setUp() {
+    dir = new File("target/junk/logs");
+    WatcherTest.deleteRecursive(dir);
+  }
+
+  private List<String> lines(String name) throws IOException {
+    return Files.readAllLines(new File(dir, name).toPath(), StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testLinesOfSeveralStreamsAreNotMixed() throws IOException {
+    LogPump pump = new LogPump(new File(dir, "app.log"), 1024 * 1024, 2, 1024 * 1024);
+    PrintStream out = new PrintStream(pump.stream(), true);
+    PrintStream err = new PrintStream(pump.stream(), true);
+    out.print("hello ");
+    err.println("error");
+    out.println("world");
+    err.print("no new line");
+    err.close();
+    pump.close();
+
+    assertThat(lines("app.log")).containsExactly("error", "hello world", "no new line");
+    assertThat(pump.dropped()).isZero();
+  }
+
+  @Test
+  public void testRotation() throws IOException {
+    LogPump pump = new LogPump(new File(dir, "app.log"), 20, 2, 1024 * 1024);
+    PrintStream out = new PrintStream(pump.stream(), true);
+    for (int i = 0; i < 5; i++) {
+      // 10 bytes per line, 2 lines per file
+      out.println("line-" + i + "...");
+    }
+    pump.close();
+
+    assertThat(lines("app.log")).containsExactly("line-4...");
+    assertThat(lines("app.log.1")).containsExactly("line-2...", "line-3...");
+    assertThat(lines("app.log.2")).containsExactly("line-0...", "line-1...");
+    assertThat(new File(dir, "app.log.3")).doesNotExist();
+  }
+
+  @Test
+  public void testLinesAreDroppedWhenTheQueueIsFull() throws IOException {
+    LogPump pump = new LogPump(new File(dir, "app.log"), 1024 * 1024, 2, 10);
+    PrintStream out = new PrintStream(pump.stream(), true);
+    for (int i = 0; i < 3; i++) {
+      out.println("a line too long to be queued");
+    }
+    out.println("short");
+    pump.close();
+
+    assertThat(pump.dropped()).isEqualTo(3);
+    assertThat(lines("app.log")).containsExactly("[log-pump] 3 lines dropped", "short");
+    // Closed, ignored
+    out.println("ignored");
+    assertThat(pump.dropped()).isEqualTo(3);
+  }
+
+  @Test
+  public void testLinesAreWrittenAfterAFlush() throws IOException {
+    LogPump pump = new LogPump(new File(dir, "app.log"), 1024 * 1024, 2, 1024 * 1024);
+    PrintStream out = new PrintStream(pump.stream(), true);
+    out.println("before");
+    pump.flush();
+    assertThat(lines("app.log")).containsExactly("before");
+
+    // Still accepted, as the other shutdown hooks keep logging
+    out.println("after");
+    pump.flush();
+    assertThat(lines("app.log")).containsExactly("before", "after");
+    pump.close();
+  }
+}
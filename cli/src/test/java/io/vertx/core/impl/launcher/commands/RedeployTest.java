@@ -42,8 +42,6 @@ public class RedeployTest extends CommandTestBase {
 
   @After
   public void tearDown() throws InterruptedException {
-    super.tearDown();
-
     final RunCommand run = (RunCommand) cli.getExistingCommandInstance("run");
     if (run != null) {
       Vertx vertx = run.vertx;
@@ -56,6 +54,9 @@ public class RedeployTest extends CommandTestBase {
     FakeClusterManager.reset();
 
     waitForTermination();
+
+    // The application is stopped using the registry of the test.
+    super.tearDown();
   }
 
   @Test
@@ -73,6 +74,41 @@ public class RedeployTest extends CommandTestBase {
     });
   }
 
+  @Test
+  public void testReloadInPlace() throws IOException, InterruptedException {
+    File webroot = new File("target/junk/reload-webroot");
+    WatcherTest.deleteRecursive(webroot);
+    webroot.mkdirs();
+    cli.dispatch(new Launcher(), new String[]{"run",
+      HttpTestVerticle.class.getName(), "--redeploy=**" + File.separator + "*.txt",
+      "--redeploy-reload-in-place=target/junk/reload-webroot/**",
+      "--launcher-class=" + Launcher.class.getName()
+    });
+    assertWaitUntil(() -> {
+      try {
+        return RunCommandTest.getHttpCode() == 200;
+      } catch (IOException e) {
+        return false;
+      }
+    });
+    RunCommand run = (RunCommand) cli.getExistingCommandInstance("run");
+    ApplicationRegistry registry = ApplicationRegistry.create();
+    assertWaitUntil(() -> {
+      ApplicationRegistry.Entry entry = registry.lookup(run.vertxApplicationBackgroundId);
+      return entry != null && entry.controlEndpoint() != null;
+    });
+    long pid = registry.lookup(run.vertxApplicationBackgroundId).pid();
+
+    // Wait until the webroot directory is watched
+    Thread.sleep(1000);
+    new File(webroot, "index.txt").createNewFile();
+
+    // Applied by the application, not redeployed
+    assertWaitUntil(() -> run.watcher.metrics().histogram(RedeployMetrics.RELOAD_DURATION).count() == 1);
+    assertThat(run.watcher.metrics().histogram(RedeployMetrics.REDEPLOY_DURATION).count()).isZero();
+    assertThat(registry.lookup(run.vertxApplicationBackgroundId).pid()).isEqualTo(pid);
+  }
+
   @Test
   public void testStartingApplicationInRedeployModeWithInlineConf() throws IOException {
     int random = (int) (Math.random() * 100);
@@ -236,6 +272,40 @@ public class RedeployTest extends CommandTestBase {
     }, 20000);
   }
 
+  @Test
+  public void testRedeploymentWithStandby() throws IOException {
+    File file = new File("target/junk/standby/foo.txt");
+    file.getParentFile().mkdirs();
+    if (file.exists()) {
+      file.delete();
+    }
+    cli.dispatch(new Launcher(), new String[]{"run",
+      HttpTestVerticle.class.getName(), "--redeploy=**" + File.separator + "*.txt",
+      "--launcher-class=" + Launcher.class.getName(),
+      "--redeploy-standby"
+    });
+    assertWaitUntil(() -> {
+      try {
+        return RunCommandTest.getHttpCode() == 200;
+      } catch (IOException e) {
+        return false;
+      }
+    }, 20000);
+    JsonObject content = RunCommandTest.getContent();
+    assertThat(content.getString("id")).endsWith("-redeploy");
+    long start1 = content.getLong("startTime");
+
+    file.createNewFile();
+
+    assertWaitUntil(() -> {
+      try {
+        return RunCommandTest.getHttpCode() == 200 && start1 != RunCommandTest.getContent().getLong("startTime");
+      } catch (IOException e) {
+        return false;
+      }
+    }, 20000);
+  }
+
   @Ignore
   @Test
   public void testStartingApplicationInRedeployModeWithInlineOptions() throws IOException {
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2011-2025 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.launcher.commands;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.http.HttpServer;
+import org.junit.After;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks that the servers of unmodified applications share their port when the launcher enables SO_REUSEPORT.
+ */
+public class ReusePortTransportTest {
+
+  private final List<Vertx> instances = new ArrayList<>();
+
+  @After
+  public void tearDown() throws Exception {
+    for (Vertx vertx : instances) {
+      vertx.close().await(10, TimeUnit.SECONDS);
+    }
+  }
+
+  private Vertx create(boolean reusePort) {
+    VertxOptions options = new VertxOptions();
+    Vertx vertx = reusePort
+      ? Vertx.builder().with(options).withTransport(ReusePortTransport.select(options)).build()
+      : Vertx.vertx(options);
+    instances.add(vertx);
+    return vertx;
+  }
+
+  @Test
+  public void testServersShareThePort() throws Exception {
+    if (!ExecUtils.isLinux()) {
+      // SO_REUSEPORT balances the connections on Linux only.
+      return;
+    }
+    HttpServer first = create(true).createHttpServer().requestHandler(request -> request.response().end())
+      .listen(0).await(10, TimeUnit.SECONDS);
+    int port = first.actualPort();
+
+    HttpServer second = create(true).createHttpServer().requestHandler(request -> request.response().end())
+      .listen(port).await(10, TimeUnit.SECONDS);
+    assertThat(second.actualPort()).isEqualTo(port);
+
+    // Without the option, the port cannot be shared
+    assertThatThrownBy(() -> create(false).createHttpServer().requestHandler(request -> request.response().end())
+      .listen(port).await(10, TimeUnit.SECONDS)).hasMessageContaining("Address already in use");
+  }
+
+  @Test
+  public void testEveryMethodIsForwarded() throws Exception {
+    // The transport SPI is internal, a method added by a vert.x upgrade must not silently fall back to its default
+    Class<?> implementation = ReusePortTransport.select(new VertxOptions()).implementation().getClass();
+    for (Method method : io.vertx.core.spi.transport.Transport.class.getMethods()) {
+      if (Modifier.isStatic(method.getModifiers())) {
+        continue;
+      }
+      assertThat(implementation.getMethod(method.getName(), method.getParameterTypes()).getDeclaringClass())
+        .as(method.toString())
+        .isEqualTo(implementation);
+    }
+  }
+}
@@ -12,16 +12,21 @@
 package io.vertx.core.impl.launcher.commands;
 
 import io.vertx.core.Launcher;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.PrintStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
 
 /**
  * Check the behavior of the start, stop and list commands.
@@ -211,6 +216,191 @@ public class StartStopListCommandsTest extends CommandTestBase {
     assertThat(output.toString()).hasLineCount(2).contains("No vert.x application found");
   }
 
+  @Test
+  public void testStartListAsJsonStop() throws InterruptedException {
+    record();
+
+    cli.dispatch(new String[]{"start", "run", HttpTestVerticle.class.getName(),
+      "--launcher-class", Launcher.class.getName(), "--vertx-id=json"});
+    waitForStartup();
+
+    output.reset();
+    cli.dispatch(new String[]{"list", "--format=json"});
+    JsonArray applications = new JsonArray(output.toString());
+    assertThat(applications).hasSize(1);
+    JsonObject application = applications.getJsonObject(0);
+    assertThat(application.getString("id")).isEqualTo("json");
+    assertThat(application.getString("details")).isEqualTo(HttpTestVerticle.class.getName());
+    assertThat(application.getLong("pid")).isPositive();
+    assertThat(application.getLong("uptime")).isNotNegative();
+    if (!ExecUtils.isWindows()) {
+      // Registered application, reached through its control endpoint.
+      assertWaitUntil(() -> {
+        output.reset();
+        cli.dispatch(new String[]{"list", "--format=json"});
+        return "running".equals(new JsonArray(output.toString()).getJsonObject(0).getString("state"));
+      });
+    }
+    if (ExecUtils.isLinux()) {
+      assertThat(application.getLong("rss")).isPositive();
+      assertThat(application.getInteger("threads")).isPositive();
+    }
+
+    output.reset();
+    cli.dispatch(new String[]{"list"});
+    assertThat(output.toString()).hasLineCount(2).contains("json\t" + HttpTestVerticle.class.getName() + "\tpid=");
+
+    output.reset();
+    // pass --redeploy to not call system.exit
+    cli.dispatch(new String[]{"stop", "json", "--redeploy"});
+    waitForShutdown();
+
+    assertWaitUntil(() -> {
+      output.reset();
+      cli.dispatch(new String[]{"list", "--format=json"});
+      return new JsonArray(output.toString()).isEmpty();
+    });
+  }
+
+  @Test
+  public void testStartWaitReady() throws IOException {
+    if (ExecUtils.isWindows()) {
+      // Test skipped on windows, applications are not registered.
+      return;
+    }
+    record();
+
+    cli.dispatch(new String[]{"start", "run", HttpTestVerticle.class.getName(),
+      "--launcher-class", Launcher.class.getName(), "--vertx-id=ready", "--wait-ready"});
+    assertThat(output.toString()).containsPattern("Application 'ready' ready in [0-9]+ ms");
+    // No need to wait, the verticle is deployed.
+    assertThat(getHttpCode()).isEqualTo(200);
+
+    // pass --redeploy to not call system.exit
+    cli.dispatch(new String[]{"stop", "ready", "--redeploy"});
+    waitForShutdown();
+  }
+
+  @Test
+  public void testStartWithJvmProfile() throws IOException {
+    if (ExecUtils.isWindows()) {
+      // Test skipped on windows, applications are not registered.
+      return;
+    }
+    record();
+
+    cli.dispatch(new String[]{"start", "run", HttpTestVerticle.class.getName(),
+      "--launcher-class", Launcher.class.getName(), "--vertx-id=profiled", "--wait-ready", "--jvm-profile=low-memory"});
+    assertThat(output.toString()).contains("Using the 'low-memory' JVM profile");
+    assertThat(output.toString()).containsPattern("Application 'profiled' ready in [0-9]+ ms");
+    assertThat(getHttpCode()).isEqualTo(200);
+
+    // pass --redeploy to not call system.exit
+    cli.dispatch(new String[]{"stop", "profiled", "--redeploy"});
+    waitForShutdown();
+  }
+
+  @Test
+  public void testWaitReadyFailures() throws Exception {
+    if (ExecUtils.isWindows()) {
+      return;
+    }
+    StartCommand command = new StartCommand() {
+      {
+        out = new PrintStream(output);
+      }
+    };
+
+    Process process = new ProcessBuilder("sh", "-c", "exit " + ExecUtils.VERTX_DEPLOYMENT_EXIT_CODE).start();
+    assertThat(command.awaitReadiness("not-registered", process, 5000)).isEqualTo(ExecUtils.VERTX_DEPLOYMENT_EXIT_CODE);
+    assertThat(output.toString()).contains("terminated with status " + ExecUtils.VERTX_DEPLOYMENT_EXIT_CODE);
+
+    process = new ProcessBuilder("sleep", "5").start();
+    try {
+      assertThat(command.awaitReadiness("not-registered", process, 200)).isEqualTo(ExecUtils.READINESS_TIMEOUT_EXIT_CODE);
+      assertThat(output.toString()).contains("Application 'not-registered' not ready after");
+    } finally {
+      process.destroyForcibly();
+    }
+  }
+
+  @Test
+  public void testStartListStopGroup() throws IOException {
+    if (!ExecUtils.isLinux()) {
+      // Test skipped when SO_REUSEPORT or taskset may not be available.
+      return;
+    }
+    record();
+
+    cli.dispatch(new String[]{"start", "run", HttpTestVerticle.class.getName(),
+      "--launcher-class", Launcher.class.getName(), "--vertx-id=group", "--processes=2", "--pin-cpus",
+      "--wait-ready"});
+    assertThat(output.toString())
+      .contains("group-1 (pid ")
+      .contains("group-2 (pid ")
+      .containsPattern("Application 'group-1' ready in [0-9]+ ms")
+      .containsPattern("Application 'group-2' ready in [0-9]+ ms");
+    assertThat(getHttpCode()).isEqualTo(200);
+
+    output.reset();
+    cli.dispatch(new String[]{"list"});
+    assertThat(output.toString()).hasLineCount(3)
+      .contains("group-1\t")
+      .contains("group-2\t")
+      .contains("\tgroup=group");
+
+    output.reset();
+    // pass --redeploy to not call system.exit
+    cli.dispatch(new String[]{"stop", "group", "--redeploy"});
+    assertThat(output.toString())
+      .contains("Application 'group-1' terminated with status 0")
+      .contains("Application 'group-2' terminated with status 0");
+    waitForShutdown();
+  }
+
+  @Test
+  public void testStartWithLogPump() throws IOException {
+    if (ExecUtils.isWindows()) {
+      // Test skipped on windows, applications are not registered.
+      return;
+    }
+    File log = ApplicationRegistry.create().logFile("pumped");
+    log.delete();
+    record();
+
+    cli.dispatch(new String[]{"start", "run", HttpTestVerticle.class.getName(),
+      "--launcher-class", Launcher.class.getName(), "--vertx-id=pumped", "--wait-ready", "--log-pump"});
+    assertThat(output.toString()).contains("Writing the application output to " + log);
+    assertThat(getHttpCode()).isEqualTo(200);
+
+    // pass --redeploy to not call system.exit
+    cli.dispatch(new String[]{"stop", "pumped", "--redeploy"});
+    waitForShutdown();
+    // The pump is flushed when the application exits.
+    assertThat(new String(Files.readAllBytes(log.toPath()), StandardCharsets.UTF_8))
+      .contains("Succeeded in deploying verticle");
+  }
+
+  @Test
+  public void testResourceUsageFormatting() {
+    assertThat(ListCommand.duration(null)).isEqualTo("-");
+    assertThat(ListCommand.duration(4200L)).isEqualTo("4.2s");
+    assertThat(ListCommand.duration(62_000L)).isEqualTo("1m02s");
+    assertThat(ListCommand.duration(3_723_000L)).isEqualTo("1h02m03s");
+    assertThat(ListCommand.memory(null)).isEqualTo("-");
+    assertThat(ListCommand.memory(2048L)).isEqualTo("2.0KB");
+    assertThat(ListCommand.memory(3L * 1024 * 1024)).isEqualTo("3.0MB");
+  }
+
+  @Test
+  public void testListWithAnUnknownFormat() {
+    record();
+    cli.dispatch(new String[]{"list", "--format=yaml"});
+    assertThat(output.toString())
+      .contains("Unknown format 'yaml'")
+      .doesNotContain("Listing vert.x applications...");
+  }
+
   @Test
   public void testStartListStopWithIdAndAnotherArgument() throws InterruptedException, IOException {
     record();
@@ -318,6 +508,57 @@ public class StartStopListCommandsTest extends CommandTestBase {
       .contains("Cannot find process for application using the id");
   }
 
+  @Test
+  public void testStopWaitsForTheTerminationOfSeveralApplications() throws IOException {
+    if (ExecUtils.isWindows()) {
+      // Test skipped on windows, because on windows we do not check whether or not the pid exists.
+      return;
+    }
+    record();
+
+    cli.dispatch(new String[]{"start", "run", HttpTestVerticle.class.getName(),
+      "--launcher-class", Launcher.class.getName(), "--vertx-id=first"});
+    waitForStartup();
+
+    output.reset();
+    // pass --redeploy to not call system.exit
+    cli.dispatch(new String[]{"stop", "first", "this-process-does-not-exist", "--redeploy"});
+    assertThat(output.toString())
+      .contains("Stopping vert.x application 'first'")
+      .contains("Stopping vert.x application 'this-process-does-not-exist'")
+      .contains("Cannot find process for application using the id 'this-process-does-not-exist'")
+      .containsPattern("Application 'first' terminated with status 0 in [0-9]+ ms");
+
+    // The command returns once the application has terminated.
+    try {
+      getHttpCode();
+      fail("The application should have been stopped");
+    } catch (IOException e) {
+      // Expected.
+    }
+  }
+
+  @Test
+  public void testTerminationEscalation() throws Exception {
+    if (ExecUtils.isWindows()) {
+      return;
+    }
+    Process process = new ProcessBuilder("sh", "-c", "trap '' TERM; sleep 5 & wait").start();
+    // Let the shell install its trap.
+    Thread.sleep(500);
+    StopCommand.Termination termination = StopCommand.terminate(process.toHandle(), 200).join();
+    assertThat(termination.terminated).isTrue();
+    assertThat(termination.forced).isTrue();
+    assertThat(termination.duration).isGreaterThanOrEqualTo(200);
+    assertThat(process.isAlive()).isFalse();
+
+    process = new ProcessBuilder("sleep", "5").start();
+    termination = StopCommand.terminate(process.toHandle(), 5000).join();
+    assertThat(termination.terminated).isTrue();
+    assertThat(termination.forced).isFalse();
+    assertThat(termination.duration).isLessThan(5000);
+  }
+
   @Test
   public void testVerticleExtraction() {
     String command = "vertx run verticle test1 -Dvertx.id=xxx --cluster";
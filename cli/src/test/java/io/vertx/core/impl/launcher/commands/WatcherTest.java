@@ -11,12 +11,14 @@
 
 package io.vertx.core.impl.launcher.commands;
 
+import io.vertx.core.json.JsonObject;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -291,6 +293,265 @@ public class WatcherTest extends CommandTestBase {
     System.out.println("Creation change applied in " + (end - begin) + " ms");
   }
 
+  @Test
+  public void testRedeployMetrics() throws IOException {
+    File metricsFile = new File(root.getParentFile(), "redeploy-metrics.json");
+    metricsFile.delete();
+    watcher.setMetricsFile(metricsFile);
+    watcher.watch();
+
+    // Initial deployment
+    assertWaitUntil(() -> deploy.get() == 1);
+
+    File file = new File(root, "foo.txt");
+    file.createNewFile();
+
+    // undeployment followed by redeployment
+    assertWaitUntil(() -> undeploy.get() == 1 && deploy.get() == 2);
+    assertWaitUntil(metricsFile::isFile);
+
+    RedeployMetrics metrics = watcher.metrics();
+    assertThat(metrics.histogram(RedeployMetrics.SCAN_DURATION).count()).isGreaterThan(0);
+    assertThat(metrics.histogram(RedeployMetrics.FILES_VISITED).max()).isGreaterThan(0);
+    assertThat(metrics.histogram(RedeployMetrics.DETECTION_LATENCY).count()).isEqualTo(1);
+    assertThat(metrics.histogram(RedeployMetrics.GRACE_PERIOD_WAIT).count()).isEqualTo(1);
+    assertThat(metrics.histogram(RedeployMetrics.STOP_DURATION).count()).isEqualTo(1);
+    assertThat(metrics.histogram(RedeployMetrics.DEPLOY_DURATION).count()).isEqualTo(1);
+    assertThat(metrics.histogram(RedeployMetrics.REDEPLOY_DURATION).count()).isEqualTo(1);
+    assertThat(metrics.summary()).contains(RedeployMetrics.DETECTION_LATENCY + ": count=1");
+
+    JsonObject json = new JsonObject(new String(Files.readAllBytes(metricsFile.toPath()), StandardCharsets.UTF_8));
+    assertThat(json.getJsonObject(RedeployMetrics.REDEPLOY_DURATION).getLong("count")).isEqualTo(1);
+  }
+
+  @Test
+  public void testExcludedDirectoriesArePruned() throws IOException, InterruptedException {
+    File excluded = new File(root, "target/classes");
+    excluded.mkdirs();
+    watcher = createWatcher(Arrays.asList("target/**", "**/*.tmp.txt"), false);
+    watcher.watch();
+
+    // Initial deployment
+    assertWaitUntil(() -> deploy.get() == 1);
+
+    new File(excluded, "foo.txt").createNewFile();
+    new File(root, "foo.tmp.txt").createNewFile();
+
+    Thread.sleep(500);
+    assertThat(undeploy.get()).isEqualTo(0);
+    assertThat(deploy.get()).isEqualTo(1);
+
+    new File(root, "foo.txt").createNewFile();
+    assertWaitUntil(() -> undeploy.get() == 1 && deploy.get() == 2);
+  }
+
+  @Test
+  public void testIgnoreFiles() throws IOException, InterruptedException {
+    // Make the watched directory the top of the repository, so the project .gitignore is not used.
+    new File(root, ".git").mkdirs();
+    new File(root, "build").mkdirs();
+    new File(root, "sub").mkdirs();
+    Files.write(new File(root, ".gitignore").toPath(),
+      Arrays.asList("# comment", "build/", "*.log.txt", "!keep.log.txt"), StandardCharsets.UTF_8);
+    Files.write(new File(root, "sub/.vertxignore").toPath(),
+      Collections.singletonList("/local.txt"), StandardCharsets.UTF_8);
+    watcher = createWatcher(null, true);
+    watcher.watch();
+
+    // Initial deployment
+    assertWaitUntil(() -> deploy.get() == 1);
+
+    new File(root, ".git/HEAD.txt").createNewFile();
+    new File(root, "build/foo.txt").createNewFile();
+    new File(root, "sub/foo.log.txt").createNewFile();
+    new File(root, "sub/local.txt").createNewFile();
+
+    Thread.sleep(500);
+    assertThat(undeploy.get()).isEqualTo(0);
+    assertThat(deploy.get()).isEqualTo(1);
+
+    new File(root, "sub/keep.log.txt").createNewFile();
+    assertWaitUntil(() -> undeploy.get() == 1 && deploy.get() == 2);
+  }
+
+  @Test
+  public void testIgnoreRuleParsing() {
+    assertThat(FileExclusions.Rule.parse("")).isNull();
+    assertThat(FileExclusions.Rule.parse("# comment")).isNull();
+    FileExclusions.Rule rule = FileExclusions.Rule.parse("!/target/");
+    assertThat(rule.negated).isTrue();
+    assertThat(rule.directoryOnly).isTrue();
+    assertThat(rule.pattern.matches("target")).isTrue();
+    assertThat(rule.pattern.matches("sub" + File.separator + "target")).isFalse();
+    rule = FileExclusions.Rule.parse("*.class");
+    assertThat(rule.negated).isFalse();
+    assertThat(rule.directoryOnly).isFalse();
+    assertThat(rule.pattern.matches("A.class")).isTrue();
+    assertThat(rule.pattern.matches("a" + File.separator + "b" + File.separator + "A.class")).isTrue();
+  }
+
+  @Test
+  public void testReloadInPlace() throws IOException, InterruptedException {
+    File webroot = new File(root, "webroot");
+    webroot.mkdirs();
+    List<ChangeSet> reloaded = Collections.synchronizedList(new ArrayList<>());
+    watcher.setReloadInPlace(new PatternChangeClassifier(root, Collections.singletonList("webroot/**")),
+      reloaded::add);
+    watcher.watch();
+
+    // Initial deployment
+    assertWaitUntil(() -> deploy.get() == 1);
+
+    // Wait until the webroot directory is watched
+    Thread.sleep(500);
+    File asset = new File(webroot, "index.txt");
+    asset.createNewFile();
+
+    // reload in place, no redeployment
+    assertWaitUntil(() -> reloaded.size() == 1);
+    assertThat(reloaded.get(0).added()).containsExactly(asset.getAbsoluteFile());
+    assertThat(undeploy.get()).isEqualTo(0);
+    assertThat(deploy.get()).isEqualTo(1);
+    assertThat(watcher.metrics().histogram(RedeployMetrics.RELOAD_DURATION).count()).isEqualTo(1);
+
+    // A change outside of the reload in place patterns triggers a redeployment
+    new File(root, "foo.txt").createNewFile();
+    assertWaitUntil(() -> undeploy.get() == 1 && deploy.get() == 2);
+    assertThat(reloaded).hasSize(1);
+  }
+
+  @Test
+  public void testReloadInPlaceExecutesTheUserCommand() throws IOException, InterruptedException {
+    if (ExecUtils.isWindows()) {
+      // The test command is a shell command.
+      return;
+    }
+    watcher.close();
+    File webroot = new File(root, "webroot");
+    webroot.mkdirs();
+    File copied = new File(root.getParentFile(), "watcher-copied.txt");
+    copied.delete();
+    List<ChangeSet> reloaded = Collections.synchronizedList(new ArrayList<>());
+    watcher = new Watcher(root, Collections.singletonList("**" + File.separator + "*.txt"), next -> {
+      deploy.incrementAndGet();
+      if (next != null) {
+        next.handle(null);
+      }
+    }, next -> {
+      undeploy.incrementAndGet();
+      if (next != null) {
+        next.handle(null);
+      }
+    }, "cp " + new File(webroot, "index.txt").getAbsolutePath() + " " + copied.getAbsolutePath(), 10, 10)
+      .setReloadInPlace(new PatternChangeClassifier(root, Collections.singletonList("webroot/**")), changes -> {
+        // The user command has been executed before
+        assertThat(copied).isFile();
+        reloaded.add(changes);
+      });
+    watcher.watch();
+    assertWaitUntil(() -> deploy.get() == 1);
+    // Closing the previous watcher has undeployed
+    int undeployed = undeploy.get();
+
+    // Wait until the webroot directory is watched
+    Thread.sleep(500);
+    new File(webroot, "index.txt").createNewFile();
+    assertWaitUntil(() -> reloaded.size() == 1);
+    assertThat(undeploy.get()).isEqualTo(undeployed);
+    assertThat(deploy.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void testRedeploymentAfterCompilationErrorsAreFixed() throws IOException {
+    File sources = new File(root, "src");
+    File classes = new File(root.getParentFile(), "watcher-classes");
+    deleteRecursive(classes);
+    new File(sources, "org/acme").mkdirs();
+    File a = write(new File(sources, "org/acme/A.java"),
+      "package org.acme; public class A { public static String name() { return \"a\"; } }");
+    File b = write(new File(sources, "org/acme/B.java"),
+      "package org.acme; public class B { String hello() { return A.name(); } }");
+    IncrementalCompiler compiler = new IncrementalCompiler(Collections.singletonList(sources), classes,
+      Collections.emptyList(), Collections.emptyList());
+    try {
+      ChangeSet changes = new ChangeSet();
+      changes.onAdded(a);
+      changes.onAdded(b);
+      assertThat(compiler.compile(changes).succeeded()).isTrue();
+
+      watcher.close();
+      watcher = new Watcher(root, Collections.singletonList("**" + File.separator + "*.java"), next -> {
+        deploy.incrementAndGet();
+        if (next != null) {
+          next.handle(null);
+        }
+      }, next -> {
+        undeploy.incrementAndGet();
+        if (next != null) {
+          next.handle(null);
+        }
+      }, null, 10, 10).setCompiler(compiler);
+      watcher.watch();
+
+      // Initial deployment
+      assertWaitUntil(() -> deploy.get() == 1);
+
+      // Break A, its dependent B is compiled too
+      long now = System.currentTimeMillis();
+      write(a, "package org.acme; public class A { public static String name() { return 1; } }");
+      a.setLastModified(now + 2000);
+      assertWaitUntil(() -> watcher.metrics().histogram(RedeployMetrics.COMPILE_DURATION).count() == 1);
+      assertThat(deploy.get()).isEqualTo(1);
+
+      // Fix A, B must be compiled again
+      write(a, "package org.acme; public class A { public static String name() { return \"a2\"; } }");
+      a.setLastModified(now + 4000);
+      assertWaitUntil(() -> deploy.get() == 2);
+      assertThat(new File(classes, "org/acme/A.class")).isFile();
+      assertThat(new File(classes, "org/acme/B.class")).isFile();
+    } finally {
+      compiler.close();
+    }
+  }
+
+  private static File write(File file, String content) throws IOException {
+    Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    return file;
+  }
+
+  @Test
+  public void testChangeSetCollapsesChanges() {
+    File a = new File(root, "a.txt");
+    File b = new File(root, "b.txt");
+    File c = new File(root, "c.txt");
+    ChangeSet changes = new ChangeSet();
+    changes.onAdded(a);
+    changes.onModified(a);
+    changes.onAdded(b);
+    changes.onDeleted(b);
+    changes.onDeleted(c);
+    changes.onAdded(c);
+    assertThat(changes.added()).containsExactly(a);
+    assertThat(changes.modified()).containsExactly(c);
+    assertThat(changes.deleted()).isEmpty();
+    assertThat(changes.size()).isEqualTo(2);
+  }
+
+  private Watcher createWatcher(List<String> excludes, boolean useIgnoreFiles) {
+    return new Watcher(root, Collections.singletonList("**" + File.separator + "*.txt"), excludes, useIgnoreFiles,
+      next -> {
+        deploy.incrementAndGet();
+        if (next != null) {
+          next.handle(null);
+        }
+      }, next -> {
+      undeploy.incrementAndGet();
+      if (next != null) {
+        next.handle(null);
+      }
+    }, null, 10, 10);
+  }
+
   @Test
   public void testRootExtraction() {
     List<String> patterns = new ArrayList<>();